@@ -1,6 +1,11 @@
 package ru.practicum.shareit.booking;
 
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import ru.practicum.shareit.HeaderNames;
 
 @FeignClient(
         name = "shareit-server",
@@ -8,4 +13,8 @@ import org.springframework.cloud.openfeign.FeignClient;
         contextId = "bookingClient"
 )
 public interface BookingClient extends BookingApi {
+
+    // сырой Response: тело не декодируется и не буферизуется, а отдаётся потоком
+    @RequestMapping(method = RequestMethod.GET, value = "/bookings/owner/export")
+    Response exportOwnerBookings(@RequestHeader(HeaderNames.USER_ID) long userId);
 }
@@ -1,18 +1,30 @@
 package ru.practicum.shareit.booking;
 
+import feign.Response;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.HeaderNames;
+import ru.practicum.shareit.booking.dto.BookingBatchResponseDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
 import ru.practicum.shareit.validate.OnCreate;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
+@Validated
 public class BookingController implements BookingApi {
 
     private final BookingClient bookingClient;
@@ -30,11 +42,21 @@ public class BookingController implements BookingApi {
         return bookingClient.approveOrReject(bookingId, ownerId, approved);
     }
 
+    @Override
+    public ResponseEntity<BookingBatchResponseDto> approveOrRejectBatch(long ownerId, List<BookingDecisionDto> decisions) {
+        return bookingClient.approveOrRejectBatch(ownerId, decisions);
+    }
+
     @Override
     public ResponseEntity<BookingResponseDto> getBooking(long userId, long bookingId) {
         return bookingClient.getBooking(userId, bookingId);
     }
 
+    @Override
+    public ResponseEntity<MultiGetResponseDto<BookingResponseDto>> getBookingsByIds(long userId, List<Long> ids) {
+        return bookingClient.getBookingsByIds(userId, ids);
+    }
+
     @Override
     public ResponseEntity<List<BookingResponseDto>> getUserBookings(long userId, BookingState state) {
         return bookingClient.getUserBookings(userId, state);
@@ -44,4 +66,22 @@ public class BookingController implements BookingApi {
     public ResponseEntity<List<BookingResponseDto>> getOwnerBookings(long userId, BookingState state) {
         return bookingClient.getOwnerBookings(userId, state);
     }
+
+    @GetMapping("/bookings/owner/export")
+    public void exportOwnerBookings(@RequestHeader(HeaderNames.USER_ID) long userId,
+                                    HttpServletResponse response) throws IOException {
+        try (Response upstream = bookingClient.exportOwnerBookings(userId)) {
+            response.setStatus(upstream.status());
+            upstream.headers().getOrDefault(HttpHeaders.CONTENT_TYPE, List.of()).stream()
+                    .findFirst()
+                    .ifPresent(response::setContentType);
+
+            if (upstream.body() == null) {
+                return;
+            }
+            try (InputStream body = upstream.body().asInputStream()) {
+                body.transferTo(response.getOutputStream());
+            }
+        }
+    }
 }
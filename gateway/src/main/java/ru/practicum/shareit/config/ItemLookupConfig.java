@@ -0,0 +1,10 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.ItemLookupProperties;
+
+@Configuration
+@EnableConfigurationProperties(ItemLookupProperties.class)
+public class ItemLookupConfig {
+}
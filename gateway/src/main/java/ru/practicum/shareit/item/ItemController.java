@@ -1,32 +1,83 @@
 package ru.practicum.shareit.item;
 
-import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemBatchResponseDto;
+import ru.practicum.shareit.item.dto.ItemBatchRowDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchResponseDto;
 import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.validate.OnCreate;
 import ru.practicum.shareit.validate.OnUpdate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
+@Validated
 public class ItemController implements ItemApi {
 
     private final ItemClient itemClient;
+    private final ItemLookupBatcher itemLookupBatcher;
+    private final Validator validator;
 
     @Override
     public ResponseEntity<ItemDto> createItem(Long ownerId, @Validated(OnCreate.class) ItemDto item) {
         return itemClient.createItem(ownerId, item);
     }
 
+    // невалидные строки отмечаются здесь же и на сервер не уходят; индексы ответа сервера
+    // пересчитываются обратно в позиции исходного массива
     @Override
-    public ResponseEntity<CommentResponseDto> addComment(Long itemId, Long userId, @Valid CommentRequestDto request) {
+    public ResponseEntity<ItemBatchResponseDto> createItemsBatch(Long ownerId, List<ItemDto> items) {
+        ItemBatchRowDto[] rows = new ItemBatchRowDto[items.size()];
+        List<ItemDto> valid = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int index = 0; index < items.size(); index++) {
+            String error = validate(items.get(index));
+            if (error == null) {
+                valid.add(items.get(index));
+                validIndexes.add(index);
+            } else {
+                rows[index] = new ItemBatchRowDto(index, null, error);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            ResponseEntity<ItemBatchResponseDto> response = itemClient.createItemsBatch(ownerId, valid);
+            for (ItemBatchRowDto row : response.getBody().rows()) {
+                int index = validIndexes.get(row.index());
+                rows[index] = new ItemBatchRowDto(index, row.id(), row.error());
+            }
+        }
+
+        int created = (int) Arrays.stream(rows).filter(row -> row.error() == null).count();
+        return ResponseEntity.ok(new ItemBatchResponseDto(created, rows.length - created, Arrays.asList(rows)));
+    }
+
+    private String validate(ItemDto item) {
+        if (item == null) {
+            return "Item must not be null";
+        }
+        return validator.validate(item, OnCreate.class).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "))
+                .transform(message -> message.isEmpty() ? null : message);
+    }
+
+    @Override
+    public ResponseEntity<CommentResponseDto> addComment(Long itemId, Long userId, @Validated CommentRequestDto request) {
         return itemClient.addComment(itemId, userId, request);
     }
 
@@ -41,13 +92,54 @@ public class ItemController implements ItemApi {
     }
 
     @Override
-    public ResponseEntity<List<ItemDto>> searchItems(Long userId, String text) {
-        return itemClient.searchItems(userId, text);
+    public ResponseEntity<List<ItemDto>> searchItems(Long userId, String text, String category, int from, int size) {
+        return itemClient.searchItems(userId, text, category, from, size);
+    }
+
+    @Override
+    public ResponseEntity<ItemSearchResponseDto> searchItemsFaceted(Long userId, String text, String category,
+                                                                    int from, int size) {
+        return itemClient.searchItemsFaceted(userId, text, category, from, size);
+    }
+
+    @Override
+    public ResponseEntity<List<ItemDto>> searchItemsFuzzy(Long userId, String text, int limit) {
+        return itemClient.searchItemsFuzzy(userId, text, limit);
+    }
+
+    @Override
+    public ResponseEntity<List<String>> suggest(Long userId, String prefix, int limit) {
+        return itemClient.suggest(userId, prefix, limit);
+    }
+
+    @Override
+    public ResponseEntity<List<ItemRequestDto>> getMatchingRequests(Long userId, Long itemId, int limit) {
+        return itemClient.getMatchingRequests(userId, itemId, limit);
+    }
+
+    @Override
+    public ResponseEntity<List<ItemDto>> getMostBooked(Long userId, int limit) {
+        return itemClient.getMostBooked(userId, limit);
+    }
+
+    @Override
+    public ResponseEntity<List<ItemDto>> getPopular(Long userId, String category, int limit) {
+        return itemClient.getPopular(userId, category, limit);
+    }
+
+    @Override
+    public ResponseEntity<List<CommentResponseDto>> getComments(Long userId, Long itemId, int size, String after) {
+        return itemClient.getComments(userId, itemId, size, after);
     }
 
     @Override
     public ResponseEntity<ItemWithCommentsDto> getItem(Long userId, Long itemId) {
-        return itemClient.getItem(userId, itemId);
+        return itemLookupBatcher.getItem(userId, itemId);
+    }
+
+    @Override
+    public ResponseEntity<MultiGetResponseDto<ItemWithCommentsDto>> getItemsByIds(Long userId, List<Long> ids) {
+        return itemClient.getItemsByIds(userId, ids);
     }
 
     @Override
@@ -0,0 +1,227 @@
+package ru.practicum.shareit.item;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Склеивает одновременные GET /items/{id} в один вызов GET /items?ids=. Первый запрос открывает
+// пакет и ждёт не дольше maxWait; пакет уходит раньше, если набрал maxBatchSize разных id.
+// Пакеты раздельные по пользователю: от него зависят проверка доступа и last/next бронирования.
+// Если multi-get не удался (сервер старый или недоступен), каждый id запрашивается по отдельности;
+// 404 на multi-get (нет такого пользователя) отдаётся всем ожидающим как есть — одиночные запросы ответили бы так же.
+// Ожидание ответа ограничено timeout, а любая ошибка при разборе пакета завершает все его запросы.
+@Slf4j
+@Component
+public class ItemLookupBatcher {
+
+    private final ItemClient itemClient;
+    private final ItemLookupProperties properties;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("item-lookup-timer").daemon().factory());
+    // вызовы сервера блокирующие — на виртуальных потоках их можно держать сколько угодно
+    private final ExecutorService upstream = Executors.newVirtualThreadPerTaskExecutor();
+
+    // под this; ключ — userId
+    private final Map<Long, Batch> open = new HashMap<>();
+
+    private final Counter lookups;
+    private final Counter batchCalls;
+    private final Counter singleCalls;
+    private final Counter fallbacks;
+    private final DistributionSummary batchSize;
+
+    public ItemLookupBatcher(ItemClient itemClient, ItemLookupProperties properties, MeterRegistry meterRegistry) {
+        this.itemClient = itemClient;
+        this.properties = properties;
+        this.lookups = Counter.builder("shareit.gateway.item.lookups")
+                .description("GET /items/{id} requests served by the gateway")
+                .register(meterRegistry);
+        this.batchCalls = Counter.builder("shareit.gateway.item.upstream.calls").tag("type", "batch")
+                .register(meterRegistry);
+        this.singleCalls = Counter.builder("shareit.gateway.item.upstream.calls").tag("type", "single")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("shareit.gateway.item.batch.fallbacks")
+                .description("Multi-get calls that failed and were replaced by single lookups")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("shareit.gateway.item.batch.size")
+                .description("Distinct item ids per dispatched batch")
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<ItemWithCommentsDto> getItem(long userId, long itemId) {
+        lookups.increment();
+        if (!properties.batching()) {
+            singleCalls.increment();
+            return itemClient.getItem(userId, itemId);
+        }
+
+        try {
+            return enqueue(userId, itemId)
+                    .orTimeout(properties.timeout().toNanos(), TimeUnit.NANOSECONDS)
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw lookupTimeout(itemId);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        upstream.shutdown();
+    }
+
+    private CompletableFuture<ResponseEntity<ItemWithCommentsDto>> enqueue(long userId, long itemId) {
+        CompletableFuture<ResponseEntity<ItemWithCommentsDto>> result = new CompletableFuture<>();
+        Batch full = null;
+        synchronized (this) {
+            Batch batch = open.get(userId);
+            if (batch == null) {
+                Batch created = new Batch(userId);
+                open.put(userId, created);
+                timer.schedule(() -> flush(created), properties.maxWait().toNanos(), TimeUnit.NANOSECONDS);
+                batch = created;
+            }
+            batch.waiters.computeIfAbsent(itemId, id -> new ArrayList<>()).add(result);
+            if (batch.waiters.size() >= properties.maxBatchSize()) {
+                open.remove(userId);
+                full = batch;
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return result;
+    }
+
+    private void flush(Batch batch) {
+        synchronized (this) {
+            // пакет мог уже уйти по размеру
+            if (!open.remove(batch.userId, batch)) {
+                return;
+            }
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        batchSize.record(batch.waiters.size());
+        try {
+            if (batch.waiters.size() == 1) {
+                loadSingly(batch);
+            } else {
+                upstream.execute(() -> loadBatch(batch));
+            }
+        } catch (RuntimeException e) {
+            // например, executor уже остановлен
+            failAll(batch, e);
+        }
+    }
+
+    private void loadBatch(Batch batch) {
+        try {
+            MultiGetResponseDto<ItemWithCommentsDto> response;
+            try {
+                batchCalls.increment();
+                response = itemClient.getItemsByIds(batch.userId, List.copyOf(batch.waiters.keySet())).getBody();
+            } catch (FeignException.NotFound e) {
+                failAll(batch, e);
+                return;
+            } catch (RuntimeException e) {
+                log.debug("Item multi-get failed, falling back to single lookups: {}", e.toString());
+                fallbacks.increment();
+                loadSingly(batch);
+                return;
+            }
+
+            Map<Long, ItemWithCommentsDto> found = response.found().stream()
+                    .collect(Collectors.toMap(ItemWithCommentsDto::id, Function.identity(), (first, second) -> first));
+            batch.waiters.forEach((itemId, futures) -> {
+                ItemWithCommentsDto item = found.get(itemId);
+                if (item != null) {
+                    futures.forEach(future -> future.complete(ResponseEntity.ok(item)));
+                } else {
+                    // то же, что ответил бы сервер на одиночный запрос
+                    NotFoundException notFound = new NotFoundException("ItemResponseDto not found");
+                    futures.forEach(future -> future.completeExceptionally(notFound));
+                }
+            });
+        } catch (RuntimeException e) {
+            // уже завершённые ожидания complete не трогает
+            failAll(batch, e);
+        }
+    }
+
+    private void failAll(Batch batch, RuntimeException e) {
+        batch.waiters.values().forEach(futures -> futures.forEach(future -> future.completeExceptionally(e)));
+    }
+
+    // так же, как клиент увидел бы истёкший таймаут ответа сервера
+    private static FeignException lookupTimeout(long itemId) {
+        Request request = Request.create(Request.HttpMethod.GET, "/items/" + itemId, Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        Response response = Response.builder()
+                .status(HttpStatus.GATEWAY_TIMEOUT.value())
+                .reason("Item lookup timed out")
+                .request(request)
+                .headers(Map.of())
+                .build();
+        return FeignException.errorStatus("ItemLookupBatcher#getItem", response);
+    }
+
+    private void loadSingly(Batch batch) {
+        batch.waiters.forEach((itemId, futures) -> upstream.execute(() -> {
+            try {
+                singleCalls.increment();
+                ResponseEntity<ItemWithCommentsDto> response = itemClient.getItem(batch.userId, itemId);
+                futures.forEach(future -> future.complete(response));
+            } catch (RuntimeException e) {
+                futures.forEach(future -> future.completeExceptionally(e));
+            }
+        }));
+    }
+
+    private static final class Batch {
+        private final long userId;
+        // itemId -> ожидающие его запросы; повторный id в пакете не занимает лишнего места
+        private final Map<Long, List<CompletableFuture<ResponseEntity<ItemWithCommentsDto>>>> waiters =
+                new LinkedHashMap<>();
+
+        private Batch(long userId) {
+            this.userId = userId;
+        }
+    }
+}
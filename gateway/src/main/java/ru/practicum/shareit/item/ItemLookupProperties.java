@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// maxBatchSize — число разных id в пакете; больше 100 multi-get на сервере не принимает;
+// timeout — сколько запрос ждёт ответа своего пакета, прежде чем получить 504
+@ConfigurationProperties("shareit.gateway.item-lookup")
+public record ItemLookupProperties(
+        @DefaultValue("true") boolean batching,
+        @DefaultValue("50") int maxBatchSize,
+        @DefaultValue("2ms") Duration maxWait,
+        @DefaultValue("10s") Duration timeout
+) {
+
+    public ItemLookupProperties {
+        if (maxBatchSize < 1 || maxBatchSize > 100) {
+            throw new IllegalArgumentException("max-batch-size must be within 1..100: " + maxBatchSize);
+        }
+    }
+}
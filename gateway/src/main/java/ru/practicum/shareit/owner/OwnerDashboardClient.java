@@ -0,0 +1,11 @@
+package ru.practicum.shareit.owner;
+
+import org.springframework.cloud.openfeign.FeignClient;
+
+@FeignClient(
+        name = "shareit-server",
+        url = "${shareit-server.url}",
+        contextId = "ownerDashboardClient"
+)
+public interface OwnerDashboardClient extends OwnerDashboardApi {
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.owner;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.owner.dto.OwnerDashboardDto;
+
+@RestController
+@RequiredArgsConstructor
+@Validated
+public class OwnerDashboardController implements OwnerDashboardApi {
+
+    private final OwnerDashboardClient client;
+
+    @Override
+    public ResponseEntity<OwnerDashboardDto> getDashboard(Long userId, int requestsSize) {
+        return client.getDashboard(userId, requestsSize);
+    }
+}
@@ -1,9 +1,15 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.HeaderNames;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.validate.OnCreate;
@@ -16,6 +22,7 @@ import java.util.List;
 public class ItemRequestController implements ItemRequestApi {
 
     private final ItemRequestClient client;
+    private final RequestFeedRelay requestFeedRelay;
 
     @Override
     public ResponseEntity<ItemRequestDto> create(
@@ -36,7 +43,17 @@ public class ItemRequestController implements ItemRequestApi {
     }
 
     @Override
-    public ResponseEntity<List<ItemRequestDto>> getAllOther(Long userId, int from, int size) {
-        return client.getAllOther(userId, from, size);
+    public ResponseEntity<List<ItemShortDto>> getMatchingItems(Long userId, Long requestId, int limit) {
+        return client.getMatchingItems(userId, requestId, limit);
+    }
+
+    @Override
+    public ResponseEntity<List<ItemRequestDto>> getAllOther(Long userId, int from, int size, String after) {
+        return client.getAllOther(userId, from, size, after);
+    }
+
+    @GetMapping(value = "/requests/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(HeaderNames.USER_ID) Long userId) {
+        return requestFeedRelay.open(userId);
     }
 }
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.request;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.HeaderNames;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+// Ретрансляция живой ленты запросов с сервера. На каждого клиента — своё соединение с сервером и виртуальный
+// поток, который читает события построчно и тут же пишет их клиенту. Пока клиент не принял событие, следующее
+// из сокета не читается: шлюз ничего не буферизует, а медленного клиента отключит ограниченная очередь сервера.
+// Ошибки сервера до начала потока (неизвестный пользователь и т.п.) уходят клиенту как FeignException —
+// тем же путём, что у остальных ручек шлюза.
+@Slf4j
+@Component
+public class RequestFeedRelay {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final HttpClient httpClient;
+    private final URI streamUri;
+
+    public RequestFeedRelay(@Value("${shareit-server.url}") String serverUrl) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.streamUri = URI.create(serverUrl + "/requests/stream");
+    }
+
+    public SseEmitter open(long userId) {
+        HttpRequest request = HttpRequest.newBuilder(streamUri)
+                .header(HeaderNames.USER_ID, String.valueOf(userId))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .GET()
+                .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            throw upstreamError(HttpStatus.SERVICE_UNAVAILABLE.value(), new byte[0]);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw upstreamError(HttpStatus.SERVICE_UNAVAILABLE.value(), new byte[0]);
+        }
+        InputStream upstream = response.body();
+        if (response.statusCode() != HttpStatus.OK.value()) {
+            byte[] body;
+            try (upstream) {
+                body = upstream.readAllBytes();
+            } catch (IOException e) {
+                body = new byte[0];
+            }
+            throw upstreamError(response.statusCode(), body);
+        }
+
+        // сколько живёт поток, решает сервер: его закрытие завершит и соединение с клиентом
+        SseEmitter emitter = new SseEmitter(0L);
+        Runnable closeUpstream = () -> closeQuietly(upstream);
+        emitter.onCompletion(closeUpstream);
+        emitter.onTimeout(closeUpstream);
+        emitter.onError(e -> closeUpstream.run());
+        Thread.ofVirtual().name("request-feed-relay-" + userId).start(() -> pump(upstream, emitter));
+        return emitter;
+    }
+
+    private void pump(InputStream upstream, SseEmitter emitter) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(upstream, StandardCharsets.UTF_8))) {
+            String id = null;
+            String name = null;
+            StringBuilder data = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    if (!data.isEmpty()) {
+                        SseEmitter.SseEventBuilder event = SseEmitter.event().data(data.toString(),
+                                MediaType.APPLICATION_JSON);
+                        if (id != null) {
+                            event.id(id);
+                        }
+                        if (name != null) {
+                            event.name(name);
+                        }
+                        emitter.send(event);
+                    }
+                    id = null;
+                    name = null;
+                    data.setLength(0);
+                } else if (line.startsWith(":")) {
+                    // heartbeat сервера проверяет заодно и соединение с клиентом
+                    emitter.send(SseEmitter.event().comment(line.substring(1)));
+                } else if (line.startsWith("id:")) {
+                    id = value(line, 3);
+                } else if (line.startsWith("event:")) {
+                    name = value(line, 6);
+                } else if (line.startsWith("data:")) {
+                    if (!data.isEmpty()) {
+                        data.append('\n');
+                    }
+                    data.append(value(line, 5));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // ушёл клиент или оборвалось соединение с сервером — в обоих случаях клиент переподключится
+            log.debug("Request feed relay stopped: {}", e.toString());
+        } finally {
+            emitter.complete();
+        }
+    }
+
+    // по спецификации SSE один пробел после двоеточия не входит в значение
+    private static String value(String line, int prefixLength) {
+        String value = line.substring(prefixLength);
+        return value.startsWith(" ") ? value.substring(1) : value;
+    }
+
+    private FeignException upstreamError(int status, byte[] body) {
+        Request request = Request.create(Request.HttpMethod.GET, streamUri.toString(), Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        Response response = Response.builder()
+                .status(status)
+                .request(request)
+                .headers(Map.of(HttpHeaders.CONTENT_TYPE, List.of(MediaType.APPLICATION_JSON_VALUE)))
+                .body(body)
+                .build();
+        return FeignException.errorStatus("RequestFeedRelay#open", response);
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // поток уже закрыт
+        }
+    }
+}
@@ -1,24 +1,64 @@
 package ru.practicum.shareit.user;
 
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
+import ru.practicum.shareit.user.dto.UserBatchResponseDto;
+import ru.practicum.shareit.user.dto.UserBatchRowDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validate.OnCreate;
 import ru.practicum.shareit.validate.OnUpdate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 @RestController
 @RequiredArgsConstructor
+@Validated
 public class UserController implements UserApi {
 
     private final UserClient userClient;
+    private final Validator validator;
 
     @Override
     public ResponseEntity<UserDto> createUser(@Validated(OnCreate.class) UserDto user) {
         return userClient.createUser(user);
     }
 
+    // невалидные строки отмечаются здесь же и на сервер не уходят; индексы ответа сервера
+    // пересчитываются обратно в позиции исходного массива
+    @Override
+    public ResponseEntity<UserBatchResponseDto> createUsersBatch(List<UserDto> users) {
+        UserBatchRowDto[] rows = new UserBatchRowDto[users.size()];
+        List<UserDto> valid = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int index = 0; index < users.size(); index++) {
+            String error = validate(users.get(index));
+            if (error == null) {
+                valid.add(users.get(index));
+                validIndexes.add(index);
+            } else {
+                rows[index] = new UserBatchRowDto(index, null, error);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            ResponseEntity<UserBatchResponseDto> response = userClient.createUsersBatch(valid);
+            for (UserBatchRowDto row : response.getBody().rows()) {
+                int index = validIndexes.get(row.index());
+                rows[index] = new UserBatchRowDto(index, row.id(), row.error());
+            }
+        }
+
+        int created = (int) Arrays.stream(rows).filter(row -> row.error() == null).count();
+        return ResponseEntity.ok(new UserBatchResponseDto(created, rows.length - created, Arrays.asList(rows)));
+    }
+
     @Override
     public ResponseEntity<UserDto> update(Long id, @Validated(OnUpdate.class) UserDto user) {
         return userClient.update(id, user);
@@ -33,4 +73,20 @@ public class UserController implements UserApi {
     public ResponseEntity<UserDto> getUsers(Long id) {
         return userClient.getUsers(id);
     }
+
+    @Override
+    public ResponseEntity<MultiGetResponseDto<UserDto>> getUsersByIds(List<Long> ids) {
+        return userClient.getUsersByIds(ids);
+    }
+
+    private String validate(UserDto user) {
+        if (user == null) {
+            return "User must not be null";
+        }
+        return validator.validate(user, OnCreate.class).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "))
+                .transform(message -> message.isEmpty() ? null : message);
+    }
 }
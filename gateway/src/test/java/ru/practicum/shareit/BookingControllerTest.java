@@ -1,28 +1,38 @@
 package ru.practicum.shareit;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Request;
+import feign.Response;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBatchResponseDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.Status;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -110,6 +120,43 @@ class BookingControllerTest {
         verify(bookingClient).approveOrReject(bookingId, ownerId, true);
     }
 
+    @Test
+    void approveOrRejectBatch_shouldDelegateToClient() throws Exception {
+        long ownerId = 5L;
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(7L, true));
+        BookingBatchResponseDto resp = new BookingBatchResponseDto(1, 0,
+                List.of(new BookingDecisionResultDto(7L, Status.APPROVED, null)));
+
+        when(bookingClient.approveOrRejectBatch(ownerId, decisions)).thenReturn(ResponseEntity.ok(resp));
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("APPROVED"));
+
+        verify(bookingClient).approveOrRejectBatch(ownerId, decisions);
+    }
+
+    @Test
+    void approveOrRejectBatch_invalidDecision_shouldReturn400_andNotCallClient() throws Exception {
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_HEADER, 5L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"bookingId\": 7}]"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_HEADER, 5L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
+    }
+
     @Test
     void getBooking_shouldDelegateToClient() throws Exception {
         long userId = 11L;
@@ -158,4 +205,27 @@ class BookingControllerTest {
 
         verify(bookingClient).getOwnerBookings(ownerId, BookingState.PAST);
     }
+
+    @Test
+    void exportOwnerBookings_shouldPassUpstreamStatusTypeAndBodyThrough() throws Exception {
+        long ownerId = 21L;
+        String ndjson = "{\"id\":1}\n{\"id\":2}\n";
+
+        Response upstream = Response.builder()
+                .status(200)
+                .request(Request.create(Request.HttpMethod.GET, "/bookings/owner/export",
+                        Map.of(), null, StandardCharsets.UTF_8, null))
+                .headers(Map.of(HttpHeaders.CONTENT_TYPE, List.of(MediaType.APPLICATION_NDJSON_VALUE)))
+                .body(ndjson, StandardCharsets.UTF_8)
+                .build();
+        when(bookingClient.exportOwnerBookings(ownerId)).thenReturn(upstream);
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header(USER_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(ndjson));
+
+        verify(bookingClient).exportOwnerBookings(ownerId);
+    }
 }
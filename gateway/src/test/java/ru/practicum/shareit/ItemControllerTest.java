@@ -10,12 +10,19 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.HeaderNames;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
 import ru.practicum.shareit.handler.ErrorHandler;
 import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.ItemLookupBatcher;
+import ru.practicum.shareit.item.dto.CategoryFacetDto;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemBatchResponseDto;
+import ru.practicum.shareit.item.dto.ItemBatchRowDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchResponseDto;
 import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
 
 import java.time.LocalDateTime;
@@ -24,6 +31,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -43,6 +51,9 @@ class ItemControllerTest {
     @org.springframework.boot.test.mock.mockito.MockBean
     ItemClient itemClient;
 
+    @org.springframework.boot.test.mock.mockito.MockBean
+    ItemLookupBatcher itemLookupBatcher;
+
     @Test
     void createItem_whenValid_thenProxiesToClientAndReturnsCreated() throws Exception {
         long ownerId = 1L;
@@ -82,6 +93,60 @@ class ItemControllerTest {
         Mockito.verify(itemClient).createItem(eq(ownerId), eq(request));
     }
 
+    @Test
+    void createItemsBatch_whenSomeRowsInvalid_thenForwardsOnlyValidAndMapsIndexesBack() throws Exception {
+        long ownerId = 1L;
+        ItemDto drill = new ItemDto(null, "Drill", "Power drill", null, true, null);
+        ItemDto noName = new ItemDto(null, " ", "No name", null, true, null);
+        ItemDto saw = new ItemDto(null, "Saw", "Sharp saw", null, true, 9L);
+
+        Mockito.when(itemClient.createItemsBatch(ownerId, List.of(drill, saw)))
+                .thenReturn(ResponseEntity.ok(new ItemBatchResponseDto(1, 1, List.of(
+                        new ItemBatchRowDto(0, 10L, null),
+                        new ItemBatchRowDto(1, null, "Request not found: 9")))));
+
+        mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(drill, noName, saw))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.failed", is(2)))
+                .andExpect(jsonPath("$.rows[0].id", is(10)))
+                .andExpect(jsonPath("$.rows[1].index", is(1)))
+                .andExpect(jsonPath("$.rows[1].error", is("name: must not be blank")))
+                .andExpect(jsonPath("$.rows[2].index", is(2)))
+                .andExpect(jsonPath("$.rows[2].error", is("Request not found: 9")));
+
+        Mockito.verify(itemClient).createItemsBatch(ownerId, List.of(drill, saw));
+    }
+
+    @Test
+    void createItemsBatch_whenAllRowsInvalid_thenServerNotCalled() throws Exception {
+        ItemDto noAvailable = new ItemDto(null, "Drill", "Power drill", null, null, null);
+
+        mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(noAvailable))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(0)))
+                .andExpect(jsonPath("$.rows[0].error", is("isAvailable: must not be null")));
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void createItemsBatch_whenEmpty_then400_andClientNotCalled() throws Exception {
+        mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
     @Test
     void createItem_whenMissingHeader_then400_andClientNotCalled() throws Exception {
         ItemDto request = new ItemDto(
@@ -151,6 +216,17 @@ class ItemControllerTest {
         Mockito.verify(itemClient).addComment(eq(itemId), eq(userId), eq(request));
     }
 
+    @Test
+    void addComment_whenBlankText_then400_andClientNotCalled() throws Exception {
+        mockMvc.perform(post("/items/{itemId}/comment", 5L)
+                        .header("X-Sharer-User-Id", 2L)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CommentRequestDto(" "))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
     @Test
     void updateItem_whenValid_thenProxiesAndReturnsOk() throws Exception {
         long ownerId = 1L;
@@ -212,18 +288,188 @@ class ItemControllerTest {
                 new ItemDto(1L, "Drill", "Power drill", 0L, true, null)
         );
 
-        Mockito.when(itemClient.searchItems(eq(userId), eq(text)))
-                .thenReturn(ResponseEntity.ok(response));
+        Mockito.when(itemClient.searchItems(eq(userId), eq(text), isNull(), eq(0), eq(20)))
+                .thenReturn(ResponseEntity.ok().header(HeaderNames.HAS_MORE, "true").body(response));
 
         mockMvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", userId)
                         .param("text", text))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HeaderNames.HAS_MORE, "true"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].name", is("Drill")));
 
-        Mockito.verify(itemClient).searchItems(eq(userId), eq(text));
+        Mockito.verify(itemClient).searchItems(eq(userId), eq(text), isNull(), eq(0), eq(20));
+    }
+
+    @Test
+    void searchItems_whenPagingInvalid_then400_andClientNotCalled() throws Exception {
+        mockMvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("text", "drill")
+                        .param("from", "-1"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("text", "drill")
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void getComments_whenValid_thenProxiesWithPagingHeaders() throws Exception {
+        List<CommentResponseDto> response = List.of(new CommentResponseDto(100L, "Nice!", "user", null));
+
+        Mockito.when(itemClient.getComments(1L, 3L, 20, "cursor"))
+                .thenReturn(ResponseEntity.ok()
+                        .header(HeaderNames.HAS_MORE, "true")
+                        .header(HeaderNames.NEXT_CURSOR, "next")
+                        .body(response));
+
+        mockMvc.perform(get("/items/{itemId}/comments", 3L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("after", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HeaderNames.HAS_MORE, "true"))
+                .andExpect(header().string(HeaderNames.NEXT_CURSOR, "next"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(100)));
+    }
+
+    @Test
+    void getComments_whenSizeInvalid_then400_andClientNotCalled() throws Exception {
+        mockMvc.perform(get("/items/{itemId}/comments", 3L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/items/{itemId}/comments", 3L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void searchItemsFuzzy_whenValid_thenProxiesAndReturnsList() throws Exception {
+        Mockito.when(itemClient.searchItemsFuzzy(1L, "drel", 20))
+                .thenReturn(ResponseEntity.ok(List.of(new ItemDto(1L, "Drill", "Power drill", 0L, true, null))));
+
+        mockMvc.perform(get("/items/search/fuzzy")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("text", "drel"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Drill")));
+
+        Mockito.verify(itemClient).searchItemsFuzzy(1L, "drel", 20);
+    }
+
+    @Test
+    void suggest_whenValid_thenProxiesAndReturnsNames() throws Exception {
+        Mockito.when(itemClient.suggest(1L, "dr", 5))
+                .thenReturn(ResponseEntity.ok(List.of("Drill")));
+
+        mockMvc.perform(get("/items/suggest")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("prefix", "dr")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is("Drill")));
+
+        Mockito.verify(itemClient).suggest(1L, "dr", 5);
+    }
+
+    @Test
+    void suggest_whenLimitAboveMax_then400_andClientNotCalled() throws Exception {
+        mockMvc.perform(get("/items/suggest")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("prefix", "dr")
+                        .param("limit", "21"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void getMostBooked_whenValid_thenProxiesAndReturnsList() throws Exception {
+        long userId = 1L;
+
+        List<ItemDto> response = List.of(
+                new ItemDto(1L, "Drill", "Power drill", 42L, true, null)
+        );
+
+        Mockito.when(itemClient.getMostBooked(userId, 5))
+                .thenReturn(ResponseEntity.ok(response));
+
+        mockMvc.perform(get("/items/most-booked")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].useCount", is(42)));
+
+        Mockito.verify(itemClient).getMostBooked(userId, 5);
+    }
+
+    @Test
+    void getMostBooked_whenLimitNotPositive_then400_andClientNotCalled() throws Exception {
+        mockMvc.perform(get("/items/most-booked")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void getPopular_whenValid_thenProxiesCategoryAndLimit() throws Exception {
+        long userId = 1L;
+
+        Mockito.when(itemClient.getPopular(userId, "tools", 3))
+                .thenReturn(ResponseEntity.ok(List.of(new ItemDto(1L, "Drill", "Power drill", 7L, true, null))));
+
+        mockMvc.perform(get("/items/popular")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("category", "tools")
+                        .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].useCount", is(7)));
+
+        Mockito.verify(itemClient).getPopular(userId, "tools", 3);
+    }
+
+    @Test
+    void searchItemsFaceted_whenValid_thenProxiesCategoryAndReturnsFacets() throws Exception {
+        long userId = 1L;
+
+        ItemSearchResponseDto response = new ItemSearchResponseDto(
+                List.of(new ItemDto(1L, "Drill", "Power drill", 0L, true, null)),
+                List.of(new CategoryFacetDto("tools", 1L)),
+                true,
+                false
+        );
+
+        Mockito.when(itemClient.searchItemsFaceted(userId, "drill", "tools", 0, 1))
+                .thenReturn(ResponseEntity.ok(response));
+
+        mockMvc.perform(get("/items/search/faceted")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("text", "drill")
+                        .param("category", "tools")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore", is(true)))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.facets[0].category", is("tools")))
+                .andExpect(jsonPath("$.facets[0].count", is(1)));
+
+        Mockito.verify(itemClient).searchItemsFaceted(userId, "drill", "tools", 0, 1);
     }
 
     @Test
@@ -239,10 +485,11 @@ class ItemControllerTest {
                 true,
                 null,
                 null,
-                List.of()
+                List.of(),
+                0L
         );
 
-        Mockito.when(itemClient.getItem(eq(userId), eq(itemId)))
+        Mockito.when(itemLookupBatcher.getItem(userId, itemId))
                 .thenReturn(ResponseEntity.ok(response));
 
         mockMvc.perform(get("/items/{id}", itemId)
@@ -252,7 +499,27 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.name", is("Drill")))
                 .andExpect(jsonPath("$.comments", hasSize(0)));
 
-        Mockito.verify(itemClient).getItem(eq(userId), eq(itemId));
+        Mockito.verify(itemLookupBatcher).getItem(userId, itemId);
+    }
+
+    @Test
+    void getItemsByIds_whenValid_thenProxiesToMultiGet() throws Exception {
+        long userId = 1L;
+        MultiGetResponseDto<ItemWithCommentsDto> response = new MultiGetResponseDto<>(
+                List.of(new ItemWithCommentsDto(10L, "Drill", "Power drill", 0L, true, null, null, List.of(), 0L)),
+                List.of(11L));
+
+        Mockito.when(itemClient.getItemsByIds(eq(userId), eq(List.of(10L, 11L))))
+                .thenReturn(ResponseEntity.ok(response));
+
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("ids", "10,11"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found", hasSize(1)))
+                .andExpect(jsonPath("$.missing[0]", is(11)));
+
+        Mockito.verify(itemClient, Mockito.never()).getAllItemsFromUser(Mockito.anyLong());
     }
 
     @Test
@@ -260,7 +527,7 @@ class ItemControllerTest {
         long ownerId = 1L;
 
         List<ItemWithCommentsDto> response = List.of(
-                new ItemWithCommentsDto(10L, "Drill", "Power drill", 0L, true, null, null, List.of())
+                new ItemWithCommentsDto(10L, "Drill", "Power drill", 0L, true, null, null, List.of(), 0L)
         );
 
         Mockito.when(itemClient.getAllItemsFromUser(eq(ownerId)))
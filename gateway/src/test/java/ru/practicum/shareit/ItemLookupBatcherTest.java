@@ -0,0 +1,201 @@
+package ru.practicum.shareit;
+
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemLookupBatcher;
+import ru.practicum.shareit.item.ItemLookupProperties;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ItemLookupBatcherTest {
+
+    private final ItemClient itemClient = mock(ItemClient.class);
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    private static ItemWithCommentsDto item(long id) {
+        return new ItemWithCommentsDto(id, "Item" + id, "desc", 0L, true, null, null, List.of(), 0L);
+    }
+
+    private ItemLookupBatcher batcher(int maxBatchSize, Duration maxWait) {
+        return new ItemLookupBatcher(itemClient,
+                new ItemLookupProperties(true, maxBatchSize, maxWait, Duration.ofSeconds(5)), new SimpleMeterRegistry());
+    }
+
+    private CompletableFuture<ResponseEntity<ItemWithCommentsDto>> lookup(ItemLookupBatcher batcher,
+                                                                          long userId, long itemId) {
+        return CompletableFuture.supplyAsync(() -> batcher.getItem(userId, itemId), callers);
+    }
+
+    @Test
+    void getItem_concurrentLookupsOfOneUser_shouldShareOneMultiGet() throws Exception {
+        ItemLookupBatcher batcher = batcher(50, Duration.ofMillis(200));
+        when(itemClient.getItemsByIds(eq(1L), anyList()))
+                .thenReturn(ResponseEntity.ok(new MultiGetResponseDto<>(List.of(item(10L), item(20L)), List.of())));
+
+        var first = lookup(batcher, 1L, 10L);
+        var second = lookup(batcher, 1L, 20L);
+        var duplicate = lookup(batcher, 1L, 20L);
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody().id()).isEqualTo(10L);
+        assertThat(second.get(5, TimeUnit.SECONDS).getBody().id()).isEqualTo(20L);
+        assertThat(duplicate.get(5, TimeUnit.SECONDS).getBody().id()).isEqualTo(20L);
+        verify(itemClient).getItemsByIds(eq(1L), argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(10L, 20L))));
+        verify(itemClient, never()).getItem(anyLong(), anyLong());
+    }
+
+    @Test
+    void getItem_whenIdMissingInBatch_shouldThrowNotFoundOnlyForIt() throws Exception {
+        ItemLookupBatcher batcher = batcher(50, Duration.ofMillis(200));
+        when(itemClient.getItemsByIds(eq(1L), anyList()))
+                .thenReturn(ResponseEntity.ok(new MultiGetResponseDto<>(List.of(item(10L)), List.of(99L))));
+
+        var found = lookup(batcher, 1L, 10L);
+        var missing = lookup(batcher, 1L, 99L);
+
+        assertThat(found.get(5, TimeUnit.SECONDS).getBody().id()).isEqualTo(10L);
+        assertThatThrownBy(() -> missing.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void getItem_whenBatchIsFull_shouldNotWaitForTimer() throws Exception {
+        ItemLookupBatcher batcher = batcher(2, Duration.ofSeconds(30));
+        when(itemClient.getItemsByIds(eq(1L), anyList()))
+                .thenReturn(ResponseEntity.ok(new MultiGetResponseDto<>(List.of(item(10L), item(20L)), List.of())));
+
+        var first = lookup(batcher, 1L, 10L);
+        var second = lookup(batcher, 1L, 20L);
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody().id()).isEqualTo(10L);
+        assertThat(second.get(5, TimeUnit.SECONDS).getBody().id()).isEqualTo(20L);
+    }
+
+    @Test
+    void getItem_differentUsers_shouldNotShareBatch() throws Exception {
+        ItemLookupBatcher batcher = batcher(50, Duration.ofMillis(50));
+        when(itemClient.getItem(1L, 10L)).thenReturn(ResponseEntity.ok(item(10L)));
+        when(itemClient.getItem(2L, 10L)).thenReturn(ResponseEntity.ok(item(10L)));
+
+        var first = lookup(batcher, 1L, 10L);
+        var second = lookup(batcher, 2L, 10L);
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        // в пакете каждого пользователя по одному id — multi-get не нужен
+        verify(itemClient, never()).getItemsByIds(anyLong(), anyList());
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.GET, "/items", Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+    @Test
+    void getItem_whenMultiGetFails_shouldFallBackToSingleLookups() throws Exception {
+        ItemLookupBatcher batcher = batcher(50, Duration.ofMillis(200));
+        when(itemClient.getItemsByIds(eq(1L), anyList()))
+                .thenThrow(new FeignException.ServiceUnavailable("Service Unavailable", request(), null, null));
+        when(itemClient.getItem(1L, 10L)).thenReturn(ResponseEntity.ok(item(10L)));
+        when(itemClient.getItem(1L, 20L)).thenReturn(ResponseEntity.ok(item(20L)));
+
+        var first = lookup(batcher, 1L, 10L);
+        var second = lookup(batcher, 1L, 20L);
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody().id()).isEqualTo(10L);
+        assertThat(second.get(5, TimeUnit.SECONDS).getBody().id()).isEqualTo(20L);
+        verify(itemClient).getItem(1L, 10L);
+        verify(itemClient).getItem(1L, 20L);
+    }
+
+    @Test
+    void getItem_whenMultiGetReturnsNotFound_shouldPassItToEveryWaiter() {
+        ItemLookupBatcher batcher = batcher(50, Duration.ofMillis(200));
+        when(itemClient.getItemsByIds(eq(1L), anyList()))
+                .thenThrow(new FeignException.NotFound("Not Found", request(), null, null));
+
+        var first = lookup(batcher, 1L, 10L);
+        var second = lookup(batcher, 1L, 20L);
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(FeignException.NotFound.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(FeignException.NotFound.class);
+        verify(itemClient, never()).getItem(anyLong(), anyLong());
+    }
+
+    @Test
+    void getItem_whenMultiGetRepeatsAnId_shouldStillAnswerEveryWaiter() throws Exception {
+        ItemLookupBatcher batcher = batcher(50, Duration.ofMillis(200));
+        when(itemClient.getItemsByIds(eq(1L), anyList()))
+                .thenReturn(ResponseEntity.ok(new MultiGetResponseDto<>(List.of(item(10L), item(20L), item(10L)),
+                        List.of())));
+
+        var first = lookup(batcher, 1L, 10L);
+        var second = lookup(batcher, 1L, 20L);
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody().id()).isEqualTo(10L);
+        assertThat(second.get(5, TimeUnit.SECONDS).getBody().id()).isEqualTo(20L);
+    }
+
+    @Test
+    void getItem_whenMultiGetResponseIsBroken_shouldFailWaitersInsteadOfHanging() {
+        ItemLookupBatcher batcher = batcher(50, Duration.ofMillis(200));
+        when(itemClient.getItemsByIds(eq(1L), anyList())).thenReturn(ResponseEntity.ok(null));
+
+        var first = lookup(batcher, 1L, 10L);
+        var second = lookup(batcher, 1L, 20L);
+
+        assertThatThrownBy(() -> first.get(2, TimeUnit.SECONDS)).hasCauseInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> second.get(2, TimeUnit.SECONDS)).hasCauseInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void getItem_whenUpstreamHangs_shouldAnswerGatewayTimeout() {
+        ItemLookupBatcher batcher = new ItemLookupBatcher(itemClient,
+                new ItemLookupProperties(true, 50, Duration.ofMillis(1), Duration.ofMillis(100)),
+                new SimpleMeterRegistry());
+        when(itemClient.getItem(1L, 10L)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return ResponseEntity.ok(item(10L));
+        });
+
+        assertThatThrownBy(() -> batcher.getItem(1L, 10L))
+                .isInstanceOf(FeignException.class)
+                .satisfies(e -> assertThat(((FeignException) e).status()).isEqualTo(504));
+    }
+
+    @Test
+    void getItem_whenBatchingDisabled_shouldCallUpstreamDirectly() {
+        ItemLookupBatcher batcher = new ItemLookupBatcher(itemClient,
+                new ItemLookupProperties(false, 50, Duration.ofMillis(2), Duration.ofSeconds(5)), new SimpleMeterRegistry());
+        when(itemClient.getItem(1L, 10L)).thenReturn(ResponseEntity.ok(item(10L)));
+
+        assertThat(batcher.getItem(1L, 10L).getBody().id()).isEqualTo(10L);
+        verify(itemClient, never()).getItemsByIds(anyLong(), anyList());
+    }
+}
@@ -9,8 +9,10 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.ItemRequestClient;
 import ru.practicum.shareit.request.ItemRequestController;
+import ru.practicum.shareit.request.RequestFeedRelay;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -23,6 +25,7 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
@@ -39,6 +42,8 @@ class ItemRequestControllerTest {
 
     @MockBean
     ItemRequestClient client;
+    @MockBean
+    RequestFeedRelay requestFeedRelay;
 
     @Test
     void create_validBody_shouldReturn201_andDelegateToClient() throws Exception {
@@ -122,7 +127,7 @@ class ItemRequestControllerTest {
     void getAllOther_shouldDelegateToClient() throws Exception {
         long userId = 4L;
 
-        when(client.getAllOther(userId, 0, 10)).thenReturn(ResponseEntity.ok(List.of()));
+        when(client.getAllOther(userId, 0, 10, null)).thenReturn(ResponseEntity.ok(List.of()));
 
         mockMvc.perform(get("/requests/all")
                         .header(USER_HEADER, userId)
@@ -131,6 +136,30 @@ class ItemRequestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray());
 
-        verify(client).getAllOther(userId, 0, 10);
+        verify(client).getAllOther(userId, 0, 10, null);
+    }
+
+    @Test
+    void stream_shouldOpenRelay() throws Exception {
+        long userId = 4L;
+
+        when(requestFeedRelay.open(userId)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/requests/stream")
+                        .header(USER_HEADER, userId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(requestFeedRelay).open(userId);
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void stream_withoutUserHeader_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/requests/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(requestFeedRelay);
     }
 }
@@ -0,0 +1,64 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.owner.OwnerDashboardClient;
+import ru.practicum.shareit.owner.OwnerDashboardController;
+import ru.practicum.shareit.owner.dto.OwnerDashboardDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = OwnerDashboardController.class)
+@ContextConfiguration(classes = ShareItGatewayApp.class)
+class OwnerDashboardControllerTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    OwnerDashboardClient client;
+
+    @Test
+    void getDashboard_shouldMakeSingleUpstreamCall() throws Exception {
+        long userId = 7L;
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 10, 0);
+        BookingResponseDto waiting = new BookingResponseDto(5L, start, start.plusDays(1), "WAITING", null, null);
+        OwnerDashboardDto dashboard = new OwnerDashboardDto(List.of(), List.of(waiting), List.of(), List.of(), "c1");
+
+        when(client.getDashboard(userId, 20)).thenReturn(ResponseEntity.ok(dashboard));
+
+        mockMvc.perform(get("/owner/dashboard")
+                        .header(USER_HEADER, userId)
+                        .param("requestsSize", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.waitingBookings[0].id").value(5))
+                .andExpect(jsonPath("$.requestsNextCursor").value("c1"));
+
+        verify(client).getDashboard(userId, 20);
+        verifyNoMoreInteractions(client);
+    }
+
+    @Test
+    void getDashboard_requestsSizeOverLimit_shouldReturn400_andNotCallClient() throws Exception {
+        mockMvc.perform(get("/owner/dashboard")
+                        .header(USER_HEADER, 7L)
+                        .param("requestsSize", "101"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(client);
+    }
+}
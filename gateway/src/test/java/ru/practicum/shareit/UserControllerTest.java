@@ -12,11 +12,18 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
 import ru.practicum.shareit.handler.ErrorHandler;
 import ru.practicum.shareit.user.UserClient;
 import ru.practicum.shareit.user.UserController;
+import ru.practicum.shareit.user.dto.UserBatchResponseDto;
+import ru.practicum.shareit.user.dto.UserBatchRowDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -63,6 +70,41 @@ class UserControllerTest {
         verifyNoMoreInteractions(userClient);
     }
 
+    @Test
+    void createUsersBatch_whenSomeRowsInvalid_shouldForwardOnlyValidAndMapIndexesBack() throws Exception {
+        UserDto ann = new UserDto(null, "Ann", "ann@mail.ru");
+        UserDto badEmail = new UserDto(null, "Bob", "not-an-email");
+        UserDto cat = new UserDto(null, "Cat", "cat@mail.ru");
+
+        when(userClient.createUsersBatch(List.of(ann, cat)))
+                .thenReturn(ResponseEntity.ok(new UserBatchResponseDto(1, 1, List.of(
+                        new UserBatchRowDto(0, 10L, null),
+                        new UserBatchRowDto(1, null, "Email is already used")))));
+
+        mvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(ann, badEmail, cat))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.failed", is(2)))
+                .andExpect(jsonPath("$.rows[0].id", is(10)))
+                .andExpect(jsonPath("$.rows[1].error", containsString("email")))
+                .andExpect(jsonPath("$.rows[2].index", is(2)))
+                .andExpect(jsonPath("$.rows[2].error", is("Email is already used")));
+
+        verify(userClient).createUsersBatch(List.of(ann, cat));
+    }
+
+    @Test
+    void createUsersBatch_whenEmpty_shouldReturn400_andNotCallClient() throws Exception {
+        mvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userClient);
+    }
+
     @Test
     void createUser_invalid_shouldReturn400_andNotCallClient() throws Exception {
         String badJson = "{ \"email\": \"ann@mail.ru\" }";
@@ -138,4 +180,29 @@ class UserControllerTest {
         verify(userClient).getUsers(id);
         verifyNoMoreInteractions(userClient);
     }
+
+    @Test
+    void getByIds_shouldProxy() throws Exception {
+        MultiGetResponseDto<UserDto> resp = new MultiGetResponseDto<>(
+                List.of(new UserDto(7L, "Bob", "bob@mail.ru")), List.of(8L));
+
+        when(userClient.getUsersByIds(List.of(7L, 8L))).thenReturn(ResponseEntity.ok(resp));
+
+        mvc.perform(get("/users").param("ids", "7", "8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].id", is(7)))
+                .andExpect(jsonPath("$.missing[0]", is(8)));
+
+        verify(userClient).getUsersByIds(List.of(7L, 8L));
+    }
+
+    @Test
+    void getByIds_tooManyIds_shouldReturn400_andNotCallClient() throws Exception {
+        String ids = LongStream.rangeClosed(1, 101).mapToObj(Long::toString).collect(Collectors.joining(","));
+
+        mvc.perform(get("/users").param("ids", ids))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userClient);
+    }
 }
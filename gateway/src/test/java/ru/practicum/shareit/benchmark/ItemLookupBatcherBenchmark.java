@@ -0,0 +1,87 @@
+package ru.practicum.shareit.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemLookupBatcher;
+import ru.practicum.shareit.item.ItemLookupProperties;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+// Сколько вызовов сервера экономит склейка GET /items/{id} при параллельной нагрузке.
+// Сервер имитируется задержкой UPSTREAM_LATENCY на вызов. Не входит в обычный прогон surefire, запуск:
+// mvn test -pl gateway -Dtest=ItemLookupBatcherBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+class ItemLookupBatcherBenchmark {
+
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(3);
+    private static final int CLIENTS = 200;
+    private static final int USERS = 4;
+    private static final int ITEMS = 1_000;
+    private static final long RUN_MILLIS = 3_000;
+
+    @Test
+    void upstreamCallsPerSecond() throws Exception {
+        System.out.printf("%-22s %12s %14s %12s%n", "mode", "lookups/s", "upstream/s", "ratio");
+        run("single calls", new ItemLookupProperties(false, 50, Duration.ofMillis(2), Duration.ofSeconds(10)));
+        run("batched, wait 1ms", new ItemLookupProperties(true, 50, Duration.ofMillis(1), Duration.ofSeconds(10)));
+        run("batched, wait 2ms", new ItemLookupProperties(true, 50, Duration.ofMillis(2), Duration.ofSeconds(10)));
+        run("batched, wait 5ms", new ItemLookupProperties(true, 50, Duration.ofMillis(5), Duration.ofSeconds(10)));
+    }
+
+    private void run(String mode, ItemLookupProperties properties) throws Exception {
+        LongAdder upstreamCalls = new LongAdder();
+        ItemClient client = mock(ItemClient.class, withSettings().stubOnly());
+        when(client.getItem(anyLong(), anyLong())).thenAnswer(inv -> {
+            upstreamCalls.increment();
+            Thread.sleep(UPSTREAM_LATENCY);
+            return ResponseEntity.ok(item(inv.getArgument(1)));
+        });
+        when(client.getItemsByIds(anyLong(), anyList())).thenAnswer(inv -> {
+            upstreamCalls.increment();
+            Thread.sleep(UPSTREAM_LATENCY);
+            List<Long> ids = inv.getArgument(1);
+            return ResponseEntity.ok(new MultiGetResponseDto<>(
+                    ids.stream().map(ItemLookupBatcherBenchmark::item).toList(), List.of()));
+        });
+        ItemLookupBatcher batcher = new ItemLookupBatcher(client, properties, new SimpleMeterRegistry());
+
+        LongAdder lookups = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (running.get()) {
+                        batcher.getItem(1 + random.nextInt(USERS), 1 + random.nextInt(ITEMS));
+                        lookups.increment();
+                    }
+                });
+            }
+            Thread.sleep(RUN_MILLIS);
+            running.set(false);
+        }
+
+        double seconds = RUN_MILLIS / 1000.0;
+        System.out.printf("%-22s %12.0f %14.0f %12.1f%n", mode, lookups.sum() / seconds,
+                upstreamCalls.sum() / seconds, (double) lookups.sum() / upstreamCalls.sum());
+    }
+
+    private static ItemWithCommentsDto item(long id) {
+        return new ItemWithCommentsDto(id, "Item" + id, "desc", 0L, true, null, null, List.of(), 0L);
+    }
+}
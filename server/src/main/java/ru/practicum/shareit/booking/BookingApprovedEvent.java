@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking;
+
+public record BookingApprovedEvent(
+        Long bookingId,
+        Long itemId,
+        String category
+) {
+}
@@ -1,13 +1,27 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.HeaderNames;
+import ru.practicum.shareit.booking.dto.BookingBatchResponseDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -16,6 +30,7 @@ public class BookingController implements BookingApi {
 
     private final BookingService bookingService;
     private final BookingMapper bookingMapper;
+    private final ObjectMapper objectMapper;
 
     @Override
     public ResponseEntity<BookingResponseDto> createBooking(long bookerId, BookingRequestDto bookingRequestDto) {
@@ -30,12 +45,27 @@ public class BookingController implements BookingApi {
         return ResponseEntity.ok(bookingMapper.toResponseDto(updated));
     }
 
+    @Override
+    public ResponseEntity<BookingBatchResponseDto> approveOrRejectBatch(long ownerId, List<BookingDecisionDto> decisions) {
+        List<BookingDecisionResultDto> results = bookingService.setApprovedOrRejectedBatch(ownerId, decisions);
+        int failed = (int) results.stream().filter(result -> result.error() != null).count();
+        return ResponseEntity.ok(new BookingBatchResponseDto(results.size() - failed, failed, results));
+    }
+
     @Override
     public ResponseEntity<BookingResponseDto> getBooking(long userId, long bookingId) {
         Booking booking = bookingService.getBooking(bookingId, userId);
         return ResponseEntity.ok(bookingMapper.toResponseDto(booking));
     }
 
+    @Override
+    public ResponseEntity<MultiGetResponseDto<BookingResponseDto>> getBookingsByIds(long userId, List<Long> ids) {
+        List<BookingResponseDto> found = bookingService.getBookings(ids, userId).stream()
+                .map(bookingMapper::toResponseDto)
+                .toList();
+        return ResponseEntity.ok(MultiGetResponseDto.of(ids, found, BookingResponseDto::id));
+    }
+
     @Override
     public ResponseEntity<List<BookingResponseDto>> getUserBookings(long userId, BookingState state) {
         List<BookingResponseDto> result = bookingService.getUserBookings(userId, state).stream()
@@ -51,4 +81,33 @@ public class BookingController implements BookingApi {
                 .toList();
         return ResponseEntity.ok(result);
     }
+
+    // не часть BookingApi: ответ пишется построчно (NDJSON) прямо в поток, без списка в памяти
+    @GetMapping("/bookings/owner/export")
+    public void exportOwnerBookings(@RequestHeader(HeaderNames.USER_ID) long userId,
+                                    HttpServletResponse response) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(BookingResponseDto.class);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+
+        try {
+            bookingService.exportOwnerBookings(userId, booking -> {
+                try {
+                    out.write(writer.writeValueAsBytes(bookingMapper.toResponseDto(booking)));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            // ошибка до первой строки (нет пользователя) уходит в ErrorHandler обычным JSON
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+        out.flush();
+    }
 }
@@ -1,14 +1,22 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.dto.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    int EXPORT_FETCH_SIZE = 500;
     // нормально, что они теперь такие длинные?
 
 
@@ -45,6 +53,46 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByItemOwnerIdAndStatusOrderByStartTimeBookingDesc(
             long ownerId, Status status);
 
+    // курсор для выгрузки: строки тянутся пачками по EXPORT_FETCH_SIZE, а не списком целиком
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+                select b
+                from Booking b
+                join fetch b.item i
+                join fetch b.booker
+                where i.owner.id = :ownerId
+                order by b.startTimeBooking desc
+            """)
+    Stream<Booking> streamByItemOwnerId(@Param("ownerId") long ownerId);
+
+
+    // брони по списку id вместе с вещью, владельцем и арендатором одним запросом
+    @Query("""
+                select b
+                from Booking b
+                join fetch b.item i
+                join fetch i.owner
+                join fetch b.booker
+                where b.bookingId in :ids
+            """)
+    List<Booking> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // уже подтверждённые брони этих вещей, пересекающиеся с окном [from, to)
+    @Query("""
+                select b
+                from Booking b
+                where b.item.id in :itemIds
+                  and b.status = ru.practicum.shareit.booking.dto.Status.APPROVED
+                  and b.startTimeBooking < :to
+                  and b.endTimeBooking > :from
+            """)
+    List<Booking> findApprovedOverlapping(@Param("itemIds") Collection<Long> itemIds,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+
 
     // --- EXISTS finished booking for comments ---
     boolean existsByItemIdAndBookerIdAndStatusAndEndTimeBookingLessThan(
@@ -1,8 +1,13 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.Status;
 import ru.practicum.shareit.exceptions.ForbiddenException;
@@ -11,17 +16,41 @@ import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookingService {
+    // guard по статусу: бронь, которую успели изменить параллельно, не перезаписываем
+    private static final String DECIDE_SQL =
+            "update bookings set status = ? where booking_id = ? and status = 'WAITING'";
+    private static final String OVERLAP_ERROR = "Booking overlaps an approved booking of the same item";
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
+    private final Clock clock;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
 
     @Transactional
     public Booking createBooking(Booking booking, Long itemId, Long bookerId) {
@@ -44,7 +73,97 @@ public class BookingService {
         validateStatusIsWaiting(booking);
 
         booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        if (approved) {
+            Item item = saved.getItem();
+            eventPublisher.publishEvent(new BookingApprovedEvent(saved.getBookingId(), item.getId(), item.getCategory()));
+        }
+        return saved;
+    }
+
+    // результаты идут в порядке decisions; ошибка одной брони не мешает остальным
+    @Transactional
+    public List<BookingDecisionResultDto> setApprovedOrRejectedBatch(long ownerId, List<BookingDecisionDto> decisions) {
+        checkUserExists(ownerId);
+
+        Map<Long, Booking> bookings = bookingRepository.findAllWithDetailsByIdIn(
+                        decisions.stream().map(BookingDecisionDto::bookingId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Booking::getBookingId, Function.identity()));
+        Map<Long, List<Booking>> approvedByItemId = findApprovedOverlapping(decisions, bookings);
+
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        List<PendingDecision> pending = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (BookingDecisionDto decision : decisions) {
+            Booking booking = bookings.get(decision.bookingId());
+            String error = decisionError(decision, booking, ownerId, seen, approvedByItemId);
+            if (error != null) {
+                results.add(new BookingDecisionResultDto(decision.bookingId(),
+                        booking == null ? null : booking.getStatus(), error));
+                continue;
+            }
+            Status status = decision.approved() ? Status.APPROVED : Status.REJECTED;
+            pending.add(new PendingDecision(results.size(), booking, status));
+            results.add(new BookingDecisionResultDto(booking.getBookingId(), status, null));
+        }
+
+        // подтверждения, пересекающиеся внутри пакета, зависят от исхода друг друга — их пишем по одному
+        // в порядке decisions и сверяем только с теми, чей update действительно прошёл; остальное — одним батчем
+        List<PendingDecision> contested = pending.stream()
+                .filter(decision -> decision.status() == Status.APPROVED)
+                .filter(decision -> overlapsApproved(decision.booking(), pending.stream()
+                        .filter(other -> other != decision && other.status() == Status.APPROVED)
+                        .map(PendingDecision::booking)
+                        .filter(other -> other.getItem().getId().equals(decision.booking().getItem().getId()))
+                        .toList()))
+                .toList();
+        List<PendingDecision> independent = pending.stream()
+                .filter(decision -> !contested.contains(decision))
+                .toList();
+
+        if (!independent.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(DECIDE_SQL, independent.stream()
+                    .map(decision -> new Object[]{decision.status().name(), decision.booking().getBookingId()})
+                    .toList());
+            for (int i = 0; i < counts.length; i++) {
+                // SUCCESS_NO_INFO (-2) считаем успехом
+                applyDecision(independent.get(i), counts[i] != 0, results, approvedByItemId);
+            }
+        }
+        for (PendingDecision decision : contested) {
+            Booking booking = decision.booking();
+            if (overlapsApproved(booking, approvedByItemId.getOrDefault(booking.getItem().getId(), List.of()))) {
+                results.set(decision.position(), new BookingDecisionResultDto(booking.getBookingId(),
+                        booking.getStatus(), OVERLAP_ERROR));
+                continue;
+            }
+            int count = jdbcTemplate.update(DECIDE_SQL, decision.status().name(), booking.getBookingId());
+            applyDecision(decision, count != 0, results, approvedByItemId);
+        }
+        return results;
+    }
+
+    private record PendingDecision(int position, Booking booking, Status status) {
+    }
+
+    // update прошёл мимо persistence context: бронь с устаревшим статусом отцепляем,
+    // чтобы следующее чтение в этой же транзакции взяло строку из БД
+    private void applyDecision(PendingDecision decision, boolean updated, List<BookingDecisionResultDto> results,
+                               Map<Long, List<Booking>> approvedByItemId) {
+        Booking booking = decision.booking();
+        Item item = booking.getItem();
+        entityManager.detach(booking);
+        if (!updated) {
+            // статус сменился между чтением и записью
+            results.set(decision.position(), new BookingDecisionResultDto(booking.getBookingId(), null,
+                    "Booking status changed concurrently"));
+            return;
+        }
+        if (decision.status() == Status.APPROVED) {
+            approvedByItemId.computeIfAbsent(item.getId(), id -> new ArrayList<>()).add(booking);
+            eventPublisher.publishEvent(new BookingApprovedEvent(booking.getBookingId(), item.getId(), item.getCategory()));
+        }
     }
 
     @Transactional(readOnly = true)
@@ -57,10 +176,25 @@ public class BookingService {
         return booking;
     }
 
+    // порядок — как в ids, без повторов; чужие и несуществующие брони пропускаются
+    @Transactional(readOnly = true)
+    public List<Booking> getBookings(List<Long> bookingIds, long userId) {
+        checkUserExists(userId);
+        Map<Long, Booking> byId = bookingRepository.findAllWithDetailsByIdIn(bookingIds).stream()
+                .filter(booking -> isOwnerOrBooker(booking, userId))
+                .collect(Collectors.toMap(Booking::getBookingId, Function.identity()));
+
+        return bookingIds.stream()
+                .distinct()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     @Transactional(readOnly = true)
     public List<Booking> getUserBookings(long userId, BookingState state) {
         checkUserExists(userId);
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now(clock);
 
         return switch (state) {
             case ALL -> bookingRepository.findByBookerIdOrderByStartTimeBookingDesc(userId);
@@ -82,7 +216,13 @@ public class BookingService {
     @Transactional(readOnly = true)
     public List<Booking> getOwnerBookings(long userId, BookingState state) {
         checkUserExists(userId);
-        LocalDateTime now = LocalDateTime.now();
+        return findOwnerBookings(userId, state);
+    }
+
+    // без проверки пользователя — для составных ответов, где она уже сделана
+    @Transactional(readOnly = true)
+    public List<Booking> findOwnerBookings(long userId, BookingState state) {
+        LocalDateTime now = LocalDateTime.now(clock);
 
         return switch (state) {
             case ALL -> bookingRepository.findByItemOwnerIdOrderByStartTimeBookingDesc(userId);
@@ -100,11 +240,29 @@ public class BookingService {
         };
     }
 
+    @Transactional(readOnly = true)
+    public void exportOwnerBookings(long ownerId, Consumer<Booking> sink) {
+        checkUserExists(ownerId);
+
+        try (Stream<Booking> bookings = bookingRepository.streamByItemOwnerId(ownerId)) {
+            Iterator<Booking> rows = bookings.iterator();
+            long exported = 0;
+            while (rows.hasNext()) {
+                sink.accept(rows.next());
+                // вместе с бронью в контексте остаются join fetch'нутые вещь и арендатор —
+                // чистим его целиком раз в пачку, иначе он растёт с каждой новой вещью и арендатором
+                if (++exported % BookingRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
 
     // --- Helpers ---
 
     private User getUserOrThrow(Long userId) {
-        return userRepository.findById(userId)
+        return userRepository.findActiveById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found: " + userId));
     }
 
@@ -119,11 +277,62 @@ public class BookingService {
     }
 
     private void checkUserExists(Long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             throw new NotFoundException("User not found: " + userId);
         }
     }
 
+    // одним запросом: подтверждённые брони тех вещей, что пакет собирается подтвердить
+    private Map<Long, List<Booking>> findApprovedOverlapping(List<BookingDecisionDto> decisions,
+                                                             Map<Long, Booking> bookings) {
+        List<Booking> toApprove = decisions.stream()
+                .filter(BookingDecisionDto::approved)
+                .map(decision -> bookings.get(decision.bookingId()))
+                .filter(Objects::nonNull)
+                .toList();
+        Map<Long, List<Booking>> approvedByItemId = new HashMap<>();
+        if (toApprove.isEmpty()) {
+            return approvedByItemId;
+        }
+
+        Set<Long> itemIds = toApprove.stream().map(b -> b.getItem().getId()).collect(Collectors.toSet());
+        LocalDateTime from = toApprove.stream().map(Booking::getStartTimeBooking)
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = toApprove.stream().map(Booking::getEndTimeBooking)
+                .max(Comparator.naturalOrder()).orElseThrow();
+        for (Booking approved : bookingRepository.findApprovedOverlapping(itemIds, from, to)) {
+            approvedByItemId.computeIfAbsent(approved.getItem().getId(), id -> new ArrayList<>()).add(approved);
+        }
+        return approvedByItemId;
+    }
+
+    private String decisionError(BookingDecisionDto decision, Booking booking, long ownerId,
+                                 Set<Long> seen, Map<Long, List<Booking>> approvedByItemId) {
+        if (!seen.add(decision.bookingId())) {
+            return "Duplicate booking in batch: " + decision.bookingId();
+        }
+        if (booking == null) {
+            return "Booking not found: " + decision.bookingId();
+        }
+        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+            return "Only item owner can perform this action";
+        }
+        if (booking.getStatus() != Status.WAITING) {
+            return "Booking status must be WAITING but was: " + booking.getStatus();
+        }
+        if (decision.approved() && overlapsApproved(booking,
+                approvedByItemId.getOrDefault(booking.getItem().getId(), List.of()))) {
+            return OVERLAP_ERROR;
+        }
+        return null;
+    }
+
+    private boolean overlapsApproved(Booking booking, List<Booking> approved) {
+        return approved.stream().anyMatch(other ->
+                other.getStartTimeBooking().isBefore(booking.getEndTimeBooking())
+                        && booking.getStartTimeBooking().isBefore(other.getEndTimeBooking()));
+    }
+
     private void validateBookingCreation(Item item, Long bookerId, Booking booking) {
         if (item.getOwner().getId().equals(bookerId)) {
             throw new NotFoundException("Owner cannot book own item");
@@ -146,13 +355,15 @@ public class BookingService {
     }
 
     private void assertIsOwnerOrBooker(Booking booking, Long userId) {
-        long bookerId = booking.getBooker().getId();
-        long ownerId = booking.getItem().getOwner().getId();
-        if (userId != ownerId && userId != bookerId) {
+        if (!isOwnerOrBooker(booking, userId)) {
             throw new NotFoundException("Booking not accessable for user: " + userId);
         }
     }
 
+    private boolean isOwnerOrBooker(Booking booking, long userId) {
+        return userId == booking.getItem().getOwner().getId() || userId == booking.getBooker().getId();
+    }
+
     private void validateStatusIsWaiting(Booking booking) {
         if (booking.getStatus() != Status.WAITING) {
             throw new ValidationException("Booking status must be WAITING but was: " + booking.getStatus());
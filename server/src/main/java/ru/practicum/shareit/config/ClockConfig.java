@@ -0,0 +1,16 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class ClockConfig {
+
+    // единый источник "сейчас" для всех сервисов; в тестах подменяется на Clock.fixed
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
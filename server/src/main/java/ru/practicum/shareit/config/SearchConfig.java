@@ -0,0 +1,11 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.FuzzySearchProperties;
+import ru.practicum.shareit.item.SearchCacheProperties;
+
+@Configuration
+@EnableConfigurationProperties({FuzzySearchProperties.class, SearchCacheProperties.class})
+public class SearchConfig {
+}
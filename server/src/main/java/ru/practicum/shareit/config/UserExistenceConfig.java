@@ -0,0 +1,11 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.user.UserExistenceProperties;
+import ru.practicum.shareit.user.UserPurgeProperties;
+
+@Configuration
+@EnableConfigurationProperties({UserExistenceProperties.class, UserPurgeProperties.class})
+public class UserExistenceConfig {
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item;
+
+import java.util.List;
+
+// Поиск доступных вещей с опечатками по триграммам названия; результат упорядочен по убыванию сходства.
+public interface FuzzyItemSearch {
+
+    List<FuzzyMatch> search(String text, int limit);
+
+    record FuzzyMatch(long itemId, double similarity) {
+    }
+}
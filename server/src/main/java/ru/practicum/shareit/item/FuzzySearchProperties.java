@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("shareit.search.fuzzy")
+public record FuzzySearchProperties(
+        @DefaultValue("memory") String engine,
+        @DefaultValue("0.2") double threshold,
+        @DefaultValue("1000") int maxCandidates
+) {
+}
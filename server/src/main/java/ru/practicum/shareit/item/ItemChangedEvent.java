@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item;
+
+// удалённая вещь публикуется как недоступная: из индексов в памяти она уходит тем же путём;
+// requestId — запрос, на который вещь ответила (или null)
+public record ItemChangedEvent(
+        Long itemId,
+        String name,
+        boolean available,
+        long useCount,
+        Long ownerId,
+        Long requestId
+) {
+}
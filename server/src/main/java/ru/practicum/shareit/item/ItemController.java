@@ -3,10 +3,15 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.HeaderNames;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestDtoAssembler;
+import ru.practicum.shareit.request.dto.FeedCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.net.URI;
 import java.util.List;
@@ -16,8 +21,10 @@ import java.util.List;
 public class ItemController implements ItemApi {
 
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
+    private final ItemRequestDtoAssembler itemRequestDtoAssembler;
 
     @Override
     public ResponseEntity<ItemDto> createItem(Long ownerId, ItemDto item) {
@@ -26,6 +33,16 @@ public class ItemController implements ItemApi {
                 .body(itemMapper.toDto(createdItem));
     }
 
+    @Override
+    public ResponseEntity<ItemBatchResponseDto> createItemsBatch(Long ownerId, List<ItemDto> items) {
+        List<ItemImportRow> rows = items.stream()
+                .map(dto -> new ItemImportRow(itemMapper.toEntity(dto), dto == null ? null : dto.requestId()))
+                .toList();
+        List<ItemBatchRowDto> results = itemImportService.importItems(ownerId, rows);
+        int created = (int) results.stream().filter(row -> row.error() == null).count();
+        return ResponseEntity.ok(new ItemBatchResponseDto(created, results.size() - created, results));
+    }
+
     @Override
     public ResponseEntity<CommentResponseDto> addComment(Long itemId, Long userId, CommentRequestDto request) {
         Comment commentEntity = itemService.addComment(userId, itemId, request);
@@ -49,19 +66,82 @@ public class ItemController implements ItemApi {
     }
 
     @Override
-    public ResponseEntity<List<ItemDto>> searchItems(Long userId, String text) {
-        List<ItemDto> result = itemService.search(text).stream()
+    public ResponseEntity<List<ItemDto>> searchItems(Long userId, String text, String category, int from, int size) {
+        ItemSearchPage page = itemService.search(text, category, from, size);
+        return ResponseEntity.ok()
+                .header(HeaderNames.HAS_MORE, String.valueOf(page.hasMore()))
+                .body(page.items());
+    }
+
+    @Override
+    public ResponseEntity<ItemSearchResponseDto> searchItemsFaceted(Long userId, String text, String category,
+                                                                    int from, int size) {
+        ItemSearchResult result = itemService.searchFaceted(text, category, from, size);
+        return ResponseEntity.ok(new ItemSearchResponseDto(result.page().items(), result.facets(), result.page().hasMore(),
+                result.facetsCapped()));
+    }
+
+    @Override
+    public ResponseEntity<List<ItemDto>> searchItemsFuzzy(Long userId, String text, int limit) {
+        List<ItemDto> result = itemService.fuzzySearch(text, limit).stream()
                 .map(itemMapper::toDto)
                 .toList();
         return ResponseEntity.ok(result);
     }
 
+    @Override
+    public ResponseEntity<List<String>> suggest(Long userId, String prefix, int limit) {
+        return ResponseEntity.ok(itemService.suggest(prefix, limit));
+    }
+
+    @Override
+    public ResponseEntity<List<ItemRequestDto>> getMatchingRequests(Long userId, Long itemId, int limit) {
+        return ResponseEntity.ok(itemRequestDtoAssembler.mapRequestsToDtos(
+                itemService.findMatchingRequests(userId, itemId, limit)));
+    }
+
+    @Override
+    public ResponseEntity<List<ItemDto>> getMostBooked(Long userId, int limit) {
+        List<ItemDto> result = itemService.findMostBooked(limit).stream()
+                .map(usage -> itemMapper.toDto(usage.item(), usage.useCount()))
+                .toList();
+        return ResponseEntity.ok(result);
+    }
+
+    @Override
+    public ResponseEntity<List<ItemDto>> getPopular(Long userId, String category, int limit) {
+        List<ItemDto> result = itemService.findPopular(category, limit).stream()
+                .map(usage -> itemMapper.toDto(usage.item(), usage.useCount()))
+                .toList();
+        return ResponseEntity.ok(result);
+    }
+
+    @Override
+    public ResponseEntity<List<CommentResponseDto>> getComments(Long userId, Long itemId, int size, String after) {
+        CommentPage page = itemService.findComments(userId, itemId, FeedCursor.decode(after), size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HeaderNames.HAS_MORE, String.valueOf(page.hasMore()));
+        if (page.hasMore()) {
+            Comment last = page.comments().getLast();
+            response.header(HeaderNames.NEXT_CURSOR, new FeedCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(page.comments().stream().map(commentMapper::toDto).toList());
+    }
+
     @Override
     public ResponseEntity<ItemWithCommentsDto> getItem(Long userId, Long itemId) {
         ItemDetailsDto details = itemService.getItemWithComments(userId, itemId);
         return ResponseEntity.ok(itemMapper.toItemWithCommentsDto(details));
     }
 
+    @Override
+    public ResponseEntity<MultiGetResponseDto<ItemWithCommentsDto>> getItemsByIds(Long userId, List<Long> ids) {
+        List<ItemDetailsDto> detailsList = itemService.getItemsWithComments(userId, ids);
+        return ResponseEntity.ok(MultiGetResponseDto.of(
+                ids, itemMapper.toItemWithCommentsDtoList(detailsList), ItemWithCommentsDto::id));
+    }
+
     @Override
     public ResponseEntity<List<ItemWithCommentsDto>> getAllItemsFromUser(Long ownerId) {
         List<ItemDetailsDto> detailsList = itemService.getAllByOwnerWithComments(ownerId);
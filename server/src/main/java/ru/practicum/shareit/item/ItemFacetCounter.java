@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.CategoryFacetDto;
+
+import java.util.List;
+
+// Фасеты поиска одним group by по тому же текстовому условию, что и /items/search, но не больше
+// чем по scanLimit совпавшим строкам: широкий запрос ("a") иначе агрегировал бы весь каталог.
+// В подзапросе limit без order by — иначе сортировка по id заставляет дочитать все совпадения
+// (JPQL limit без order by не допускает, поэтому SQL). В Postgres условие like идёт
+// по trgm-индексам idx_items_name_trgm / idx_items_description_trgm (schema-postgresql.sql).
+@Component
+@RequiredArgsConstructor
+public class ItemFacetCounter {
+
+    private static final String FACETS_SQL = """
+            select category, count(*) as cnt
+            from (
+                select category
+                from items
+                where available = true
+                  and (lower(name) like lower(?) or lower(description) like lower(?))
+                limit ?
+            ) m
+            group by category
+            order by cnt desc, category
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<CategoryFacetDto> count(String text, int scanLimit) {
+        String pattern = "%" + text + "%";
+        return jdbcTemplate.query(FACETS_SQL,
+                (rs, rowNum) -> new CategoryFacetDto(rs.getString("category"), rs.getLong("cnt")),
+                pattern, pattern, scanLimit);
+    }
+}
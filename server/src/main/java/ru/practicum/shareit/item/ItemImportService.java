@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemBatchRowDto;
+import ru.practicum.shareit.item.dto.ItemImportRow;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Массовое создание вещей: каждая порция пишется в своей транзакции пачками JDBC,
+// ошибка в строке не откатывает остальные. Если порция падает на flush (например, заявку
+// удалили параллельно), она повторяется построчно, чтобы найти и отметить виноватую строку.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemImportService {
+
+    // кратно hibernate.jdbc.batch_size
+    public static final int CHUNK_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final ItemRequestRepository itemRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public List<ItemBatchRowDto> importItems(Long ownerId, List<ItemImportRow> rows) {
+        if (!userExistenceCache.exists(ownerId)) {
+            throw new NotFoundException("User not found");
+        }
+
+        ItemBatchRowDto[] results = new ItemBatchRowDto[rows.size()];
+        for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, rows.size());
+            List<Integer> valid = new ArrayList<>();
+            for (int index = from; index < to; index++) {
+                String error = validate(rows.get(index).item());
+                if (error == null) {
+                    valid.add(index);
+                } else {
+                    results[index] = new ItemBatchRowDto(index, null, error);
+                }
+            }
+            if (valid.isEmpty()) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> saveChunk(ownerId, rows, valid, results));
+            } catch (DataAccessException e) {
+                log.warn("Item import chunk {}..{} failed, retrying row by row: {}", from, to, e.getMessage());
+                for (Integer index : valid) {
+                    rows.get(index).item().setId(null);
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> saveChunk(ownerId, rows, List.of(index), results));
+                    } catch (DataAccessException rowError) {
+                        results[index] = new ItemBatchRowDto(index, null, "Could not save item: "
+                                + rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void saveChunk(Long ownerId, List<ItemImportRow> rows, List<Integer> indexes, ItemBatchRowDto[] results) {
+        User owner = entityManager.getReference(User.class, ownerId);
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(indexes.stream()
+                        .map(index -> rows.get(index).requestId())
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<Item> batch = new ArrayList<>();
+        List<Integer> batchIndexes = new ArrayList<>();
+        for (Integer index : indexes) {
+            ItemImportRow row = rows.get(index);
+            Item item = row.item();
+            if (row.requestId() != null) {
+                ItemRequest request = requests.get(row.requestId());
+                if (request == null) {
+                    results[index] = new ItemBatchRowDto(index, null, "Request not found: " + row.requestId());
+                    continue;
+                }
+                item.setItemRequest(request);
+            }
+            item.setId(null);
+            item.setOwner(owner);
+            batch.add(item);
+            batchIndexes.add(index);
+        }
+
+        itemRepository.saveAll(batch);
+        entityManager.flush();
+        for (int i = 0; i < batch.size(); i++) {
+            Item saved = batch.get(i);
+            results[batchIndexes.get(i)] = new ItemBatchRowDto(batchIndexes.get(i), saved.getId(), null);
+            eventPublisher.publishEvent(new ItemChangedEvent(saved.getId(), saved.getName(),
+                    Boolean.TRUE.equals(saved.getIsAvailable()), saved.getUseCount(), ownerId,
+                    saved.getItemRequest() == null ? null : saved.getItemRequest().getId()));
+        }
+        entityManager.clear();
+    }
+
+    // те же правила, что в шлюзе (OnCreate), на случай прямого вызова сервера
+    private static String validate(Item item) {
+        if (item == null) return "Item must not be null";
+        if (item.getName() == null || item.getName().isBlank()) return "Name cannot be empty";
+        if (item.getDescription() == null || item.getDescription().isBlank()) return "Description cannot be empty";
+        if (item.getIsAvailable() == null) return "Available must be set";
+        return null;
+    }
+}
@@ -23,6 +23,10 @@ public interface ItemMapper {
 
     ItemDto toDto(Item item);
 
+    @Mapping(target = "useCount", source = "useCount")
+    @Mapping(target = "requestId", ignore = true)
+    ItemDto toDto(Item item, Long useCount);
+
     @Mapping(target = "id", source = "details.item.id")
     @Mapping(target = "name", source = "details.item.name")
     @Mapping(target = "description", source = "details.item.description")
@@ -30,6 +34,7 @@ public interface ItemMapper {
     @Mapping(target = "lastBooking", source = "details.lastBooking", qualifiedByName = "toBookingShortDto")
     @Mapping(target = "nextBooking", source = "details.nextBooking", qualifiedByName = "toBookingShortDto")
     @Mapping(target = "comments", source = "details.comments")
+    @Mapping(target = "commentsCount", source = "details.commentsCount")
     ItemWithCommentsDto toItemWithCommentsDto(ItemDetailsDto details);
 
     List<ItemWithCommentsDto> toItemWithCommentsDtoList(List<ItemDetailsDto> details);
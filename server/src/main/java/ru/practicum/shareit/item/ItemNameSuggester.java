@@ -0,0 +1,164 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingApprovedEvent;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Подсказки по префиксу названия из префиксного дерева доступных вещей.
+// Каждый узел хранит готовый топ названий своего поддерева по use_count, поэтому ответ —
+// это проход по символам префикса, без БД и без обхода поддерева.
+// Изменения вещей применяются точечно после коммита: пересчитывается только путь до корня.
+@Component
+@RequiredArgsConstructor
+public class ItemNameSuggester {
+
+    public static final int MAX_SUGGESTIONS = 20;
+    private static final Comparator<Suggestion> ORDER = Comparator.comparingLong(Suggestion::weight).reversed()
+            .thenComparing(Suggestion::name);
+
+    private final ItemRepository itemRepository;
+
+    private final Node root = new Node(null, '\0');
+    // что и под каким ключом проиндексировано, чтобы при изменении снять старое название; под this
+    private final Map<Long, Indexed> byItemId = new HashMap<>();
+
+    public record Suggestion(String name, long weight) {
+    }
+
+    private record Indexed(String key, String name, long weight) {
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        Node node = find(normalize(prefix));
+        if (node == null) {
+            return List.of();
+        }
+        return node.top.stream()
+                .limit(limit)
+                .map(Suggestion::name)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        List<Item> page;
+        do {
+            page = itemRepository.findTop500ByIsAvailableTrueAndIdGreaterThanOrderByIdAsc(afterId);
+            for (Item item : page) {
+                put(item.getId(), item.getName(), item.getUseCount());
+                afterId = item.getId();
+            }
+        } while (!page.isEmpty());
+    }
+
+    // use_count в событии — значение из БД без ещё не сброшенных подтверждений, которые вес уже учёл
+    @TransactionalEventListener
+    public synchronized void onItemChanged(ItemChangedEvent event) {
+        if (event.available()) {
+            Indexed indexed = byItemId.get(event.itemId());
+            long weight = indexed == null ? event.useCount() : Math.max(indexed.weight(), event.useCount());
+            put(event.itemId(), event.name(), weight);
+        } else {
+            remove(event.itemId());
+        }
+    }
+
+    @TransactionalEventListener
+    public synchronized void onBookingApproved(BookingApprovedEvent event) {
+        Indexed indexed = byItemId.get(event.itemId());
+        if (indexed != null) {
+            put(event.itemId(), indexed.name(), indexed.weight() + 1);
+        }
+    }
+
+    public synchronized void put(long itemId, String name, long weight) {
+        remove(itemId);
+        String key = normalize(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            Node parent = node;
+            char ch = key.charAt(i);
+            node = parent.children.computeIfAbsent(ch, c -> new Node(parent, c));
+        }
+        node.weights.put(itemId, weight);
+        node.name = name.trim();
+        byItemId.put(itemId, new Indexed(key, name, weight));
+        refresh(node);
+    }
+
+    public synchronized void remove(long itemId) {
+        Indexed indexed = byItemId.remove(itemId);
+        if (indexed == null) {
+            return;
+        }
+        Node node = find(indexed.key());
+        if (node != null) {
+            node.weights.remove(itemId);
+            refresh(node);
+        }
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    // пересчёт топа от изменённого узла к корню; опустевшие ветки отрезаются
+    private void refresh(Node node) {
+        for (Node current = node; current != null; current = current.parent) {
+            if (current != root && current.weights.isEmpty() && current.children.isEmpty()) {
+                current.parent.children.remove(current.ch);
+                continue;
+            }
+            List<Suggestion> candidates = new ArrayList<>();
+            if (!current.weights.isEmpty()) {
+                long weight = current.weights.values().stream().mapToLong(Long::longValue).sum();
+                candidates.add(new Suggestion(current.name, weight));
+            }
+            current.children.values().forEach(child -> candidates.addAll(child.top));
+            candidates.sort(ORDER);
+            current.top = List.copyOf(candidates.subList(0, Math.min(candidates.size(), MAX_SUGGESTIONS)));
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        private final Node parent;
+        private final char ch;
+        private final Map<Character, Node> children = new ConcurrentHashMap<>();
+        // вещи с этим названием и их use_count; меняется только под локом суггестера
+        private final Map<Long, Long> weights = new HashMap<>();
+        private String name;
+        private volatile List<Suggestion> top = List.of();
+
+        private Node(Node parent, char ch) {
+            this.parent = parent;
+            this.ch = ch;
+        }
+    }
+}
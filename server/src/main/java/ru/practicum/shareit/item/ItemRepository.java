@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.RequestItemRow;
 
 import java.util.Collection;
 import java.util.List;
@@ -12,16 +14,56 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findAllByOwnerId(Long ownerId);
 
+    List<Item> findAllByOwnerIdAndIsAvailableTrue(Long ownerId);
+
+    // limit передаётся на единицу больше страницы: лишняя строка означает, что есть продолжение
     @Query("""
                 select i
                 from Item i
                 where i.isAvailable = true
                   and (lower(i.name) like lower(concat('%', :text, '%'))
                        or lower(i.description) like lower(concat('%', :text, '%')))
+                order by i.id
+                limit :limit offset :offset
             """)
-    List<Item> searchAvailableByText(@Param("text") String text);
+    List<Item> searchAvailableByText(@Param("text") String text,
+                                     @Param("offset") int offset,
+                                     @Param("limit") int limit);
 
-    List<Item> findAllByItemRequest_Id(Long requestId);
+    @Query("""
+                select i
+                from Item i
+                where i.isAvailable = true
+                  and i.category = :category
+                  and (lower(i.name) like lower(concat('%', :text, '%'))
+                       or lower(i.description) like lower(concat('%', :text, '%')))
+                order by i.id
+                limit :limit offset :offset
+            """)
+    List<Item> searchAvailableByTextAndCategory(@Param("text") String text,
+                                                @Param("category") String category,
+                                                @Param("offset") int offset,
+                                                @Param("limit") int limit);
 
     List<Item> findAllByItemRequest_IdIn(Collection<Long> requestIds);
+
+    // только поля ItemShortDto; owner_id и request_id берутся из колонок items, join не нужен
+    @Query("""
+            select new ru.practicum.shareit.request.dto.RequestItemRow(i.itemRequest.id, i.id, i.name, i.owner.id)
+            from Item i
+            where i.itemRequest.id in :requestIds
+            order by i.id
+            """)
+    List<RequestItemRow> findRowsByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    List<Item> findAllByOrderByUseCountDescIdAsc(Pageable pageable);
+
+    List<Item> findTop500ByIsAvailableTrueAndIdGreaterThanOrderByIdAsc(long afterId);
+
+    @Query("select i from Item i where i.id in :ids and i.isAvailable = true and i.owner.deletedAt is null")
+    List<Item> findAllAvailableByIdIn(@Param("ids") Collection<Long> ids);
+
+    // keyset-проход по всем популярным доступным вещам для сверки рейтинга
+    List<Item> findTop500ByIsAvailableTrueAndUseCountGreaterThanAndIdGreaterThanOrderByIdAsc(long useCount,
+                                                                                         long afterId);
 }
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// LRU-кэш результатов текстового поиска. Каждая запись помечена поколением каталога;
+// изменение вещи после коммита только увеличивает счётчик поколения, и записи со старым
+// поколением выбрасываются при следующем обращении к ним — кэш на записи не обходится.
+// Поколение общее, а не по словам: поиск идёт по подстроке, и привязка к токенам была бы неточной.
+// Страницы отдаются нескольким потокам сразу, поэтому в них только неизменяемые DTO, без JPA-сущностей.
+@Component
+public class ItemSearchCache {
+
+    private final AtomicLong generation = new AtomicLong();
+    // под this
+    private final Map<Key, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter stale;
+    private final Counter invalidations;
+
+    public ItemSearchCache(MeterRegistry meterRegistry, SearchCacheProperties properties) {
+        int maxEntries = properties.maxEntries();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("shareit.search.cache.gets").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("shareit.search.cache.gets").tag("result", "miss").register(meterRegistry);
+        this.stale = Counter.builder("shareit.search.cache.stale")
+                .description("Entries dropped on read because the catalogue generation moved on")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("shareit.search.cache.invalidations")
+                .description("Catalogue generation bumps caused by item changes")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.cache.size", this, ItemSearchCache::size)
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.cache.hit.ratio", this, ItemSearchCache::hitRatio)
+                .register(meterRegistry);
+    }
+
+    // текст нормализуется (регистр, пробелы) и в таком виде уходит в запрос; категория сравнивается в БД точно
+    public record Key(String text, String category, int from, int size) {
+
+        public static Key of(String text, String category, int from, int size) {
+            String normalizedCategory = category == null || category.isBlank() ? null : category;
+            return new Key(text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT), normalizedCategory, from, size);
+        }
+    }
+
+    private record Entry(long generation, ItemSearchPage page) {
+    }
+
+    public ItemSearchPage get(Key key, Supplier<ItemSearchPage> loader) {
+        // поколение берётся до запроса в БД: если вещь изменится во время загрузки,
+        // запись сразу окажется устаревшей и не переживёт изменение
+        long current = generation.get();
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.generation() != current) {
+                entries.remove(key);
+                entry = null;
+                stale.increment();
+            }
+        }
+        if (entry != null) {
+            hits.increment();
+            return entry.page();
+        }
+
+        misses.increment();
+        ItemSearchPage page = loader.get();
+        synchronized (this) {
+            entries.put(key, new Entry(current, page));
+        }
+        return page;
+    }
+
+    // все поля, которые меняет updateItem (название, описание, доступность), участвуют в поиске
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        generation.incrementAndGet();
+        invalidations.increment();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? Double.NaN : hits.count() / total;
+    }
+}
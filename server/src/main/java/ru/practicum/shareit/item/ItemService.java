@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
@@ -10,29 +12,64 @@ import ru.practicum.shareit.exceptions.ForbiddenException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentCountRow;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.dto.CategoryFacetDto;
+import ru.practicum.shareit.item.dto.CommentPage;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemDetailsDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.item.dto.ItemSearchResult;
+import ru.practicum.shareit.item.dto.ItemUsageDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.RequestMatcher;
+import ru.practicum.shareit.request.dto.FeedCursor;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.util.ParallelReads;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
 public class ItemService {
+    public static final int MAX_SEARCH_SIZE = 100;
+    public static final int FACET_SCAN_LIMIT = 10_000;
+    // сколько последних комментариев отдаётся вместе с вещью; остальные — через findComments
+    public static final int LATEST_COMMENTS = 5;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final Clock clock;
+    private final ItemUseCounter itemUseCounter;
+    private final ItemFacetCounter itemFacetCounter;
+    private final PopularItemsRanking popularItemsRanking;
+    private final ItemNameSuggester itemNameSuggester;
+    private final FuzzyItemSearch fuzzyItemSearch;
+    private final ItemSearchCache itemSearchCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestMatcher requestMatcher;
+    private final ParallelReads parallelReads;
+    private final ItemMapper itemMapper;
 
     @Transactional
     public Item createItem(Item item, Long ownerId, Long requestId) {
@@ -43,7 +80,9 @@ public class ItemService {
                     .orElseThrow(() -> new NotFoundException("Request not found: " + requestId));
             item.setItemRequest(itemRequest);
         }
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        publishChanged(saved);
+        return saved;
     }
 
     @Transactional
@@ -51,7 +90,9 @@ public class ItemService {
         Item existingItem = getItemOrThrow(itemId);
         assertOwner(existingItem, ownerId, "updateUser");
         applyPatch(existingItem, patch);
-        return itemRepository.save(existingItem);
+        Item saved = itemRepository.save(existingItem);
+        publishChanged(saved);
+        return saved;
     }
 
     @Transactional
@@ -59,57 +100,106 @@ public class ItemService {
         Item item = getItemOrThrow(itemId);
         assertOwner(item, ownerId, "deleteUser");
         itemRepository.delete(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(
+                itemId, item.getName(), false, item.getUseCount(), ownerId, requestIdOf(item)));
     }
 
+    // комментарии читаются параллельно с самой вещью, бронирования — после проверки владельца
     @Transactional(readOnly = true)
     public ItemDetailsDto getItemWithComments(Long requesterId, Long itemId) {
         checkUserExists(requesterId);
-        Item item = getItemOrThrow(itemId);
-        List<Comment> comments = commentRepository.findByItemIdOrderByCreatedDesc(itemId);
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            Supplier<List<Comment>> comments = scope.fork(() -> commentRepository.findPageByItemId(itemId, LATEST_COMMENTS));
+            Supplier<Map<Long, Long>> counts = scope.fork(() -> commentCounts(List.of(itemId)));
+            Item item = getItemOrThrow(itemId);
+
+            Supplier<Booking> last = () -> null;
+            Supplier<Booking> next = () -> null;
+            if (isOwner(item, requesterId)) {
+                LocalDateTime now = LocalDateTime.now(clock);
+                last = scope.fork(() -> findLastBooking(itemId, now));
+                next = scope.fork(() -> findNextBooking(itemId, now));
+            }
+            scope.join();
+
+            return new ItemDetailsDto(item, last.get(), next.get(), comments.get(),
+                    counts.get().getOrDefault(itemId, 0L));
+        }
+    }
 
-        Booking last = null;
-        Booking next = null;
+    // порядок — как в ids, без повторов; последнее/следующее бронирование — только по своим вещам
+    @Transactional(readOnly = true)
+    public List<ItemDetailsDto> getItemsWithComments(Long requesterId, List<Long> ids) {
+        checkUserExists(requesterId);
+        Map<Long, Item> byId = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        if (byId.isEmpty()) return List.of();
 
-        if (isOwner(item, requesterId)) {
-            LocalDateTime now = LocalDateTime.now();
-            last = findLastBooking(itemId, now);
-            next = findNextBooking(itemId, now);
-        }
+        List<Long> foundIds = List.copyOf(byId.keySet());
+        Map<Long, List<Comment>> commentsByItemId = latestCommentsByItemId(foundIds);
+        Map<Long, Long> commentCounts = commentCounts(foundIds);
 
-        return new ItemDetailsDto(item, last, next, comments);
+        List<Long> ownedIds = byId.values().stream()
+                .filter(item -> isOwner(item, requesterId))
+                .map(Item::getId)
+                .toList();
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<Long, Booking> lastByItemId = ownedIds.isEmpty() ? Map.of() : lastApprovedByItemId(ownedIds, now);
+        Map<Long, Booking> nextByItemId = ownedIds.isEmpty() ? Map.of() : nextApprovedByItemId(ownedIds, now);
+
+        return ids.stream()
+                .distinct()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(item -> new ItemDetailsDto(
+                        item,
+                        lastByItemId.get(item.getId()),
+                        nextByItemId.get(item.getId()),
+                        commentsByItemId.getOrDefault(item.getId(), List.of()),
+                        commentCounts.getOrDefault(item.getId(), 0L)
+                ))
+                .toList();
     }
 
     @Transactional(readOnly = true)
     public List<ItemDetailsDto> getAllByOwnerWithComments(Long ownerId) {
         checkUserExists(ownerId);
+        return findOwnerItemDetails(ownerId);
+    }
 
+    // без проверки пользователя — для составных ответов, где она уже сделана
+    @Transactional(readOnly = true)
+    public List<ItemDetailsDto> findOwnerItemDetails(Long ownerId) {
         List<Item> items = itemRepository.findAllByOwnerId(ownerId);
         if (items.isEmpty()) return List.of();
 
         List<Long> itemIds = items.stream().map(Item::getId).toList();
-
-        Map<Long, List<Comment>> commentsByItemId = commentsByItemId(itemIds);
-
-        LocalDateTime now = LocalDateTime.now();
-
-        Map<Long, Booking> lastByItemId = lastApprovedByItemId(itemIds, now);
-        Map<Long, Booking> nextByItemId = nextApprovedByItemId(itemIds, now);
-
-        return items.stream()
-                .map(item -> new ItemDetailsDto(
-                        item,
-                        lastByItemId.get(item.getId()),
-                        nextByItemId.get(item.getId()),
-                        commentsByItemId.getOrDefault(item.getId(), List.of())
-                ))
-                .toList();
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            Supplier<Map<Long, List<Comment>>> commentsByItemId = scope.fork(() -> latestCommentsByItemId(itemIds));
+            Supplier<Map<Long, Long>> commentCounts = scope.fork(() -> commentCounts(itemIds));
+            Supplier<Map<Long, Booking>> lastByItemId = scope.fork(() -> lastApprovedByItemId(itemIds, now));
+            Supplier<Map<Long, Booking>> nextByItemId = scope.fork(() -> nextApprovedByItemId(itemIds, now));
+            scope.join();
+
+            return items.stream()
+                    .map(item -> new ItemDetailsDto(
+                            item,
+                            lastByItemId.get().get(item.getId()),
+                            nextByItemId.get().get(item.getId()),
+                            commentsByItemId.get().getOrDefault(item.getId(), List.of()),
+                            commentCounts.get().getOrDefault(item.getId(), 0L)
+                    ))
+                    .toList();
+        }
     }
 
     @Transactional
     public Comment addComment(Long authorId, Long itemId, CommentRequestDto request) {
         User author = getUserOrThrow(authorId);
         Item item = getItemOrThrow(itemId);
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now(clock);
 
         validateCommentAuthor(authorId, itemId, now);
 
@@ -121,26 +211,167 @@ public class ItemService {
                 .build());
     }
 
+    // С курсором страница начинается сразу после него; без курсора — с самого нового комментария
     @Transactional(readOnly = true)
-    public List<Item> search(String text) {
+    public CommentPage findComments(Long userId, Long itemId, FeedCursor after, int size) {
+        checkUserExists(userId);
+        if (size <= 0) throw new ValidationException("size must be > 0");
+        if (!itemRepository.existsById(itemId)) throw new NotFoundException("ItemResponseDto not found");
+
+        List<Comment> rows = after == null
+                ? commentRepository.findPageByItemId(itemId, size + 1)
+                : commentRepository.findPageByItemIdBefore(itemId, after.created(), after.id(), size + 1);
+        boolean hasMore = rows.size() > size;
+        return new CommentPage(hasMore ? rows.subList(0, size) : rows, hasMore);
+    }
+
+    // без @Transactional: попадание в кэш не должно занимать соединение с БД
+    public ItemSearchPage search(String text, String category, int from, int size) {
+        if (from < 0) throw new ValidationException("from must be >= 0");
+        if (size <= 0) throw new ValidationException("size must be > 0");
+        if (text == null || text.isBlank()) return new ItemSearchPage(List.of(), false);
+
+        // жёсткий потолок на сервере, даже если клиент обошёл валидацию шлюза
+        int limit = Math.min(size, MAX_SEARCH_SIZE);
+        ItemSearchCache.Key key = ItemSearchCache.Key.of(text, category, from, limit);
+        return itemSearchCache.get(key, () -> loadSearchPage(key));
+    }
+
+    // в кэш попадают DTO: сущности с ленивыми прокси нельзя делить между потоками и сессиями
+    private ItemSearchPage loadSearchPage(ItemSearchCache.Key key) {
+        int limit = key.size();
+        List<Item> probe = key.category() == null
+                ? itemRepository.searchAvailableByText(key.text(), key.from(), limit + 1)
+                : itemRepository.searchAvailableByTextAndCategory(key.text(), key.category(), key.from(), limit + 1);
+        boolean hasMore = probe.size() > limit;
+        List<ItemDto> items = (hasMore ? probe.subList(0, limit) : probe).stream()
+                .map(itemMapper::toDto)
+                .toList();
+        return new ItemSearchPage(items, hasMore);
+    }
+
+    // фасеты считаются по тексту без учёта выбранной категории, чтобы были видны соседние
+    @Transactional(readOnly = true)
+    public ItemSearchResult searchFaceted(String text, String category, int from, int size) {
+        ItemSearchPage page = search(text, category, from, size);
+        if (text == null || text.isBlank()) return new ItemSearchResult(page, List.of(), false);
+        // одна строка сверх лимита показывает, что счётчики обрезаны
+        List<CategoryFacetDto> facets =
+                itemFacetCounter.count(text, FACET_SCAN_LIMIT + 1);
+        long scanned = facets.stream().mapToLong(CategoryFacetDto::count).sum();
+        return new ItemSearchResult(page, facets, scanned > FACET_SCAN_LIMIT);
+    }
+
+    // порядок по убыванию сходства сохраняется, вещи догружаются одним запросом по id
+    @Transactional(readOnly = true)
+    public List<Item> fuzzySearch(String text, int limit) {
         if (text == null || text.isBlank()) return List.of();
-        return itemRepository.searchAvailableByText(text);
+        List<Long> ids = fuzzyItemSearch.search(text, limit).stream()
+                .map(FuzzyItemSearch.FuzzyMatch::itemId)
+                .toList();
+        if (ids.isEmpty()) return List.of();
+        Map<Long, Item> byId = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // открытые чужие запросы, которые могла бы закрыть вещь; смотреть может только владелец
+    @Transactional(readOnly = true)
+    public List<ItemRequest> findMatchingRequests(Long userId, Long itemId, int limit) {
+        Item item = getItemOrThrow(itemId);
+        assertOwner(item, userId, "match requests for");
+        List<Long> ids = requestMatcher.matchRequests(item.getName(), item.getDescription(), userId, limit);
+        if (ids.isEmpty()) return List.of();
+        Map<Long, ItemRequest> byId = itemRequestRepository.findAllActiveByIdIn(ids).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        requestMatcher.forgetRequests(ids.stream().filter(id -> !byId.containsKey(id)).toList());
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        if (limit <= 0) throw new ValidationException("limit must be > 0");
+        return itemNameSuggester.suggest(prefix, limit);
+    }
+
+    // use_count из БД плюс ещё не сброшенные приращения из ItemUseCounter
+    @Transactional(readOnly = true)
+    public List<ItemUsageDto> findMostBooked(int limit) {
+        Map<Long, Long> pending = itemUseCounter.pendingDeltas();
+
+        Map<Long, Item> candidates = new LinkedHashMap<>();
+        itemRepository.findAllByOrderByUseCountDescIdAsc(PageRequest.of(0, limit))
+                .forEach(item -> candidates.put(item.getId(), item));
+        List<Long> missing = pending.keySet().stream()
+                .filter(id -> !candidates.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            itemRepository.findAllById(missing).forEach(item -> candidates.put(item.getId(), item));
+        }
+
+        return candidates.values().stream()
+                .map(item -> new ItemUsageDto(item, item.getUseCount() + pending.getOrDefault(item.getId(), 0L)))
+                .sorted(Comparator.comparingLong(ItemUsageDto::useCount).reversed()
+                        .thenComparing(usage -> usage.item().getId()))
+                .limit(limit)
+                .toList();
+    }
+
+    // порядок и счётчики берутся из рейтинга в памяти, из БД только сами вещи по id. Удалённые и недоступные
+    // вещи, которые рейтинг ещё не вычистил, пропускаем — для них берётся запас в SLACK позиций — и выкидываем
+    @Transactional(readOnly = true)
+    public List<ItemUsageDto> findPopular(String category, int limit) {
+        List<PopularItemsRanking.RankedItem> top =
+                popularItemsRanking.top(category, limit + PopularItemsRanking.SLACK);
+        if (top.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = top.stream().map(PopularItemsRanking.RankedItem::itemId).toList();
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+
+        List<ItemUsageDto> result = new ArrayList<>(limit);
+        for (PopularItemsRanking.RankedItem ranked : top) {
+            Item item = itemsById.get(ranked.itemId());
+            if (item == null || !Boolean.TRUE.equals(item.getIsAvailable())) {
+                popularItemsRanking.evict(ranked.itemId());
+            } else if (result.size() < limit) {
+                result.add(new ItemUsageDto(item, ranked.count()));
+            }
+        }
+        return result;
     }
 
     // --- Helpers ---
 
     private User getUserOrThrow(Long userId) {
-        return userRepository.findById(userId)
+        return userRepository.findActiveById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
     }
 
+    private void publishChanged(Item item) {
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId(), item.getName(),
+                Boolean.TRUE.equals(item.getIsAvailable()), item.getUseCount(), item.getOwner().getId(),
+                requestIdOf(item)));
+    }
+
+    private static Long requestIdOf(Item item) {
+        return item.getItemRequest() == null ? null : item.getItemRequest().getId();
+    }
+
     private Item getItemOrThrow(Long itemId) {
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("ItemResponseDto not found"));
     }
 
     private void checkUserExists(Long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             throw new NotFoundException("User not found");
         }
     }
@@ -187,12 +418,17 @@ public class ItemService {
     }
 
 
-    private Map<Long, List<Comment>> commentsByItemId(List<Long> itemIds) {
-        return commentRepository.findByItemIdInOrderByCreatedDesc(itemIds)
+    private Map<Long, List<Comment>> latestCommentsByItemId(List<Long> itemIds) {
+        return commentRepository.findLatestByItemIdIn(itemIds, LATEST_COMMENTS)
                 .stream()
                 .collect(Collectors.groupingBy(c -> c.getItem().getId()));
     }
 
+    private Map<Long, Long> commentCounts(List<Long> itemIds) {
+        return commentRepository.countByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(CommentCountRow::itemId, CommentCountRow::count));
+    }
+
     private Map<Long, Booking> lastApprovedByItemId(List<Long> itemIds, LocalDateTime now) {
         List<Booking> candidates =
                 bookingRepository.findByItemIdInAndStatusAndStartTimeBookingLessThanEqualOrderByItemIdAscStartTimeBookingDesc(
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Буфер для items.use_count: подтверждения копятся в памяти и раз в интервал
+// уходят в БД одним batch-update, вместо блокировки строки на каждое подтверждение.
+// Счётчик на вещь — LongAdder: подтверждения одной популярной вещи не упираются в одну ячейку.
+// Запись, не получившая приращений за интервал, удаляется, чтобы карта не росла на каждую
+// когда-либо бронированную вещь.
+// Подтверждения приходят через PopularItemsRanking: рейтинг и буфер меняются под одним ключом.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemUseCounter {
+
+    private static final String INCREMENT_SQL = "update items set use_count = use_count + ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // write — на время от забора дельт до исхода транзакции: под read-локом use_count в БД
+    // и pending согласованы, приращение не видно ни дважды, ни ни разу
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    public void increment(long itemId, long delta) {
+        while (true) {
+            LongAdder adder = pending.get(itemId);
+            if (adder == null) {
+                adder = pending.computeIfAbsent(itemId, id -> new LongAdder());
+            }
+            adder.add(delta);
+            if (pending.get(itemId) == adder) {
+                return;
+            }
+            // flush успел убрать запись: забираем то, что он не вычерпал, и кладём в новую
+            delta = adder.sumThenReset();
+            if (delta == 0) {
+                return;
+            }
+        }
+    }
+
+    // ещё не сброшенные в БД приращения
+    public Map<Long, Long> pendingDeltas() {
+        Map<Long, Long> deltas = new HashMap<>();
+        pending.forEach((itemId, adder) -> {
+            long delta = adder.sum();
+            if (delta != 0) {
+                deltas.put(itemId, delta);
+            }
+        });
+        return Map.copyOf(deltas);
+    }
+
+    public long pendingDelta(long itemId) {
+        LongAdder adder = pending.get(itemId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public <T> T withFlushBlocked(Supplier<T> read) {
+        flushLock.readLock().lock();
+        try {
+            return read.get();
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.use-count.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.writeLock().lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private void flushLocked() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta == 0 && pending.remove(entry.getKey(), entry.getValue())) {
+                // приращение, успевшее в убранную запись, вычерпывает либо этот flush, либо сам increment
+                delta = entry.getValue().sumThenReset();
+            }
+            if (delta != 0) {
+                batch.add(new Object[]{delta, entry.getKey()});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // возвращать дельты можно, только если транзакция точно откатилась целиком: ошибка случилась
+        // внутри колбэка и откат прошёл (иначе TransactionTemplate бросит другое исключение).
+        // Сбой на коммите оставляет исход неизвестным — лучше недосчитать, чем применить дважды
+        RuntimeException[] callbackFailure = new RuntimeException[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    jdbcTemplate.batchUpdate(INCREMENT_SQL, batch);
+                } catch (RuntimeException e) {
+                    callbackFailure[0] = e;
+                    throw e;
+                }
+            });
+        } catch (RuntimeException e) {
+            if (e == callbackFailure[0]) {
+                log.warn("Failed to flush use_count for {} items, will retry", batch.size(), e);
+                batch.forEach(row -> increment((Long) row[1], (Long) row[0]));
+            } else {
+                log.error("use_count flush for {} items ended in unknown state, deltas dropped", batch.size(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// pg_trgm: оператор <% идёт по GIN-индексу idx_items_name_trgm (schema-postgresql.sql),
+// word_similarity сравнивает запрос с лучшим фрагментом названия, а не со всей строкой.
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.search.fuzzy", name = "engine", havingValue = "pg_trgm")
+public class PgTrigramItemSearch implements FuzzyItemSearch {
+
+    private static final String THRESHOLD_SQL = "select set_config('pg_trgm.word_similarity_threshold', ?, true)";
+    private static final String SEARCH_SQL = """
+            select id, word_similarity(lower(?), lower(name)) as score
+            from items
+            where available = true
+              and lower(?) <% lower(name)
+            order by score desc, id
+            limit ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FuzzySearchProperties properties;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FuzzyMatch> search(String text, int limit) {
+        // порог локален для транзакции и не протекает в другие запросы через пул соединений
+        jdbcTemplate.queryForObject(THRESHOLD_SQL, String.class, String.valueOf(properties.threshold()));
+        return jdbcTemplate.query(SEARCH_SQL,
+                (rs, rowNum) -> new FuzzyMatch(rs.getLong("id"), rs.getDouble("score")),
+                text, text, Math.min(limit, properties.maxCandidates()));
+    }
+}
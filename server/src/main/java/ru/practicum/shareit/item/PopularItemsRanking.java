@@ -0,0 +1,209 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingApprovedEvent;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Рейтинг популярных вещей в памяти: top-K на категорию (и общий), каждое подтверждение брони сдвигает
+// одну запись, без пересборки и без ORDER BY по items. В наборе не больше CAPACITY записей — максимальный
+// limit запроса плюс SLACK, запас на ещё не вычищенные недоступные вещи; всё ниже отсечки вытесняется,
+// и на вещь в памяти держится запись, только пока она в наборе своей категории или общем. Счёт вещей
+// внутри набора точный, вещь ниже отсечки возвращается в рейтинг при сверке с БД (или подтверждением,
+// если её счёт с нуля уже проходит отсечку). Сверка идёт по одной записи, чтение не блокируется.
+// Подтверждение попадает в рейтинг и в буфер ItemUseCounter под одним compute по itemId, а сверка
+// берёт use_count + pending под тем же ключом при заблокированном flush — счёт точный, без двойного учёта.
+// Удалённые и недоступные вещи из рейтинга вычищаются: по ItemChangedEvent и при сверке.
+@Component
+@RequiredArgsConstructor
+public class PopularItemsRanking {
+
+    // максимальный limit GET /items/popular
+    public static final int MAX_LIMIT = 100;
+    public static final int SLACK = 20;
+    private static final int CAPACITY = MAX_LIMIT + SLACK;
+
+    private static final String ALL_CATEGORIES = "";
+    private static final Comparator<RankedItem> ORDER = Comparator.comparingLong(RankedItem::count).reversed()
+            .thenComparingLong(RankedItem::itemId);
+
+    private final ItemRepository itemRepository;
+    private final ItemUseCounter itemUseCounter;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    private final Map<Long, RankedItem> byItemId = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<RankedItem>> byCategory = new ConcurrentHashMap<>();
+    private final AtomicLong eventsSinceReconcile = new AtomicLong();
+    private volatile Instant lastReconciledAt;
+
+    public record RankedItem(long itemId, String category, long count) {
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("shareit.items.popular.staleness", this, PopularItemsRanking::stalenessSeconds)
+                .description("Seconds since the ranking was last reconciled with items.use_count")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("shareit.items.popular.unreconciled.events", eventsSinceReconcile, AtomicLong::get)
+                .description("Booking approvals applied since the last reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("shareit.items.popular.size", byItemId, Map::size)
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onBookingApproved(BookingApprovedEvent event) {
+        byItemId.compute(event.itemId(), (itemId, old) -> {
+            itemUseCounter.increment(itemId, 1);
+            long count = old == null ? 1 : old.count() + 1;
+            return reindex(old, new RankedItem(itemId, event.category(), count));
+        });
+        eventsSinceReconcile.incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!event.available()) {
+            evict(event.itemId());
+        }
+    }
+
+    public void evict(long itemId) {
+        byItemId.computeIfPresent(itemId, (id, old) -> {
+            unindex(old);
+            return null;
+        });
+    }
+
+    public List<RankedItem> top(String category, int limit) {
+        NavigableSet<RankedItem> ranking = byCategory.get(key(category));
+        if (ranking == null) {
+            return List.of();
+        }
+        return ranking.stream()
+                .limit(limit)
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.popular.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        long eventsBefore = eventsSinceReconcile.get();
+        Set<Long> seen = new HashSet<>();
+
+        long afterId = 0;
+        List<Item> page;
+        do {
+            // чтение страницы и pending — под одним read-локом: flush между ними посчитал бы дельту дважды
+            long from = afterId;
+            page = itemUseCounter.withFlushBlocked(() -> {
+                List<Item> rows = itemRepository
+                        .findTop500ByIsAvailableTrueAndUseCountGreaterThanAndIdGreaterThanOrderByIdAsc(0, from);
+                rows.forEach(item -> set(item.getId(), item.getCategory(), item.getUseCount()));
+                return rows;
+            });
+            for (Item item : page) {
+                seen.add(item.getId());
+                afterId = item.getId();
+            }
+        } while (!page.isEmpty());
+
+        // не пришедшие из БД удалены, недоступны или ещё не сброшены flush'ем — последних оставляем;
+        // заодно забываем вытесненные из наборов
+        itemUseCounter.withFlushBlocked(() -> {
+            for (Long itemId : byItemId.keySet()) {
+                byItemId.computeIfPresent(itemId, (id, old) -> {
+                    if (isRanked(old) && (seen.contains(id) || itemUseCounter.pendingDelta(id) > 0)) {
+                        return old;
+                    }
+                    unindex(old);
+                    return null;
+                });
+            }
+            return null;
+        });
+
+        eventsSinceReconcile.addAndGet(-eventsBefore);
+        lastReconciledAt = clock.instant();
+    }
+
+    public double stalenessSeconds() {
+        Instant reconciledAt = lastReconciledAt;
+        if (reconciledAt == null) {
+            return Double.NaN;
+        }
+        return Duration.between(reconciledAt, clock.instant()).toMillis() / 1000.0;
+    }
+
+    // под compute по itemId: подтверждения этой вещи в это время не проходят
+    private void set(long itemId, String category, long dbCount) {
+        byItemId.compute(itemId, (id, old) -> {
+            RankedItem updated = new RankedItem(id, category, dbCount + itemUseCounter.pendingDelta(id));
+            return updated.equals(old) ? old : reindex(old, updated);
+        });
+    }
+
+    // вызывается под compute по itemId, поэтому одна вещь не переставляется параллельно.
+    // Возвращает запись для byItemId: null, если вещь ни в один набор не прошла и раньше её там не было
+    private RankedItem reindex(RankedItem old, RankedItem updated) {
+        if (old != null) {
+            unindex(old);
+        }
+        boolean ranked = add(ALL_CATEGORIES, updated);
+        if (!key(updated.category()).equals(ALL_CATEGORIES)) {
+            ranked |= add(key(updated.category()), updated);
+        }
+        // вытесненная раньше вещь остаётся в byItemId до сверки — её счёт пока точный
+        return ranked || old != null ? updated : null;
+    }
+
+    // вытесняет хвост сверх CAPACITY; запись вытесненной вещи в byItemId убирает сверка
+    private boolean add(String key, RankedItem item) {
+        NavigableSet<RankedItem> ranking = ranking(key);
+        ranking.add(item);
+        while (ranking.size() > CAPACITY) {
+            ranking.pollLast();
+        }
+        return ranking.contains(item);
+    }
+
+    private boolean isRanked(RankedItem item) {
+        NavigableSet<RankedItem> all = byCategory.get(ALL_CATEGORIES);
+        NavigableSet<RankedItem> own = byCategory.get(key(item.category()));
+        return all != null && all.contains(item) || own != null && own.contains(item);
+    }
+
+    private void unindex(RankedItem old) {
+        byCategory.get(ALL_CATEGORIES).remove(old);
+        if (!key(old.category()).equals(ALL_CATEGORIES)) {
+            byCategory.get(key(old.category())).remove(old);
+        }
+    }
+
+    private NavigableSet<RankedItem> ranking(String key) {
+        return byCategory.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>(ORDER));
+    }
+
+    private static String key(String category) {
+        return category == null || category.isBlank() ? ALL_CATEGORIES : category;
+    }
+}
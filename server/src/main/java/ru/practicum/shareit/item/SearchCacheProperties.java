@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("shareit.search.cache")
+public record SearchCacheProperties(
+        @DefaultValue("10000") int maxEntries
+) {
+}
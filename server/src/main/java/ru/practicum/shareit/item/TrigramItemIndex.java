@@ -0,0 +1,171 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Триграммный индекс названий доступных вещей в памяти, для H2 и тестов; в проде его заменяет pg_trgm.
+// Триграммы строятся как в pg_trgm (слова в нижнем регистре с отступами), сходство — доля общих
+// триграмм запроса и лучшего слова названия (или всего названия). Кандидаты набираются по спискам
+// вхождений от редких триграмм к частым и ограничены maxCandidates, поэтому стоимость запроса
+// не растёт вместе с числом вещей, у которых совпала одна частая триграмма.
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.search.fuzzy", name = "engine", havingValue = "memory", matchIfMissing = true)
+public class TrigramItemIndex implements FuzzyItemSearch {
+
+    private static final Comparator<FuzzyMatch> ORDER = Comparator.comparingDouble(FuzzyMatch::similarity).reversed()
+            .thenComparingLong(FuzzyMatch::itemId);
+
+    private final ItemRepository itemRepository;
+    private final FuzzySearchProperties properties;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, List<Set<String>>> trigramsByItemId = new ConcurrentHashMap<>();
+
+    @Override
+    public List<FuzzyMatch> search(String text, int limit) {
+        Set<String> query = trigrams(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String trigram : query) {
+            Set<Long> ids = postings.get(trigram);
+            if (ids != null) {
+                lists.add(ids);
+            }
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> candidates = new HashSet<>();
+        for (int i = 0; i < lists.size() && candidates.size() < properties.maxCandidates(); i++) {
+            for (Long id : lists.get(i)) {
+                if (candidates.size() >= properties.maxCandidates()) {
+                    break;
+                }
+                candidates.add(id);
+            }
+        }
+
+        List<FuzzyMatch> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            List<Set<String>> indexed = trigramsByItemId.get(id);
+            if (indexed == null) {
+                continue;
+            }
+            double similarity = indexed.stream()
+                    .mapToDouble(target -> similarity(query, target))
+                    .max()
+                    .orElse(0);
+            if (similarity >= properties.threshold()) {
+                matches.add(new FuzzyMatch(id, similarity));
+            }
+        }
+        matches.sort(ORDER);
+        return matches.subList(0, Math.min(matches.size(), limit));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        List<Item> page;
+        do {
+            page = itemRepository.findTop500ByIsAvailableTrueAndIdGreaterThanOrderByIdAsc(afterId);
+            for (Item item : page) {
+                put(item.getId(), item.getName());
+                afterId = item.getId();
+            }
+        } while (!page.isEmpty());
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.available()) {
+            put(event.itemId(), event.name());
+        } else {
+            remove(event.itemId());
+        }
+    }
+
+    public synchronized void put(long itemId, String name) {
+        remove(itemId);
+        Set<String> whole = trigrams(name);
+        if (whole.isEmpty()) {
+            return;
+        }
+        // первым идёт всё название, дальше отдельные слова
+        List<Set<String>> indexed = new ArrayList<>();
+        indexed.add(whole);
+        for (String word : words(name)) {
+            indexed.add(trigrams(word));
+        }
+        trigramsByItemId.put(itemId, List.copyOf(indexed));
+        whole.forEach(trigram -> postings.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(itemId));
+    }
+
+    public synchronized void remove(long itemId) {
+        List<Set<String>> indexed = trigramsByItemId.remove(itemId);
+        if (indexed == null) {
+            return;
+        }
+        for (String trigram : indexed.get(0)) {
+            Set<Long> ids = postings.get(trigram);
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    public static double similarity(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int shared = 0;
+        for (String trigram : a) {
+            if (b.contains(trigram)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+
+    public static Set<String> trigrams(String text) {
+        Set<String> result = new HashSet<>();
+        for (String word : words(text)) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+        return result;
+    }
+
+    private static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                result.add(word);
+            }
+        }
+        return result;
+    }
+}
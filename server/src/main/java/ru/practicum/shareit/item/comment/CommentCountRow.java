@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.comment;
+
+public record CommentCountRow(
+        Long itemId,
+        Long count
+) {
+}
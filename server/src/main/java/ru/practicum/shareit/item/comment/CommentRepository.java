@@ -2,14 +2,58 @@ package ru.practicum.shareit.item.comment;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    // не больше limit последних комментариев на каждую вещь: row_number внутри item_id, автор — тем же запросом.
+    // Ранжирование — производной таблицей в join: вариант с "c.id in (...)" H2 пересчитывает на каждую строку
+    @Query("""
+            select c from Comment c
+            join (
+                select c2.id as id,
+                       row_number() over (partition by c2.item.id order by c2.created desc, c2.id desc) as rn
+                from Comment c2
+                where c2.item.id in :itemIds
+            ) ranked on ranked.id = c.id
+            join fetch c.author
+            where ranked.rn <= :limit
+            order by c.item.id, c.created desc, c.id desc
+            """)
+    List<Comment> findLatestByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+
+    @Query("""
+            select new ru.practicum.shareit.item.comment.CommentCountRow(c.item.id, count(c))
+            from Comment c
+            where c.item.id in :itemIds
+            group by c.item.id
+            """)
+    List<CommentCountRow> countByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
     @EntityGraph(attributePaths = "author")
-    List<Comment> findByItemIdOrderByCreatedDesc(Long itemId);
+    @Query("""
+            select c from Comment c
+            where c.item.id = :itemId
+            order by c.created desc, c.id desc
+            limit :limit
+            """)
+    List<Comment> findPageByItemId(@Param("itemId") Long itemId, @Param("limit") int limit);
 
     @EntityGraph(attributePaths = "author")
-    List<Comment> findByItemIdInOrderByCreatedDesc(List<Long> itemIds);
+    @Query("""
+            select c from Comment c
+            where c.item.id = :itemId
+              and (c.created < :created or (c.created = :created and c.id < :id))
+            order by c.created desc, c.id desc
+            limit :limit
+            """)
+    List<Comment> findPageByItemIdBefore(@Param("itemId") Long itemId,
+                                         @Param("created") LocalDateTime created,
+                                         @Param("id") long id,
+                                         @Param("limit") int limit);
 }
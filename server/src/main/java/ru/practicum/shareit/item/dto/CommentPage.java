@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.item.comment.Comment;
+
+import java.util.List;
+
+public record CommentPage(
+        List<Comment> comments,
+        boolean hasMore
+) {
+}
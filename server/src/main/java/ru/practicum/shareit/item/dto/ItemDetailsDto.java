@@ -10,6 +10,8 @@ public record ItemDetailsDto(
         Item item,
         Booking lastBooking,
         Booking nextBooking,
-        List<Comment> comments
+        // последние ItemService.LATEST_COMMENTS комментариев; всего их commentsCount
+        List<Comment> comments,
+        long commentsCount
 ) {
 }
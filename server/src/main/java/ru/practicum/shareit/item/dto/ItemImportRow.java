@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.item.model.Item;
+
+public record ItemImportRow(
+        Item item,
+        Long requestId
+) {
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.List;
+
+// страница лежит в общем кэше и читается из разных потоков, поэтому хранит неизменяемые DTO, а не сущности
+public record ItemSearchPage(
+        List<ItemDto> items,
+        boolean hasMore
+) {
+    public ItemSearchPage {
+        items = List.copyOf(items);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.List;
+
+public record ItemSearchResult(
+        ItemSearchPage page,
+        List<CategoryFacetDto> facets,
+        // facets посчитаны по первым ItemService.FACET_SCAN_LIMIT совпадениям
+        boolean facetsCapped
+) {
+}
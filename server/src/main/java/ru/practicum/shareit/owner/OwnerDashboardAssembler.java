@@ -0,0 +1,75 @@
+package ru.practicum.shareit.owner;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.owner.dto.OwnerDashboardDto;
+import ru.practicum.shareit.request.ItemRequestDtoAssembler;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.FeedCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedPage;
+import ru.practicum.shareit.user.UserExistenceCache;
+import ru.practicum.shareit.util.ParallelReads;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+// Экран владельца одним ответом вместо четырёх запросов. Пользователь проверяется один раз, части
+// читаются параллельно через ParallelReads и маппятся в DTO в своих же подзадачах, пока открыта
+// их транзакция: ленивые связи догружаются там, где сущности были прочитаны.
+@Component
+@RequiredArgsConstructor
+public class OwnerDashboardAssembler {
+
+    private final UserExistenceCache userExistenceCache;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
+    private final ItemMapper itemMapper;
+    private final BookingMapper bookingMapper;
+    private final ItemRequestDtoAssembler itemRequestDtoAssembler;
+    private final ParallelReads parallelReads;
+
+    @Transactional(readOnly = true)
+    public OwnerDashboardDto assemble(Long ownerId, int requestsSize) {
+        if (!userExistenceCache.exists(ownerId)) {
+            throw new NotFoundException("User not found: " + ownerId);
+        }
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            Supplier<List<ItemWithCommentsDto>> items = scope.fork(() ->
+                    itemMapper.toItemWithCommentsDtoList(itemService.findOwnerItemDetails(ownerId)));
+            Supplier<List<BookingResponseDto>> waiting = scope.fork(() ->
+                    toDtos(bookingService.findOwnerBookings(ownerId, BookingState.WAITING)));
+            Supplier<List<BookingResponseDto>> current = scope.fork(() ->
+                    toDtos(bookingService.findOwnerBookings(ownerId, BookingState.CURRENT)));
+            Supplier<RequestsPart> requests = scope.fork(() -> requestsPart(ownerId, requestsSize));
+            scope.join();
+
+            return new OwnerDashboardDto(items.get(), waiting.get(), current.get(),
+                    requests.get().requests(), requests.get().nextCursor());
+        }
+    }
+
+    private List<BookingResponseDto> toDtos(List<Booking> bookings) {
+        return bookings.stream().map(bookingMapper::toResponseDto).toList();
+    }
+
+    private RequestsPart requestsPart(Long ownerId, int size) {
+        ItemRequestFeedPage page = itemRequestService.findOtherRequestsPage(ownerId, null, 0, size);
+        String nextCursor = page.hasMore() ? FeedCursor.of(page.requests().getLast()).encode() : null;
+        return new RequestsPart(itemRequestDtoAssembler.mapRequestsToDtos(page.requests()), nextCursor);
+    }
+
+    private record RequestsPart(List<ItemRequestDto> requests, String nextCursor) {
+    }
+}
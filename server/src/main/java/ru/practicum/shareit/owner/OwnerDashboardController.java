@@ -0,0 +1,18 @@
+package ru.practicum.shareit.owner;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.owner.dto.OwnerDashboardDto;
+
+@RestController
+@RequiredArgsConstructor
+public class OwnerDashboardController implements OwnerDashboardApi {
+
+    private final OwnerDashboardAssembler ownerDashboardAssembler;
+
+    @Override
+    public ResponseEntity<OwnerDashboardDto> getDashboard(Long userId, int requestsSize) {
+        return ResponseEntity.ok(ownerDashboardAssembler.assemble(userId, requestsSize));
+    }
+}
@@ -1,12 +1,19 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.HeaderNames;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.request.dto.FeedCursor;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedPage;
 
 import java.net.URI;
 import java.util.List;
@@ -19,7 +26,7 @@ public class ItemRequestController implements ItemRequestApi {
     private final ItemRequestMapper itemRequestMapper;
     private final ItemMapper itemMapper;
     private final ItemRequestDtoAssembler itemRequestDtoAssembler;
-
+    private final RequestFeedBroadcaster requestFeedBroadcaster;
 
     @Override
     public ResponseEntity<ItemRequestDto> create(Long userId, ItemRequestCreateDto itemRequestCreateDto) {
@@ -33,13 +40,7 @@ public class ItemRequestController implements ItemRequestApi {
 
     @Override
     public ResponseEntity<ItemRequestDto> getOneById(Long userId, Long requestId) {
-        ItemRequest request = itemRequestService.findById(userId, requestId);
-
-        List<ItemShortDto> items = itemRequestService.findItemsByRequestId(requestId).stream()
-                .map(item -> new ItemShortDto(item.getId(), item.getName(), item.getOwner().getId()))
-                .toList();
-
-        return ResponseEntity.ok(itemRequestMapper.toDto(request, items));
+        return ResponseEntity.ok(itemRequestService.findDtoById(userId, requestId));
     }
 
     @Override
@@ -49,8 +50,30 @@ public class ItemRequestController implements ItemRequestApi {
     }
 
     @Override
-    public ResponseEntity<List<ItemRequestDto>> getAllOther(Long userId, int from, int size) {
-        List<ItemRequest> requests = itemRequestService.findAllOtherRequests(userId, from, size);
-        return ResponseEntity.ok(itemRequestDtoAssembler.mapRequestsToDtos(requests));
+    public ResponseEntity<List<ItemShortDto>> getMatchingItems(Long userId, Long requestId, int limit) {
+        List<ItemShortDto> items = itemRequestService.findMatchingItems(userId, requestId, limit).stream()
+                .map(itemMapper::toItemShortDto)
+                .toList();
+        return ResponseEntity.ok(items);
+    }
+
+    @Override
+    public ResponseEntity<List<ItemRequestDto>> getAllOther(Long userId, int from, int size, String after) {
+        ItemRequestFeedPage page =
+                itemRequestService.findAllOtherRequests(userId, FeedCursor.decode(after), from, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HeaderNames.HAS_MORE, String.valueOf(page.hasMore()));
+        if (page.hasMore()) {
+            response.header(HeaderNames.NEXT_CURSOR, FeedCursor.of(page.requests().getLast()).encode());
+        }
+        return response.body(itemRequestDtoAssembler.mapRequestsToDtos(page.requests()));
+    }
+
+    // не в ItemRequestApi: Feign поток не читает, шлюз ретранслирует его сам
+    @GetMapping(value = "/requests/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(HeaderNames.USER_ID) Long userId) {
+        itemRequestService.assertUserExists(userId);
+        return requestFeedBroadcaster.subscribe(userId);
     }
 }
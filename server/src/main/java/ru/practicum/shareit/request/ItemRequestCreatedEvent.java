@@ -0,0 +1,11 @@
+package ru.practicum.shareit.request;
+
+import java.time.LocalDateTime;
+
+public record ItemRequestCreatedEvent(
+        Long requestId,
+        Long requestorId,
+        String description,
+        LocalDateTime created
+) {
+}
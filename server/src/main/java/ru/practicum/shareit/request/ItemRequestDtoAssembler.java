@@ -2,9 +2,9 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestItemRow;
 
 import java.util.List;
 import java.util.Map;
@@ -16,7 +16,6 @@ public class ItemRequestDtoAssembler {
 
     private final ItemRequestService itemRequestService;
     private final ItemRequestMapper itemRequestMapper;
-    private final ItemMapper itemMapper;
 
     public List<ItemRequestDto> mapRequestsToDtos(List<ItemRequest> requests) {
         if (requests == null || requests.isEmpty()) {
@@ -38,10 +37,10 @@ public class ItemRequestDtoAssembler {
     }
 
     private Map<Long, List<ItemShortDto>> getItemsByRequestId(List<Long> requestIds) {
-        return itemRequestService.findAllItemsByRequestsIds(requestIds).stream()
+        return itemRequestService.findItemRowsByRequestIds(requestIds).stream()
                 .collect(Collectors.groupingBy(
-                        item -> item.getItemRequest().getId(),
-                        Collectors.mapping(itemMapper::toItemShortDto, Collectors.toList())
+                        RequestItemRow::requestId,
+                        Collectors.mapping(RequestItemRow::toShortDto, Collectors.toList())
                 ));
     }
 }
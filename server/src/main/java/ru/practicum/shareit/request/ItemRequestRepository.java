@@ -1,14 +1,67 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.RequestWithItemRow;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAllByRequestor_IdOrderByCreatedDesc(Long userId);
 
-    Page<ItemRequest> findAllByRequestor_IdNotOrderByCreatedDesc(Long userId, Pageable pageable);
+    // запрос и его вещи за один запрос к БД; пустой список — запроса нет
+    @Query("""
+            select new ru.practicum.shareit.request.dto.RequestWithItemRow(
+                r.id, r.description, r.created, i.id, i.name, i.owner.id)
+            from ItemRequest r
+            left join Item i on i.itemRequest = r
+            where r.id = :requestId
+            order by i.id
+            """)
+    List<RequestWithItemRow> findWithItemsById(@Param("requestId") Long requestId);
+
+    // Лента чужих запросов по (created desc, id desc) — идёт по idx_requests_created_id, count не нужен.
+    // limit на один больше страницы: лишняя строка означает, что есть следующая.
+    // Запросы удалённых пользователей скрыты сразу, не дожидаясь очистки
+    @Query("""
+            select r from ItemRequest r
+            where r.requestor.id <> :userId
+              and r.requestor.deletedAt is null
+            order by r.created desc, r.id desc
+            limit :limit offset :offset
+            """)
+    List<ItemRequest> findOtherRequests(@Param("userId") Long userId,
+                                        @Param("offset") int offset,
+                                        @Param("limit") int limit);
+
+    @Query("""
+            select r from ItemRequest r
+            where r.requestor.id <> :userId
+              and r.requestor.deletedAt is null
+              and (r.created < :created or (r.created = :created and r.id < :id))
+            order by r.created desc, r.id desc
+            limit :limit
+            """)
+    List<ItemRequest> findOtherRequestsBefore(@Param("userId") Long userId,
+                                              @Param("created") LocalDateTime created,
+                                              @Param("id") Long id,
+                                              @Param("limit") int limit);
+
+    // открытые запросы (без единой вещи-ответа) активных пользователей, keyset по id — для RequestMatcher
+    @Query("""
+            select r from ItemRequest r
+            where r.id > :afterId
+              and r.requestor.deletedAt is null
+              and not exists (select i.id from Item i where i.itemRequest = r)
+            order by r.id
+            """)
+    List<ItemRequest> findOpenAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select r from ItemRequest r where r.id in :ids and r.requestor.deletedAt is null")
+    List<ItemRequest> findAllActiveByIdIn(@Param("ids") Collection<Long> ids);
 }
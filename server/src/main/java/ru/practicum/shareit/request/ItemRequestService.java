@@ -1,33 +1,51 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.FeedCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedPage;
+import ru.practicum.shareit.request.dto.RequestItemRow;
+import ru.practicum.shareit.request.dto.RequestWithItemRow;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestMatcher requestMatcher;
+    private final Clock clock;
 
     @Transactional
     public ItemRequest create(ItemRequest request, Long userId) {
         request.setId(null);
         request.setRequestor(getUserOrThrow(userId));
-        request.setCreated(LocalDateTime.now());
-        return itemRequestRepository.save(request);
+        request.setCreated(LocalDateTime.now(clock));
+        ItemRequest saved = itemRequestRepository.save(request);
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(
+                saved.getId(), userId, saved.getDescription(), saved.getCreated()));
+        return saved;
     }
 
     public ItemRequest findById(Long userId, Long requestId) {
@@ -36,8 +54,19 @@ public class ItemRequestService {
                 .orElseThrow(() -> new NotFoundException("Request not found: " + requestId));
     }
 
-    public List<Item> findItemsByRequestId(Long requestId) {
-        return itemRepository.findAllByItemRequest_Id(requestId);
+    @Transactional(readOnly = true)
+    public ItemRequestDto findDtoById(Long userId, Long requestId) {
+        assertUserExists(userId);
+        List<RequestWithItemRow> rows = itemRequestRepository.findWithItemsById(requestId);
+        if (rows.isEmpty()) {
+            throw new NotFoundException("Request not found: " + requestId);
+        }
+        RequestWithItemRow first = rows.getFirst();
+        List<ItemShortDto> items = rows.stream()
+                .filter(row -> row.itemId() != null)
+                .map(row -> new ItemShortDto(row.itemId(), row.itemName(), row.ownerId()))
+                .toList();
+        return new ItemRequestDto(first.requestId(), first.description(), first.created(), items);
     }
 
     public List<ItemRequest> findAllByRequestor(Long userId) {
@@ -45,40 +74,64 @@ public class ItemRequestService {
         return itemRequestRepository.findAllByRequestor_IdOrderByCreatedDesc(userId);
     }
 
-    public List<Item> findAllItemsByRequestsIds(Collection<Long> requestIds) {
-        return itemRepository.findAllByItemRequest_IdIn(requestIds);
+    public List<RequestItemRow> findItemRowsByRequestIds(Collection<Long> requestIds) {
+        return itemRepository.findRowsByRequestIdIn(requestIds);
     }
 
+    // С курсором страница начинается сразу после него, from игнорируется; без курсора from — точное смещение
     @Transactional(readOnly = true)
-    public List<ItemRequest> findAllOtherRequests(Long userId, int from, int size) {
+    public ItemRequestFeedPage findAllOtherRequests(Long userId, FeedCursor after, int from, int size) {
         assertUserExists(userId);
-        Pageable pageable = toPageable(from, size);
-        return itemRequestRepository
-                .findAllByRequestor_IdNotOrderByCreatedDesc(userId, pageable)
-                .getContent();
+        return findOtherRequestsPage(userId, after, from, size);
     }
 
-    // ===== Helpers =====
+    // без проверки пользователя — для составных ответов, где она уже сделана
+    @Transactional(readOnly = true)
+    public ItemRequestFeedPage findOtherRequestsPage(Long userId, FeedCursor after, int from, int size) {
+        checkPaging(from, size);
+        List<ItemRequest> rows = after == null
+                ? itemRequestRepository.findOtherRequests(userId, from, size + 1)
+                : itemRequestRepository.findOtherRequestsBefore(userId, after.created(), after.id(), size + 1);
+        boolean hasMore = rows.size() > size;
+        return new ItemRequestFeedPage(hasMore ? rows.subList(0, size) : rows, hasMore);
+    }
 
-    private User getUserOrThrow(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found: " + userId));
+    // доступные чужие вещи, похожие на запрос, по убыванию сходства; порядок индекса сохраняется
+    @Transactional(readOnly = true)
+    public List<Item> findMatchingItems(Long userId, Long requestId, int limit) {
+        ItemRequest request = findById(userId, requestId);
+        List<Long> ids = requestMatcher.matchItems(request.getDescription(), request.getRequestor().getId(), limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> byId = itemRepository.findAllAvailableByIdIn(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        requestMatcher.forgetItems(ids.stream().filter(id -> !byId.containsKey(id)).toList());
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
-    private void assertUserExists(Long userId) {
-        if (!userRepository.existsById(userId)) {
+    public void assertUserExists(Long userId) {
+        if (!userExistenceCache.exists(userId)) {
             throw new NotFoundException("User not found: " + userId);
         }
     }
 
-    private Pageable toPageable(int from, int size) {
+    // ===== Helpers =====
+
+    private User getUserOrThrow(Long userId) {
+        return userRepository.findActiveById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found: " + userId));
+    }
+
+    private void checkPaging(int from, int size) {
         if (size <= 0) {
             throw new IllegalArgumentException("size must be > 0");
         }
         if (from < 0) {
             throw new IllegalArgumentException("from must be >= 0");
         }
-        int page = from / size;
-        return PageRequest.of(page, size);
     }
 }
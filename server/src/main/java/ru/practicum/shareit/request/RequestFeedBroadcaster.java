@@ -0,0 +1,165 @@
+package ru.practicum.shareit.request;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Живая лента новых запросов (SSE). Созданный запрос приходит сюда после коммита, сериализуется один раз
+// и раскладывается по очередям подписчиков без блокировки. У каждого подписчика своя ограниченная очередь
+// и виртуальный поток, который из неё пишет в сокет: медленный клиент задерживает только себя, а переполнение
+// очереди его отключает — память на соединение не больше bufferSize событий. После переподключения
+// пропущенное клиент добирает первой страницей GET /requests/all.
+@Slf4j
+@Component
+public class RequestFeedBroadcaster {
+
+    static final String EVENT_NAME = "request";
+
+    private final ObjectMapper objectMapper;
+    private final RequestFeedProperties properties;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final Counter sent;
+    private final Counter overflows;
+
+    public RequestFeedBroadcaster(ObjectMapper objectMapper, RequestFeedProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.sent = Counter.builder("shareit.requests.feed.events")
+                .description("Events written to subscriber connections")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("shareit.requests.feed.overflows")
+                .description("Subscribers disconnected because their buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("shareit.requests.feed.subscribers", this, RequestFeedBroadcaster::subscriberCount)
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(long userId) {
+        return subscribe(userId, new SseEmitter(properties.timeout().toMillis()));
+    }
+
+    public SseEmitter subscribe(long userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(properties.bufferSize()));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.sender = Thread.ofVirtual().name("request-feed-" + userId).start(subscriber::run);
+        return emitter;
+    }
+
+    // свои запросы автору не отправляются — он их и так видит в ответе на POST
+    @TransactionalEventListener
+    public void onRequestCreated(ItemRequestCreatedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(new ItemRequestDto(
+                    event.requestId(), event.description(), event.created(), List.of()));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize request {} for the live feed", event.requestId(), e);
+            return;
+        }
+        FeedEvent feedEvent = new FeedEvent(event.requestId(), json);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.userId != event.requestorId()) {
+                subscriber.offer(feedEvent);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(Subscriber::close);
+    }
+
+    private record FeedEvent(Long id, String json) {
+    }
+
+    private final class Subscriber {
+        private final long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<FeedEvent> queue;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread sender;
+
+        private Subscriber(long userId, SseEmitter emitter, BlockingQueue<FeedEvent> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        void offer(FeedEvent event) {
+            if (!queue.offer(event)) {
+                overflows.increment();
+                close();
+            }
+        }
+
+        // с эмиттером работает только этот поток; остальные лишь закрывают подписку и будят его
+        void run() {
+            long heartbeatMs = properties.heartbeat().toMillis();
+            try {
+                while (!closed.get()) {
+                    FeedEvent event = queue.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+                    if (closed.get()) {
+                        break;
+                    }
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.id()))
+                                .name(EVENT_NAME)
+                                .data(event.json(), MediaType.APPLICATION_JSON));
+                        sent.increment();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // клиент ушёл или соединение уже завершено
+            } finally {
+                close();
+                emitter.complete();
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                Thread thread = sender;
+                if (thread != null && thread != Thread.currentThread()) {
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// bufferSize — сколько неотправленных событий ждёт одного подписчика, прежде чем его отключат;
+// heartbeat — пауза, после которой в пустой поток уходит комментарий (иначе обрыв не заметить);
+// timeout — сколько живёт одно соединение, дальше клиент переподключается сам
+@ConfigurationProperties("shareit.requests.feed")
+public record RequestFeedProperties(
+        @DefaultValue("64") int bufferSize,
+        @DefaultValue("15s") Duration heartbeat,
+        @DefaultValue("30m") Duration timeout
+) {
+
+    public RequestFeedProperties {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("buffer-size must be > 0: " + bufferSize);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserChangedEvent;
+import ru.practicum.shareit.util.TokenIndex;
+
+import java.util.Collection;
+import java.util.List;
+
+// Подбор запросов к вещи и вещей к запросу — два словных индекса в памяти: открытые запросы по описанию
+// и доступные вещи по названию. Запрос считается открытым, пока на него не ответили ни одной вещью.
+// Изменения приходят после коммита. Документы удалённого пользователя снимаются по его событию удаления,
+// а при догрузке из БД отсеиваются вещи и запросы удалённых пользователей и всё, что стёрто мимо событий;
+// такие id тогда же снимаются с индекса через forget*.
+@Component
+@RequiredArgsConstructor
+public class RequestMatcher {
+
+    private static final int MAX_CANDIDATES = 1_000;
+    private static final int LOAD_PAGE_SIZE = 500;
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+
+    private final TokenIndex openRequests = new TokenIndex(MAX_CANDIDATES);
+    private final TokenIndex availableItems = new TokenIndex(MAX_CANDIDATES);
+
+    // id запросов по убыванию сходства; запросы самого владельца вещи не предлагаются
+    public List<Long> matchRequests(String itemName, String itemDescription, long ownerId, int limit) {
+        return ids(openRequests.search(TokenIndex.tokens(itemName, itemDescription), ownerId, limit));
+    }
+
+    public List<Long> matchItems(String requestDescription, long requestorId, int limit) {
+        return ids(availableItems.search(TokenIndex.tokens(requestDescription), requestorId, limit));
+    }
+
+    public void forgetRequests(Collection<Long> requestIds) {
+        requestIds.forEach(openRequests::remove);
+    }
+
+    public void forgetItems(Collection<Long> itemIds) {
+        itemIds.forEach(availableItems::remove);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        List<ItemRequest> requests;
+        do {
+            requests = itemRequestRepository.findOpenAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (ItemRequest request : requests) {
+                openRequests.put(request.getId(), request.getRequestor().getId(),
+                        TokenIndex.tokens(request.getDescription()));
+                afterId = request.getId();
+            }
+        } while (!requests.isEmpty());
+
+        afterId = 0;
+        List<Item> items;
+        do {
+            items = itemRepository.findTop500ByIsAvailableTrueAndIdGreaterThanOrderByIdAsc(afterId);
+            for (Item item : items) {
+                availableItems.put(item.getId(), item.getOwner().getId(), TokenIndex.tokens(item.getName()));
+                afterId = item.getId();
+            }
+        } while (!items.isEmpty());
+    }
+
+    @TransactionalEventListener
+    public void onRequestCreated(ItemRequestCreatedEvent event) {
+        openRequests.put(event.requestId(), event.requestorId(), TokenIndex.tokens(event.description()));
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.requestId() != null) {
+            openRequests.remove(event.requestId());
+        }
+        if (event.available()) {
+            availableItems.put(event.itemId(), event.ownerId(), TokenIndex.tokens(event.name()));
+        } else {
+            availableItems.remove(event.itemId());
+        }
+    }
+
+    // вещи удалённого пользователя уходят своими ItemChangedEvent, запросы — здесь
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.deleted()) {
+            openRequests.removeOwner(event.userId());
+            availableItems.removeOwner(event.userId());
+        }
+    }
+
+    private static List<Long> ids(List<TokenIndex.Match> matches) {
+        return matches.stream()
+                .map(TokenIndex.Match::id)
+                .toList();
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.request.dto;
+
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Позиция в ленте по (created, id) — запросов или комментариев: последний отданный элемент.
+// Клиенту уходит непрозрачной строкой
+public record FeedCursor(
+        LocalDateTime created,
+        long id
+) {
+    public static FeedCursor of(ItemRequest request) {
+        return new FeedCursor(request.getCreated(), request.getId());
+    }
+
+    public String encode() {
+        String raw = created + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FeedCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new FeedCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
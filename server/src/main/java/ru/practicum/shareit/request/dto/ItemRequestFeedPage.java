@@ -0,0 +1,11 @@
+package ru.practicum.shareit.request.dto;
+
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.util.List;
+
+public record ItemRequestFeedPage(
+        List<ItemRequest> requests,
+        boolean hasMore
+) {
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.dto;
+
+import ru.practicum.shareit.item.dto.ItemShortDto;
+
+// вещь-ответ ровно в объёме ItemShortDto плюс id запроса для группировки — без сущностей и прокси
+public record RequestItemRow(
+        Long requestId,
+        Long id,
+        String name,
+        Long ownerId
+) {
+    public ItemShortDto toShortDto() {
+        return new ItemShortDto(id, name, ownerId);
+    }
+}
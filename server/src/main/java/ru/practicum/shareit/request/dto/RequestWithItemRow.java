@@ -0,0 +1,14 @@
+package ru.practicum.shareit.request.dto;
+
+import java.time.LocalDateTime;
+
+// строка left join запроса с его вещами: у запроса без ответов одна строка с itemId = null
+public record RequestWithItemRow(
+        Long requestId,
+        String description,
+        LocalDateTime created,
+        Long itemId,
+        String itemName,
+        Long ownerId
+) {
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.user;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Синхронизация UserExistenceCache между узлами через LISTEN/NOTIFY.
+// NOTIFY отправляется в транзакции изменения: Postgres доставит его только после коммита и выбросит при откате.
+// Рассылаются только удаления: Bloom-фильтра в этом режиме нет (см. UserExistenceCache), и insert'ы
+// другим узлам не нужны. Слушает отдельное соединение вне пула. Порядок при (пере)подключении: сначала
+// LISTEN, потом сброс кэша — всё, что удалят после сброса, придёт уведомлением. Пока соединения нет, кэш
+// выключен. Удаления одной транзакции копятся и уходят перед коммитом NOTIFY со списком через запятую,
+// чтобы массовое удаление пользователей не превращалось в NOTIFY на каждую строку.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.users.existence", name = "sync", havingValue = "pg-notify")
+public class PgUserChangeSync {
+
+    static final String CHANNEL = "shareit_user_changes";
+    private static final String NOTIFY_SQL = "select pg_notify(?, ?)";
+    private static final int POLL_TIMEOUT_MS = 1_000;
+    private static final long RETRY_DELAY_MS = 5_000;
+    // лимит payload в Postgres — 8000 байт
+    private static final int MAX_PAYLOAD = 7_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final UserExistenceCache userExistenceCache;
+    private final EntityManager entityManager;
+
+    private volatile boolean running = true;
+    private Thread listener;
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.deleted()) {
+            return;
+        }
+        String change = (event.deleted() ? "-" : "+") + event.userId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notify(List.of(change));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(change);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        listener = Thread.ofPlatform().name("user-change-listener").daemon().start(this::listen);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                userExistenceCache.resync();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        apply(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                userExistenceCache.suspend();
+                if (!running) {
+                    return;
+                }
+                log.warn("User change listener disconnected, retrying in {} ms: {}", RETRY_DELAY_MS, e.toString());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void notify(List<String> changes) {
+        StringBuilder payload = new StringBuilder();
+        for (String change : changes) {
+            if (payload.length() + change.length() + 1 > MAX_PAYLOAD) {
+                jdbcTemplate.query(NOTIFY_SQL, rs -> null, CHANNEL, payload.toString());
+                payload.setLength(0);
+            }
+            if (!payload.isEmpty()) {
+                payload.append(',');
+            }
+            payload.append(change);
+        }
+        if (!payload.isEmpty()) {
+            jdbcTemplate.query(NOTIFY_SQL, rs -> null, CHANNEL, payload.toString());
+        }
+    }
+
+    private void apply(String payload) {
+        for (String change : payload.split(",")) {
+            long userId = Long.parseLong(change.substring(1));
+            userExistenceCache.applyRemote(userId, change.charAt(0) == '-');
+        }
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+        private final List<String> changes = new ArrayList<>();
+
+        // flush при коммите идёт уже после beforeCommit — сбрасываем сами, чтобы колбэки успели отработать
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            entityManager.flush();
+            PgUserChangeSync.this.notify(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PgUserChangeSync.this);
+        }
+    }
+}
@@ -5,15 +5,18 @@ import lombok.Getter;
 import lombok.Setter;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 
 @Getter
 @Setter
 @Entity
 @Table(name = "users")
+@EntityListeners(UserEntityListener.class)
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @OneToMany(mappedBy = "owner", fetch = FetchType.LAZY)
@@ -24,4 +27,8 @@ public class User {
 
     @Column(name = "email", unique = true, nullable = false, length = 512)
     private String email;
+
+    // заполнено — пользователь удалён и ждёт фоновой очистки (UserPurgeService)
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user;
+
+// публикуется из UserEntityListener на любой insert/delete пользователя через JPA, в той же транзакции
+public record UserChangedEvent(
+        long userId,
+        boolean deleted
+) {
+}
@@ -3,14 +3,19 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
+import ru.practicum.shareit.user.dto.UserBatchResponseDto;
+import ru.practicum.shareit.user.dto.UserBatchRowDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 public class UserController implements UserApi {
     private final UserService userService;
+    private final UserImportService userImportService;
     private final UserMapper userMapper;
 
     @Override
@@ -20,6 +25,16 @@ public class UserController implements UserApi {
                 .body(userMapper.toDto(createdUser));
     }
 
+    @Override
+    public ResponseEntity<UserBatchResponseDto> createUsersBatch(List<UserDto> users) {
+        List<User> entities = users.stream()
+                .map(userMapper::toEntity)
+                .toList();
+        List<UserBatchRowDto> results = userImportService.importUsers(entities);
+        int created = (int) results.stream().filter(row -> row.error() == null).count();
+        return ResponseEntity.ok(new UserBatchResponseDto(created, results.size() - created, results));
+    }
+
     @Override
     public ResponseEntity<UserDto> update(Long id, UserDto user) {
         User updatedUser = userService.updateUser(id, userMapper.toEntity(user));
@@ -37,4 +52,12 @@ public class UserController implements UserApi {
         User u = userService.findById(id);
         return ResponseEntity.ok(userMapper.toDto(u));
     }
+
+    @Override
+    public ResponseEntity<MultiGetResponseDto<UserDto>> getUsersByIds(List<Long> ids) {
+        List<UserDto> found = userService.findAllById(ids).stream()
+                .map(userMapper::toDto)
+                .toList();
+        return ResponseEntity.ok(MultiGetResponseDto.of(ids, found, UserDto::id));
+    }
 }
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.util.BloomFilter;
+
+import java.util.List;
+
+// Bloom-фильтр занятых email. Уникальность гарантирует только индекс users.email — фильтр лишь
+// решает, стоит ли делать предварительный запрос: "нет" — пишем сразу, "может быть" — сначала
+// проверяем, чтобы не ронять транзакцию на заведомом дубле. Поэтому устаревший фильтр (email,
+// занятый на другом узле или до загрузки) безопасен: такой дубль поймает constraint.
+@Component
+public class UserEmailFilter {
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final UserExistenceProperties properties;
+    private volatile BloomFilter bloom;
+
+    private final Counter directWrites;
+    private final Counter prechecks;
+
+    public UserEmailFilter(UserRepository userRepository, UserExistenceProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.bloom = newBloom();
+        this.directWrites = Counter.builder("shareit.users.email.checks").tag("path", "direct")
+                .register(meterRegistry);
+        this.prechecks = Counter.builder("shareit.users.email.checks").tag("path", "precheck")
+                .register(meterRegistry);
+    }
+
+    // true — email, возможно, занят и его стоит проверить запросом до записи
+    public boolean mightBeTaken(String email) {
+        if (bloom.mightContain(email)) {
+            prechecks.increment();
+            return true;
+        }
+        directWrites.increment();
+        return false;
+    }
+
+    public void put(String email) {
+        bloom.put(email);
+    }
+
+    // новый фильтр подставляется до скана: email, занятые во время скана, попадут в него через put
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        BloomFilter fresh = newBloom();
+        bloom = fresh;
+        String after = "";
+        List<String> page;
+        do {
+            page = userRepository.findEmailsAfter(after, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (String email : page) {
+                fresh.put(email);
+                after = email;
+            }
+        } while (!page.isEmpty());
+    }
+
+    private BloomFilter newBloom() {
+        return new BloomFilter(properties.expectedUsers(), properties.falsePositiveRate());
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.user;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// Hibernate берёт listener из контекста Spring (SpringBeanContainer), поэтому зависимости внедряются как обычно.
+// Через JPA-колбэки видны все пути сохранения, а не только UserService.
+@Component
+@RequiredArgsConstructor
+public class UserEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void afterInsert(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), false));
+    }
+
+    @PostRemove
+    public void afterDelete(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), true));
+    }
+}
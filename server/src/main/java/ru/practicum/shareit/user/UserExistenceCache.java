@@ -0,0 +1,215 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.util.BloomFilter;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Проверка "пользователь существует" без запроса в БД на каждый вызов сервиса.
+// Положительные ответы живут в ограниченном LRU-кэше с TTL; отрицательные на одном узле (sync=local)
+// отсекает Bloom-фильтр всех известных id. В фильтр id попадает при flush insert'а, ещё до коммита
+// (лишний бит безопасен), в кэш — только после коммита, из кэша удаление убирает тоже после коммита.
+// При sync=pg-notify фильтр не строится: insert другого узла приходит уведомлением уже после его коммита,
+// а id узлы берут блоками из общей последовательности, так что "нет" фильтра без похода в БД окончательным
+// не бывает — промах всё равно стоил бы запроса. Там работает только кэш, а узлы рассылают друг другу удаления.
+// Пока кэш не готов или синхронизация между узлами потеряна, каждый вызов идёт в БД.
+@Component
+public class UserExistenceCache {
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final UserExistenceProperties properties;
+    private final Clock clock;
+    private final boolean remoteInserts;
+
+    // null при sync=pg-notify
+    private volatile BloomFilter bloom;
+    private volatile boolean ready;
+    // растёт на каждое удаление: ответ БД, прочитанный до удаления, в кэш уже не кладётся
+    private final AtomicLong epoch = new AtomicLong();
+    // id -> момент истечения, мс; под this
+    private final Map<Long, Long> entries;
+
+    private final Counter cacheHits;
+    private final Counter bloomNegatives;
+    private final Counter dbLookups;
+
+    public UserExistenceCache(UserRepository userRepository, UserExistenceProperties properties, Clock clock,
+                              MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.clock = clock;
+        this.remoteInserts = "pg-notify".equals(properties.sync());
+        this.bloom = remoteInserts ? null : newBloom();
+        int maxEntries = properties.maxEntries();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.cacheHits = Counter.builder("shareit.users.existence.lookups").tag("source", "cache")
+                .register(meterRegistry);
+        this.bloomNegatives = Counter.builder("shareit.users.existence.lookups").tag("source", "bloom")
+                .register(meterRegistry);
+        this.dbLookups = Counter.builder("shareit.users.existence.lookups").tag("source", "db")
+                .register(meterRegistry);
+        Gauge.builder("shareit.users.existence.cache.size", this, UserExistenceCache::size)
+                .register(meterRegistry);
+    }
+
+    public boolean exists(long userId) {
+        if (ready) {
+            if (bloom != null && !inWriteTransaction() && !bloom.mightContain(userId)) {
+                bloomNegatives.increment();
+                return false;
+            }
+            if (isCached(userId)) {
+                cacheHits.increment();
+                return true;
+            }
+        }
+
+        long epochBefore = epoch.get();
+        dbLookups.increment();
+        boolean exists = userRepository.existsActiveById(userId);
+        if (exists) {
+            remember(userId, epochBefore);
+        }
+        return exists;
+    }
+
+    // при sync=pg-notify заполнением управляет PgUserChangeSync: сначала подписка, потом скан
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if ("local".equals(properties.sync())) {
+            resync();
+        }
+    }
+
+    // новый фильтр подставляется до скана: id, вставленные во время скана, попадут в него через put
+    public void resync() {
+        suspend();
+        if (remoteInserts) {
+            ready = true;
+            return;
+        }
+        BloomFilter fresh = newBloom();
+        bloom = fresh;
+        long afterId = 0;
+        List<Long> page;
+        do {
+            page = userRepository.findIdsAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Long id : page) {
+                fresh.put(id);
+                afterId = id;
+            }
+        } while (!page.isEmpty());
+        ready = true;
+    }
+
+    // изменения других узлов больше не приходят — ни фильтру, ни кэшу верить нельзя
+    public void suspend() {
+        ready = false;
+        epoch.incrementAndGet();
+        synchronized (this) {
+            entries.clear();
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (bloom != null && !event.deleted()) {
+            bloom.put(event.userId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void afterUserChanged(UserChangedEvent event) {
+        if (event.deleted()) {
+            evict(event.userId());
+        } else {
+            put(event.userId());
+        }
+    }
+
+    // изменение, закоммиченное на другом узле
+    public void applyRemote(long userId, boolean deleted) {
+        if (deleted) {
+            evict(userId);
+        } else if (bloom != null) {
+            bloom.put(userId);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // в пишущей транзакции могут быть свои ещё не сброшенные insert'ы: id в фильтр попадает только при flush
+    private static boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private void remember(long userId, long epochBefore) {
+        if (inWriteTransaction()) {
+            // в пишущей транзакции строка может быть ещё не закоммичена
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putIfEpoch(userId, epochBefore);
+                }
+            });
+        } else {
+            putIfEpoch(userId, epochBefore);
+        }
+    }
+
+    private synchronized void putIfEpoch(long userId, long epochBefore) {
+        if (ready && epoch.get() == epochBefore) {
+            entries.put(userId, clock.millis() + properties.ttl().toMillis());
+        }
+    }
+
+    private synchronized void put(long userId) {
+        if (ready) {
+            entries.put(userId, clock.millis() + properties.ttl().toMillis());
+        }
+    }
+
+    private synchronized void evict(long userId) {
+        epoch.incrementAndGet();
+        entries.remove(userId);
+    }
+
+    private synchronized boolean isCached(long userId) {
+        Long expiresAt = entries.get(userId);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= clock.millis()) {
+            entries.remove(userId);
+            return false;
+        }
+        return true;
+    }
+
+    private BloomFilter newBloom() {
+        return new BloomFilter(properties.expectedUsers(), properties.falsePositiveRate());
+    }
+}
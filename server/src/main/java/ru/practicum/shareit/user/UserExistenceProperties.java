@@ -0,0 +1,18 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// sync: local — один узел, с Bloom-фильтром отрицательных ответов; pg-notify — несколько узлов:
+// только кэш положительных ответов, удаления пользователей рассылаются узлам через LISTEN/NOTIFY
+@ConfigurationProperties("shareit.users.existence")
+public record UserExistenceProperties(
+        @DefaultValue("100000") int maxEntries,
+        @DefaultValue("10m") Duration ttl,
+        @DefaultValue("1000000") long expectedUsers,
+        @DefaultValue("0.01") double falsePositiveRate,
+        @DefaultValue("local") String sync
+) {
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.user;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.dto.UserBatchRowDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Массовое создание пользователей: каждая порция пишется в своей транзакции пачками JDBC,
+// ошибка в строке не откатывает остальные. Дубли email отсекаются до записи — внутри запроса
+// и одним IN-запросом к БД на порцию (в него идут только email, которые Bloom-фильтр считает
+// возможно занятыми). Если порция всё же падает на flush (email заняли параллельно), она
+// повторяется построчно, чтобы отметить виноватую строку.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    // кратно hibernate.jdbc.batch_size
+    public static final int CHUNK_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final UserEmailFilter userEmailFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public List<UserBatchRowDto> importUsers(List<User> users) {
+        UserBatchRowDto[] results = new UserBatchRowDto[users.size()];
+        // email -> первая строка с ним во всём запросе
+        Map<String, Integer> seen = new HashMap<>();
+        for (int from = 0; from < users.size(); from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, users.size());
+            List<Integer> valid = new ArrayList<>();
+            for (int index = from; index < to; index++) {
+                User user = users.get(index);
+                String error = validate(user);
+                if (error == null) {
+                    Integer first = seen.putIfAbsent(user.getEmail(), index);
+                    if (first != null) {
+                        error = "Duplicate email in batch, first used in row " + first;
+                    }
+                }
+                if (error == null) {
+                    valid.add(index);
+                } else {
+                    results[index] = new UserBatchRowDto(index, null, error);
+                }
+            }
+            rejectTakenEmails(users, valid, results);
+            if (valid.isEmpty()) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> saveChunk(users, valid, results));
+            } catch (DataAccessException e) {
+                log.warn("User import chunk {}..{} failed, retrying row by row: {}", from, to, e.getMessage());
+                for (Integer index : valid) {
+                    users.get(index).setId(null);
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> saveChunk(users, List.of(index), results));
+                    } catch (DataAccessException rowError) {
+                        results[index] = new UserBatchRowDto(index, null, UserService.isUniqueViolation(rowError)
+                                ? "Email is already used"
+                                : "Could not save user: " + rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void rejectTakenEmails(List<User> users, List<Integer> valid, UserBatchRowDto[] results) {
+        List<String> suspects = valid.stream()
+                .map(index -> users.get(index).getEmail())
+                .filter(userEmailFilter::mightBeTaken)
+                .toList();
+        if (suspects.isEmpty()) {
+            return;
+        }
+        Set<String> taken = new HashSet<>(userRepository.findExistingEmails(suspects));
+        valid.removeIf(index -> {
+            if (!taken.contains(users.get(index).getEmail())) {
+                return false;
+            }
+            results[index] = new UserBatchRowDto(index, null, "Email is already used");
+            return true;
+        });
+    }
+
+    private void saveChunk(List<User> users, List<Integer> indexes, UserBatchRowDto[] results) {
+        List<User> batch = indexes.stream().map(users::get).toList();
+        batch.forEach(user -> user.setId(null));
+
+        userRepository.saveAll(batch);
+        entityManager.flush();
+        for (int i = 0; i < batch.size(); i++) {
+            User saved = batch.get(i);
+            results[indexes.get(i)] = new UserBatchRowDto(indexes.get(i), saved.getId(), null);
+            userEmailFilter.put(saved.getEmail());
+        }
+        entityManager.clear();
+    }
+
+    // те же правила, что в шлюзе (OnCreate), на случай прямого вызова сервера
+    private static String validate(User user) {
+        if (user == null) return "User must not be null";
+        if (user.getName() == null || user.getName().isBlank()) return "Name cannot be empty";
+        if (user.getEmail() == null || user.getEmail().isBlank()) return "Email cannot be empty";
+        return null;
+    }
+}
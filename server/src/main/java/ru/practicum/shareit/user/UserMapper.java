@@ -11,6 +11,7 @@ public interface UserMapper {
     UserDto toDto(User user);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     User toEntity(UserDto userDto);
 
     List<UserDto> toDtos(List<User> users);
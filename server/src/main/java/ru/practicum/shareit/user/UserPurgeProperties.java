@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// batchSize — сколько строк удаляет одна транзакция очистки; usersPerRun — сколько удалённых пользователей за проход
+@ConfigurationProperties("shareit.users.purge")
+public record UserPurgeProperties(
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("10") int usersPerRun
+) {
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.ItemChangedEvent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Фоновая очистка после UserService.deleteUser. Шаги идут в порядке внешних ключей, каждая порция
+// не больше batchSize строк — отдельная короткая транзакция. Своего состояния у очистки нет:
+// очередь — users.deleted_at, прогресс — ещё не удалённые строки, поэтому после падения узла
+// следующий проход продолжает с того же места, а повтор любого шага безопасен.
+@Slf4j
+@Component
+public class UserPurgeService {
+
+    private static final List<Step> STEPS = List.of(
+            new Step("comments", """
+                    delete from comments where id in (
+                        select id from comments where author_id = ? limit ?)"""),
+            new Step("comments", """
+                    delete from comments where id in (
+                        select c.id from comments c join items i on i.id = c.item_id where i.owner_id = ? limit ?)"""),
+            new Step("bookings", """
+                    delete from bookings where booking_id in (
+                        select booking_id from bookings where booker_id = ? limit ?)"""),
+            new Step("bookings", """
+                    delete from bookings where booking_id in (
+                        select b.booking_id from bookings b join items i on i.id = b.item_id where i.owner_id = ? limit ?)"""),
+            // чужие вещи, созданные в ответ на запросы пользователя, остаются — теряют только ссылку
+            new Step("items", """
+                    update items set request_id = null where id in (
+                        select i.id from items i join requests r on r.id = i.request_id where r.requestor_id = ? limit ?)"""),
+            new Step("requests", """
+                    delete from requests where id in (
+                        select id from requests where requestor_id = ? limit ?)""")
+    );
+    private static final String OWN_ITEMS_SQL = "select id, name from items where owner_id = ? order by id limit ?";
+    private static final String DELETE_ITEM_SQL = "delete from items where id = ?";
+    private static final String DELETE_USER_SQL = "delete from users where id = ? and deleted_at is not null";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserPurgeProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter purgedUsers;
+    private final Counter failures;
+
+    public UserPurgeService(UserRepository userRepository, JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                            UserPurgeProperties properties, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.purgedUsers = Counter.builder("shareit.users.purge.users").register(meterRegistry);
+        this.failures = Counter.builder("shareit.users.purge.failures").register(meterRegistry);
+        Gauge.builder("shareit.users.purge.pending", pending, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.users.purge.interval-ms:5000}")
+    public void purgePending() {
+        pending.set(userRepository.countByDeletedAtIsNotNull());
+        for (Long userId : userRepository.findDeletedIds(PageRequest.of(0, properties.usersPerRun()))) {
+            try {
+                purge(userId);
+            } catch (DataAccessException e) {
+                // например, строку вставили до того, как пометка стала видна; следующий проход повторит
+                failures.increment();
+                log.warn("Purge of user {} interrupted, will resume: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    public void purge(long userId) {
+        for (Step step : STEPS) {
+            int affected;
+            do {
+                affected = transactionTemplate.execute(status ->
+                        jdbcTemplate.update(step.sql(), userId, properties.batchSize()));
+                rows(step.table()).increment(affected);
+            } while (affected == properties.batchSize());
+        }
+
+        int deletedItems;
+        do {
+            deletedItems = transactionTemplate.execute(status -> deleteOwnItems(userId));
+            rows("items").increment(deletedItems);
+        } while (deletedItems == properties.batchSize());
+
+        int deletedUsers = transactionTemplate.execute(status -> jdbcTemplate.update(DELETE_USER_SQL, userId));
+        if (deletedUsers > 0) {
+            rows("users").increment();
+            purgedUsers.increment();
+            pending.updateAndGet(count -> Math.max(0, count - 1));
+        }
+    }
+
+    // вещи удаляются по одной пачкой batchUpdate, чтобы индексы в памяти получили ItemChangedEvent
+    private int deleteOwnItems(long userId) {
+        List<ItemChangedEvent> items = jdbcTemplate.query(OWN_ITEMS_SQL,
+                (rs, rowNum) -> new ItemChangedEvent(rs.getLong("id"), rs.getString("name"), false, 0, userId, null),
+                userId, properties.batchSize());
+        if (items.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(DELETE_ITEM_SQL, items.stream()
+                .map(item -> new Object[]{item.itemId()})
+                .toList());
+        items.forEach(eventPublisher::publishEvent);
+        return items.size();
+    }
+
+    private Counter rows(String table) {
+        return Counter.builder("shareit.users.purge.rows").tag("table", table).register(meterRegistry);
+    }
+
+    private record Step(String table, String sql) {
+    }
+}
@@ -1,10 +1,44 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // помеченные на удаление пользователи для чтения уже не существуют
+    @Query("select u from User u where u.id = :id and u.deletedAt is null")
+    Optional<User> findActiveById(@Param("id") Long id);
+
+    @Query("select count(u) > 0 from User u where u.id = :id and u.deletedAt is null")
+    boolean existsActiveById(@Param("id") Long id);
+
+    @Query("select u from User u where u.id in :ids and u.deletedAt is null")
+    List<User> findAllActiveById(@Param("ids") Collection<Long> ids);
+
+    // очередь UserPurgeService
+    @Query("select u.id from User u where u.deletedAt is not null order by u.deletedAt, u.id")
+    List<Long> findDeletedIds(Pageable pageable);
+
+    long countByDeletedAtIsNotNull();
+
     boolean existsByEmail(String email);
 
     // занят кем-то другим
     boolean existsByEmailAndIdNot(String email, Long id);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // keyset-проход по id для заполнения Bloom-фильтра
+    @Query("select u.id from User u where u.id > :afterId and u.deletedAt is null order by u.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // keyset-проход по email (по уникальному индексу) для заполнения Bloom-фильтра
+    @Query("select u.email from User u where u.email > :after order by u.email")
+    List<String> findEmailsAfter(@Param("after") String after, Pageable pageable);
 }
@@ -1,26 +1,48 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final UserEmailFilter userEmailFilter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
 
+    // Уникальность email решает индекс users.email: insert идёт сразу, нарушение превращается в 409.
+    // Предварительный запрос делается, только если Bloom-фильтр считает email возможно занятым.
     @Transactional
     public User createUser(User user) {
-        if (userRepository.existsByEmail(user.getEmail())) {
+        if (userEmailFilter.mightBeTaken(user.getEmail()) && userRepository.existsByEmail(user.getEmail())) {
             throw new ConflictException("Email is already used");
         }
 
         user.setId(null);
-        return userRepository.save(user);
+        return saveWithUniqueEmail(user);
     }
 
     @Transactional
@@ -39,28 +61,78 @@ public class UserService {
             if (patch.getEmail().isBlank()) {
                 throw new ValidationException("User's email cannot be empty");
             }
-            if (userRepository.existsByEmailAndIdNot(patch.getEmail(), id)) {
+            if (!patch.getEmail().equals(existing.getEmail())
+                    && userEmailFilter.mightBeTaken(patch.getEmail())
+                    && userRepository.existsByEmailAndIdNot(patch.getEmail(), id)) {
                 throw new ConflictException("Email is already used");
             }
             existing.setEmail(patch.getEmail());
         }
 
-        return userRepository.save(existing);
+        return saveWithUniqueEmail(existing);
     }
 
+    // Только пометка: для чтения пользователь исчезает сразу, а его вещи, бронирования, комментарии
+    // и запросы порциями удаляет UserPurgeService. Email заменяется сразу, чтобы его можно было занять снова.
+    // Вещи до очистки становятся недоступными — их не найдёт поиск и нельзя забронировать; события
+    // снимают их с индексов в памяти тем же путём, что и обычное изменение вещи.
     @Transactional
     public void deleteUser(Long id) {
-        getUserOrThrow(id);
+        User user = getUserOrThrow(id);
 
-        userRepository.deleteById(id);
+        user.setDeletedAt(LocalDateTime.now(clock));
+        user.setEmail("deleted-" + id + "@shareit.invalid");
+        for (Item item : itemRepository.findAllByOwnerIdAndIsAvailableTrue(id)) {
+            item.setIsAvailable(false);
+            eventPublisher.publishEvent(new ItemChangedEvent(item.getId(), item.getName(), false,
+                    item.getUseCount(), id, null));
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(id, true));
     }
 
     public User findById(Long id) {
         return getUserOrThrow(id);
     }
 
+    // порядок — как в ids, без повторов; несуществующие id пропускаются
+    @Transactional(readOnly = true)
+    public List<User> findAllById(List<Long> ids) {
+        Map<Long, User> byId = userRepository.findAllActiveById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+                .distinct()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // flush сразу, чтобы нарушение уникальности вылетело здесь, а не при коммите
+    private User saveWithUniqueEmail(User user) {
+        User saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+            userEmailFilter.put(user.getEmail());
+            throw new ConflictException("Email is already used");
+        }
+        userEmailFilter.put(saved.getEmail());
+        return saved;
+    }
+
+    static boolean isUniqueViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private User getUserOrThrow(Long id) {
-        return userRepository.findById(id)
+        return userRepository.findActiveById(id)
                 .orElseThrow(() -> new NotFoundException("User not found"));
     }
 
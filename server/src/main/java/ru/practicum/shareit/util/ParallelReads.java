@@ -0,0 +1,179 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Параллельное выполнение независимых чтений одного вызова сервиса — урезанный StructuredTaskScope
+// (в Java 21 он ещё preview). Подзадача уходит на свой виртуальный поток в отдельной read-only транзакции,
+// а значит и со своим соединением; первая ошибка отменяет остальные и выбрасывается из join, close
+// отменяет всё незавершённое. Вызывающий обычно сам в транзакции и держит соединение, пока ждёт в join,
+// поэтому первая параллельная подзадача занимает разрешение и за него: на узле одновременно не больше
+// maxInFlight соединений у ждущих вызовов и их подзадач, и при maxInFlight меньше пула подзадачам всегда
+// достаётся соединение. Подзадача вызова — не больше maxParallelism. Scope, открытый внутри подзадачи,
+// не распараллеливается: иначе подзадача со своим соединением ждала бы ещё одно. Сверх лимитов и при
+// выключенном режиме подзадача сразу выполняется в вызывающем потоке, в его транзакции. Сущности из
+// подзадач приходят отсоединёнными — ленивые связи надо догружать в самом запросе.
+@Component
+public class ParallelReads {
+
+    private static final ThreadLocal<Boolean> IN_FORK = ThreadLocal.withInitial(() -> false);
+
+    private final ParallelReadsProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore inFlight;
+
+    private final Counter parallelForks;
+    private final Counter inlineForks;
+
+    public ParallelReads(ParallelReadsProperties properties, PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.inFlight = new Semaphore(properties.maxInFlight());
+        this.parallelForks = Counter.builder("shareit.reads.parallel.forks").tag("mode", "parallel")
+                .register(meterRegistry);
+        this.inlineForks = Counter.builder("shareit.reads.parallel.forks").tag("mode", "inline")
+                .register(meterRegistry);
+    }
+
+    public Scope open() {
+        return new Scope();
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        // отменяет упавшая подзадача из своего потока, поэтому список потокобезопасный
+        private final List<Future<?>> futures = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private ExecutorService executor;
+        // разрешение за соединение вызывающего, взятое вместе с первой параллельной подзадачей
+        private boolean callerCounted;
+
+        private Scope() {
+        }
+
+        // результат подзадачи доступен только после join
+        public <T> Supplier<T> fork(Supplier<T> task) {
+            if (tryReserve()) {
+                parallelForks.increment();
+                Fork<T> future = new Fork<>(task);
+                executor().execute(future);
+                futures.add(future);
+                return future::resultNow;
+            }
+            inlineForks.increment();
+            T value = task.get();
+            return () -> value;
+        }
+
+        public void join() {
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (ExecutionException | CancellationException e) {
+                // упавшая подзадача уже отменила остальные, наружу идёт именно её ошибка
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for parallel reads", e);
+            }
+            Throwable error = failure.get();
+            if (error instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (error instanceof Error fatal) {
+                throw fatal;
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+            if (executor != null) {
+                executor.close();
+            }
+            if (callerCounted) {
+                callerCounted = false;
+                inFlight.release();
+            }
+        }
+
+        private boolean tryReserve() {
+            if (!properties.enabled() || IN_FORK.get() || futures.size() >= properties.maxParallelism()) {
+                return false;
+            }
+            if (callerCounted) {
+                return inFlight.tryAcquire();
+            }
+            callerCounted = inFlight.tryAcquire(2);
+            return callerCounted;
+        }
+
+        private void cancelAll() {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        private ExecutorService executor() {
+            if (executor == null) {
+                executor = Executors.newVirtualThreadPerTaskExecutor();
+            }
+            return executor;
+        }
+
+        // Разрешение возвращает тот, кто первым захватил started: тело подзадачи после выхода из транзакции
+        // или done, если подзадачу отменили до старта — тогда FutureTask.run тело уже не вызовет
+        private final class Fork<T> extends FutureTask<T> {
+
+            private final AtomicBoolean started;
+
+            Fork(Supplier<T> task) {
+                this(task, new AtomicBoolean());
+            }
+
+            private Fork(Supplier<T> task, AtomicBoolean started) {
+                super(() -> {
+                    if (!started.compareAndSet(false, true)) {
+                        throw new CancellationException();
+                    }
+                    IN_FORK.set(true);
+                    try {
+                        return readOnlyTransaction.execute(status -> task.get());
+                    } catch (RuntimeException | Error e) {
+                        if (failure.compareAndSet(null, e)) {
+                            cancelAll();
+                        }
+                        throw e;
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+                this.started = started;
+            }
+
+            @Override
+            protected void done() {
+                if (started.compareAndSet(false, true)) {
+                    inFlight.release();
+                }
+            }
+        }
+    }
+}
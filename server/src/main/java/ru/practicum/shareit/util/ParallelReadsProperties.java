@@ -0,0 +1,25 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// enabled — читать независимые запросы параллельно; иначе всё идёт последовательно в транзакции вызова;
+// maxParallelism — сколько подзадач одного вызова уходит на свои потоки (и свои соединения);
+// maxInFlight — сколько соединений на весь узел одновременно держат ждущие в join вызовы и их подзадачи
+// (вызов с подзадачами занимает минимум два); должно быть меньше размера пула
+@ConfigurationProperties("shareit.reads.parallel")
+public record ParallelReadsProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("3") int maxParallelism,
+        @DefaultValue("8") int maxInFlight
+) {
+
+    public ParallelReadsProperties {
+        if (maxParallelism < 1) {
+            throw new IllegalArgumentException("max-parallelism must be > 0: " + maxParallelism);
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("max-in-flight must be > 0: " + maxInFlight);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Обратный индекс слов для подбора похожих текстов. У документа есть владелец: его собственные
+// документы в выдачу не попадают и место среди кандидатов не занимают. Кандидаты набираются по спискам
+// вхождений от редких слов к частым и ограничены maxCandidates, а оценка — сумма idf общих слов, считается только по кандидатам.
+// Стоимость запроса поэтому зависит от числа слов запроса и maxCandidates, но не от размера индекса.
+public class TokenIndex {
+
+    private static final int MIN_TOKEN_LENGTH = 3;
+    // окончание срезается только у слов длиннее этого: «дрель», «дрели», «дрелью» -> «дрел»
+    private static final int MIN_STEM_LENGTH = 4;
+    private static final String ENDINGS = "аеёиоуыэюяьйs";
+    private static final Comparator<Match> ORDER = Comparator.comparingDouble(Match::score).reversed()
+            .thenComparing(Comparator.comparingLong(Match::id).reversed());
+
+    private final int maxCandidates;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    public record Match(long id, double score) {
+    }
+
+    private record Document(long ownerId, Set<String> tokens) {
+    }
+
+    public TokenIndex(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    // свежие документы при равной оценке идут первыми
+    public List<Match> search(Set<String> query, long excludeOwnerId, int limit) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String token : query) {
+            Set<Long> ids = postings.get(token);
+            if (ids != null) {
+                lists.add(ids);
+            }
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> candidates = new HashSet<>();
+        for (int i = 0; i < lists.size() && candidates.size() < maxCandidates; i++) {
+            for (Long id : lists.get(i)) {
+                if (candidates.size() >= maxCandidates) {
+                    break;
+                }
+                Document document = documents.get(id);
+                if (document != null && document.ownerId() != excludeOwnerId) {
+                    candidates.add(id);
+                }
+            }
+        }
+
+        double total = documents.size();
+        List<Match> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            Document document = documents.get(id);
+            // документ могли удалить после отбора кандидатов
+            if (document == null) {
+                continue;
+            }
+            double score = 0;
+            for (String token : query) {
+                if (document.tokens().contains(token)) {
+                    Set<Long> ids = postings.get(token);
+                    score += Math.log(1 + total / (ids == null ? 1 : Math.max(1, ids.size())));
+                }
+            }
+            if (score > 0) {
+                matches.add(new Match(id, score));
+            }
+        }
+        matches.sort(ORDER);
+        return matches.subList(0, Math.min(matches.size(), limit));
+    }
+
+    public synchronized void put(long id, long ownerId, Set<String> tokens) {
+        remove(id);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        documents.put(id, new Document(ownerId, Set.copyOf(tokens)));
+        tokens.forEach(token -> postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(id));
+    }
+
+    public synchronized void remove(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String token : document.tokens()) {
+            Set<Long> ids = postings.get(token);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    // полный проход по документам — для редкого случая вроде удаления пользователя
+    public synchronized void removeOwner(long ownerId) {
+        List<Long> owned = documents.entrySet().stream()
+                .filter(entry -> entry.getValue().ownerId() == ownerId)
+                .map(Map.Entry::getKey)
+                .toList();
+        owned.forEach(this::remove);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public static Set<String> tokens(String... texts) {
+        Set<String> result = new HashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                String token = stem(word);
+                if (token.length() >= MIN_TOKEN_LENGTH) {
+                    result.add(token);
+                }
+            }
+        }
+        return result;
+    }
+
+    // грубый стемминг: до двух гласных/ь/й/s с конца длинного слова
+    private static String stem(String word) {
+        String result = word;
+        for (int i = 0; i < 2 && result.length() > MIN_STEM_LENGTH
+                && ENDINGS.indexOf(result.charAt(result.length() - 1)) >= 0; i++) {
+            result = result.substring(0, result.length() - 1);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,12 @@
+create extension if not exists pg_trgm;
+
+create index if not exists idx_items_name_trgm on items using gin (lower(name) gin_trgm_ops);
+-- lower(...) like '%text%' в поиске и фасетах: bitmap-or по двум trgm-индексам вместо seq scan
+create index if not exists idx_items_description_trgm on items using gin (lower(description) gin_trgm_ops);
+
+-- базы, созданные до перехода с bigserial на последовательности: сдвигаем их за уже выданные id
+select setval('users_seq', greatest((select coalesce(max(id), 0) from users), (select last_value from users_seq)));
+select setval('requests_seq', greatest((select coalesce(max(id), 0) from requests), (select last_value from requests_seq)));
+select setval('items_seq', greatest((select coalesce(max(id), 0) from items), (select last_value from items_seq)));
+select setval('comments_seq', greatest((select coalesce(max(id), 0) from comments), (select last_value from comments_seq)));
+select setval('bookings_seq', greatest((select coalesce(max(booking_id), 0) from bookings), (select last_value from bookings_seq)));
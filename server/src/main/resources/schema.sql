@@ -1,30 +1,43 @@
+create sequence if not exists users_seq start with 1 increment by 50;
+
 create table if not exists users
 (
-    id    bigserial primary key,
-    name  varchar(255) not null,
-    email varchar(512) not null unique
+    id         bigint default nextval('users_seq') primary key,
+    name       varchar(255) not null,
+    email      varchar(512) not null unique,
+    deleted_at timestamp without time zone
 );
 
+-- базы, созданные до мягкого удаления
+alter table users add column if not exists deleted_at timestamp without time zone;
+
 create index if not exists idx_users_email on users (email);
+create index if not exists idx_users_deleted_at on users (deleted_at);
 
 -- ======================================================================
 -- ItemRequest -> requests
 -- ======================================================================
+create sequence if not exists requests_seq start with 1 increment by 50;
+
 create table if not exists requests
 (
-    id           bigserial primary key,
+    id           bigint default nextval('requests_seq') primary key,
     description  text                        not null,
     requestor_id bigint                      not null references users (id),
     created      timestamp without time zone not null
 );
 
 create index if not exists idx_requests_requestor_id on requests (requestor_id);
-create index if not exists idx_requests_created on requests (created desc);
+-- лента чужих запросов идёт по (created, id): id разрешает равные created для курсора
+drop index if exists idx_requests_created;
+create index if not exists idx_requests_created_id on requests (created desc, id desc);
 create index if not exists idx_requests_requestor_created on requests (requestor_id, created desc);
 
+create sequence if not exists items_seq start with 1 increment by 50;
+
 create table if not exists items
 (
-    id          bigserial primary key,
+    id          bigint default nextval('items_seq') primary key,
     owner_id    bigint not null references users (id),
     request_id  bigint references requests (id),
     name        varchar(255),
@@ -39,21 +52,27 @@ create index if not exists idx_items_request_id on items (request_id);
 create index if not exists idx_items_available on items (available);
 create index if not exists idx_items_category on items (category);
 
+create sequence if not exists comments_seq start with 1 increment by 50;
+
 create table if not exists comments
 (
-    id        bigserial primary key,
+    id        bigint default nextval('comments_seq') primary key,
     text      varchar(1000)               not null,
     item_id   bigint                      not null references items (id) on delete cascade,
     author_id bigint                      not null references users (id),
     created   timestamp without time zone not null
 );
 
-create index if not exists idx_comments_item_created on comments (item_id, created desc);
+-- последние комментарии вещи и их лента идут по (created, id) внутри item_id
+drop index if exists idx_comments_item_created;
+create index if not exists idx_comments_item_created_id on comments (item_id, created desc, id desc);
 create index if not exists idx_comments_author_id on comments (author_id);
 
+create sequence if not exists bookings_seq start with 1 increment by 50;
+
 create table if not exists bookings
 (
-    booking_id    bigserial primary key,
+    booking_id    bigint default nextval('bookings_seq') primary key,
     item_id       bigint                      not null references items (id),
     booker_id     bigint                      not null references users (id),
     start_booking timestamp without time zone not null,
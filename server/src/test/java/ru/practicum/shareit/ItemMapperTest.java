@@ -9,6 +9,7 @@ import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDetailsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -119,11 +120,12 @@ class ItemMapperTest {
         when(item.getUseCount()).thenReturn(0L);
         when(item.getIsAvailable()).thenReturn(true);
 
-        ItemDetailsDto d1 = new ItemDetailsDto(item, null, null, List.of());
-        ItemDetailsDto d2 = new ItemDetailsDto(item, null, null, List.of());
+        ItemDetailsDto d1 = new ItemDetailsDto(item, null, null, List.of(), 0);
+        ItemDetailsDto d2 = new ItemDetailsDto(item, null, null, List.of(), 42);
 
         var list = mapper.toItemWithCommentsDtoList(List.of(d1, d2));
 
         assertThat(list).hasSize(2);
+        assertThat(list).extracting(ItemWithCommentsDto::commentsCount).containsExactly(0L, 42L);
     }
 }
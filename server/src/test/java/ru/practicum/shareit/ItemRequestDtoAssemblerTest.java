@@ -6,14 +6,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemShortDto;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestDtoAssembler;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.ItemRequestService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestItemRow;
 
 import java.util.List;
 
@@ -29,8 +28,6 @@ class ItemRequestDtoAssemblerTest {
     ItemRequestService itemRequestService;
     @Mock
     ItemRequestMapper itemRequestMapper;
-    @Mock
-    ItemMapper itemMapper;
 
     @InjectMocks
     ItemRequestDtoAssembler itemRequestDtoAssembler;
@@ -43,13 +40,6 @@ class ItemRequestDtoAssemblerTest {
         return r;
     }
 
-    private static Item itemWithRequest(ItemRequest r, long itemId) {
-        Item i = new Item();
-        i.setId(itemId);
-        i.setItemRequest(r);
-        return i;
-    }
-
     // --- tests ---
 
     @Test
@@ -57,7 +47,7 @@ class ItemRequestDtoAssemblerTest {
         var res = itemRequestDtoAssembler.mapRequestsToDtos(null);
 
         assertThat(res).isEmpty();
-        verifyNoInteractions(itemRequestService, itemRequestMapper, itemMapper);
+        verifyNoInteractions(itemRequestService, itemRequestMapper);
     }
 
     @Test
@@ -65,7 +55,7 @@ class ItemRequestDtoAssemblerTest {
         var res = itemRequestDtoAssembler.mapRequestsToDtos(List.of());
 
         assertThat(res).isEmpty();
-        verifyNoInteractions(itemRequestService, itemRequestMapper, itemMapper);
+        verifyNoInteractions(itemRequestService, itemRequestMapper);
     }
 
     @Test
@@ -74,18 +64,14 @@ class ItemRequestDtoAssemblerTest {
         ItemRequest r2 = request(2L);
 
         // items только для r1, а для r2 — пусто (проверим getOrDefault(.., List.of()))
-        Item i11 = itemWithRequest(r1, 11L);
-        Item i12 = itemWithRequest(r1, 12L);
-
-        when(itemRequestService.findAllItemsByRequestsIds(List.of(1L, 2L)))
-                .thenReturn(List.of(i11, i12));
+        when(itemRequestService.findItemRowsByRequestIds(List.of(1L, 2L)))
+                .thenReturn(List.of(
+                        new RequestItemRow(1L, 11L, "n11", 100L),
+                        new RequestItemRow(1L, 12L, "n12", 100L)));
 
         ItemShortDto s11 = new ItemShortDto(11L, "n11", 100L);
         ItemShortDto s12 = new ItemShortDto(12L, "n12", 100L);
 
-        when(itemMapper.toItemShortDto(i11)).thenReturn(s11);
-        when(itemMapper.toItemShortDto(i12)).thenReturn(s12);
-
         ItemRequestDto dto1 = mock(ItemRequestDto.class);
         ItemRequestDto dto2 = mock(ItemRequestDto.class);
 
@@ -96,10 +82,7 @@ class ItemRequestDtoAssemblerTest {
 
         assertThat(result).containsExactly(dto1, dto2);
 
-        verify(itemRequestService).findAllItemsByRequestsIds(List.of(1L, 2L));
-
-        verify(itemMapper).toItemShortDto(i11);
-        verify(itemMapper).toItemShortDto(i12);
+        verify(itemRequestService).findItemRowsByRequestIds(List.of(1L, 2L));
 
         ArgumentCaptor<List<ItemShortDto>> captor1 = ArgumentCaptor.forClass(List.class);
         verify(itemRequestMapper).toDto(eq(r1), captor1.capture());
@@ -109,6 +92,6 @@ class ItemRequestDtoAssemblerTest {
         verify(itemRequestMapper).toDto(eq(r2), captor2.capture());
         assertThat(captor2.getValue()).isEmpty();
 
-        verifyNoMoreInteractions(itemRequestService, itemRequestMapper, itemMapper);
+        verifyNoMoreInteractions(itemRequestService, itemRequestMapper);
     }
 }
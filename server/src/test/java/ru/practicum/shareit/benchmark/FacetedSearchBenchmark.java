@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemFacetCounter;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CategoryFacetDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+// Фасеты /items/search/faceted на каталоге из 100 000 доступных вещей: агрегат по всем совпадениям
+// против агрегата не больше чем по ItemService.FACET_SCAN_LIMIT строкам. Широкий запрос совпадает почти со всем
+// каталогом, узкий — с сотнями строк. На H2 оба идут seq scan'ом; в Postgres узкий запрос
+// обслуживают trgm-индексы из schema-postgresql.sql. Печатает p50/p99.
+// Не входит в обычный прогон surefire, запуск:
+// mvn test -pl server -Dtest=FacetedSearchBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class FacetedSearchBenchmark {
+
+    private static final int ITEMS = 100_000;
+    private static final String[] WORDS = {"drill", "saw", "hammer", "ladder", "tent", "bike", "kayak", "camera"};
+    private static final String[] CATEGORIES = {"tools", "garden", "sport", "photo", "camping", "music"};
+    private static final int WARMUP = 10;
+    private static final int RUNS = 50;
+
+    // прежний запрос фасетов, без ограничения просмотренных строк
+    private static final String UNBOUNDED = """
+            select new ru.practicum.shareit.item.dto.CategoryFacetDto(i.category, count(i))
+            from Item i
+            where i.isAvailable = true
+              and (lower(i.name) like lower(concat('%', :text, '%'))
+                   or lower(i.description) like lower(concat('%', :text, '%')))
+            group by i.category
+            order by count(i) desc, i.category asc
+            """;
+
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemFacetCounter itemFacetCounter;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void facetLatency() {
+        seed();
+
+        System.out.printf("%-18s %10s %10s%n", "query", "p50, us", "p99, us");
+        for (String text : new String[]{"a", "drill 7"}) {
+            report("unbounded '" + text + "'", () -> entityManager.createQuery(UNBOUNDED, CategoryFacetDto.class)
+                    .setParameter("text", text)
+                    .getResultList());
+            report("capped '" + text + "'", () -> itemFacetCounter.count(
+                    text, ItemService.FACET_SCAN_LIMIT + 1));
+        }
+    }
+
+    private void report(String name, Supplier<?> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.get();
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            call.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-18s %10.1f %10.1f%n", name, nanos[RUNS / 2] / 1e3, nanos[RUNS * 99 / 100] / 1e3);
+    }
+
+    private void seed() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@facets-bench.local");
+        owner = userRepository.save(owner);
+        entityManager.flush();
+
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(1000);
+            rows.add(new Object[]{owner.getId(), name, "Benchmark item " + name,
+                    CATEGORIES[random.nextInt(CATEGORIES.length)]});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into items (owner_id, name, description, category, available) values (?, ?, ?, ?, true)",
+                rows);
+    }
+}
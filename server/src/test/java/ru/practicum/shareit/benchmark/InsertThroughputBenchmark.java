@@ -0,0 +1,86 @@
+package ru.practicum.shareit.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Пропускная способность вставки через saveAll пачками (flush + clear на каждую пачку).
+// Не входит в обычный прогон surefire, запуск:
+// mvn test -pl server -Dtest=InsertThroughputBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class InsertThroughputBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int CHUNK = 1_000;
+
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void insertThroughput() {
+        insertUsers(CHUNK, "warmup");
+        insertItems(CHUNK, "warmup");
+
+        System.out.printf("%10s %10s %12s%n", "entity", "rows", "rows/s");
+        System.out.printf("%10s %10d %12.0f%n", "users", ROWS, insertUsers(ROWS, "bench"));
+        System.out.printf("%10s %10d %12.0f%n", "items", ROWS, insertItems(ROWS, "bench"));
+    }
+
+    private double insertUsers(int rows, String tag) {
+        long start = System.nanoTime();
+        for (int from = 0; from < rows; from += CHUNK) {
+            List<User> chunk = new ArrayList<>(CHUNK);
+            for (int i = from; i < from + CHUNK; i++) {
+                User user = new User();
+                user.setName("User " + i);
+                user.setEmail(tag + "-" + i + "@bench.local");
+                chunk.add(user);
+            }
+            userRepository.saveAll(chunk);
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return rows / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private double insertItems(int rows, String tag) {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail(tag + "-owner@bench.local");
+        owner = userRepository.save(owner);
+
+        long start = System.nanoTime();
+        for (int from = 0; from < rows; from += CHUNK) {
+            User ownerRef = entityManager.getReference(User.class, owner.getId());
+            List<Item> chunk = new ArrayList<>(CHUNK);
+            for (int i = from; i < from + CHUNK; i++) {
+                Item item = new Item();
+                item.setName("Item " + i);
+                item.setDescription("Benchmark item " + i);
+                item.setIsAvailable(true);
+                item.setOwner(ownerRef);
+                chunk.add(item);
+            }
+            itemRepository.saveAll(chunk);
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return rows / ((System.nanoTime() - start) / 1e9);
+    }
+}
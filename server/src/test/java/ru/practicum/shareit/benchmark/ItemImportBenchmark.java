@@ -0,0 +1,57 @@
+package ru.practicum.shareit.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.ItemImportService;
+import ru.practicum.shareit.item.dto.ItemBatchRowDto;
+import ru.practicum.shareit.item.dto.ItemImportRow;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Массовый импорт вещей на профиле H2 (цель — 50k вещей в минуту).
+// Не входит в обычный прогон surefire, запуск:
+// mvn test -pl server -Dtest=ItemImportBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemImportBenchmark {
+
+    private static final int ROWS = 50_000;
+
+    @Autowired
+    ItemImportService itemImportService;
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void import50kItems() {
+        User owner = new User();
+        owner.setName("Shop");
+        owner.setEmail("import-benchmark@bench.local");
+        owner = userRepository.save(owner);
+
+        List<ItemImportRow> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Item item = new Item();
+            item.setName("Rental item " + i);
+            item.setDescription("Imported from the shop catalogue");
+            item.setCategory(i % 2 == 0 ? "tools" : "garden");
+            item.setIsAvailable(true);
+            rows.add(new ItemImportRow(item, null));
+        }
+
+        long start = System.nanoTime();
+        List<ItemBatchRowDto> result = itemImportService.importItems(owner.getId(), rows);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertThat(result).allMatch(row -> row.error() == null);
+        System.out.printf("imported %d items in %.2f s (%.0f items/min)%n", ROWS, seconds, ROWS / seconds * 60);
+    }
+}
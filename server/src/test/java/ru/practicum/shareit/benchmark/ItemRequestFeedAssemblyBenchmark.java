@@ -0,0 +1,142 @@
+package ru.practicum.shareit.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.RequestItemRow;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Сборка вещей-ответов для страницы ленты из 100 запросов (по 3 вещи на запрос) и одного запроса:
+// сущности Item + маппер против проекций в ItemShortDto. Перед каждым вызовом контекст очищается,
+// чтобы путь через сущности честно платил за гидрацию. Печатает p50/p99 и байты, выделенные за вызов.
+// Не входит в обычный прогон surefire, запуск:
+// mvn test -pl server -Dtest=ItemRequestFeedAssemblyBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ItemRequestFeedAssemblyBenchmark {
+
+    private static final int REQUESTS = 100;
+    private static final int ITEMS_PER_REQUEST = 3;
+    private static final int WARMUP = 200;
+    private static final int RUNS = 1_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+    @Autowired
+    ItemRequestService itemRequestService;
+    @Autowired
+    ItemMapper itemMapper;
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void feedAssembly() {
+        List<Long> requestIds = seed();
+        Long single = requestIds.getFirst();
+        long userId = itemRequestRepository.findById(single).orElseThrow().getRequestor().getId();
+
+        System.out.printf("%-22s %10s %10s %14s%n", "path", "p50, us", "p99, us", "bytes/call");
+        report("page/entities", () -> byEntities(requestIds));
+        report("page/projection", () -> byProjection(requestIds));
+        report("single/entities", () -> {
+            ItemRequest request = itemRequestRepository.findById(single).orElseThrow();
+            return byEntities(List.of(request.getId()));
+        });
+        report("single/projection", () -> itemRequestService.findDtoById(userId, single));
+    }
+
+    private Map<Long, List<ItemShortDto>> byEntities(List<Long> requestIds) {
+        return itemRepository.findAllByItemRequest_IdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(
+                        item -> item.getItemRequest().getId(),
+                        Collectors.mapping(itemMapper::toItemShortDto, Collectors.toList())));
+    }
+
+    private Map<Long, List<ItemShortDto>> byProjection(List<Long> requestIds) {
+        return itemRequestService.findItemRowsByRequestIds(requestIds).stream()
+                .collect(Collectors.groupingBy(
+                        RequestItemRow::requestId,
+                        Collectors.mapping(RequestItemRow::toShortDto, Collectors.toList())));
+    }
+
+    private void report(String name, Supplier<?> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            entityManager.clear();
+            call.get();
+        }
+        long[] nanos = new long[RUNS];
+        long bytes = 0;
+        for (int i = 0; i < RUNS; i++) {
+            entityManager.clear();
+            long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            call.get();
+            nanos[i] = System.nanoTime() - start;
+            bytes += THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-22s %10.1f %10.1f %14d%n", name,
+                nanos[RUNS / 2] / 1e3, nanos[RUNS * 99 / 100] / 1e3, bytes / RUNS);
+    }
+
+    private List<Long> seed() {
+        User requestor = user("requestor");
+        User owner = user("owner");
+        List<Long> requestIds = new ArrayList<>(REQUESTS);
+        for (int r = 0; r < REQUESTS; r++) {
+            ItemRequest request = new ItemRequest();
+            request.setDescription("Need tool " + r);
+            request.setRequestor(requestor);
+            request.setCreated(LocalDateTime.now().minusMinutes(r));
+            request = itemRequestRepository.save(request);
+            requestIds.add(request.getId());
+            for (int i = 0; i < ITEMS_PER_REQUEST; i++) {
+                Item item = new Item();
+                item.setName("Tool " + r + "-" + i);
+                item.setDescription("Benchmark item");
+                item.setIsAvailable(true);
+                item.setOwner(owner);
+                item.setItemRequest(request);
+                itemRepository.save(item);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return requestIds;
+    }
+
+    private User user(String tag) {
+        User user = new User();
+        user.setName(tag);
+        user.setEmail(tag + "@feed-bench.local");
+        return userRepository.save(user);
+    }
+}
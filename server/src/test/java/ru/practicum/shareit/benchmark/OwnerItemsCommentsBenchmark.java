@@ -0,0 +1,166 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentCountRow;
+import ru.practicum.shareit.item.comment.CommentMapper;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Комментарии для списка вещей "тяжёлого" владельца (20 вещей по 200 комментариев):
+// все комментарии каждой вещи против последних ItemService.LATEST_COMMENTS + счётчика.
+// Каждый вызов заканчивается сериализацией в JSON, как в ответе контроллера.
+// Печатает p50/p99, байты, выделенные за вызов, и размер JSON.
+// Не входит в обычный прогон surefire, запуск:
+// mvn test -pl server -Dtest=OwnerItemsCommentsBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class OwnerItemsCommentsBenchmark {
+
+    private static final int ITEMS = 20;
+    private static final int COMMENTS_PER_ITEM = 200;
+    private static final int WARMUP = 20;
+    private static final int RUNS = 100;
+
+    // прежний запрос: все комментарии каждой вещи вместе с авторами
+    private static final String ALL_COMMENTS = """
+            select c from Comment c
+            join fetch c.author
+            where c.item.id in :itemIds
+            order by c.created desc
+            """;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    CommentMapper commentMapper;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void ownerItemsComments() {
+        List<Long> itemIds = seed();
+
+        System.out.printf("%-10s %10s %10s %14s %12s%n", "path", "p50, us", "p99, us", "bytes/call", "json bytes");
+        report("all", () -> json(all(itemIds)));
+        report("latest", () -> json(latest(itemIds)));
+    }
+
+    private Map<Long, List<CommentResponseDto>> all(List<Long> itemIds) {
+        return entityManager.createQuery(ALL_COMMENTS, Comment.class)
+                .setParameter("itemIds", itemIds)
+                .getResultList().stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(commentMapper::toDto, Collectors.toList())));
+    }
+
+    private Map<Long, LatestComments> latest(List<Long> itemIds) {
+        Map<Long, Long> counts = commentRepository.countByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(CommentCountRow::itemId, CommentCountRow::count));
+        Map<Long, List<CommentResponseDto>> comments = commentRepository
+                .findLatestByItemIdIn(itemIds, ItemService.LATEST_COMMENTS).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(commentMapper::toDto, Collectors.toList())));
+        return itemIds.stream().collect(Collectors.toMap(id -> id, id -> new LatestComments(
+                comments.getOrDefault(id, List.of()), counts.getOrDefault(id, 0L))));
+    }
+
+    private int json(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload).length;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void report(String name, Supplier<Integer> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            entityManager.clear();
+            call.get();
+        }
+        long[] nanos = new long[RUNS];
+        long bytes = 0;
+        int jsonBytes = 0;
+        for (int i = 0; i < RUNS; i++) {
+            entityManager.clear();
+            long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            jsonBytes = call.get();
+            nanos[i] = System.nanoTime() - start;
+            bytes += THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-10s %10.1f %10.1f %14d %12d%n", name,
+                nanos[RUNS / 2] / 1e3, nanos[RUNS * 99 / 100] / 1e3, bytes / RUNS, jsonBytes);
+    }
+
+    private List<Long> seed() {
+        User owner = user("owner");
+        User author = user("author");
+        LocalDateTime base = LocalDateTime.now().minusYears(1);
+        List<Long> itemIds = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = new Item();
+            item.setName("Popular " + i);
+            item.setDescription("Benchmark item");
+            item.setIsAvailable(true);
+            item.setOwner(owner);
+            item = itemRepository.save(item);
+            itemIds.add(item.getId());
+            List<Comment> comments = new ArrayList<>(COMMENTS_PER_ITEM);
+            for (int c = 0; c < COMMENTS_PER_ITEM; c++) {
+                Comment comment = new Comment();
+                comment.setItem(item);
+                comment.setAuthor(author);
+                comment.setText("Comment " + c + " about a very popular item, worth reading");
+                comment.setCreated(base.plusMinutes(c));
+                comments.add(comment);
+            }
+            commentRepository.saveAll(comments);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return itemIds;
+    }
+
+    private User user(String tag) {
+        User user = new User();
+        user.setName(tag);
+        user.setEmail(tag + "@comments-bench.local");
+        return userRepository.save(user);
+    }
+
+    private record LatestComments(List<CommentResponseDto> comments, long commentsCount) {
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.benchmark;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.FuzzySearchProperties;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.TrigramItemIndex;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+
+// Задержка нечёткого поиска в зависимости от размера каталога.
+// Не входит в обычный прогон surefire (имя не *Test), запуск:
+// mvn test -pl server -Dtest=TrigramItemIndexBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+class TrigramItemIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "drill", "saw", "hammer", "ladder", "tent", "bike", "kayak", "projector", "speaker", "camera",
+            "дрель", "пила", "молоток", "лестница", "палатка", "велосипед", "каяк", "проектор", "колонка", "камера",
+            "cordless", "electric", "folding", "portable", "large", "small", "pro", "mini", "heavy", "light"
+    };
+    private static final String[] QUERIES = {"drel", "hamer", "ladr", "дрел", "палатк", "projektor", "kayk", "camra"};
+    private static final int QUERIES_PER_SIZE = 2_000;
+
+    @Test
+    void latencyByCatalogueSize() {
+        System.out.printf("%10s %10s %10s %10s%n", "items", "p50, us", "p99, us", "max, us");
+        for (int size : new int[]{1_000, 10_000, 100_000}) {
+            TrigramItemIndex index = new TrigramItemIndex(mock(ItemRepository.class),
+                    new FuzzySearchProperties("memory", 0.2, 1000));
+            Random random = new Random(42);
+            for (long id = 1; id <= size; id++) {
+                index.put(id, WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                        + " " + random.nextInt(1000));
+            }
+
+            for (int i = 0; i < QUERIES_PER_SIZE; i++) {
+                index.search(QUERIES[i % QUERIES.length], 20);
+            }
+            long[] nanos = new long[QUERIES_PER_SIZE];
+            for (int i = 0; i < QUERIES_PER_SIZE; i++) {
+                long start = System.nanoTime();
+                index.search(QUERIES[i % QUERIES.length], 20);
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%10d %10d %10d %10d%n", size,
+                    nanos[QUERIES_PER_SIZE / 2] / 1000,
+                    nanos[QUERIES_PER_SIZE * 99 / 100] / 1000,
+                    nanos[QUERIES_PER_SIZE - 1] / 1000);
+        }
+    }
+}
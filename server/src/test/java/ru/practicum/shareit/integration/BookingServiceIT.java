@@ -9,6 +9,8 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.Status;
 import ru.practicum.shareit.exceptions.ForbiddenException;
@@ -20,6 +22,7 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -119,6 +122,37 @@ class BookingServiceIT {
         assertEquals(Status.APPROVED, fromDb.getStatus());
     }
 
+    @Test
+    void approveBatch_updatesStatusesAndReportsConflicts() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        Booking first = newBooking(start, start.plusHours(2));
+        Booking overlapping = newBooking(start.plusHours(1), start.plusHours(3));
+        Booking rejected = newBooking(start.plusDays(1), start.plusDays(2));
+
+        List<BookingDecisionResultDto> results = bookingService.setApprovedOrRejectedBatch(owner.getId(), List.of(
+                new BookingDecisionDto(first.getBookingId(), true),
+                new BookingDecisionDto(overlapping.getBookingId(), true),
+                new BookingDecisionDto(rejected.getBookingId(), false),
+                new BookingDecisionDto(-1L, true)));
+
+        assertNull(results.get(0).error());
+        assertNotNull(results.get(1).error());
+        assertNull(results.get(2).error());
+        assertNotNull(results.get(3).error());
+
+        // статусы пишутся мимо persistence context, но затронутые брони отцеплены — чтение идёт из БД
+        assertEquals(Status.APPROVED, bookingRepository.findById(first.getBookingId()).orElseThrow().getStatus());
+        assertEquals(Status.WAITING, bookingRepository.findById(overlapping.getBookingId()).orElseThrow().getStatus());
+        assertEquals(Status.REJECTED, bookingRepository.findById(rejected.getBookingId()).orElseThrow().getStatus());
+    }
+
+    private Booking newBooking(LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setStartTimeBooking(start);
+        booking.setEndTimeBooking(end);
+        return bookingService.createBooking(booking, item.getId(), booker.getId());
+    }
+
     @Test
     void approveBooking_notOwner_throwsForbidden() {
         Booking booking = new Booking();
@@ -168,4 +202,20 @@ class BookingServiceIT {
         assertFalse(bookings.isEmpty());
         assertTrue(bookings.stream().anyMatch(b -> b.getBookingId().equals(created.getBookingId())));
     }
+
+    @Test
+    void exportOwnerBookings_streamsAllOwnerBookings() {
+        Booking booking = new Booking();
+        booking.setStartTimeBooking(LocalDateTime.now().plusHours(1));
+        booking.setEndTimeBooking(LocalDateTime.now().plusHours(2));
+        Booking created = bookingService.createBooking(booking, item.getId(), booker.getId());
+
+        List<Booking> exported = new ArrayList<>();
+        bookingService.exportOwnerBookings(owner.getId(), exported::add);
+
+        assertEquals(1, exported.size());
+        assertEquals(created.getBookingId(), exported.get(0).getBookingId());
+        assertEquals(booker.getId(), exported.get(0).getBooker().getId());
+        assertEquals(item.getName(), exported.get(0).getItem().getName());
+    }
 }
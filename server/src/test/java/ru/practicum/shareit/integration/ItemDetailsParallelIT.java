@@ -0,0 +1,130 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.Status;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Без @Transactional: подзадачи читают в своих транзакциях и видят только закоммиченные данные
+@SpringBootTest(properties = "shareit.reads.parallel.enabled=true")
+@ActiveProfiles("test")
+class ItemDetailsParallelIT {
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ItemMapper itemMapper;
+    @Autowired
+    UserService userService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    CommentRepository commentRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking past;
+    private Booking future;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(user("owner"));
+        booker = userService.createUser(user("booker"));
+
+        item = new Item();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setIsAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+
+        LocalDateTime now = LocalDateTime.now();
+        past = bookingRepository.save(booking(now.minusDays(3), now.minusDays(2)));
+        future = bookingRepository.save(booking(now.plusDays(2), now.plusDays(3)));
+        commentRepository.save(Comment.builder()
+                .text("Works great")
+                .item(item)
+                .author(booker)
+                .created(now.minusDays(1))
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        commentRepository.deleteAll(commentRepository.findPageByItemId(item.getId(), 100));
+        bookingRepository.deleteAllById(List.of(past.getBookingId(), future.getBookingId()));
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteAllById(List.of(owner.getId(), booker.getId()));
+    }
+
+    @Test
+    void getAllByOwnerWithComments_parallel_returnsDetachedButFullyMappableDetails() {
+        List<ItemWithCommentsDto> dtos =
+                itemMapper.toItemWithCommentsDtoList(itemService.getAllByOwnerWithComments(owner.getId()));
+
+        assertThat(dtos).hasSize(1);
+        ItemWithCommentsDto dto = dtos.getFirst();
+        assertThat(dto.lastBooking()).isEqualTo(new BookingShortDto(past.getBookingId(), booker.getId()));
+        assertThat(dto.nextBooking()).isEqualTo(new BookingShortDto(future.getBookingId(), booker.getId()));
+        assertThat(dto.comments()).singleElement()
+                .satisfies(comment -> assertThat(comment.authorName()).isEqualTo("booker"));
+    }
+
+    @Test
+    void getItemWithComments_parallel_ownerSeesBookingsOthersDoNot() {
+        ItemWithCommentsDto asOwner =
+                itemMapper.toItemWithCommentsDto(itemService.getItemWithComments(owner.getId(), item.getId()));
+        ItemWithCommentsDto asBooker =
+                itemMapper.toItemWithCommentsDto(itemService.getItemWithComments(booker.getId(), item.getId()));
+
+        assertThat(asOwner.lastBooking().id()).isEqualTo(past.getBookingId());
+        assertThat(asOwner.nextBooking().id()).isEqualTo(future.getBookingId());
+        assertThat(asOwner.comments()).hasSize(1);
+        assertThat(asBooker.lastBooking()).isNull();
+        assertThat(asBooker.nextBooking()).isNull();
+        assertThat(asBooker.comments()).hasSize(1);
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@parallel-reads.local");
+        return user;
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStartTimeBooking(start);
+        booking.setEndTimeBooking(end);
+        booking.setStatus(Status.APPROVED);
+        return booking;
+    }
+}
@@ -8,14 +8,20 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.FeedCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedPage;
+import ru.practicum.shareit.request.dto.RequestItemRow;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -107,18 +113,83 @@ class ItemRequestServiceIT {
         r3.setDescription("r3");
         ItemRequest cr3 = itemRequestService.create(r3, u2.getId());
 
-        List<ItemRequest> otherForU1 = itemRequestService.findAllOtherRequests(u1.getId(), 0, 10);
+        List<ItemRequest> otherForU1 = itemRequestService.findAllOtherRequests(u1.getId(), null, 0, 10).requests();
         assertEquals(1, otherForU1.size());
         assertEquals(cr3.getId(), otherForU1.get(0).getId());
 
-        List<ItemRequest> otherForU2 = itemRequestService.findAllOtherRequests(u2.getId(), 0, 10);
+        List<ItemRequest> otherForU2 = itemRequestService.findAllOtherRequests(u2.getId(), null, 0, 10).requests();
         assertEquals(2, otherForU2.size());
         assertTrue(otherForU2.stream().anyMatch(r -> r.getId().equals(cr1.getId())));
         assertTrue(otherForU2.stream().anyMatch(r -> r.getId().equals(cr2.getId())));
     }
 
     @Test
-    void findItemsByRequestId_returnsItemsLinkedToRequest() {
+    void findAllOtherRequests_keysetPagesMatchOffsetOrder_withTiesOnCreated() {
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 12, 0);
+        for (int i = 0; i < 7; i++) {
+            ItemRequest r = new ItemRequest();
+            r.setDescription("r" + i);
+            r.setRequestor(u1);
+            // по две заявки на одну и ту же секунду — порядок решает id
+            r.setCreated(base.minusSeconds(i / 2));
+            itemRequestRepository.save(r);
+        }
+
+        List<Long> expected = itemRequestService.findAllOtherRequests(u2.getId(), null, 0, 100).requests().stream()
+                .map(ItemRequest::getId)
+                .toList();
+        assertEquals(7, expected.size());
+
+        List<Long> walked = new ArrayList<>();
+        FeedCursor cursor = null;
+        ItemRequestFeedPage page;
+        do {
+            page = itemRequestService.findAllOtherRequests(u2.getId(), cursor, 0, 3);
+            page.requests().forEach(r -> walked.add(r.getId()));
+            cursor = page.requests().isEmpty() ? null : FeedCursor.of(page.requests().getLast());
+        } while (page.hasMore());
+        assertEquals(expected, walked);
+
+        // from не кратен size: страница начинается ровно с from-й строки
+        ItemRequestFeedPage shifted = itemRequestService.findAllOtherRequests(u2.getId(), null, 5, 3);
+        assertEquals(expected.subList(5, 7), shifted.requests().stream().map(ItemRequest::getId).toList());
+        assertFalse(shifted.hasMore());
+    }
+
+    @Test
+    void findDtoById_returnsRequestWithItemsLinkedToRequest() {
+        ItemRequest req = new ItemRequest();
+        req.setDescription("need item");
+        ItemRequest created = itemRequestService.create(req, u1.getId());
+
+        Item item = new Item();
+        item.setName("Item1");
+        item.setDescription("desc");
+        item.setOwner(u2);
+        item.setIsAvailable(true);
+        item.setItemRequest(created);
+        item = itemRepository.save(item);
+
+        ItemRequestDto dto = itemRequestService.findDtoById(u2.getId(), created.getId());
+
+        assertEquals("need item", dto.description());
+        assertEquals(List.of(new ItemShortDto(item.getId(), "Item1", u2.getId())), dto.items());
+    }
+
+    @Test
+    void findDtoById_requestWithoutItems_returnsEmptyItems() {
+        ItemRequest req = new ItemRequest();
+        req.setDescription("nobody answered");
+        ItemRequest created = itemRequestService.create(req, u1.getId());
+
+        ItemRequestDto dto = itemRequestService.findDtoById(u1.getId(), created.getId());
+
+        assertEquals(created.getId(), dto.id());
+        assertTrue(dto.items().isEmpty());
+    }
+
+    @Test
+    void findItemRowsByRequestIds_groupsOnlyLinkedItems() {
         ItemRequest req = new ItemRequest();
         req.setDescription("need item");
         ItemRequest created = itemRequestService.create(req, u1.getId());
@@ -131,9 +202,8 @@ class ItemRequestServiceIT {
         item.setItemRequest(created);
         item = itemRepository.save(item);
 
-        List<Item> items = itemRequestService.findItemsByRequestId(created.getId());
+        List<RequestItemRow> rows = itemRequestService.findItemRowsByRequestIds(List.of(created.getId(), -1L));
 
-        assertEquals(1, items.size());
-        assertEquals(item.getId(), items.get(0).getId());
+        assertEquals(List.of(new RequestItemRow(created.getId(), item.getId(), "Item1", u2.getId())), rows);
     }
 }
@@ -6,10 +6,29 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemImportService;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.dto.CategoryFacetDto;
+import ru.practicum.shareit.item.dto.CommentPage;
+import ru.practicum.shareit.item.dto.ItemBatchRowDto;
+import ru.practicum.shareit.item.dto.ItemDetailsDto;
+import ru.practicum.shareit.item.dto.ItemImportRow;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.item.dto.ItemSearchResult;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.FeedCursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserService;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -23,6 +42,28 @@ class ItemServiceIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Item saveItem(User owner, String name, String category, boolean available) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name + " for rent");
+        item.setCategory(category);
+        item.setIsAvailable(available);
+        item.setOwner(owner);
+        return itemRepository.save(item);
+    }
+
     @Test
     void createUser_persistsToDb_andCanBeFound() {
         User u = new User();
@@ -76,7 +117,7 @@ class ItemServiceIT {
     }
 
     @Test
-    void deleteUser_removesRowFromDb() {
+    void deleteUser_hidesUserAtOnce_andKeepsRowForPurge() {
         User u = new User();
         u.setName("ToDelete");
         u.setEmail("del@mail.ru");
@@ -84,8 +125,133 @@ class ItemServiceIT {
 
         userService.deleteUser(created.getId());
 
-        assertThat(userRepository.findById(created.getId())).isEmpty();
+        assertThat(userRepository.findById(created.getId())).get()
+                .satisfies(row -> assertThat(row.getDeletedAt()).isNotNull());
         assertThatThrownBy(() -> userService.findById(created.getId()))
                 .isInstanceOf(NotFoundException.class);
     }
+
+    @Test
+    void searchFaceted_countsAvailableMatchesPerCategory_andFiltersItems() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("facets@mail.ru");
+        owner = userService.createUser(owner);
+
+        saveItem(owner, "Drill", "tools", true);
+        saveItem(owner, "Hammer drill", "tools", true);
+        saveItem(owner, "Drill bits", "tools", false);
+        saveItem(owner, "Garden drill", "garden", true);
+        saveItem(owner, "Drill case", null, true);
+        saveItem(owner, "Rake", "garden", true);
+
+        ItemSearchResult result = itemService.searchFaceted("DRILL", "garden", 0, 10);
+
+        assertThat(result.page().items()).extracting(ItemDto::name).containsExactly("Garden drill");
+        assertThat(result.page().hasMore()).isFalse();
+        assertThat(result.facets()).containsExactly(
+                new CategoryFacetDto("tools", 2L),
+                new CategoryFacetDto(null, 1L),
+                new CategoryFacetDto("garden", 1L));
+        assertThat(result.facetsCapped()).isFalse();
+    }
+
+    @Test
+    void search_pagesByOffset_andReportsHasMoreFromProbeRow() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("paging@mail.ru");
+        owner = userService.createUser(owner);
+
+        for (int i = 1; i <= 5; i++) {
+            saveItem(owner, "Saw " + i, "tools", true);
+        }
+
+        ItemSearchPage first = itemService.search("saw", null, 0, 2);
+        ItemSearchPage last = itemService.search("saw", "tools", 3, 2);
+
+        assertThat(first.items()).extracting(ItemDto::name).containsExactly("Saw 1", "Saw 2");
+        assertThat(first.hasMore()).isTrue();
+        assertThat(last.items()).extracting(ItemDto::name).containsExactly("Saw 4", "Saw 5");
+        assertThat(last.hasMore()).isFalse();
+    }
+
+    @Test
+    void importItems_persistsValidRowsAcrossChunks_andReportsBadRows() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("import@mail.ru");
+        owner = userService.createUser(owner);
+
+        List<ItemImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < ItemImportService.CHUNK_SIZE + 10; i++) {
+            Item item = new Item();
+            item.setName("Imported " + i);
+            item.setDescription("Bulk item");
+            item.setIsAvailable(i != 3 ? true : null);
+            rows.add(new ItemImportRow(item, i == 5 ? 999_999L : null));
+        }
+
+        List<ItemBatchRowDto> result = itemImportService.importItems(owner.getId(), rows);
+
+        assertThat(result).hasSize(rows.size());
+        assertThat(result.get(3).error()).isEqualTo("Available must be set");
+        assertThat(result.get(5).error()).isEqualTo("Request not found: 999999");
+        assertThat(result).filteredOn(row -> row.error() == null).hasSize(rows.size() - 2);
+        assertThat(itemRepository.findAllByOwnerId(owner.getId())).hasSize(rows.size() - 2);
+    }
+
+    @Test
+    void ownerItems_carryLatestCommentsAndTotal_restIsPagedByCursor() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("comments-owner@mail.ru");
+        owner = userService.createUser(owner);
+        User author = new User();
+        author.setName("Author");
+        author.setEmail("comments-author@mail.ru");
+        author = userService.createUser(author);
+
+        Item busy = saveItem(owner, "Busy drill", "tools", true);
+        Item quiet = saveItem(owner, "Quiet saw", "tools", true);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 12, 0);
+        for (int i = 0; i < 7; i++) {
+            // два последних — с одинаковым created: порядок между ними решает id
+            saveComment(busy, author, "busy " + i, base.plusMinutes(Math.min(i, 5)));
+        }
+        saveComment(quiet, author, "quiet 0", base);
+        saveComment(quiet, author, "quiet 1", base.plusMinutes(1));
+
+        List<ItemDetailsDto> details = itemService.getAllByOwnerWithComments(owner.getId());
+
+        ItemDetailsDto busyDto = details.stream().filter(d -> d.item().getId().equals(busy.getId())).findFirst()
+                .orElseThrow();
+        ItemDetailsDto quietDto = details.stream().filter(d -> d.item().getId().equals(quiet.getId())).findFirst()
+                .orElseThrow();
+        assertThat(busyDto.comments()).extracting(Comment::getText)
+                .containsExactly("busy 6", "busy 5", "busy 4", "busy 3", "busy 2");
+        assertThat(busyDto.commentsCount()).isEqualTo(7);
+        assertThat(quietDto.comments()).extracting(Comment::getText).containsExactly("quiet 1", "quiet 0");
+        assertThat(quietDto.commentsCount()).isEqualTo(2);
+
+        CommentPage first = itemService.findComments(author.getId(), busy.getId(), null, 4);
+        Comment last = first.comments().getLast();
+        CommentPage second = itemService.findComments(author.getId(), busy.getId(),
+                new FeedCursor(last.getCreated(), last.getId()), 4);
+
+        assertThat(first.comments()).extracting(Comment::getText)
+                .containsExactly("busy 6", "busy 5", "busy 4", "busy 3");
+        assertThat(first.hasMore()).isTrue();
+        assertThat(second.comments()).extracting(Comment::getText).containsExactly("busy 2", "busy 1", "busy 0");
+        assertThat(second.hasMore()).isFalse();
+    }
+
+    private void saveComment(Item item, User author, String text, LocalDateTime created) {
+        Comment comment = new Comment();
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setText(text);
+        comment.setCreated(created);
+        commentRepository.save(comment);
+    }
 }
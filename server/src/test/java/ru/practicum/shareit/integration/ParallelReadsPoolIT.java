@@ -0,0 +1,106 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.util.ParallelReads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Вызывающих вдвое больше, чем соединений в пуле. Каждый, как сервисный метод с @Transactional(readOnly),
+// держит соединение своей транзакции и ждёт в join подзадачи, которым нужно ещё по одному. Ожидание
+// соединения урезано до 2 с: если подзадачи встанут в очередь за соединениями ждущих вызовов, вызовы
+// упадут по таймауту пула.
+@SpringBootTest(properties = {
+        "shareit.reads.parallel.enabled=true",
+        "shareit.reads.parallel.max-parallelism=2",
+        "shareit.reads.parallel.max-in-flight=3",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+@ActiveProfiles("test")
+class ParallelReadsPoolIT {
+
+    private static final int CALLERS = 8;
+    private static final int CALLS_PER_CALLER = 3;
+    private static final String READ_SQL = "select count(*) from users";
+
+    @Autowired
+    ParallelReads parallelReads;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void join_moreCallersThanConnections_shouldNotStarveForks() throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    long reads = 0;
+                    for (int call = 0; call < CALLS_PER_CALLER; call++) {
+                        reads += readOnly.execute(status -> call());
+                    }
+                    return reads;
+                }));
+            }
+            start.countDown();
+            for (Future<Long> result : results) {
+                assertThat(result.get(60, TimeUnit.SECONDS)).isEqualTo(3L * CALLS_PER_CALLER);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    // вызывающий сначала сам читает — соединение его транзакции занято до конца вызова;
+    // третья подзадача, как сводка владельца, открывает вложенный scope
+    private long call() {
+        jdbcTemplate.queryForObject(READ_SQL, Long.class);
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            Supplier<Long> first = scope.fork(this::slowRead);
+            Supplier<Long> second = scope.fork(this::slowRead);
+            Supplier<Long> nested = scope.fork(this::nestedRead);
+            scope.join();
+            return first.get() + second.get() + nested.get();
+        }
+    }
+
+    private long nestedRead() {
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            Supplier<Long> read = scope.fork(this::slowRead);
+            scope.join();
+            return read.get();
+        }
+    }
+
+    // число завершённых чтений
+    private long slowRead() {
+        jdbcTemplate.queryForObject(READ_SQL, Long.class);
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 1;
+    }
+}
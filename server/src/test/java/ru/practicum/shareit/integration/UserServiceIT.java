@@ -1,14 +1,32 @@
 package ru.practicum.shareit.integration;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.Status;
 import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestService;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserImportService;
+import ru.practicum.shareit.user.UserPurgeService;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserBatchRowDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -22,6 +40,18 @@ class UserServiceIT {
     UserService userService;
     @Autowired
     UserRepository userRepository;
+    @Autowired
+    UserImportService userImportService;
+    @Autowired
+    UserPurgeService userPurgeService;
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ItemRequestService itemRequestService;
 
     @Test
     void createUser_persists_andRejectsDuplicateEmail() {
@@ -41,4 +71,131 @@ class UserServiceIT {
         assertThatThrownBy(() -> userService.createUser(u2))
                 .isInstanceOf(ConflictException.class);
     }
+
+    @Test
+    void importUsers_persistsAcrossChunks_andReportsDuplicates() {
+        User existing = new User();
+        existing.setName("Existing");
+        existing.setEmail("existing@import.com");
+        userService.createUser(existing);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < UserImportService.CHUNK_SIZE + 10; i++) {
+            User user = new User();
+            user.setName("Imported " + i);
+            if (i == 3) {
+                user.setEmail("existing@import.com");
+            } else if (i == 7) {
+                user.setEmail("user0@import.com");
+            } else {
+                user.setEmail("user" + i + "@import.com");
+            }
+            users.add(user);
+        }
+
+        List<UserBatchRowDto> result = userImportService.importUsers(users);
+
+        assertThat(result).hasSize(users.size());
+        assertThat(result.get(3).error()).isEqualTo("Email is already used");
+        assertThat(result.get(7).error()).isEqualTo("Duplicate email in batch, first used in row 0");
+        assertThat(result).filteredOn(row -> row.error() == null).hasSize(users.size() - 2);
+        assertThat(userRepository.findExistingEmails(List.of("user0@import.com", "user509@import.com")))
+                .hasSize(2);
+    }
+
+    @Test
+    void deleteUser_thenPurge_removesDependentRowsAndKeepsOtherUsersData() {
+        User leaving = userService.createUser(user("Leaving", "leaving@mail.com"));
+        User staying = userService.createUser(user("Staying", "staying@mail.com"));
+        LocalDateTime now = LocalDateTime.now();
+
+        ItemRequest request = new ItemRequest();
+        request.setDescription("Need a ladder");
+        request.setRequestor(leaving);
+        request.setCreated(now);
+        entityManager.persist(request);
+        Item leavingItem = item(leaving, "Drill", null);
+        Item stayingItem = item(staying, "Ladder", request);
+        entityManager.persist(booking(stayingItem, leaving, now));
+        entityManager.persist(booking(leavingItem, staying, now));
+        entityManager.persist(Comment.builder().text("Nice").item(stayingItem).author(leaving).created(now).build());
+        entityManager.persist(Comment.builder().text("Ok").item(leavingItem).author(staying).created(now).build());
+
+        userService.deleteUser(leaving.getId());
+        entityManager.flush();
+
+        // для чтения пользователь исчез сразу, email свободен
+        assertThatThrownBy(() -> userService.findById(leaving.getId())).isInstanceOf(NotFoundException.class);
+        assertThat(userService.createUser(user("Again", "leaving@mail.com")).getId()).isNotNull();
+
+        userPurgeService.purgePending();
+        entityManager.clear();
+
+        assertThat(userRepository.findById(leaving.getId())).isEmpty();
+        assertThat(entityManager.find(Item.class, leavingItem.getId())).isNull();
+        assertThat(entityManager.find(ItemRequest.class, request.getId())).isNull();
+        assertThat(entityManager.find(Item.class, stayingItem.getId()))
+                .extracting(Item::getName, Item::getItemRequest)
+                .containsExactly("Ladder", null);
+        assertThat(count("select count(b) from Booking b")).isZero();
+        assertThat(count("select count(c) from Comment c")).isZero();
+        assertThat(userRepository.findActiveById(staying.getId())).isPresent();
+    }
+
+    @Test
+    void deleteUser_hidesOwnersItemsAndRequestsBeforePurge() {
+        User leaving = userService.createUser(user("Leaving", "leaving@mail.com"));
+        User staying = userService.createUser(user("Staying", "staying@mail.com"));
+        ItemRequest request = new ItemRequest();
+        request.setDescription("Need a ladder");
+        request.setRequestor(leaving);
+        request.setCreated(LocalDateTime.now());
+        entityManager.persist(request);
+        Item leavingItem = item(leaving, "Hammer drill", null);
+
+        userService.deleteUser(leaving.getId());
+        entityManager.flush();
+
+        assertThat(itemService.search("hammer", null, 0, 10).items()).isEmpty();
+        Booking booking = new Booking();
+        booking.setStartTimeBooking(LocalDateTime.now().plusDays(1));
+        booking.setEndTimeBooking(LocalDateTime.now().plusDays(2));
+        assertThatThrownBy(() -> bookingService.createBooking(booking, leavingItem.getId(), staying.getId()))
+                .isInstanceOf(ValidationException.class);
+        assertThat(itemRequestService.findOtherRequestsPage(staying.getId(), null, 0, 10).requests())
+                .extracting(ItemRequest::getId)
+                .doesNotContain(request.getId());
+    }
+
+    private static User user(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+
+    private Item item(User owner, String name, ItemRequest request) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription("desc");
+        item.setIsAvailable(true);
+        item.setOwner(owner);
+        item.setItemRequest(request);
+        entityManager.persist(item);
+        return item;
+    }
+
+    private static Booking booking(Item item, User booker, LocalDateTime now) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStartTimeBooking(now.minusDays(2));
+        booking.setEndTimeBooking(now.minusDays(1));
+        booking.setStatus(Status.APPROVED);
+        return booking;
+    }
+
+    private long count(String jpql) {
+        return entityManager.createQuery(jpql, Long.class).getSingleResult();
+    }
 }
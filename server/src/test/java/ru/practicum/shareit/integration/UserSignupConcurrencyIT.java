@@ -0,0 +1,94 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Без @Transactional: каждая регистрация идёт в своей транзакции, как в проде
+@SpringBootTest
+@ActiveProfiles("test")
+class UserSignupConcurrencyIT {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    UserService userService;
+    @Autowired
+    UserRepository userRepository;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllById(created);
+    }
+
+    @Test
+    void concurrentSignups_sameEmail_exactlyOneWinsOthersGetConflict() throws Exception {
+        List<Object> outcomes = runConcurrently(THREADS * 4, i -> "race@mail.com");
+
+        long saved = outcomes.stream().filter(User.class::isInstance).count();
+        long conflicts = outcomes.stream().filter(ConflictException.class::isInstance).count();
+        assertThat(saved).isEqualTo(1);
+        assertThat(conflicts).isEqualTo(outcomes.size() - 1);
+        assertThat(userRepository.existsByEmail("race@mail.com")).isTrue();
+    }
+
+    @Test
+    void concurrentSignups_distinctEmails_allSucceed() throws Exception {
+        List<Object> outcomes = runConcurrently(THREADS * 16, i -> "user" + i + "@signup.com");
+
+        assertThat(outcomes).allMatch(User.class::isInstance);
+        assertThat(created).doesNotHaveDuplicates().hasSize(THREADS * 16);
+    }
+
+    private List<Object> runConcurrently(int signups, IntFunction<String> email)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < signups; i++) {
+                String address = email.apply(i);
+                Callable<Object> signup = () -> {
+                    start.await();
+                    User user = new User();
+                    user.setName("Racer");
+                    user.setEmail(address);
+                    try {
+                        return userService.createUser(user);
+                    } catch (ConflictException e) {
+                        return e;
+                    }
+                };
+                futures.add(executor.submit(signup));
+            }
+            start.countDown();
+        }
+        List<Object> outcomes = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            Object outcome = future.get();
+            if (outcome instanceof User user) {
+                created.add(user.getId());
+            }
+            outcomes.add(outcome);
+        }
+        return outcomes;
+    }
+}
@@ -15,21 +15,28 @@ import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.Status;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.handler.ErrorHandler;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -111,6 +118,51 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value("APPROVED"));
     }
 
+    @Test
+    @DisplayName("PATCH /bookings/batch -> 200 + итог по каждой брони")
+    void approveOrRejectBatch_ok() throws Exception {
+        long ownerId = 5L;
+        List<BookingDecisionDto> decisions = List.of(
+                new BookingDecisionDto(7L, true),
+                new BookingDecisionDto(8L, false));
+
+        when(bookingService.setApprovedOrRejectedBatch(ownerId, decisions)).thenReturn(List.of(
+                new BookingDecisionResultDto(7L, Status.APPROVED, null),
+                new BookingDecisionResultDto(8L, null, "Booking not found: 8")));
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_HEADER, ownerId)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$.results[1].error").value("Booking not found: 8"));
+
+        verify(bookingService, never()).setApprovedOrRejected(anyLong(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("GET /bookings?ids= -> найденные + missing")
+    void getBookingsByIds_ok() throws Exception {
+        long userId = 9L;
+        Booking booking = new Booking();
+        BookingResponseDto responseDto = new BookingResponseDto(100L, null, null, "WAITING", null, null);
+
+        when(bookingService.getBookings(List.of(100L, 101L), userId)).thenReturn(List.of(booking));
+        when(bookingMapper.toResponseDto(booking)).thenReturn(responseDto);
+
+        mockMvc.perform(get("/bookings")
+                        .header(USER_HEADER, userId)
+                        .param("ids", "100", "101"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].id").value(100))
+                .andExpect(jsonPath("$.missing[0]").value(101));
+
+        verify(bookingService, never()).getUserBookings(anyLong(), any());
+    }
+
     @Test
     @DisplayName("GET /bookings/{id} -> 200 + body (важно: порядок аргументов в service)")
     void getBooking_ok() throws Exception {
@@ -213,4 +265,45 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(containsString("Booking status must be WAITING")));
     }
+
+    @Test
+    @DisplayName("GET /bookings/owner/export -> 200 + NDJSON, по строке на бронь")
+    void exportOwnerBookings_ok() throws Exception {
+        long ownerId = 9L;
+
+        Booking b1 = new Booking();
+        Booking b2 = new Booking();
+        BookingResponseDto d1 = new BookingResponseDto(1L, null, null, "WAITING", null, null);
+        BookingResponseDto d2 = new BookingResponseDto(2L, null, null, "APPROVED", null, null);
+
+        doAnswer(inv -> {
+            Consumer<Booking> sink = inv.getArgument(1);
+            sink.accept(b1);
+            sink.accept(b2);
+            return null;
+        }).when(bookingService).exportOwnerBookings(eq(ownerId), any());
+        when(bookingMapper.toResponseDto(b1)).thenReturn(d1);
+        when(bookingMapper.toResponseDto(b2)).thenReturn(d2);
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header(USER_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(d1) + "\n" + objectMapper.writeValueAsString(d2) + "\n"));
+    }
+
+    @Test
+    @DisplayName("GET /bookings/owner/export -> 404 если пользователя нет")
+    void exportOwnerBookings_userNotFound() throws Exception {
+        long ownerId = 9L;
+
+        doThrow(new NotFoundException("User not found: 9"))
+                .when(bookingService).exportOwnerBookings(eq(ownerId), any());
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header(USER_HEADER, ownerId))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(containsString("User not found")));
+    }
 }
@@ -9,18 +9,25 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.HeaderNames;
 import ru.practicum.shareit.ShareItServerApp;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.handler.ErrorHandler;
 import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.ItemImportService;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestDtoAssembler;
+import ru.practicum.shareit.request.dto.FeedCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.containsString;
@@ -47,9 +54,13 @@ class ItemControllerTest {
     @MockBean
     ItemService itemService;
     @MockBean
+    ItemImportService itemImportService;
+    @MockBean
     ItemMapper itemMapper;
     @MockBean
     CommentMapper commentMapper;
+    @MockBean
+    ItemRequestDtoAssembler itemRequestDtoAssembler;
 
     @Test
     @DisplayName("POST /items -> 201, Location, body")
@@ -168,39 +179,187 @@ class ItemControllerTest {
     void searchItems_ok() throws Exception {
         long userId = 99L;
 
-        Item i1 = new Item();
-        i1.setId(1L);
-        Item i2 = new Item();
-        i2.setId(2L);
-
         ItemDto d1 = new ItemDto(1L, "A", "DA", 0L, true, null);
         ItemDto d2 = new ItemDto(2L, "B", "DB", 0L, true, null);
 
-        when(itemService.search("drill")).thenReturn(List.of(i1, i2));
-        when(itemMapper.toDto(i1)).thenReturn(d1);
-        when(itemMapper.toDto(i2)).thenReturn(d2);
+        when(itemService.search("drill", null, 0, 20)).thenReturn(new ItemSearchPage(List.of(d1, d2), true));
 
         mockMvc.perform(get("/items/search")
                         .header(USER_HEADER, userId)
                         .param("text", "drill"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(header().string(HeaderNames.HAS_MORE, "true"))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[1].id").value(2));
     }
 
+    @Test
+    @DisplayName("POST /items/batch -> 200 + результат по каждой строке")
+    void createItemsBatch_ok() throws Exception {
+        List<ItemDto> request = List.of(
+                new ItemDto(null, "Drill", "Good drill", null, true, 5L),
+                new ItemDto(null, "Saw", "Sharp saw", null, true, null));
+        Item drill = new Item();
+        Item saw = new Item();
+
+        when(itemMapper.toEntity(request.get(0))).thenReturn(drill);
+        when(itemMapper.toEntity(request.get(1))).thenReturn(saw);
+        when(itemImportService.importItems(eq(10L), anyList())).thenReturn(List.of(
+                new ItemBatchRowDto(0, 1L, null),
+                new ItemBatchRowDto(1, null, "Request not found: 9")));
+
+        mockMvc.perform(post("/items/batch")
+                        .header(USER_HEADER, 10L)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.rows[0].id").value(1))
+                .andExpect(jsonPath("$.rows[1].error").value("Request not found: 9"));
+
+        verify(itemImportService).importItems(10L, List.of(new ItemImportRow(drill, 5L), new ItemImportRow(saw, null)));
+    }
+
+    @Test
+    @DisplayName("GET /items/search/fuzzy?text=... -> 200 + list по убыванию сходства")
+    void searchItemsFuzzy_ok() throws Exception {
+        Item i1 = new Item();
+        i1.setId(1L);
+        ItemDto d1 = new ItemDto(1L, "Drill", "DA", 0L, true, null);
+
+        when(itemService.fuzzySearch("drel", 5)).thenReturn(List.of(i1));
+        when(itemMapper.toDto(i1)).thenReturn(d1);
+
+        mockMvc.perform(get("/items/search/fuzzy")
+                        .header(USER_HEADER, 1L)
+                        .param("text", "drel")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Drill"));
+    }
+
+    @Test
+    @DisplayName("GET /items/suggest?prefix=... -> 200 + названия")
+    void suggest_ok() throws Exception {
+        when(itemService.suggest("dr", 10)).thenReturn(List.of("Drill", "Drone"));
+
+        mockMvc.perform(get("/items/suggest")
+                        .header(USER_HEADER, 1L)
+                        .param("prefix", "dr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0]").value("Drill"));
+    }
+
+    @Test
+    @DisplayName("GET /items/suggest?limit=0 в обход шлюза -> 400, а не 500")
+    void suggest_limitNotPositive_badRequest() throws Exception {
+        mockMvc.perform(get("/items/suggest")
+                        .header(USER_HEADER, 1L)
+                        .param("prefix", "dr")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemService);
+    }
+
+    @Test
+    @DisplayName("GET /items/{id}/matching-requests -> 200 + запросы в порядке сходства")
+    void getMatchingRequests_ok() throws Exception {
+        ItemRequest r1 = new ItemRequest();
+        r1.setId(30L);
+        ItemRequestDto d1 = new ItemRequestDto(30L, "Нужна дрель", null, List.of());
+        when(itemService.findMatchingRequests(1L, 10L, 5)).thenReturn(List.of(r1));
+        when(itemRequestDtoAssembler.mapRequestsToDtos(List.of(r1))).thenReturn(List.of(d1));
+
+        mockMvc.perform(get("/items/10/matching-requests")
+                        .header(USER_HEADER, 1L)
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(30));
+    }
+
+    @Test
+    @DisplayName("GET /items/most-booked?limit=... -> 200 + list с учётом счётчиков")
+    void getMostBooked_ok() throws Exception {
+        long userId = 99L;
+
+        Item i1 = new Item();
+        i1.setId(1L);
+        ItemDto d1 = new ItemDto(1L, "A", "DA", 42L, true, null);
+
+        when(itemService.findMostBooked(5)).thenReturn(List.of(new ItemUsageDto(i1, 42L)));
+        when(itemMapper.toDto(i1, 42L)).thenReturn(d1);
+
+        mockMvc.perform(get("/items/most-booked")
+                        .header(USER_HEADER, userId)
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].useCount").value(42));
+    }
+
+    @Test
+    @DisplayName("GET /items/popular?category=... -> 200 + list из рейтинга")
+    void getPopular_ok() throws Exception {
+        Item i1 = new Item();
+        i1.setId(3L);
+        ItemDto d1 = new ItemDto(3L, "Saw", "DS", 7L, true, null);
+
+        when(itemService.findPopular("tools", 10)).thenReturn(List.of(new ItemUsageDto(i1, 7L)));
+        when(itemMapper.toDto(i1, 7L)).thenReturn(d1);
+
+        mockMvc.perform(get("/items/popular")
+                        .header(USER_HEADER, 1L)
+                        .param("category", "tools"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].useCount").value(7));
+    }
+
+    @Test
+    @DisplayName("GET /items/search/faceted?text=...&category=... -> 200 + items и facets")
+    void searchItemsFaceted_ok() throws Exception {
+        ItemDto d1 = new ItemDto(1L, "A", "DA", 0L, true, null);
+        List<CategoryFacetDto> facets = List.of(new CategoryFacetDto("tools", 1L), new CategoryFacetDto("garden", 3L));
+
+        when(itemService.searchFaceted("drill", "tools", 10, 5))
+                .thenReturn(new ItemSearchResult(new ItemSearchPage(List.of(d1), false), facets, true));
+
+        mockMvc.perform(get("/items/search/faceted")
+                        .header(USER_HEADER, 1L)
+                        .param("text", "drill")
+                        .param("category", "tools")
+                        .param("from", "10")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.facetsCapped").value(true))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.facets.length()").value(2))
+                .andExpect(jsonPath("$.facets[1].category").value("garden"))
+                .andExpect(jsonPath("$.facets[1].count").value(3));
+    }
+
     @Test
     @DisplayName("GET /items/{id} -> 200 + ItemWithCommentsDto")
     void getItem_ok() throws Exception {
         long userId = 5L;
         long itemId = 7L;
 
-        ItemDetailsDto details = new ItemDetailsDto(null, null, null, List.of());
+        ItemDetailsDto details = new ItemDetailsDto(null, null, null, List.of(), 0);
         ItemWithCommentsDto responseDto = new ItemWithCommentsDto(
                 itemId, "Name", "Desc", 0L, true,
                 null, null,
-                List.of()
+                List.of(), 0L
         );
 
         when(itemService.getItemWithComments(userId, itemId)).thenReturn(details);
@@ -222,13 +381,13 @@ class ItemControllerTest {
         long ownerId = 10L;
 
         List<ItemDetailsDto> detailsList = List.of(
-                new ItemDetailsDto(null, null, null, List.of()),
-                new ItemDetailsDto(null, null, null, List.of())
+                new ItemDetailsDto(null, null, null, List.of(), 0),
+                new ItemDetailsDto(null, null, null, List.of(), 0)
         );
 
         List<ItemWithCommentsDto> response = List.of(
-                new ItemWithCommentsDto(1L, "A", "DA", 0L, true, null, null, List.of()),
-                new ItemWithCommentsDto(2L, "B", "DB", 0L, true, null, null, List.of())
+                new ItemWithCommentsDto(1L, "A", "DA", 0L, true, null, null, List.of(), 0L),
+                new ItemWithCommentsDto(2L, "B", "DB", 0L, true, null, null, List.of(), 0L)
         );
 
         when(itemService.getAllByOwnerWithComments(ownerId)).thenReturn(detailsList);
@@ -268,6 +427,70 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.text").value("Nice!"));
     }
 
+    @Test
+    @DisplayName("GET /items/{itemId}/comments -> 200, страница + курсор на следующую")
+    void getComments_hasMore_setsNextCursor() throws Exception {
+        long itemId = 3L;
+        long userId = 12L;
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 12, 0);
+        Comment c1 = new Comment();
+        c1.setId(101L);
+        c1.setCreated(created.plusHours(1));
+        Comment c2 = new Comment();
+        c2.setId(100L);
+        c2.setCreated(created);
+
+        when(itemService.findComments(userId, itemId, null, 2)).thenReturn(new CommentPage(List.of(c1, c2), true));
+        when(commentMapper.toDto(c1)).thenReturn(new CommentResponseDto(101L, "B", "user", c1.getCreated()));
+        when(commentMapper.toDto(c2)).thenReturn(new CommentResponseDto(100L, "A", "user", created));
+
+        mockMvc.perform(get("/items/{itemId}/comments", itemId)
+                        .header(USER_HEADER, userId)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HeaderNames.HAS_MORE, "true"))
+                .andExpect(header().string(HeaderNames.NEXT_CURSOR, new FeedCursor(created, 100L).encode()))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(101))
+                .andExpect(jsonPath("$[1].id").value(100));
+    }
+
+    @Test
+    @DisplayName("GET /items/{itemId}/comments?after= -> курсор передаётся в сервис, последняя страница без курсора")
+    void getComments_lastPage_noCursor() throws Exception {
+        FeedCursor after = new FeedCursor(LocalDateTime.of(2030, 1, 1, 12, 0), 100L);
+        when(itemService.findComments(12L, 3L, after, 20)).thenReturn(new CommentPage(List.of(), false));
+
+        mockMvc.perform(get("/items/{itemId}/comments", 3L)
+                        .header(USER_HEADER, 12L)
+                        .param("after", after.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HeaderNames.HAS_MORE, "false"))
+                .andExpect(header().doesNotExist(HeaderNames.NEXT_CURSOR))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("GET /items?ids= -> найденные + missing, а не список вещей владельца")
+    void getItemsByIds_ok() throws Exception {
+        long userId = 5L;
+        List<ItemDetailsDto> detailsList = List.of(new ItemDetailsDto(null, null, null, List.of(), 0));
+        List<ItemWithCommentsDto> response = List.of(
+                new ItemWithCommentsDto(2L, "B", "DB", 0L, true, null, null, List.of(), 0L));
+
+        when(itemService.getItemsWithComments(userId, List.of(2L, 3L))).thenReturn(detailsList);
+        when(itemMapper.toItemWithCommentsDtoList(detailsList)).thenReturn(response);
+
+        mockMvc.perform(get("/items")
+                        .header(USER_HEADER, userId)
+                        .param("ids", "2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].id").value(2))
+                .andExpect(jsonPath("$.missing[0]").value(3));
+
+        verify(itemService, never()).getAllByOwnerWithComments(anyLong());
+    }
+
     @Test
     @DisplayName("GET /items/{id} -> 404 when service throws NotFoundException")
     void getItem_notFound() throws Exception {
@@ -9,6 +9,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.HeaderNames;
 import ru.practicum.shareit.ShareItServerApp;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.handler.ErrorHandler;
@@ -16,18 +18,18 @@ import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.*;
+import ru.practicum.shareit.request.dto.FeedCursor;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.request.dto.ItemRequestFeedPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.containsString;
-import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -52,6 +54,8 @@ class ItemRequestControllerTest {
     ItemMapper itemMapper;
     @MockBean
     ItemRequestDtoAssembler itemRequestDtoAssembler;
+    @MockBean
+    RequestFeedBroadcaster requestFeedBroadcaster;
 
     @Test
     @DisplayName("POST /requests -> 201 + Location + body")
@@ -86,33 +90,19 @@ class ItemRequestControllerTest {
     }
 
     @Test
-    @DisplayName("GET /requests/{id} -> 200 + body (items маппятся в ItemShortDto)")
+    @DisplayName("GET /requests/{id} -> 200 + body (запрос с вещами одним вызовом сервиса)")
     void getOneById_ok() throws Exception {
         long userId = 10L;
         long requestId = 55L;
 
-        ItemRequest request = new ItemRequest();
-        request.setId(requestId);
-        request.setCreated(LocalDateTime.of(2030, 1, 2, 12, 0));
-
-        Item item = mock(Item.class);
-        User owner = mock(User.class);
-        when(item.getId()).thenReturn(777L);
-        when(item.getName()).thenReturn("Дрель");
-        when(item.getOwner()).thenReturn(owner);
-        when(owner.getId()).thenReturn(10L);
-
-        when(itemRequestService.findById(userId, requestId)).thenReturn(request);
-        when(itemRequestService.findItemsByRequestId(requestId)).thenReturn(List.of(item));
-
         ItemRequestDto dto = new ItemRequestDto(
                 requestId,
                 "Нужна дрель",
-                request.getCreated(),
+                LocalDateTime.of(2030, 1, 2, 12, 0),
                 List.of(new ItemShortDto(777L, "Дрель", 10L))
         );
 
-        when(itemRequestMapper.toDto(eq(request), anyList())).thenReturn(dto);
+        when(itemRequestService.findDtoById(userId, requestId)).thenReturn(dto);
 
         mockMvc.perform(get("/requests/{requestId}", requestId)
                         .header(USER_HEADER, userId))
@@ -124,9 +114,8 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.items[0].name").value("Дрель"))
                 .andExpect(jsonPath("$.items[0].ownerId").value(10));
 
-        verify(itemRequestService).findById(userId, requestId);
-        verify(itemRequestService).findItemsByRequestId(requestId);
-        verify(itemRequestMapper).toDto(eq(request), anyList());
+        verify(itemRequestService).findDtoById(userId, requestId);
+        verifyNoInteractions(itemRequestMapper);
     }
 
     @Test
@@ -166,7 +155,8 @@ class ItemRequestControllerTest {
         r1.setId(100L);
         ItemRequestDto d1 = new ItemRequestDto(100L, "X", null, List.of());
 
-        when(itemRequestService.findAllOtherRequests(userId, 0, 10)).thenReturn(List.of(r1));
+        when(itemRequestService.findAllOtherRequests(userId, null, 0, 10))
+                .thenReturn(new ItemRequestFeedPage(List.of(r1), false));
         when(itemRequestDtoAssembler.mapRequestsToDtos(List.of(r1))).thenReturn(List.of(d1));
 
         mockMvc.perform(get("/requests/all")
@@ -175,20 +165,105 @@ class ItemRequestControllerTest {
                         .param("size", "10"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(header().string(HeaderNames.HAS_MORE, "false"))
+                .andExpect(header().doesNotExist(HeaderNames.NEXT_CURSOR))
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].id").value(100));
 
-        verify(itemRequestService).findAllOtherRequests(userId, 0, 10);
+        verify(itemRequestService).findAllOtherRequests(userId, null, 0, 10);
         verify(itemRequestDtoAssembler).mapRequestsToDtos(List.of(r1));
     }
 
+    @Test
+    @DisplayName("GET /requests/all?after=... -> курсор передаётся в service, следующий уходит в X-Next-Cursor")
+    void getAllOther_withCursor_returnsNextCursor() throws Exception {
+        long userId = 10L;
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 12, 0);
+        FeedCursor cursor = new FeedCursor(created, 200L);
+
+        ItemRequest r1 = new ItemRequest();
+        r1.setId(150L);
+        r1.setCreated(created.minusHours(1));
+        ItemRequestDto d1 = new ItemRequestDto(150L, "X", null, List.of());
+
+        when(itemRequestService.findAllOtherRequests(userId, cursor, 0, 1))
+                .thenReturn(new ItemRequestFeedPage(List.of(r1), true));
+        when(itemRequestDtoAssembler.mapRequestsToDtos(List.of(r1))).thenReturn(List.of(d1));
+
+        mockMvc.perform(get("/requests/all")
+                        .header(USER_HEADER, userId)
+                        .param("size", "1")
+                        .param("after", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HeaderNames.HAS_MORE, "true"))
+                .andExpect(header().string(HeaderNames.NEXT_CURSOR, FeedCursor.of(r1).encode()))
+                .andExpect(jsonPath("$[0].id").value(150));
+    }
+
+    @Test
+    @DisplayName("GET /requests/all?after=мусор -> 400")
+    void getAllOther_invalidCursor_badRequest() throws Exception {
+        mockMvc.perform(get("/requests/all")
+                        .header(USER_HEADER, 10L)
+                        .param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemRequestService);
+    }
+
+    @Test
+    @DisplayName("GET /requests/{id}/matching-items -> 200 + короткие карточки вещей")
+    void getMatchingItems_ok() throws Exception {
+        Item item = new Item();
+        item.setId(7L);
+        when(itemRequestService.findMatchingItems(10L, 5L, 10)).thenReturn(List.of(item));
+        when(itemMapper.toItemShortDto(item)).thenReturn(new ItemShortDto(7L, "Дрель", 1L));
+
+        mockMvc.perform(get("/requests/5/matching-items")
+                        .header(USER_HEADER, 10L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[0].name").value("Дрель"));
+    }
+
+    @Test
+    @DisplayName("GET /requests/stream -> поток SSE от broadcaster")
+    void stream_ok() throws Exception {
+        long userId = 10L;
+        when(requestFeedBroadcaster.subscribe(userId)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/requests/stream")
+                        .header(USER_HEADER, userId)
+                        .accept(TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(itemRequestService).assertUserExists(userId);
+        verify(requestFeedBroadcaster).subscribe(userId);
+    }
+
+    @Test
+    @DisplayName("GET /requests/stream -> 404 для неизвестного пользователя, подписки нет")
+    void stream_unknownUser_notFound() throws Exception {
+        long userId = 10L;
+        doThrow(new NotFoundException("User not found: " + userId))
+                .when(itemRequestService).assertUserExists(userId);
+
+        mockMvc.perform(get("/requests/stream")
+                        .header(USER_HEADER, userId)
+                        .accept(TEXT_EVENT_STREAM, APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+
+        verifyNoInteractions(requestFeedBroadcaster);
+    }
+
     @Test
     @DisplayName("GET /requests/{id} -> 404 если service кидает NotFoundException")
     void getOneById_notFound() throws Exception {
         long userId = 10L;
         long requestId = 999L;
 
-        when(itemRequestService.findById(userId, requestId))
+        when(itemRequestService.findDtoById(userId, requestId))
                 .thenThrow(new NotFoundException("Request not found: " + requestId));
 
         mockMvc.perform(get("/requests/{requestId}", requestId)
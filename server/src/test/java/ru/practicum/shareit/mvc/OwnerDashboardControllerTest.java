@@ -0,0 +1,68 @@
+package ru.practicum.shareit.mvc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItServerApp;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.handler.ErrorHandler;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.owner.OwnerDashboardAssembler;
+import ru.practicum.shareit.owner.OwnerDashboardController;
+import ru.practicum.shareit.owner.dto.OwnerDashboardDto;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.*;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = OwnerDashboardController.class)
+@ContextConfiguration(classes = ShareItServerApp.class)
+@Import(ErrorHandler.class)
+class OwnerDashboardControllerTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    OwnerDashboardAssembler ownerDashboardAssembler;
+
+    @Test
+    @DisplayName("GET /owner/dashboard -> 200 + все части одним ответом")
+    void getDashboard_ok() throws Exception {
+        ItemWithCommentsDto item = new ItemWithCommentsDto(1L, "Дрель", "Ударная", 0L, true, null, null, List.of(), 0L);
+        when(ownerDashboardAssembler.assemble(7L, 10))
+                .thenReturn(new OwnerDashboardDto(List.of(item), List.of(), List.of(), List.of(), null));
+
+        mockMvc.perform(get("/owner/dashboard")
+                        .header(USER_HEADER, 7L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(jsonPath("$.items[0].name").value("Дрель"))
+                .andExpect(jsonPath("$.waitingBookings.length()").value(0))
+                .andExpect(jsonPath("$.requestsNextCursor").doesNotExist());
+
+        verify(ownerDashboardAssembler).assemble(7L, 10);
+    }
+
+    @Test
+    @DisplayName("GET /owner/dashboard -> 404 если пользователя нет")
+    void getDashboard_userNotFound() throws Exception {
+        when(ownerDashboardAssembler.assemble(99L, 10)).thenThrow(new NotFoundException("User not found: 99"));
+
+        mockMvc.perform(get("/owner/dashboard")
+                        .header(USER_HEADER, 99L))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(containsString("User not found")));
+    }
+}
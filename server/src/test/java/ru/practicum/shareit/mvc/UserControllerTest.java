@@ -16,10 +16,14 @@ import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.handler.ErrorHandler;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserController;
+import ru.practicum.shareit.user.UserImportService;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserBatchRowDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.endsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -44,6 +48,8 @@ class UserControllerTest {
     UserService userService;
     @MockBean
     UserMapper userMapper;
+    @MockBean
+    UserImportService userImportService;
 
     @Test
     @DisplayName("POST /users -> 201, Location, body")
@@ -151,6 +157,22 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email").value("bob@mail.com"));
     }
 
+    @Test
+    @DisplayName("GET /users?ids= -> найденные в порядке запроса + missing")
+    void getByIds_ok() throws Exception {
+        User user = new User();
+        user.setId(7L);
+        UserDto dto = new UserDto(7L, "Bob", "bob@mail.com");
+
+        when(userService.findAllById(List.of(8L, 7L))).thenReturn(List.of(user));
+        when(userMapper.toDto(user)).thenReturn(dto);
+
+        mockMvc.perform(get("/users").param("ids", "8", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].id").value(7))
+                .andExpect(jsonPath("$.missing[0]").value(8));
+    }
+
     @Test
     @DisplayName("GET /users/{id} -> 404 when service throws NotFoundException")
     void get_notFound() throws Exception {
@@ -180,4 +202,26 @@ class UserControllerTest {
                 .andExpect(status().isConflict())
                 .andExpect(content().string(containsString("Email is already used")));
     }
+
+    @Test
+    @DisplayName("POST /users/batch -> 200, счётчики и построчный отчёт")
+    void createUsersBatch_ok() throws Exception {
+        when(userMapper.toEntity(any(UserDto.class))).thenAnswer(inv -> new User());
+        when(userImportService.importUsers(anyList())).thenReturn(List.of(
+                new UserBatchRowDto(0, 5L, null),
+                new UserBatchRowDto(1, null, "Email is already used")));
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new UserDto(null, "Alice", "alice@mail.com"),
+                                new UserDto(null, "Bob", "alice@mail.com")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.rows[0].id").value(5))
+                .andExpect(jsonPath("$.rows[1].error").value("Email is already used"));
+
+        verify(userImportService).importUsers(argThat(users -> users.size() == 2));
+    }
 }
@@ -1,14 +1,21 @@
 package ru.practicum.shareit.unit;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingApprovedEvent;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.Status;
 import ru.practicum.shareit.exceptions.ForbiddenException;
@@ -17,28 +24,50 @@ import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceTest {
 
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 10, 10, 0, 0);
+
     @Mock
     BookingRepository bookingRepository;
     @Mock
     UserRepository userRepository;
     @Mock
+    UserExistenceCache userExistenceCache;
+    @Mock
     ItemRepository itemRepository;
 
+    @Mock
+    EntityManager entityManager;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    JdbcTemplate jdbcTemplate;
+    @Spy
+    Clock clock = Clock.fixed(Instant.parse("2030-01-10T10:00:00Z"), ZoneOffset.UTC);
+
     @InjectMocks
     BookingService bookingService;
 
@@ -99,7 +128,7 @@ class BookingServiceTest {
     @Test
     void createBooking_whenUserNotFound_shouldThrowNotFound() {
         when(itemRepository.findById(10L)).thenReturn(Optional.of(item(10L, 2L, true)));
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findActiveById(1L)).thenReturn(Optional.empty());
 
         Booking b = new Booking();
         b.setStartTimeBooking(LocalDateTime.now().plusDays(1));
@@ -110,7 +139,7 @@ class BookingServiceTest {
                 .hasMessageContaining("User not found");
 
         verify(itemRepository).findById(10L);
-        verify(userRepository).findById(1L);
+        verify(userRepository).findActiveById(1L);
         verify(bookingRepository, never()).save(any());
         verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
     }
@@ -119,7 +148,7 @@ class BookingServiceTest {
     void createBooking_whenOwnerBooksOwnItem_shouldThrowNotFound() {
         long ownerId = 1L;
         when(itemRepository.findById(10L)).thenReturn(Optional.of(item(10L, ownerId, true)));
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(user(ownerId)));
+        when(userRepository.findActiveById(ownerId)).thenReturn(Optional.of(user(ownerId)));
 
         Booking b = new Booking();
         b.setStartTimeBooking(LocalDateTime.now().plusDays(1));
@@ -135,7 +164,7 @@ class BookingServiceTest {
     @Test
     void createBooking_whenItemUnavailable_shouldThrowValidation() {
         when(itemRepository.findById(10L)).thenReturn(Optional.of(item(10L, 2L, false)));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L)));
+        when(userRepository.findActiveById(1L)).thenReturn(Optional.of(user(1L)));
 
         Booking b = new Booking();
         b.setStartTimeBooking(LocalDateTime.now().plusDays(1));
@@ -151,7 +180,7 @@ class BookingServiceTest {
     @Test
     void createBooking_whenDatesMissing_shouldThrowValidation() {
         when(itemRepository.findById(10L)).thenReturn(Optional.of(item(10L, 2L, true)));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L)));
+        when(userRepository.findActiveById(1L)).thenReturn(Optional.of(user(1L)));
 
         Booking b = new Booking();
         b.setStartTimeBooking(null);
@@ -167,7 +196,7 @@ class BookingServiceTest {
     @Test
     void createBooking_whenStartNotBeforeEnd_shouldThrowValidation() {
         when(itemRepository.findById(10L)).thenReturn(Optional.of(item(10L, 2L, true)));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L)));
+        when(userRepository.findActiveById(1L)).thenReturn(Optional.of(user(1L)));
 
         Booking b = new Booking();
         b.setStartTimeBooking(LocalDateTime.now().plusDays(2));
@@ -190,7 +219,7 @@ class BookingServiceTest {
         User booker = user(bookerId);
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(it));
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(userRepository.findActiveById(bookerId)).thenReturn(Optional.of(booker));
         when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Booking b = new Booking();
@@ -262,6 +291,7 @@ class BookingServiceTest {
 
         assertThat(res.getStatus()).isEqualTo(Status.APPROVED);
         verify(bookingRepository).save(b);
+        verify(eventPublisher).publishEvent(new BookingApprovedEvent(1L, 10L, null));
     }
 
     @Test
@@ -274,25 +304,175 @@ class BookingServiceTest {
 
         assertThat(res.getStatus()).isEqualTo(Status.REJECTED);
         verify(bookingRepository).save(b);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    // -------- setApprovedOrRejectedBatch --------
+
+    @Test
+    void setApprovedOrRejectedBatch_shouldReportErrorsPerBookingAndUpdateRestInOneBatch() {
+        Booking approve = booking(1L, 10L, 2L, 1L, Status.WAITING);
+        Booking reject = booking(2L, 11L, 2L, 1L, Status.WAITING);
+        Booking foreign = booking(3L, 12L, 7L, 1L, Status.WAITING);
+        Booking decided = booking(4L, 13L, 2L, 1L, Status.REJECTED);
+        when(userExistenceCache.exists(2L)).thenReturn(true);
+        when(bookingRepository.findAllWithDetailsByIdIn(any())).thenReturn(List.of(approve, reject, foreign, decided));
+        when(bookingRepository.findApprovedOverlapping(any(), any(), any())).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+
+        List<BookingDecisionResultDto> res = bookingService.setApprovedOrRejectedBatch(2L, List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false),
+                new BookingDecisionDto(3L, true),
+                new BookingDecisionDto(4L, true),
+                new BookingDecisionDto(5L, true),
+                new BookingDecisionDto(1L, false)));
+
+        assertThat(res).extracting(BookingDecisionResultDto::bookingId).containsExactly(1L, 2L, 3L, 4L, 5L, 1L);
+        assertThat(res).extracting(BookingDecisionResultDto::status)
+                .containsExactly(Status.APPROVED, Status.REJECTED, Status.WAITING, Status.REJECTED, null, Status.WAITING);
+        assertThat(res.get(0).error()).isNull();
+        assertThat(res.get(1).error()).isNull();
+        assertThat(res.get(2).error()).contains("Only item owner");
+        assertThat(res.get(3).error()).contains("must be WAITING");
+        assertThat(res.get(4).error()).contains("Booking not found");
+        assertThat(res.get(5).error()).contains("Duplicate");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), args.capture());
+        assertThat(args.getValue()).containsExactly(new Object[]{"APPROVED", 1L}, new Object[]{"REJECTED", 2L});
+        verify(eventPublisher).publishEvent(new BookingApprovedEvent(1L, 10L, null));
+        verifyNoMoreInteractions(eventPublisher);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void setApprovedOrRejectedBatch_whenOverlapsApproved_shouldRejectOnlyConflictingApprovals() {
+        Booking stored = booking(9L, 10L, 2L, 1L, Status.APPROVED);
+        Booking clash = booking(1L, 10L, 2L, 1L, Status.WAITING);
+        Booking first = booking(2L, 11L, 2L, 1L, Status.WAITING);
+        Booking second = booking(3L, 11L, 2L, 1L, Status.WAITING);
+        when(userExistenceCache.exists(2L)).thenReturn(true);
+        when(bookingRepository.findAllWithDetailsByIdIn(any())).thenReturn(List.of(clash, first, second));
+        when(bookingRepository.findApprovedOverlapping(any(), any(), any())).thenReturn(List.of(stored));
+        when(jdbcTemplate.update(anyString(), eq("APPROVED"), eq(2L))).thenReturn(1);
+
+        List<BookingDecisionResultDto> res = bookingService.setApprovedOrRejectedBatch(2L, List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, true),
+                new BookingDecisionDto(3L, true)));
+
+        // 1 — пересекается с уже подтверждённой в БД, 3 — с подтверждённой выше в этом же пакете
+        assertThat(res.get(0).error()).contains("overlaps");
+        assertThat(res.get(1).status()).isEqualTo(Status.APPROVED);
+        assertThat(res.get(1).error()).isNull();
+        assertThat(res.get(2).status()).isEqualTo(Status.WAITING);
+        assertThat(res.get(2).error()).contains("overlaps");
+        verify(jdbcTemplate, never()).update(anyString(), eq("APPROVED"), eq(3L));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(eventPublisher).publishEvent(new BookingApprovedEvent(2L, 11L, null));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void setApprovedOrRejectedBatch_whenEarlierOverlappingUpdateMissed_shouldApproveLaterOne() {
+        Booking first = booking(2L, 11L, 2L, 1L, Status.WAITING);
+        Booking second = booking(3L, 11L, 2L, 1L, Status.WAITING);
+        when(userExistenceCache.exists(2L)).thenReturn(true);
+        when(bookingRepository.findAllWithDetailsByIdIn(any())).thenReturn(List.of(first, second));
+        when(bookingRepository.findApprovedOverlapping(any(), any(), any())).thenReturn(List.of());
+        when(jdbcTemplate.update(anyString(), eq("APPROVED"), eq(2L))).thenReturn(0);
+        when(jdbcTemplate.update(anyString(), eq("APPROVED"), eq(3L))).thenReturn(1);
+
+        List<BookingDecisionResultDto> res = bookingService.setApprovedOrRejectedBatch(2L, List.of(
+                new BookingDecisionDto(2L, true),
+                new BookingDecisionDto(3L, true)));
+
+        // 2 изменили параллельно — значит, 3 ни с чем не конфликтует
+        assertThat(res.get(0).error()).contains("changed concurrently");
+        assertThat(res.get(1).status()).isEqualTo(Status.APPROVED);
+        assertThat(res.get(1).error()).isNull();
+        verify(eventPublisher).publishEvent(new BookingApprovedEvent(3L, 11L, null));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void setApprovedOrRejectedBatch_shouldDetachEveryUpdatedBooking() {
+        Booking approve = booking(1L, 10L, 2L, 1L, Status.WAITING);
+        Booking reject = booking(2L, 11L, 2L, 1L, Status.WAITING);
+        when(userExistenceCache.exists(2L)).thenReturn(true);
+        when(bookingRepository.findAllWithDetailsByIdIn(any())).thenReturn(List.of(approve, reject));
+        when(bookingRepository.findApprovedOverlapping(any(), any(), any())).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+
+        bookingService.setApprovedOrRejectedBatch(2L, List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false)));
+
+        verify(entityManager).detach(approve);
+        verify(entityManager).detach(reject);
+    }
+
+    @Test
+    void setApprovedOrRejectedBatch_whenRowChangedConcurrently_shouldReportItWithoutEvent() {
+        Booking b = booking(1L, 10L, 2L, 1L, Status.WAITING);
+        when(userExistenceCache.exists(2L)).thenReturn(true);
+        when(bookingRepository.findAllWithDetailsByIdIn(any())).thenReturn(List.of(b));
+        when(bookingRepository.findApprovedOverlapping(any(), any(), any())).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{0});
+
+        List<BookingDecisionResultDto> res = bookingService.setApprovedOrRejectedBatch(2L,
+                List.of(new BookingDecisionDto(1L, true)));
+
+        assertThat(res.get(0).error()).contains("changed concurrently");
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void setApprovedOrRejectedBatch_whenUserNotExists_shouldThrowNotFound() {
+        when(userExistenceCache.exists(2L)).thenReturn(false);
+
+        assertThatThrownBy(() -> bookingService.setApprovedOrRejectedBatch(2L,
+                List.of(new BookingDecisionDto(1L, true))))
+                .isInstanceOf(NotFoundException.class);
+
+        verifyNoInteractions(bookingRepository, jdbcTemplate);
+    }
+
+    // -------- getBookings --------
+
+    @Test
+    void getBookings_shouldKeepRequestOrderAndSkipInaccessible() {
+        Booking asBooker = booking(1L, 10L, 2L, 5L, Status.WAITING);
+        Booking asOwner = booking(2L, 11L, 5L, 3L, Status.APPROVED);
+        Booking foreign = booking(3L, 12L, 2L, 3L, Status.WAITING);
+        when(userExistenceCache.exists(5L)).thenReturn(true);
+        when(bookingRepository.findAllWithDetailsByIdIn(List.of(3L, 2L, 4L, 1L)))
+                .thenReturn(List.of(asBooker, asOwner, foreign));
+
+        List<Booking> res = bookingService.getBookings(List.of(3L, 2L, 4L, 1L), 5L);
+
+        assertThat(res).extracting(Booking::getBookingId).containsExactly(2L, 1L);
     }
 
     // -------- getBooking --------
 
     @Test
     void getBooking_whenUserDoesNotExist_shouldThrowNotFound() {
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userExistenceCache.exists(1L)).thenReturn(false);
 
         assertThatThrownBy(() -> bookingService.getBooking(10L, 1L))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("User not found");
 
-        verify(userRepository).existsById(1L);
+        verify(userExistenceCache).exists(1L);
         verifyNoMoreInteractions(userRepository, bookingRepository, itemRepository);
     }
 
     @Test
     void getBooking_whenNotOwnerOrBooker_shouldThrowNotFound() {
-        when(userRepository.existsById(999L)).thenReturn(true);
+        when(userExistenceCache.exists(999L)).thenReturn(true);
 
         Booking b = booking(1L, 10L, 2L, 1L, Status.WAITING);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(b));
@@ -301,14 +481,14 @@ class BookingServiceTest {
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("not accessable");
 
-        verify(userRepository).existsById(999L);
+        verify(userExistenceCache).exists(999L);
         verify(bookingRepository).findById(1L);
     }
 
     @Test
     void getBooking_whenOwner_shouldReturnBooking() {
         long ownerId = 2L;
-        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(userExistenceCache.exists(ownerId)).thenReturn(true);
 
         Booking b = booking(1L, 10L, ownerId, 1L, Status.WAITING);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(b));
@@ -322,7 +502,7 @@ class BookingServiceTest {
     @Test
     void getBooking_whenBooker_shouldReturnBooking() {
         long bookerId = 1L;
-        when(userRepository.existsById(bookerId)).thenReturn(true);
+        when(userExistenceCache.exists(bookerId)).thenReturn(true);
 
         Booking b = booking(1L, 10L, 2L, bookerId, Status.WAITING);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(b));
@@ -337,18 +517,18 @@ class BookingServiceTest {
 
     @Test
     void getUserBookings_whenUserNotExists_shouldThrowNotFound() {
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userExistenceCache.exists(1L)).thenReturn(false);
 
         assertThatThrownBy(() -> bookingService.getUserBookings(1L, BookingState.ALL))
                 .isInstanceOf(NotFoundException.class);
 
-        verify(userRepository).existsById(1L);
+        verify(userExistenceCache).exists(1L);
         verifyNoMoreInteractions(userRepository, bookingRepository, itemRepository);
     }
 
     @Test
     void getUserBookings_stateAll_shouldCallFindAll() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(bookingRepository.findByBookerIdOrderByStartTimeBookingDesc(1L)).thenReturn(List.of());
 
         List<Booking> res = bookingService.getUserBookings(1L, BookingState.ALL);
@@ -359,7 +539,7 @@ class BookingServiceTest {
 
     @Test
     void getUserBookings_stateWaiting_shouldCallFindWaiting() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStatusOrderByStartTimeBookingDesc(1L, Status.WAITING))
                 .thenReturn(List.of());
 
@@ -371,16 +551,16 @@ class BookingServiceTest {
 
     @Test
     void getUserBookings_stateCurrent_shouldCallFindCurrentWithNow() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStartTimeBookingLessThanEqualAndEndTimeBookingGreaterThanEqualOrderByStartTimeBookingDesc(
-                eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)
+                eq(1L), eq(NOW), eq(NOW)
         )).thenReturn(List.of());
 
         bookingService.getUserBookings(1L, BookingState.CURRENT);
 
         verify(bookingRepository)
                 .findByBookerIdAndStartTimeBookingLessThanEqualAndEndTimeBookingGreaterThanEqualOrderByStartTimeBookingDesc(
-                        eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)
+                        eq(1L), eq(NOW), eq(NOW)
                 );
     }
 
@@ -388,7 +568,7 @@ class BookingServiceTest {
 
     @Test
     void getOwnerBookings_stateAll_shouldCallOwnerAll() {
-        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userExistenceCache.exists(2L)).thenReturn(true);
         when(bookingRepository.findByItemOwnerIdOrderByStartTimeBookingDesc(2L)).thenReturn(List.of());
 
         List<Booking> res = bookingService.getOwnerBookings(2L, BookingState.ALL);
@@ -399,7 +579,7 @@ class BookingServiceTest {
 
     @Test
     void getOwnerBookings_stateRejected_shouldCallOwnerRejected() {
-        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userExistenceCache.exists(2L)).thenReturn(true);
         when(bookingRepository.findByItemOwnerIdAndStatusOrderByStartTimeBookingDesc(2L, Status.REJECTED))
                 .thenReturn(List.of());
 
@@ -410,37 +590,37 @@ class BookingServiceTest {
 
     @Test
     void getUserBookings_statePast_shouldCallFindPastWithNow() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(bookingRepository.findByBookerIdAndEndTimeBookingLessThanOrderByStartTimeBookingDesc(
-                eq(1L), any(LocalDateTime.class)
+                eq(1L), eq(NOW)
         )).thenReturn(List.of());
 
         bookingService.getUserBookings(1L, BookingState.PAST);
 
         verify(bookingRepository)
                 .findByBookerIdAndEndTimeBookingLessThanOrderByStartTimeBookingDesc(
-                        eq(1L), any(LocalDateTime.class)
+                        eq(1L), eq(NOW)
                 );
     }
 
     @Test
     void getUserBookings_stateFuture_shouldCallFindFutureWithNow() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStartTimeBookingGreaterThanOrderByStartTimeBookingDesc(
-                eq(1L), any(LocalDateTime.class)
+                eq(1L), eq(NOW)
         )).thenReturn(List.of());
 
         bookingService.getUserBookings(1L, BookingState.FUTURE);
 
         verify(bookingRepository)
                 .findByBookerIdAndStartTimeBookingGreaterThanOrderByStartTimeBookingDesc(
-                        eq(1L), any(LocalDateTime.class)
+                        eq(1L), eq(NOW)
                 );
     }
 
     @Test
     void getUserBookings_stateRejected_shouldCallFindRejected() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStatusOrderByStartTimeBookingDesc(1L, Status.REJECTED))
                 .thenReturn(List.of());
 
@@ -451,52 +631,52 @@ class BookingServiceTest {
 
     @Test
     void getOwnerBookings_stateCurrent_shouldCallOwnerCurrentWithNow() {
-        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userExistenceCache.exists(2L)).thenReturn(true);
         when(bookingRepository.findByItemOwnerIdAndStartTimeBookingLessThanEqualAndEndTimeBookingGreaterThanEqualOrderByStartTimeBookingDesc(
-                eq(2L), any(LocalDateTime.class), any(LocalDateTime.class)
+                eq(2L), eq(NOW), eq(NOW)
         )).thenReturn(List.of());
 
         bookingService.getOwnerBookings(2L, BookingState.CURRENT);
 
         verify(bookingRepository)
                 .findByItemOwnerIdAndStartTimeBookingLessThanEqualAndEndTimeBookingGreaterThanEqualOrderByStartTimeBookingDesc(
-                        eq(2L), any(LocalDateTime.class), any(LocalDateTime.class)
+                        eq(2L), eq(NOW), eq(NOW)
                 );
     }
 
     @Test
     void getOwnerBookings_statePast_shouldCallOwnerPastWithNow() {
-        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userExistenceCache.exists(2L)).thenReturn(true);
         when(bookingRepository.findByItemOwnerIdAndEndTimeBookingLessThanOrderByStartTimeBookingDesc(
-                eq(2L), any(LocalDateTime.class)
+                eq(2L), eq(NOW)
         )).thenReturn(List.of());
 
         bookingService.getOwnerBookings(2L, BookingState.PAST);
 
         verify(bookingRepository)
                 .findByItemOwnerIdAndEndTimeBookingLessThanOrderByStartTimeBookingDesc(
-                        eq(2L), any(LocalDateTime.class)
+                        eq(2L), eq(NOW)
                 );
     }
 
     @Test
     void getOwnerBookings_stateFuture_shouldCallOwnerFutureWithNow() {
-        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userExistenceCache.exists(2L)).thenReturn(true);
         when(bookingRepository.findByItemOwnerIdAndStartTimeBookingGreaterThanOrderByStartTimeBookingDesc(
-                eq(2L), any(LocalDateTime.class)
+                eq(2L), eq(NOW)
         )).thenReturn(List.of());
 
         bookingService.getOwnerBookings(2L, BookingState.FUTURE);
 
         verify(bookingRepository)
                 .findByItemOwnerIdAndStartTimeBookingGreaterThanOrderByStartTimeBookingDesc(
-                        eq(2L), any(LocalDateTime.class)
+                        eq(2L), eq(NOW)
                 );
     }
 
     @Test
     void getOwnerBookings_stateWaiting_shouldCallOwnerWaiting() {
-        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userExistenceCache.exists(2L)).thenReturn(true);
         when(bookingRepository.findByItemOwnerIdAndStatusOrderByStartTimeBookingDesc(2L, Status.WAITING))
                 .thenReturn(List.of());
 
@@ -505,4 +685,46 @@ class BookingServiceTest {
         verify(bookingRepository).findByItemOwnerIdAndStatusOrderByStartTimeBookingDesc(2L, Status.WAITING);
     }
 
+    // -------- exportOwnerBookings --------
+
+    @Test
+    void exportOwnerBookings_whenUserNotExists_shouldThrowNotFound() {
+        when(userExistenceCache.exists(2L)).thenReturn(false);
+
+        assertThatThrownBy(() -> bookingService.exportOwnerBookings(2L, b -> {
+        }))
+                .isInstanceOf(NotFoundException.class);
+
+        verify(bookingRepository, never()).streamByItemOwnerId(anyLong());
+    }
+
+    @Test
+    void exportOwnerBookings_shouldPassEveryRowToSink() {
+        Booking b1 = booking(1L, 10L, 2L, 3L, Status.APPROVED);
+        Booking b2 = booking(2L, 10L, 2L, 4L, Status.WAITING);
+        when(userExistenceCache.exists(2L)).thenReturn(true);
+        when(bookingRepository.streamByItemOwnerId(2L)).thenReturn(Stream.of(b1, b2));
+
+        List<Booking> exported = new ArrayList<>();
+        bookingService.exportOwnerBookings(2L, exported::add);
+
+        assertThat(exported).containsExactly(b1, b2);
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    void exportOwnerBookings_shouldClearPersistenceContextOncePerFetchBatch() {
+        List<Booking> rows = new ArrayList<>();
+        for (long i = 1; i <= 2L * BookingRepository.EXPORT_FETCH_SIZE + 1; i++) {
+            rows.add(booking(i, 10L, 2L, 3L, Status.APPROVED));
+        }
+        when(userExistenceCache.exists(2L)).thenReturn(true);
+        when(bookingRepository.streamByItemOwnerId(2L)).thenReturn(rows.stream());
+
+        List<Booking> exported = new ArrayList<>();
+        bookingService.exportOwnerBookings(2L, exported::add);
+
+        assertThat(exported).hasSize(rows.size());
+        verify(entityManager, times(2)).clear();
+    }
 }
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.unit;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemImportService;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemBatchRowDto;
+import ru.practicum.shareit.item.dto.ItemImportRow;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImportServiceTest {
+
+    @Mock
+    ItemRepository itemRepository;
+    @Mock
+    UserExistenceCache userExistenceCache;
+    @Mock
+    ItemRequestRepository itemRequestRepository;
+    @Mock
+    TransactionTemplate transactionTemplate;
+    @Mock
+    EntityManager entityManager;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    ItemImportService itemImportService;
+
+    private final AtomicLong ids = new AtomicLong(100);
+
+    private static ItemImportRow row(String name, Long requestId) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription("desc");
+        item.setIsAvailable(true);
+        return new ItemImportRow(item, requestId);
+    }
+
+    private void runCallbacksInline() {
+        doAnswer(inv -> {
+            Consumer<TransactionStatus> callback = inv.getArgument(0);
+            callback.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private void assignIdsOnSave() {
+        when(itemRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Item> items = inv.getArgument(0);
+            items.forEach(item -> item.setId(ids.incrementAndGet()));
+            return items;
+        });
+    }
+
+    @Test
+    void importItems_whenOwnerMissing_shouldThrowNotFound() {
+        when(userExistenceCache.exists(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> itemImportService.importItems(1L, List.of(row("Drill", null))))
+                .isInstanceOf(NotFoundException.class);
+        verifyNoInteractions(itemRepository, transactionTemplate);
+    }
+
+    @Test
+    void importItems_shouldSaveValidRowsAndReportInvalidOnesPerRow() {
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(entityManager.getReference(User.class, 1L)).thenReturn(new User());
+        ItemRequest request = new ItemRequest();
+        request.setId(7L);
+        when(itemRequestRepository.findAllById(List.of(7L, 8L))).thenReturn(List.of(request));
+        runCallbacksInline();
+        assignIdsOnSave();
+
+        List<ItemBatchRowDto> result = itemImportService.importItems(1L, List.of(
+                row("Drill", 7L),
+                row(" ", null),
+                row("Saw", 8L),
+                row("Ladder", null)));
+
+        assertThat(result).extracting(ItemBatchRowDto::index, ItemBatchRowDto::id, ItemBatchRowDto::error)
+                .containsExactly(
+                        tuple(0, 101L, null),
+                        tuple(1, null, "Name cannot be empty"),
+                        tuple(2, null, "Request not found: 8"),
+                        tuple(3, 102L, null));
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(101L, "Drill", true, 0, 1L, 7L));
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(102L, "Ladder", true, 0, 1L, null));
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void importItems_shouldSplitIntoChunkedTransactions() {
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        runCallbacksInline();
+        assignIdsOnSave();
+
+        List<ItemImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < ItemImportService.CHUNK_SIZE * 2 + 1; i++) {
+            rows.add(row("Item " + i, null));
+        }
+
+        List<ItemBatchRowDto> result = itemImportService.importItems(1L, rows);
+
+        assertThat(result).hasSize(rows.size()).allMatch(r -> r.error() == null && r.id() != null);
+        verify(transactionTemplate, times(3)).executeWithoutResult(any());
+        verify(itemRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    void importItems_whenChunkFailsOnFlush_shouldRetryRowByRowAndIsolateBadRow() {
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        runCallbacksInline();
+        when(itemRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Item> items = inv.getArgument(0);
+            if (items.stream().anyMatch(item -> item.getName().equals("Broken"))) {
+                throw new DataIntegrityViolationException("fk violation");
+            }
+            items.forEach(item -> item.setId(ids.incrementAndGet()));
+            return items;
+        });
+
+        List<ItemBatchRowDto> result = itemImportService.importItems(1L, List.of(
+                row("Drill", null), row("Broken", null), row("Saw", null)));
+
+        assertThat(result).extracting(ItemBatchRowDto::id).containsExactly(101L, null, 102L);
+        assertThat(result.get(1).error()).startsWith("Could not save item");
+        verify(transactionTemplate, times(4)).executeWithoutResult(any());
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingApprovedEvent;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemNameSuggester;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemNameSuggesterTest {
+
+    @Mock
+    ItemRepository itemRepository;
+
+    ItemNameSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new ItemNameSuggester(itemRepository);
+    }
+
+    private static Item item(long id, String name, long useCount) {
+        Item i = new Item();
+        i.setId(id);
+        i.setName(name);
+        i.setUseCount(useCount);
+        i.setIsAvailable(true);
+        return i;
+    }
+
+    @Test
+    void suggest_whenBlankOrUnknownPrefix_shouldReturnEmpty() {
+        suggester.put(1L, "Drill", 1);
+
+        assertThat(suggester.suggest(null, 10)).isEmpty();
+        assertThat(suggester.suggest("  ", 10)).isEmpty();
+        assertThat(suggester.suggest("saw", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_shouldRankByUseCountCaseInsensitive() {
+        suggester.put(1L, "Drill", 3);
+        suggester.put(2L, "Drone", 10);
+        suggester.put(3L, "Dress", 5);
+        suggester.put(4L, "Saw", 100);
+
+        assertThat(suggester.suggest("D", 10)).containsExactly("Drone", "Dress", "Drill");
+        assertThat(suggester.suggest("dr", 2)).containsExactly("Drone", "Dress");
+        assertThat(suggester.suggest("dri", 10)).containsExactly("Drill");
+    }
+
+    @Test
+    void suggest_whenSameNameOnSeveralItems_shouldReturnOnceWithSummedWeight() {
+        suggester.put(1L, "Drill", 3);
+        suggester.put(2L, "drill", 3);
+        suggester.put(3L, "Drone", 5);
+
+        assertThat(suggester.suggest("dr", 10)).hasSize(2).first().isEqualTo("drill");
+    }
+
+    @Test
+    void onItemChanged_shouldMoveRenamedItemAndDropUnavailable() {
+        suggester.onItemChanged(new ItemChangedEvent(1L, "Drill", true, 0, 10L, null));
+        suggester.onItemChanged(new ItemChangedEvent(2L, "Drone", true, 0, 10L, null));
+
+        suggester.onItemChanged(new ItemChangedEvent(1L, "Saw", true, 0, 10L, null));
+        suggester.onItemChanged(new ItemChangedEvent(2L, "Drone", false, 0, 10L, null));
+
+        assertThat(suggester.suggest("dr", 10)).isEmpty();
+        assertThat(suggester.suggest("s", 10)).containsExactly("Saw");
+    }
+
+    @Test
+    void onBookingApproved_shouldBumpWeightOfIndexedItemOnly() {
+        suggester.put(1L, "Drill", 1);
+        suggester.put(2L, "Drone", 2);
+
+        suggester.onBookingApproved(new BookingApprovedEvent(10L, 1L, null));
+        suggester.onBookingApproved(new BookingApprovedEvent(11L, 1L, null));
+        suggester.onBookingApproved(new BookingApprovedEvent(12L, 99L, null));
+
+        assertThat(suggester.suggest("dr", 10)).containsExactly("Drill", "Drone");
+    }
+
+    @Test
+    void onItemChanged_shouldNotDropApprovalsNotYetFlushedToUseCount() {
+        suggester.put(1L, "Drill", 1);
+        suggester.put(2L, "Drone", 2);
+        suggester.onBookingApproved(new BookingApprovedEvent(10L, 1L, null));
+        suggester.onBookingApproved(new BookingApprovedEvent(11L, 1L, null));
+
+        // описание поменялось, use_count в БД ещё 1
+        suggester.onItemChanged(new ItemChangedEvent(1L, "Drill", true, 1, 10L, null));
+
+        assertThat(suggester.suggest("dr", 10)).containsExactly("Drill", "Drone");
+
+        suggester.onItemChanged(new ItemChangedEvent(2L, "Drone", true, 7, 10L, null));
+
+        assertThat(suggester.suggest("dr", 10)).containsExactly("Drone", "Drill");
+    }
+
+    @Test
+    void suggest_shouldCapCachedTopAtMaxSuggestions() {
+        for (long i = 1; i <= ItemNameSuggester.MAX_SUGGESTIONS + 5; i++) {
+            suggester.put(i, "Item " + i, i);
+        }
+
+        List<String> result = suggester.suggest("item", 100);
+
+        assertThat(result).hasSize(ItemNameSuggester.MAX_SUGGESTIONS);
+        assertThat(result.get(0)).isEqualTo("Item " + (ItemNameSuggester.MAX_SUGGESTIONS + 5));
+    }
+
+    @Test
+    void load_shouldPageThroughAvailableItemsByKeyset() {
+        when(itemRepository.findTop500ByIsAvailableTrueAndIdGreaterThanOrderByIdAsc(anyLong()))
+                .thenReturn(List.of(item(1L, "Drill", 2), item(2L, "Drone", 4)))
+                .thenReturn(List.of());
+
+        suggester.load();
+
+        assertThat(suggester.suggest("dr", 10)).containsExactly("Drone", "Drill");
+    }
+}
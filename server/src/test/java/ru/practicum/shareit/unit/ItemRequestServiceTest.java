@@ -5,20 +5,31 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestCreatedEvent;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.RequestMatcher;
+import ru.practicum.shareit.request.dto.FeedCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedPage;
+import ru.practicum.shareit.request.dto.RequestItemRow;
+import ru.practicum.shareit.request.dto.RequestWithItemRow;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -31,12 +42,23 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ItemRequestServiceTest {
 
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 10, 10, 0, 0);
+
     @Mock
     ItemRequestRepository itemRequestRepository;
     @Mock
     UserRepository userRepository;
     @Mock
+    UserExistenceCache userExistenceCache;
+    @Mock
     ItemRepository itemRepository;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    RequestMatcher requestMatcher;
+
+    @Spy
+    Clock clock = Clock.fixed(Instant.parse("2030-01-10T10:00:00Z"), ZoneOffset.UTC);
 
     @InjectMocks
     ItemRequestService itemRequestService;
@@ -58,19 +80,11 @@ class ItemRequestServiceTest {
         return r;
     }
 
-    private static Item item(long id) {
-        Item it = new Item();
-        it.setId(id);
-        it.setName("Item" + id);
-        it.setDescription("Desc");
-        return it;
-    }
-
     // ---------- create ----------
 
     @Test
     void create_whenUserNotFound_shouldThrowNotFoundAndNotSave() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findActiveById(1L)).thenReturn(Optional.empty());
 
         ItemRequest req = request(999L);
 
@@ -78,9 +92,10 @@ class ItemRequestServiceTest {
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("User not found");
 
-        verify(userRepository).findById(1L);
+        verify(userRepository).findActiveById(1L);
         verify(itemRequestRepository, never()).save(any());
         verifyNoMoreInteractions(userRepository, itemRequestRepository, itemRepository);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -88,20 +103,17 @@ class ItemRequestServiceTest {
         long userId = 1L;
         User u = user(userId);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(u));
+        when(userRepository.findActiveById(userId)).thenReturn(Optional.of(u));
         when(itemRequestRepository.save(any(ItemRequest.class))).thenAnswer(inv -> inv.getArgument(0));
 
         ItemRequest req = request(999L);
 
-        LocalDateTime before = LocalDateTime.now();
         ItemRequest saved = itemRequestService.create(req, userId);
-        LocalDateTime after = LocalDateTime.now();
 
         assertThat(saved.getId()).isNull();
         assertThat(saved.getRequestor()).isNotNull();
         assertThat(saved.getRequestor().getId()).isEqualTo(userId);
-        assertThat(saved.getCreated()).isNotNull();
-        assertThat(saved.getCreated()).isBetween(before.minusSeconds(1), after.plusSeconds(1));
+        assertThat(saved.getCreated()).isEqualTo(NOW);
 
         ArgumentCaptor<ItemRequest> captor = ArgumentCaptor.forClass(ItemRequest.class);
         verify(itemRequestRepository).save(captor.capture());
@@ -110,39 +122,41 @@ class ItemRequestServiceTest {
         assertThat(toSave.getId()).isNull();
         assertThat(toSave.getRequestor().getId()).isEqualTo(userId);
         assertThat(toSave.getCreated()).isNotNull();
+
+        verify(eventPublisher).publishEvent(new ItemRequestCreatedEvent(null, userId, req.getDescription(), NOW));
     }
 
     // ---------- findById ----------
 
     @Test
     void findById_whenUserNotExists_shouldThrowNotFoundAndNotQueryRequestRepo() {
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userExistenceCache.exists(1L)).thenReturn(false);
 
         assertThatThrownBy(() -> itemRequestService.findById(1L, 10L))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("User not found");
 
-        verify(userRepository).existsById(1L);
+        verify(userExistenceCache).exists(1L);
         verify(itemRequestRepository, never()).findById(anyLong());
         verifyNoMoreInteractions(userRepository, itemRequestRepository, itemRepository);
     }
 
     @Test
     void findById_whenRequestNotFound_shouldThrowNotFound() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(itemRequestRepository.findById(10L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> itemRequestService.findById(1L, 10L))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Request not found");
 
-        verify(userRepository).existsById(1L);
+        verify(userExistenceCache).exists(1L);
         verify(itemRequestRepository).findById(10L);
     }
 
     @Test
     void findById_whenOk_shouldReturnRequest() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
 
         ItemRequest r = request(10L);
         when(itemRequestRepository.findById(10L)).thenReturn(Optional.of(r));
@@ -153,35 +167,61 @@ class ItemRequestServiceTest {
         verify(itemRequestRepository).findById(10L);
     }
 
-    // ---------- findItemsByRequestId ----------
+    // ---------- findDtoById ----------
 
     @Test
-    void findItemsByRequestId_shouldDelegateToRepo() {
-        when(itemRepository.findAllByItemRequest_Id(10L)).thenReturn(List.of(item(1L), item(2L)));
+    void findDtoById_whenRequestNotFound_shouldThrowNotFound() {
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(itemRequestRepository.findWithItemsById(10L)).thenReturn(List.of());
 
-        List<Item> res = itemRequestService.findItemsByRequestId(10L);
+        assertThatThrownBy(() -> itemRequestService.findDtoById(1L, 10L))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Request not found");
+    }
 
-        assertThat(res).hasSize(2);
-        verify(itemRepository).findAllByItemRequest_Id(10L);
-        verifyNoMoreInteractions(itemRepository);
+    @Test
+    void findDtoById_shouldBuildDtoFromJoinedRows() {
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemRequestRepository.findWithItemsById(10L)).thenReturn(List.of(
+                new RequestWithItemRow(10L, "need", created, 1L, "Drill", 5L),
+                new RequestWithItemRow(10L, "need", created, 2L, "Saw", 6L)));
+
+        ItemRequestDto res = itemRequestService.findDtoById(1L, 10L);
+
+        assertThat(res).isEqualTo(new ItemRequestDto(10L, "need", created, List.of(
+                new ItemShortDto(1L, "Drill", 5L), new ItemShortDto(2L, "Saw", 6L))));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void findDtoById_whenNoItems_shouldReturnEmptyItems() {
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemRequestRepository.findWithItemsById(10L)).thenReturn(List.of(
+                new RequestWithItemRow(10L, "need", created, null, null, null)));
+
+        ItemRequestDto res = itemRequestService.findDtoById(1L, 10L);
+
+        assertThat(res.items()).isEmpty();
     }
 
     // ---------- findAllByRequestor ----------
 
     @Test
     void findAllByRequestor_whenUserNotExists_shouldThrowNotFound() {
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userExistenceCache.exists(1L)).thenReturn(false);
 
         assertThatThrownBy(() -> itemRequestService.findAllByRequestor(1L))
                 .isInstanceOf(NotFoundException.class);
 
-        verify(userRepository).existsById(1L);
+        verify(userExistenceCache).exists(1L);
         verify(itemRequestRepository, never()).findAllByRequestor_IdOrderByCreatedDesc(anyLong());
     }
 
     @Test
     void findAllByRequestor_whenOk_shouldDelegate() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
 
         List<ItemRequest> list = List.of(request(1L), request(2L));
         when(itemRequestRepository.findAllByRequestor_IdOrderByCreatedDesc(1L)).thenReturn(list);
@@ -192,84 +232,103 @@ class ItemRequestServiceTest {
         verify(itemRequestRepository).findAllByRequestor_IdOrderByCreatedDesc(1L);
     }
 
-    // ---------- findAllItemsByRequestsIds ----------
+    // ---------- findItemRowsByRequestIds ----------
 
     @Test
-    void findAllItemsByRequestsIds_shouldDelegate() {
+    void findItemRowsByRequestIds_shouldDelegate() {
         Collection<Long> ids = List.of(10L, 20L);
-        when(itemRepository.findAllByItemRequest_IdIn(ids)).thenReturn(List.of(item(1L)));
+        when(itemRepository.findRowsByRequestIdIn(ids)).thenReturn(List.of(new RequestItemRow(10L, 1L, "Drill", 5L)));
 
-        List<Item> res = itemRequestService.findAllItemsByRequestsIds(ids);
+        List<RequestItemRow> res = itemRequestService.findItemRowsByRequestIds(ids);
 
         assertThat(res).hasSize(1);
-        verify(itemRepository).findAllByItemRequest_IdIn(ids);
+        verify(itemRepository).findRowsByRequestIdIn(ids);
     }
 
-    // ---------- findAllOtherRequests + pageable ----------
+    // ---------- findAllOtherRequests: offset / keyset ----------
 
     @Test
     void findAllOtherRequests_whenUserNotExists_shouldThrowNotFound() {
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userExistenceCache.exists(1L)).thenReturn(false);
 
-        assertThatThrownBy(() -> itemRequestService.findAllOtherRequests(1L, 0, 10))
+        assertThatThrownBy(() -> itemRequestService.findAllOtherRequests(1L, null, 0, 10))
                 .isInstanceOf(NotFoundException.class);
 
-        verify(userRepository).existsById(1L);
-        verify(itemRequestRepository, never())
-                .findAllByRequestor_IdNotOrderByCreatedDesc(anyLong(), any(Pageable.class));
+        verify(userExistenceCache).exists(1L);
+        verifyNoInteractions(itemRequestRepository);
     }
 
     @Test
     void findAllOtherRequests_whenSizeInvalid_shouldThrowIllegalArgument() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
 
-        assertThatThrownBy(() -> itemRequestService.findAllOtherRequests(1L, 0, 0))
+        assertThatThrownBy(() -> itemRequestService.findAllOtherRequests(1L, null, 0, 0))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("size must be > 0");
 
-        verify(userRepository).existsById(1L);
-        verify(itemRequestRepository, never())
-                .findAllByRequestor_IdNotOrderByCreatedDesc(anyLong(), any(Pageable.class));
+        verify(userExistenceCache).exists(1L);
+        verifyNoInteractions(itemRequestRepository);
     }
 
     @Test
     void findAllOtherRequests_whenFromInvalid_shouldThrowIllegalArgument() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceCache.exists(1L)).thenReturn(true);
 
-        assertThatThrownBy(() -> itemRequestService.findAllOtherRequests(1L, -1, 10))
+        assertThatThrownBy(() -> itemRequestService.findAllOtherRequests(1L, null, -1, 10))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("from must be >= 0");
 
-        verify(userRepository).existsById(1L);
-        verify(itemRequestRepository, never())
-                .findAllByRequestor_IdNotOrderByCreatedDesc(anyLong(), any(Pageable.class));
+        verify(userExistenceCache).exists(1L);
+        verifyNoInteractions(itemRequestRepository);
     }
 
     @Test
-    void findAllOtherRequests_whenOk_shouldUseCorrectPageableAndReturnContent() {
+    void findAllOtherRequests_withoutCursor_shouldUseExactOffsetAndFetchOneExtra() {
         long userId = 1L;
-        int from = 15;
-        int size = 10;
-        int expectedPage = from / size; // 1
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRequestRepository.findOtherRequests(userId, 15, 11))
+                .thenReturn(List.of(request(1L), request(2L)));
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        ItemRequestFeedPage page = itemRequestService.findAllOtherRequests(userId, null, 15, 10);
 
-        List<ItemRequest> content = List.of(request(1L), request(2L));
-        Page<ItemRequest> page = new PageImpl<>(content);
+        assertThat(page.requests()).extracting(ItemRequest::getId).containsExactly(1L, 2L);
+        assertThat(page.hasMore()).isFalse();
+    }
 
-        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-        when(itemRequestRepository.findAllByRequestor_IdNotOrderByCreatedDesc(eq(userId), pageableCaptor.capture()))
-                .thenReturn(page);
+    @Test
+    void findAllOtherRequests_withCursor_shouldSeekPastItAndTrimExtraRow() {
+        long userId = 1L;
+        FeedCursor cursor = new FeedCursor(NOW, 50L);
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRequestRepository.findOtherRequestsBefore(userId, NOW, 50L, 3))
+                .thenReturn(List.of(request(49L), request(48L), request(47L)));
 
-        List<ItemRequest> res = itemRequestService.findAllOtherRequests(userId, from, size);
+        ItemRequestFeedPage page = itemRequestService.findAllOtherRequests(userId, cursor, 30, 2);
 
-        assertThat(res).hasSize(2);
+        assertThat(page.requests()).extracting(ItemRequest::getId).containsExactly(49L, 48L);
+        assertThat(page.hasMore()).isTrue();
+        verify(itemRequestRepository, never()).findOtherRequests(anyLong(), anyInt(), anyInt());
+    }
 
-        Pageable used = pageableCaptor.getValue();
-        assertThat(used.getPageNumber()).isEqualTo(expectedPage);
-        assertThat(used.getPageSize()).isEqualTo(size);
+    // ---------- findMatchingItems ----------
 
-        verify(itemRequestRepository)
-                .findAllByRequestor_IdNotOrderByCreatedDesc(eq(userId), any(Pageable.class));
+    @Test
+    void findMatchingItems_shouldSkipUnavailableOrDeletedOwnersAndForgetThem() {
+        ItemRequest req = request(5L);
+        req.setDescription("need a drill");
+        req.setRequestor(user(2L));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(itemRequestRepository.findById(5L)).thenReturn(Optional.of(req));
+        when(requestMatcher.matchItems("need a drill", 2L, 3)).thenReturn(List.of(12L, 11L));
+        Item available = new Item();
+        available.setId(11L);
+        available.setIsAvailable(true);
+        // 12 недоступна или её владелец удалён — запрос её не вернул
+        when(itemRepository.findAllAvailableByIdIn(List.of(12L, 11L))).thenReturn(List.of(available));
+
+        List<Item> result = itemRequestService.findMatchingItems(1L, 5L, 3);
+
+        assertThat(result).extracting(Item::getId).containsExactly(11L);
+        verify(requestMatcher).forgetItems(List.of(12L));
     }
 }
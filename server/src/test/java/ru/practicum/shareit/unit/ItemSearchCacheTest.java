@@ -0,0 +1,98 @@
+package ru.practicum.shareit.unit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemSearchCache;
+import ru.practicum.shareit.item.ItemSearchCache.Key;
+import ru.practicum.shareit.item.SearchCacheProperties;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchCacheTest {
+
+    MeterRegistry meterRegistry;
+    ItemSearchCache cache;
+    AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(meterRegistry, new SearchCacheProperties(2));
+        loads = new AtomicInteger();
+    }
+
+    private ItemSearchPage load() {
+        loads.incrementAndGet();
+        return new ItemSearchPage(List.of(), false);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("shareit.search.cache.gets").tag("result", result).counter().count();
+    }
+
+    @Test
+    void key_shouldNormalizeTextButKeepCategoryExact() {
+        assertThat(Key.of("  Power   DRILL ", " ", 0, 10)).isEqualTo(new Key("power drill", null, 0, 10));
+        assertThat(Key.of("drill", "Tools", 0, 10).category()).isEqualTo("Tools");
+    }
+
+    @Test
+    void get_shouldServeRepeatedQueryFromCacheAndCountHits() {
+        ItemSearchPage first = cache.get(Key.of("Drill", null, 0, 10), this::load);
+        ItemSearchPage second = cache.get(Key.of("drill ", null, 0, 10), this::load);
+        cache.get(Key.of("drill", null, 10, 10), this::load);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(2);
+        assertThat(gets("hit")).isEqualTo(1);
+        assertThat(gets("miss")).isEqualTo(2);
+        assertThat(cache.hitRatio()).isEqualTo(1.0 / 3);
+    }
+
+    @Test
+    void onItemChanged_shouldInvalidateWithoutTouchingEntries() {
+        cache.get(Key.of("drill", null, 0, 10), this::load);
+
+        cache.onItemChanged(new ItemChangedEvent(1L, "Drill", true, 0, 10L, null));
+
+        assertThat(cache.size()).isEqualTo(1);
+        cache.get(Key.of("drill", null, 0, 10), this::load);
+        assertThat(loads).hasValue(2);
+        assertThat(meterRegistry.get("shareit.search.cache.invalidations").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.search.cache.stale").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_whenItemChangesDuringLoad_shouldNotKeepResultAcrossChange() {
+        Key key = Key.of("drill", null, 0, 10);
+        cache.get(key, () -> {
+            cache.onItemChanged(new ItemChangedEvent(1L, "Drill", true, 0, 10L, null));
+            return load();
+        });
+
+        cache.get(key, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsedBeyondMaxEntries() {
+        cache.get(Key.of("a", null, 0, 10), this::load);
+        cache.get(Key.of("b", null, 0, 10), this::load);
+        cache.get(Key.of("a", null, 0, 10), this::load);
+        cache.get(Key.of("c", null, 0, 10), this::load);
+
+        assertThat(cache.size()).isEqualTo(2);
+        cache.get(Key.of("a", null, 0, 10), this::load);
+        assertThat(loads).hasValue(3);
+        cache.get(Key.of("b", null, 0, 10), this::load);
+        assertThat(loads).hasValue(4);
+    }
+}
@@ -1,31 +1,61 @@
 package ru.practicum.shareit.unit;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.dto.Status;
 import ru.practicum.shareit.exceptions.ForbiddenException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.FuzzyItemSearch;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemFacetCounter;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemNameSuggester;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchCache;
 import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemUseCounter;
+import ru.practicum.shareit.item.PopularItemsRanking;
+import ru.practicum.shareit.item.SearchCacheProperties;
 import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentCountRow;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.dto.CategoryFacetDto;
+import ru.practicum.shareit.item.dto.CommentPage;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemDetailsDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.item.dto.ItemSearchResult;
+import ru.practicum.shareit.item.dto.ItemUsageDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.RequestMatcher;
+import ru.practicum.shareit.request.dto.FeedCursor;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.util.ParallelReads;
+import ru.practicum.shareit.util.ParallelReadsProperties;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -36,17 +66,45 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ItemServiceTest {
 
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 10, 10, 0, 0);
+
     @Mock
     ItemRepository itemRepository;
     @Mock
     UserRepository userRepository;
     @Mock
+    UserExistenceCache userExistenceCache;
+    @Mock
     CommentRepository commentRepository;
     @Mock
     BookingRepository bookingRepository;
     @Mock
     ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    ItemUseCounter itemUseCounter;
+    @Mock
+    ItemFacetCounter itemFacetCounter;
+    @Mock
+    PopularItemsRanking popularItemsRanking;
+    @Mock
+    ItemNameSuggester itemNameSuggester;
+    @Mock
+    FuzzyItemSearch fuzzyItemSearch;
+    @Spy
+    ItemSearchCache itemSearchCache = new ItemSearchCache(new SimpleMeterRegistry(), new SearchCacheProperties(100));
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    RequestMatcher requestMatcher;
+    @Spy
+    ParallelReads parallelReads = new ParallelReads(new ParallelReadsProperties(false, 3, 8),
+            mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    @Spy
+    ItemMapper itemMapper = Mappers.getMapper(ItemMapper.class);
+    @Spy
+    Clock clock = Clock.fixed(Instant.parse("2030-01-10T10:00:00Z"), ZoneOffset.UTC);
+
     @InjectMocks
     ItemService itemService;
 
@@ -91,7 +149,7 @@ class ItemServiceTest {
         input.setDescription("Nice");
         input.setIsAvailable(true);
 
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(user(ownerId)));
+        when(userRepository.findActiveById(ownerId)).thenReturn(Optional.of(user(ownerId)));
         when(itemRepository.save(any(Item.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Item saved = itemService.createItem(input, ownerId, null);
@@ -100,8 +158,9 @@ class ItemServiceTest {
         assertThat(saved.getOwner()).isNotNull();
         assertThat(saved.getOwner().getId()).isEqualTo(ownerId);
         assertThat(saved.getItemRequest()).isNull();
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(null, "Drill", true, 0, ownerId, null));
 
-        verify(userRepository).findById(ownerId);
+        verify(userRepository).findActiveById(ownerId);
         verify(itemRepository).save(any(Item.class));
         verifyNoMoreInteractions(itemRepository, userRepository, itemRequestRepository, commentRepository, bookingRepository);
     }
@@ -119,7 +178,7 @@ class ItemServiceTest {
         input.setDescription("Nice");
         input.setIsAvailable(true);
 
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(user(ownerId)));
+        when(userRepository.findActiveById(ownerId)).thenReturn(Optional.of(user(ownerId)));
         when(itemRequestRepository.findById(requestId)).thenReturn(Optional.of(req));
         when(itemRepository.save(any(Item.class))).thenAnswer(inv -> inv.getArgument(0));
 
@@ -129,7 +188,7 @@ class ItemServiceTest {
         assertThat(saved.getItemRequest()).isNotNull();
         assertThat(saved.getItemRequest().getId()).isEqualTo(requestId);
 
-        verify(userRepository).findById(ownerId);
+        verify(userRepository).findActiveById(ownerId);
         verify(itemRequestRepository).findById(requestId);
         verify(itemRepository).save(any(Item.class));
         verifyNoMoreInteractions(itemRepository, userRepository, itemRequestRepository, commentRepository, bookingRepository);
@@ -145,14 +204,14 @@ class ItemServiceTest {
         input.setDescription("Nice");
         input.setIsAvailable(true);
 
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(user(ownerId)));
+        when(userRepository.findActiveById(ownerId)).thenReturn(Optional.of(user(ownerId)));
         when(itemRequestRepository.findById(requestId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> itemService.createItem(input, ownerId, requestId))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Request not found");
 
-        verify(userRepository).findById(ownerId);
+        verify(userRepository).findActiveById(ownerId);
         verify(itemRequestRepository).findById(requestId);
         verify(itemRepository, never()).save(any());
         verifyNoMoreInteractions(itemRepository, userRepository, itemRequestRepository, commentRepository, bookingRepository);
@@ -221,6 +280,7 @@ class ItemServiceTest {
         ArgumentCaptor<Item> captor = ArgumentCaptor.forClass(Item.class);
         verify(itemRepository).save(captor.capture());
         assertThat(captor.getValue().getId()).isEqualTo(itemId);
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(itemId, existing.getName(), false, 0, ownerId, null));
 
         verify(itemRepository).findById(itemId);
         verifyNoMoreInteractions(itemRepository, userRepository, itemRequestRepository, commentRepository, bookingRepository);
@@ -240,6 +300,7 @@ class ItemServiceTest {
 
         verify(itemRepository).findById(itemId);
         verify(itemRepository).delete(existing);
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(itemId, existing.getName(), false, 0, ownerId, null));
         verifyNoMoreInteractions(itemRepository, userRepository, itemRequestRepository, commentRepository, bookingRepository);
     }
 
@@ -252,19 +313,22 @@ class ItemServiceTest {
 
         Item existing = item(itemId, 1L);
 
-        when(userRepository.existsById(requesterId)).thenReturn(true);
+        when(userExistenceCache.exists(requesterId)).thenReturn(true);
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(existing));
-        when(commentRepository.findByItemIdOrderByCreatedDesc(itemId)).thenReturn(List.of());
+        when(commentRepository.findPageByItemId(itemId, ItemService.LATEST_COMMENTS)).thenReturn(List.of());
+        when(commentRepository.countByItemIdIn(List.of(itemId))).thenReturn(List.of());
 
         ItemDetailsDto dto = itemService.getItemWithComments(requesterId, itemId);
 
         assertThat(dto.item().getId()).isEqualTo(itemId);
+        assertThat(dto.commentsCount()).isZero();
         assertThat(dto.lastBooking()).isNull();
         assertThat(dto.nextBooking()).isNull();
 
-        verify(userRepository).existsById(requesterId);
+        verify(userExistenceCache).exists(requesterId);
         verify(itemRepository).findById(itemId);
-        verify(commentRepository).findByItemIdOrderByCreatedDesc(itemId);
+        verify(commentRepository).findPageByItemId(itemId, ItemService.LATEST_COMMENTS);
+        verify(commentRepository).countByItemIdIn(List.of(itemId));
         verify(bookingRepository, never()).findFirstByItemIdAndStatusAndStartTimeBookingLessThanEqualOrderByStartTimeBookingDesc(anyLong(), any(), any());
         verify(bookingRepository, never()).findFirstByItemIdAndStatusAndStartTimeBookingGreaterThanOrderByStartTimeBookingAsc(anyLong(), any(), any());
         verifyNoMoreInteractions(itemRepository, userRepository, itemRequestRepository, commentRepository, bookingRepository);
@@ -279,9 +343,10 @@ class ItemServiceTest {
         Booking last = booking(100L, itemId);
         Booking next = booking(200L, itemId);
 
-        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(userExistenceCache.exists(ownerId)).thenReturn(true);
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(existing));
-        when(commentRepository.findByItemIdOrderByCreatedDesc(itemId)).thenReturn(List.of());
+        when(commentRepository.findPageByItemId(itemId, ItemService.LATEST_COMMENTS)).thenReturn(List.of());
+        when(commentRepository.countByItemIdIn(List.of(itemId))).thenReturn(List.of(new CommentCountRow(itemId, 7L)));
 
         when(bookingRepository
                 .findFirstByItemIdAndStatusAndStartTimeBookingLessThanEqualOrderByStartTimeBookingDesc(
@@ -299,10 +364,12 @@ class ItemServiceTest {
         assertThat(dto.nextBooking()).isNotNull();
         assertThat(dto.lastBooking().getBookingId()).isEqualTo(100L);
         assertThat(dto.nextBooking().getBookingId()).isEqualTo(200L);
+        assertThat(dto.commentsCount()).isEqualTo(7L);
 
-        verify(userRepository).existsById(ownerId);
+        verify(userExistenceCache).exists(ownerId);
         verify(itemRepository).findById(itemId);
-        verify(commentRepository).findByItemIdOrderByCreatedDesc(itemId);
+        verify(commentRepository).findPageByItemId(itemId, ItemService.LATEST_COMMENTS);
+        verify(commentRepository).countByItemIdIn(List.of(itemId));
         verify(bookingRepository).findFirstByItemIdAndStatusAndStartTimeBookingLessThanEqualOrderByStartTimeBookingDesc(eq(itemId), eq(Status.APPROVED), any(LocalDateTime.class));
         verify(bookingRepository).findFirstByItemIdAndStatusAndStartTimeBookingGreaterThanOrderByStartTimeBookingAsc(eq(itemId), eq(Status.APPROVED), any(LocalDateTime.class));
         verifyNoMoreInteractions(itemRepository, userRepository, itemRequestRepository, commentRepository, bookingRepository);
@@ -314,14 +381,14 @@ class ItemServiceTest {
     void getAllByOwnerWithComments_whenNoItems_shouldReturnEmptyAndSkipHeavyQueries() {
         long ownerId = 1L;
 
-        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(userExistenceCache.exists(ownerId)).thenReturn(true);
         when(itemRepository.findAllByOwnerId(ownerId)).thenReturn(List.of());
 
         List<ItemDetailsDto> result = itemService.getAllByOwnerWithComments(ownerId);
 
         assertThat(result).isEmpty();
 
-        verify(userRepository).existsById(ownerId);
+        verify(userExistenceCache).exists(ownerId);
         verify(itemRepository).findAllByOwnerId(ownerId);
         verifyNoMoreInteractions(itemRepository, userRepository, itemRequestRepository, commentRepository, bookingRepository);
     }
@@ -333,7 +400,7 @@ class ItemServiceTest {
         Item i1 = item(10L, ownerId);
         Item i2 = item(20L, ownerId);
 
-        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(userExistenceCache.exists(ownerId)).thenReturn(true);
         when(itemRepository.findAllByOwnerId(ownerId)).thenReturn(List.of(i1, i2));
 
         Comment c1 = new Comment();
@@ -341,8 +408,10 @@ class ItemServiceTest {
         Comment c2 = new Comment();
         c2.setItem(i1);
 
-        when(commentRepository.findByItemIdInOrderByCreatedDesc(List.of(10L, 20L)))
+        when(commentRepository.findLatestByItemIdIn(List.of(10L, 20L), ItemService.LATEST_COMMENTS))
                 .thenReturn(List.of(c1, c2));
+        when(commentRepository.countByItemIdIn(List.of(10L, 20L)))
+                .thenReturn(List.of(new CommentCountRow(10L, 12L)));
 
         Booking last1 = booking(101L, 10L);
         Booking last1older = booking(102L, 10L);
@@ -369,6 +438,8 @@ class ItemServiceTest {
 
         assertThat(dto1.comments()).hasSize(2);
         assertThat(dto2.comments()).isEmpty();
+        assertThat(dto1.commentsCount()).isEqualTo(12L);
+        assertThat(dto2.commentsCount()).isZero();
 
         assertThat(dto1.lastBooking().getBookingId()).isEqualTo(101L);
         assertThat(dto2.lastBooking().getBookingId()).isEqualTo(201L);
@@ -376,14 +447,94 @@ class ItemServiceTest {
         assertThat(dto1.nextBooking().getBookingId()).isEqualTo(301L);
         assertThat(dto2.nextBooking().getBookingId()).isEqualTo(401L);
 
-        verify(userRepository).existsById(ownerId);
+        verify(userExistenceCache).exists(ownerId);
         verify(itemRepository).findAllByOwnerId(ownerId);
-        verify(commentRepository).findByItemIdInOrderByCreatedDesc(List.of(10L, 20L));
+        verify(commentRepository).findLatestByItemIdIn(List.of(10L, 20L), ItemService.LATEST_COMMENTS);
+        verify(commentRepository).countByItemIdIn(List.of(10L, 20L));
         verify(bookingRepository).findByItemIdInAndStatusAndStartTimeBookingLessThanEqualOrderByItemIdAscStartTimeBookingDesc(eq(List.of(10L, 20L)), eq(Status.APPROVED), any(LocalDateTime.class));
         verify(bookingRepository).findByItemIdInAndStatusAndStartTimeBookingGreaterThanOrderByItemIdAscStartTimeBookingAsc(eq(List.of(10L, 20L)), eq(Status.APPROVED), any(LocalDateTime.class));
         verifyNoMoreInteractions(itemRepository, userRepository, itemRequestRepository, commentRepository, bookingRepository);
     }
 
+    // --- findComments ---
+
+    @Test
+    void findComments_whenItemNotFound_shouldThrowNotFound() {
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(itemRepository.existsById(10L)).thenReturn(false);
+
+        assertThatThrownBy(() -> itemService.findComments(1L, 10L, null, 20))
+                .isInstanceOf(NotFoundException.class);
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void findComments_firstPage_shouldFetchOneExtraRowForHasMore() {
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(itemRepository.existsById(10L)).thenReturn(true);
+        Comment c1 = new Comment();
+        Comment c2 = new Comment();
+        Comment c3 = new Comment();
+        when(commentRepository.findPageByItemId(10L, 3)).thenReturn(List.of(c1, c2, c3));
+
+        CommentPage page = itemService.findComments(1L, 10L, null, 2);
+
+        assertThat(page.comments()).containsExactly(c1, c2);
+        assertThat(page.hasMore()).isTrue();
+    }
+
+    @Test
+    void findComments_withCursor_shouldContinueAfterIt() {
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(itemRepository.existsById(10L)).thenReturn(true);
+        FeedCursor after = new FeedCursor(NOW, 55L);
+        Comment c1 = new Comment();
+        when(commentRepository.findPageByItemIdBefore(10L, NOW, 55L, 3)).thenReturn(List.of(c1));
+
+        CommentPage page = itemService.findComments(1L, 10L, after, 2);
+
+        assertThat(page.comments()).containsExactly(c1);
+        assertThat(page.hasMore()).isFalse();
+        verify(commentRepository, never()).findPageByItemId(anyLong(), anyInt());
+    }
+
+    // --- getItemsWithComments ---
+
+    @Test
+    void getItemsWithComments_shouldKeepRequestOrderAndLoadBookingsOnlyForOwnItems() {
+        long userId = 1L;
+        Item own = item(10L, userId);
+        Item foreign = item(20L, 2L);
+
+        when(userExistenceCache.exists(userId)).thenReturn(true);
+        when(itemRepository.findAllById(List.of(20L, 99L, 10L, 20L))).thenReturn(List.of(own, foreign));
+        when(commentRepository.findLatestByItemIdIn(any(), eq(ItemService.LATEST_COMMENTS))).thenReturn(List.of());
+        when(commentRepository.countByItemIdIn(any())).thenReturn(List.of());
+        Booking last = booking(101L, 10L);
+        when(bookingRepository.findByItemIdInAndStatusAndStartTimeBookingLessThanEqualOrderByItemIdAscStartTimeBookingDesc(
+                eq(List.of(10L)), eq(Status.APPROVED), any(LocalDateTime.class)
+        )).thenReturn(List.of(last));
+        when(bookingRepository.findByItemIdInAndStatusAndStartTimeBookingGreaterThanOrderByItemIdAscStartTimeBookingAsc(
+                eq(List.of(10L)), eq(Status.APPROVED), any(LocalDateTime.class)
+        )).thenReturn(List.of());
+
+        List<ItemDetailsDto> result = itemService.getItemsWithComments(userId, List.of(20L, 99L, 10L, 20L));
+
+        assertThat(result).extracting(d -> d.item().getId()).containsExactly(20L, 10L);
+        assertThat(result.get(0).lastBooking()).isNull();
+        assertThat(result.get(1).lastBooking()).isSameAs(last);
+    }
+
+    @Test
+    void getItemsWithComments_whenUserNotExists_shouldThrowNotFound() {
+        when(userExistenceCache.exists(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> itemService.getItemsWithComments(1L, List.of(10L)))
+                .isInstanceOf(NotFoundException.class);
+
+        verifyNoInteractions(itemRepository);
+    }
+
     // --- addComment ---
 
     @Test
@@ -391,7 +542,7 @@ class ItemServiceTest {
         long authorId = 1L;
         long itemId = 10L;
 
-        when(userRepository.findById(authorId)).thenReturn(Optional.of(user(authorId)));
+        when(userRepository.findActiveById(authorId)).thenReturn(Optional.of(user(authorId)));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item(itemId, 2L)));
 
         when(bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndTimeBookingLessThan(
@@ -415,7 +566,7 @@ class ItemServiceTest {
         User author = user(authorId);
         Item it = item(itemId, 2L);
 
-        when(userRepository.findById(authorId)).thenReturn(Optional.of(author));
+        when(userRepository.findActiveById(authorId)).thenReturn(Optional.of(author));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(it));
 
         when(bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndTimeBookingLessThan(
@@ -425,17 +576,12 @@ class ItemServiceTest {
         when(commentRepository.save(any(Comment.class))).thenAnswer(inv -> inv.getArgument(0));
 
         CommentRequestDto req = new CommentRequestDto("hello");
-        LocalDateTime before = LocalDateTime.now();
-
         Comment saved = itemService.addComment(authorId, itemId, req);
 
-        LocalDateTime after = LocalDateTime.now();
-
         assertThat(saved.getText()).isEqualTo("hello");
         assertThat(saved.getAuthor().getId()).isEqualTo(authorId);
         assertThat(saved.getItem().getId()).isEqualTo(itemId);
-        assertThat(saved.getCreated()).isNotNull();
-        assertThat(saved.getCreated()).isAfterOrEqualTo(before).isBeforeOrEqualTo(after.plusSeconds(1));
+        assertThat(saved.getCreated()).isEqualTo(NOW);
 
         ArgumentCaptor<Comment> captor = ArgumentCaptor.forClass(Comment.class);
         verify(commentRepository).save(captor.capture());
@@ -450,28 +596,126 @@ class ItemServiceTest {
 
     @Test
     void search_whenBlank_shouldReturnEmptyAndNotCallRepo() {
-        List<Item> res1 = itemService.search(null);
-        List<Item> res2 = itemService.search("   ");
+        ItemSearchPage res1 = itemService.search(null, null, 0, 10);
+        ItemSearchPage res2 = itemService.search("   ", null, 0, 10);
 
-        assertThat(res1).isEmpty();
-        assertThat(res2).isEmpty();
+        assertThat(res1.items()).isEmpty();
+        assertThat(res1.hasMore()).isFalse();
+        assertThat(res2.items()).isEmpty();
 
-        verify(itemRepository, never()).searchAvailableByText(anyString());
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
-    void search_whenTextProvided_shouldCallRepo() {
-        when(itemRepository.searchAvailableByText("drill"))
+    void search_whenTextProvided_shouldProbeOneExtraRow() {
+        when(itemRepository.searchAvailableByText("drill", 0, 3))
                 .thenReturn(List.of(item(1L, 1L)));
 
-        List<Item> result = itemService.search("drill");
+        ItemSearchPage result = itemService.search("drill", null, 0, 2);
+
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.hasMore()).isFalse();
+
+        verify(itemRepository).searchAvailableByText("drill", 0, 3);
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    void search_whenSameNormalizedQueryRepeated_shouldHitDbOnce() {
+        when(itemRepository.searchAvailableByText("power drill", 0, 11))
+                .thenReturn(List.of(item(1L, 1L)));
 
-        assertThat(result).hasSize(1);
+        ItemSearchPage first = itemService.search("Power  Drill", null, 0, 10);
+        ItemSearchPage second = itemService.search(" power drill ", null, 0, 10);
 
-        verify(itemRepository).searchAvailableByText("drill");
+        assertThat(second).isSameAs(first);
+        verify(itemRepository).searchAvailableByText("power drill", 0, 11);
         verifyNoMoreInteractions(itemRepository);
     }
 
+    @Test
+    void search_whenProbeReturnsExtraRow_shouldTrimAndReportHasMore() {
+        when(itemRepository.searchAvailableByText("drill", 4, 3))
+                .thenReturn(List.of(item(5L, 1L), item(6L, 1L), item(7L, 1L)));
+
+        ItemSearchPage result = itemService.search("drill", null, 4, 2);
+
+        assertThat(result.items()).extracting(ItemDto::id).containsExactly(5L, 6L);
+        assertThat(result.hasMore()).isTrue();
+    }
+
+    @Test
+    void search_whenSizeAboveCap_shouldClampToMax() {
+        when(itemRepository.searchAvailableByText("drill", 0, ItemService.MAX_SEARCH_SIZE + 1))
+                .thenReturn(List.of());
+
+        itemService.search("drill", null, 0, 10_000);
+
+        verify(itemRepository).searchAvailableByText("drill", 0, ItemService.MAX_SEARCH_SIZE + 1);
+    }
+
+    @Test
+    void search_whenPagingInvalid_shouldThrowValidation() {
+        assertThatThrownBy(() -> itemService.search("drill", null, -1, 10))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> itemService.search("drill", null, 0, 0))
+                .isInstanceOf(ValidationException.class);
+
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void search_whenCategoryProvided_shouldFilterByCategory() {
+        when(itemRepository.searchAvailableByTextAndCategory("drill", "tools", 0, 11))
+                .thenReturn(List.of(item(1L, 1L)));
+
+        ItemSearchPage result = itemService.search("drill", "tools", 0, 10);
+
+        assertThat(result.items()).hasSize(1);
+        verify(itemRepository).searchAvailableByTextAndCategory("drill", "tools", 0, 11);
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    void searchFaceted_shouldReturnItemsAndFacetsFromOneAggregate() {
+        List<CategoryFacetDto> facets = List.of(new CategoryFacetDto("tools", 2L), new CategoryFacetDto(null, 1L));
+        when(itemRepository.searchAvailableByTextAndCategory("drill", "tools", 0, 11))
+                .thenReturn(List.of(item(1L, 1L), item(2L, 1L)));
+        when(itemFacetCounter.count("drill", ItemService.FACET_SCAN_LIMIT + 1))
+                .thenReturn(facets);
+
+        ItemSearchResult result = itemService.searchFaceted("drill", "tools", 0, 10);
+
+        assertThat(result.page().items()).hasSize(2);
+        assertThat(result.page().hasMore()).isFalse();
+        assertThat(result.facets()).isEqualTo(facets);
+        assertThat(result.facetsCapped()).isFalse();
+        verify(itemFacetCounter).count("drill", ItemService.FACET_SCAN_LIMIT + 1);
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    void searchFaceted_whenMatchesExceedScanLimit_shouldFlagFacetsAsCapped() {
+        when(itemRepository.searchAvailableByText("a", 0, 11)).thenReturn(List.of());
+        when(itemFacetCounter.count("a", ItemService.FACET_SCAN_LIMIT + 1))
+                .thenReturn(List.of(
+                        new CategoryFacetDto("tools", (long) ItemService.FACET_SCAN_LIMIT),
+                        new CategoryFacetDto("garden", 1L)));
+
+        ItemSearchResult result = itemService.searchFaceted("a", null, 0, 10);
+
+        assertThat(result.facetsCapped()).isTrue();
+    }
+
+    @Test
+    void searchFaceted_whenBlank_shouldNotCallRepo() {
+        ItemSearchResult result = itemService.searchFaceted(" ", null, 0, 10);
+
+        assertThat(result.page().items()).isEmpty();
+        assertThat(result.facets()).isEmpty();
+        verifyNoInteractions(itemRepository, itemFacetCounter);
+    }
+
     @Test
     void updateItem_whenPatchNameValid_shouldApplyAndSave() {
         long ownerId = 1L;
@@ -518,13 +762,13 @@ class ItemServiceTest {
         long requesterId = 1L;
         long itemId = 10L;
 
-        when(userRepository.existsById(requesterId)).thenReturn(false);
+        when(userExistenceCache.exists(requesterId)).thenReturn(false);
 
         assertThatThrownBy(() -> itemService.getItemWithComments(requesterId, itemId))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("User not found");
 
-        verify(userRepository).existsById(requesterId);
+        verify(userExistenceCache).exists(requesterId);
         verifyNoInteractions(itemRepository, commentRepository, bookingRepository, itemRequestRepository);
     }
 
@@ -532,13 +776,148 @@ class ItemServiceTest {
     void getAllByOwnerWithComments_whenUserNotExists_shouldThrowNotFound() {
         long ownerId = 1L;
 
-        when(userRepository.existsById(ownerId)).thenReturn(false);
+        when(userExistenceCache.exists(ownerId)).thenReturn(false);
 
         assertThatThrownBy(() -> itemService.getAllByOwnerWithComments(ownerId))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("User not found");
 
-        verify(userRepository).existsById(ownerId);
+        verify(userExistenceCache).exists(ownerId);
         verifyNoInteractions(itemRepository, commentRepository, bookingRepository, itemRequestRepository);
     }
+
+    // --- findMostBooked ---
+
+    @Test
+    void findMostBooked_shouldAddPendingDeltasAndReorder() {
+        Item hot = item(1L, 9L);
+        hot.setUseCount(10);
+        Item warm = item(2L, 9L);
+        warm.setUseCount(8);
+        Item fresh = item(3L, 9L);
+        fresh.setUseCount(0);
+
+        when(itemUseCounter.pendingDeltas()).thenReturn(Map.of(2L, 5L, 3L, 9L));
+        when(itemRepository.findAllByOrderByUseCountDescIdAsc(any())).thenReturn(List.of(hot, warm));
+        when(itemRepository.findAllById(List.of(3L))).thenReturn(List.of(fresh));
+
+        List<ItemUsageDto> top = itemService.findMostBooked(2);
+
+        assertThat(top).extracting(ItemUsageDto::useCount).containsExactly(13L, 10L);
+        assertThat(top).extracting(usage -> usage.item().getId()).containsExactly(2L, 1L);
+    }
+
+    // --- findPopular ---
+
+    @Test
+    void findPopular_shouldKeepRankingOrderAndCounts() {
+        when(popularItemsRanking.top("tools", 3 + PopularItemsRanking.SLACK)).thenReturn(List.of(
+                new PopularItemsRanking.RankedItem(2L, "tools", 7),
+                new PopularItemsRanking.RankedItem(1L, "tools", 4)));
+        when(itemRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(item(1L, 9L), item(2L, 9L)));
+
+        List<ItemUsageDto> popular = itemService.findPopular("tools", 3);
+
+        assertThat(popular).extracting(usage -> usage.item().getId()).containsExactly(2L, 1L);
+        assertThat(popular).extracting(ItemUsageDto::useCount).containsExactly(7L, 4L);
+        verify(itemRepository, never()).findAllByOrderByUseCountDescIdAsc(any());
+    }
+
+    @Test
+    void findPopular_whenTopHasDeletedOrUnavailable_shouldEvictThemAndFillUpToLimit() {
+        when(popularItemsRanking.top("tools", 2 + PopularItemsRanking.SLACK)).thenReturn(List.of(
+                new PopularItemsRanking.RankedItem(5L, "tools", 9),
+                new PopularItemsRanking.RankedItem(2L, "tools", 7),
+                new PopularItemsRanking.RankedItem(3L, "tools", 6),
+                new PopularItemsRanking.RankedItem(1L, "tools", 4),
+                new PopularItemsRanking.RankedItem(4L, "tools", 2)));
+        Item hidden = item(2L, 9L);
+        hidden.setIsAvailable(false);
+        when(itemRepository.findAllById(List.of(5L, 2L, 3L, 1L, 4L)))
+                .thenReturn(List.of(hidden, item(3L, 9L), item(1L, 9L), item(4L, 9L)));
+
+        List<ItemUsageDto> popular = itemService.findPopular("tools", 2);
+
+        // один запрос за вещами — запас рейтинга покрывает пропущенные
+        assertThat(popular).extracting(usage -> usage.item().getId()).containsExactly(3L, 1L);
+        verify(popularItemsRanking).evict(5L);
+        verify(popularItemsRanking).evict(2L);
+        verify(popularItemsRanking, never()).evict(4L);
+    }
+
+    @Test
+    void findPopular_whenRankingEmpty_shouldNotQueryDb() {
+        when(popularItemsRanking.top(null, 10 + PopularItemsRanking.SLACK)).thenReturn(List.of());
+
+        assertThat(itemService.findPopular(null, 10)).isEmpty();
+        verifyNoInteractions(itemRepository);
+    }
+
+    // --- suggest ---
+
+    @Test
+    void suggest_shouldDelegateToInMemoryTrie() {
+        when(itemNameSuggester.suggest("dr", 5)).thenReturn(List.of("Drill", "Drone"));
+
+        assertThat(itemService.suggest("dr", 5)).containsExactly("Drill", "Drone");
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void suggest_whenLimitNotPositive_shouldThrowValidation() {
+        assertThatThrownBy(() -> itemService.suggest("dr", 0)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> itemService.suggest("dr", -1)).isInstanceOf(ValidationException.class);
+        verifyNoInteractions(itemNameSuggester);
+    }
+
+    // --- fuzzySearch ---
+
+    @Test
+    void fuzzySearch_shouldKeepSimilarityOrderAndSkipDeleted() {
+        when(fuzzyItemSearch.search("drel", 10)).thenReturn(List.of(
+                new FuzzyItemSearch.FuzzyMatch(3L, 0.5),
+                new FuzzyItemSearch.FuzzyMatch(9L, 0.4),
+                new FuzzyItemSearch.FuzzyMatch(1L, 0.3)));
+        when(itemRepository.findAllById(List.of(3L, 9L, 1L))).thenReturn(List.of(item(1L, 1L), item(3L, 1L)));
+
+        List<Item> result = itemService.fuzzySearch("drel", 10);
+
+        assertThat(result).extracting(Item::getId).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void fuzzySearch_whenBlankOrNoMatches_shouldNotLoadItems() {
+        when(fuzzyItemSearch.search("zzz", 10)).thenReturn(List.of());
+
+        assertThat(itemService.fuzzySearch(" ", 10)).isEmpty();
+        assertThat(itemService.fuzzySearch("zzz", 10)).isEmpty();
+        verifyNoInteractions(itemRepository);
+    }
+
+    // --- findMatchingRequests ---
+
+    @Test
+    void findMatchingRequests_whenNotOwner_shouldThrowForbidden() {
+        when(itemRepository.findById(10L)).thenReturn(Optional.of(item(10L, 1L)));
+
+        assertThatThrownBy(() -> itemService.findMatchingRequests(2L, 10L, 5))
+                .isInstanceOf(ForbiddenException.class);
+        verifyNoInteractions(requestMatcher, itemRequestRepository);
+    }
+
+    @Test
+    void findMatchingRequests_shouldKeepIndexOrderAndForgetPurgedRequests() {
+        when(itemRepository.findById(10L)).thenReturn(Optional.of(item(10L, 1L)));
+        when(requestMatcher.matchRequests("Item10", "Desc10", 1L, 5)).thenReturn(List.of(30L, 20L, 40L));
+        ItemRequest r20 = new ItemRequest();
+        r20.setId(20L);
+        ItemRequest r30 = new ItemRequest();
+        r30.setId(30L);
+        when(itemRequestRepository.findAllActiveByIdIn(List.of(30L, 20L, 40L))).thenReturn(List.of(r20, r30));
+
+        List<ItemRequest> result = itemService.findMatchingRequests(1L, 10L, 5);
+
+        assertThat(result).extracting(ItemRequest::getId).containsExactly(30L, 20L);
+        verify(requestMatcher).forgetRequests(List.of(40L));
+    }
 }
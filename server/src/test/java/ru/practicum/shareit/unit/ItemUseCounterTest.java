@@ -0,0 +1,169 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.ItemUseCounter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemUseCounterTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    ItemUseCounter itemUseCounter;
+
+    @BeforeEach
+    void setUp() {
+        itemUseCounter = new ItemUseCounter(jdbcTemplate, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void increment_shouldAccumulatePerItem() {
+        itemUseCounter.increment(10L, 1);
+        itemUseCounter.increment(10L, 1);
+        itemUseCounter.increment(20L, 1);
+
+        assertThat(itemUseCounter.pendingDeltas()).isEqualTo(Map.of(10L, 2L, 20L, 1L));
+        assertThat(itemUseCounter.pendingDelta(10L)).isEqualTo(2L);
+        assertThat(itemUseCounter.pendingDelta(30L)).isZero();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldWriteAggregatedDeltasInOneBatchAndReset() {
+        itemUseCounter.increment(10L, 1);
+        itemUseCounter.increment(10L, 1);
+        itemUseCounter.increment(20L, 3);
+
+        itemUseCounter.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        assertThat(captor.getValue())
+                .extracting(row -> List.of(row[0], row[1]))
+                .containsExactlyInAnyOrder(List.of(2L, 10L), List.of(3L, 20L));
+        assertThat(itemUseCounter.pendingDeltas()).isEmpty();
+    }
+
+    @Test
+    void flush_whenNothingPending_shouldNotTouchDb() {
+        itemUseCounter.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flush_whenDbFails_shouldKeepDeltasForNextFlush() {
+        itemUseCounter.increment(10L, 4);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+
+        itemUseCounter.flush();
+
+        assertThat(itemUseCounter.pendingDeltas()).isEqualTo(Map.of(10L, 4L));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void flush_whenCommitFails_shouldNotRequeueDeltas() {
+        itemUseCounter.increment(10L, 4);
+        doThrow(new TransactionSystemException("connection lost on commit")).when(transactionManager).commit(any());
+
+        itemUseCounter.flush();
+
+        // исход коммита неизвестен: повтор мог бы применить дельту дважды
+        assertThat(itemUseCounter.pendingDeltas()).isEmpty();
+    }
+
+    @Test
+    void flush_whenRollbackFails_shouldNotRequeueDeltas() {
+        itemUseCounter.increment(10L, 4);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+        doThrow(new TransactionSystemException("rollback failed")).when(transactionManager).rollback(any());
+
+        itemUseCounter.flush();
+
+        assertThat(itemUseCounter.pendingDeltas()).isEmpty();
+    }
+
+    @Test
+    void flush_shouldDropFlushedEntries_andKeepLaterIncrements() {
+        itemUseCounter.increment(10L, 1);
+        itemUseCounter.flush();
+        itemUseCounter.increment(20L, 2);
+
+        assertThat(itemUseCounter.pendingDeltas()).isEqualTo(Map.of(20L, 2L));
+    }
+
+    @Test
+    void increment_concurrently_shouldNotLoseUpdates() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    itemUseCounter.increment(10L, 1);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(itemUseCounter.pendingDeltas()).isEqualTo(Map.of(10L, 80_000L));
+    }
+
+    @Test
+    void increment_concurrentlyWithFlushes_shouldCountEveryIncrementOnce() throws Exception {
+        AtomicLong flushed = new AtomicLong();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> batch = invocation.getArgument(1);
+            batch.forEach(row -> flushed.addAndGet((Long) row[0]));
+            return new int[batch.size()];
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            long itemId = t % 2;
+            pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    itemUseCounter.increment(itemId, 1);
+                }
+            });
+        }
+        pool.shutdown();
+        // частые flush'и убирают простаивающие записи прямо под инкрементами
+        while (!pool.isTerminated()) {
+            itemUseCounter.flush();
+        }
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        itemUseCounter.flush();
+        itemUseCounter.flush();
+
+        assertThat(flushed.get()).isEqualTo(80_000L);
+        assertThat(itemUseCounter.pendingDeltas()).isEmpty();
+    }
+}
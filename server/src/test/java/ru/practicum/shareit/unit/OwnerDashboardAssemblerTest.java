@@ -0,0 +1,127 @@
+package ru.practicum.shareit.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDetailsDto;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.owner.OwnerDashboardAssembler;
+import ru.practicum.shareit.owner.dto.OwnerDashboardDto;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestDtoAssembler;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.FeedCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedPage;
+import ru.practicum.shareit.user.UserExistenceCache;
+import ru.practicum.shareit.util.ParallelReads;
+import ru.practicum.shareit.util.ParallelReadsProperties;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OwnerDashboardAssemblerTest {
+
+    @Mock
+    UserExistenceCache userExistenceCache;
+    @Mock
+    ItemService itemService;
+    @Mock
+    BookingService bookingService;
+    @Mock
+    ItemRequestService itemRequestService;
+    @Mock
+    ItemMapper itemMapper;
+    @Mock
+    BookingMapper bookingMapper;
+    @Mock
+    ItemRequestDtoAssembler itemRequestDtoAssembler;
+    @Spy
+    ParallelReads parallelReads = new ParallelReads(new ParallelReadsProperties(false, 3, 8),
+            mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+
+    @InjectMocks
+    OwnerDashboardAssembler ownerDashboardAssembler;
+
+    @Test
+    void assemble_whenUserNotExists_shouldThrowNotFoundWithoutReads() {
+        when(userExistenceCache.exists(7L)).thenReturn(false);
+
+        assertThatThrownBy(() -> ownerDashboardAssembler.assemble(7L, 10))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("User not found");
+
+        verifyNoInteractions(itemService, bookingService, itemRequestService);
+    }
+
+    @Test
+    void assemble_shouldCheckUserOnceAndCombineAllParts() {
+        when(userExistenceCache.exists(7L)).thenReturn(true);
+
+        List<ItemDetailsDto> details = List.of(mock(ItemDetailsDto.class));
+        List<ItemWithCommentsDto> items = List.of(mock(ItemWithCommentsDto.class));
+        when(itemService.findOwnerItemDetails(7L)).thenReturn(details);
+        when(itemMapper.toItemWithCommentsDtoList(details)).thenReturn(items);
+
+        Booking waiting = new Booking();
+        Booking current = new Booking();
+        BookingResponseDto waitingDto = mock(BookingResponseDto.class);
+        BookingResponseDto currentDto = mock(BookingResponseDto.class);
+        when(bookingService.findOwnerBookings(7L, BookingState.WAITING)).thenReturn(List.of(waiting));
+        when(bookingService.findOwnerBookings(7L, BookingState.CURRENT)).thenReturn(List.of(current));
+        when(bookingMapper.toResponseDto(waiting)).thenReturn(waitingDto);
+        when(bookingMapper.toResponseDto(current)).thenReturn(currentDto);
+
+        ItemRequest request = new ItemRequest();
+        request.setId(3L);
+        request.setCreated(LocalDateTime.of(2030, 1, 1, 10, 0));
+        List<ItemRequestDto> requestDtos = List.of(mock(ItemRequestDto.class));
+        when(itemRequestService.findOtherRequestsPage(7L, null, 0, 1))
+                .thenReturn(new ItemRequestFeedPage(List.of(request), true));
+        when(itemRequestDtoAssembler.mapRequestsToDtos(List.of(request))).thenReturn(requestDtos);
+
+        OwnerDashboardDto result = ownerDashboardAssembler.assemble(7L, 1);
+
+        assertThat(result.items()).isSameAs(items);
+        assertThat(result.waitingBookings()).containsExactly(waitingDto);
+        assertThat(result.currentBookings()).containsExactly(currentDto);
+        assertThat(result.requests()).isSameAs(requestDtos);
+        assertThat(result.requestsNextCursor()).isEqualTo(FeedCursor.of(request).encode());
+        verify(userExistenceCache, times(1)).exists(7L);
+        verify(itemRequestService, never()).assertUserExists(anyLong());
+    }
+
+    @Test
+    void assemble_whenNoMoreRequests_shouldLeaveCursorEmpty() {
+        when(userExistenceCache.exists(7L)).thenReturn(true);
+        when(itemService.findOwnerItemDetails(7L)).thenReturn(List.of());
+        when(itemMapper.toItemWithCommentsDtoList(List.of())).thenReturn(List.of());
+        when(bookingService.findOwnerBookings(eq(7L), any())).thenReturn(List.of());
+        when(itemRequestService.findOtherRequestsPage(7L, null, 0, 10))
+                .thenReturn(new ItemRequestFeedPage(List.of(), false));
+        when(itemRequestDtoAssembler.mapRequestsToDtos(List.of())).thenReturn(List.of());
+
+        OwnerDashboardDto result = ownerDashboardAssembler.assemble(7L, 10);
+
+        assertThat(result.requestsNextCursor()).isNull();
+        assertThat(result.items()).isEmpty();
+    }
+}
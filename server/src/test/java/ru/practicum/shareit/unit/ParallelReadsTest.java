@@ -0,0 +1,220 @@
+package ru.practicum.shareit.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import ru.practicum.shareit.util.ParallelReads;
+import ru.practicum.shareit.util.ParallelReadsProperties;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelReadsTest {
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private ParallelReads parallelReads(boolean enabled, int maxParallelism, int maxInFlight) {
+        return new ParallelReads(new ParallelReadsProperties(enabled, maxParallelism, maxInFlight),
+                transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void fork_whenDisabled_runsInCallerThreadWithoutOwnTransaction() {
+        Thread caller = Thread.currentThread();
+
+        try (ParallelReads.Scope scope = parallelReads(false, 3, 8).open()) {
+            Supplier<Thread> thread = scope.fork(Thread::currentThread);
+            scope.join();
+
+            assertThat(thread.get()).isSameAs(caller);
+        }
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void fork_whenEnabled_runsTasksConcurrentlyInReadOnlyTransactions() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        try (ParallelReads.Scope scope = parallelReads(true, 3, 8).open()) {
+            Supplier<Boolean> first = scope.fork(() -> awaitOther(bothStarted));
+            Supplier<Boolean> second = scope.fork(() -> awaitOther(bothStarted));
+            scope.join();
+
+            // последовательно обе подзадачи не дождались бы друг друга
+            assertThat(first.get()).isTrue();
+            assertThat(second.get()).isTrue();
+        }
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(2)).getTransaction(definitions.capture());
+        assertThat(definitions.getAllValues()).allMatch(TransactionDefinition::isReadOnly);
+    }
+
+    @Test
+    void join_whenTaskFails_rethrowsItsErrorAndCancelsOthers() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        try (ParallelReads.Scope scope = parallelReads(true, 3, 8).open()) {
+            scope.fork(() -> {
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+            scope.fork(() -> {
+                throw new IllegalStateException("boom");
+            });
+
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("boom");
+        }
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void fork_overMaxParallelism_runsInCallerThread() {
+        Thread caller = Thread.currentThread();
+
+        try (ParallelReads.Scope scope = parallelReads(true, 1, 8).open()) {
+            Supplier<Thread> forked = scope.fork(Thread::currentThread);
+            Supplier<Thread> inline = scope.fork(Thread::currentThread);
+            scope.join();
+
+            assertThat(forked.get()).isNotSameAs(caller);
+            assertThat(inline.get()).isSameAs(caller);
+        }
+    }
+
+    @Test
+    void fork_whenNodeLimitReached_runsInCallerThread() {
+        // busy занимает оба разрешения: за подзадачу и за своё соединение
+        ParallelReads parallelReads = parallelReads(true, 3, 2);
+        Thread caller = Thread.currentThread();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ParallelReads.Scope busy = parallelReads.open();
+             ParallelReads.Scope scope = parallelReads.open()) {
+            busy.fork(() -> {
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+            });
+
+            Supplier<Thread> inline = scope.fork(Thread::currentThread);
+            scope.join();
+            assertThat(inline.get()).isSameAs(caller);
+
+            release.countDown();
+            busy.join();
+        }
+    }
+
+    @Test
+    void fork_whenOnlyOnePermitLeft_runsInCallerThreadBecauseCallerNeedsOneToo() {
+        Thread caller = Thread.currentThread();
+
+        try (ParallelReads.Scope scope = parallelReads(true, 3, 1).open()) {
+            Supplier<Thread> inline = scope.fork(Thread::currentThread);
+            scope.join();
+
+            assertThat(inline.get()).isSameAs(caller);
+        }
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void close_shouldReturnCallerPermit() {
+        ParallelReads parallelReads = parallelReads(true, 1, 2);
+
+        for (int i = 0; i < 3; i++) {
+            try (ParallelReads.Scope scope = parallelReads.open()) {
+                Supplier<Thread> forked = scope.fork(Thread::currentThread);
+                scope.join();
+
+                assertThat(forked.get().isVirtual()).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void close_afterFailure_returnsPermitsOfForksCancelledBeforeStart() {
+        ParallelReads parallelReads = parallelReads(true, 3, 4);
+
+        // отмена до старта подзадачи случается не каждый раз, поэтому повторов много: потерянные
+        // разрешения накапливаются, и последние подзадачи ушли бы в вызывающий поток
+        for (int i = 0; i < 200; i++) {
+            CountDownLatch queued = new CountDownLatch(1);
+            try (ParallelReads.Scope scope = parallelReads.open()) {
+                scope.fork(() -> {
+                    try {
+                        queued.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalStateException("boom");
+                });
+                scope.fork(Thread::currentThread);
+                scope.fork(Thread::currentThread);
+                queued.countDown();
+
+                assertThatThrownBy(scope::join).hasMessage("boom");
+            }
+        }
+
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            List<Supplier<Thread>> threads = List.of(scope.fork(Thread::currentThread),
+                    scope.fork(Thread::currentThread), scope.fork(Thread::currentThread));
+            scope.join();
+
+            // три подзадачи и вызывающий — все maxInFlight разрешений
+            assertThat(threads).allMatch(thread -> thread.get().isVirtual());
+        }
+    }
+
+    @Test
+    void fork_insideForkedTask_runsInlineInsteadOfTakingAnotherConnection() {
+        ParallelReads parallelReads = parallelReads(true, 3, 8);
+
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            Supplier<Boolean> nestedInline = scope.fork(() -> {
+                Thread forkThread = Thread.currentThread();
+                try (ParallelReads.Scope nested = parallelReads.open()) {
+                    Supplier<Thread> thread = nested.fork(Thread::currentThread);
+                    nested.join();
+                    return thread.get() == forkThread;
+                }
+            });
+            scope.join();
+
+            assertThat(nestedInline.get()).isTrue();
+        }
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    private static boolean awaitOther(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package ru.practicum.shareit.unit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingApprovedEvent;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemUseCounter;
+import ru.practicum.shareit.item.PopularItemsRanking;
+import ru.practicum.shareit.item.PopularItemsRanking.RankedItem;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PopularItemsRankingTest {
+
+    private static final Instant NOW = Instant.parse("2030-01-10T10:00:00Z");
+
+    @Mock
+    ItemRepository itemRepository;
+    @Mock
+    JdbcTemplate jdbcTemplate;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    ItemUseCounter itemUseCounter;
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    PopularItemsRanking ranking;
+
+    @BeforeEach
+    void setUp() {
+        itemUseCounter = new ItemUseCounter(jdbcTemplate, new TransactionTemplate(transactionManager));
+        ranking = new PopularItemsRanking(itemRepository, itemUseCounter, meterRegistry,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static Item item(long id, String category, long useCount) {
+        Item i = new Item();
+        i.setId(id);
+        i.setCategory(category);
+        i.setUseCount(useCount);
+        return i;
+    }
+
+    private void dbReturns(List<Item> page) {
+        when(itemRepository.findTop500ByIsAvailableTrueAndUseCountGreaterThanAndIdGreaterThanOrderByIdAsc(
+                eq(0L), anyLong()))
+                .thenReturn(page)
+                .thenReturn(List.of());
+    }
+
+    private void approve(long itemId, String category, int times) {
+        for (int i = 0; i < times; i++) {
+            ranking.onBookingApproved(new BookingApprovedEvent((long) i, itemId, category));
+        }
+    }
+
+    @Test
+    void top_whenEmpty_shouldReturnEmpty() {
+        assertThat(ranking.top(null, 10)).isEmpty();
+        assertThat(ranking.top("tools", 10)).isEmpty();
+    }
+
+    @Test
+    void onBookingApproved_shouldReorderIncrementally() {
+        approve(1L, "tools", 2);
+        approve(2L, "tools", 1);
+        approve(3L, "garden", 3);
+
+        assertThat(ranking.top(null, 10)).extracting(RankedItem::itemId).containsExactly(3L, 1L, 2L);
+
+        approve(2L, "tools", 5);
+
+        assertThat(ranking.top(null, 2)).extracting(RankedItem::itemId).containsExactly(2L, 3L);
+        assertThat(ranking.top("tools", 10))
+                .extracting(RankedItem::itemId, RankedItem::count)
+                .containsExactly(
+                        tuple(2L, 6L),
+                        tuple(1L, 2L));
+        assertThat(ranking.top("garden", 10)).extracting(RankedItem::itemId).containsExactly(3L);
+    }
+
+    @Test
+    void reconcile_shouldTakeDbCountPlusPendingDeltas() {
+        approve(1L, "tools", 1);
+        dbReturns(List.of(item(1L, "tools", 10), item(2L, "garden", 20)));
+
+        ranking.reconcile();
+
+        assertThat(ranking.top(null, 10))
+                .extracting(RankedItem::itemId, RankedItem::count)
+                .containsExactly(
+                        tuple(2L, 20L),
+                        tuple(1L, 11L));
+        assertThat(ranking.top("tools", 10)).extracting(RankedItem::itemId).containsExactly(1L);
+    }
+
+    @Test
+    void reconcile_afterFlush_shouldNotCountDeltaTwice() {
+        approve(1L, "tools", 3);
+        itemUseCounter.flush();
+        dbReturns(List.of(item(1L, "tools", 3)));
+
+        ranking.reconcile();
+
+        assertThat(ranking.top(null, 10)).extracting(RankedItem::count).containsExactly(3L);
+    }
+
+    @Test
+    void reconcile_shouldKeepApprovalsNotYetFlushed() {
+        approve(1L, "tools", 2);
+        dbReturns(List.of(item(1L, "tools", 5)));
+
+        ranking.reconcile();
+        approve(1L, "tools", 1);
+
+        assertThat(ranking.top(null, 10)).extracting(RankedItem::count).containsExactly(8L);
+    }
+
+    @Test
+    void reconcile_shouldEvictItemsDbNoLongerReturns_unlessDeltasPending() {
+        approve(1L, "tools", 1);
+        itemUseCounter.flush();
+        approve(2L, "tools", 1);
+        dbReturns(List.of(item(3L, "garden", 4)));
+
+        ranking.reconcile();
+
+        // 1 удалена или недоступна; у 2 подтверждение ещё не сброшено в БД
+        assertThat(ranking.top(null, 10)).extracting(RankedItem::itemId).containsExactly(3L, 2L);
+        assertThat(ranking.top("tools", 10)).extracting(RankedItem::itemId).containsExactly(2L);
+    }
+
+    @Test
+    void onBookingApproved_beyondCapacity_shouldKeepOnlyTopPlusSlack() {
+        ranking.registerMetrics();
+        int capacity = PopularItemsRanking.MAX_LIMIT + PopularItemsRanking.SLACK;
+        approve(1L, "tools", 3);
+        for (long itemId = 2; itemId <= capacity + 5; itemId++) {
+            approve(itemId, "tools", 1);
+        }
+
+        // при равном счёте выше меньший id: 122..125 не прошли отсечку и в памяти не держатся
+        assertThat(ranking.top("tools", 1_000)).hasSize(capacity)
+                .last().extracting(RankedItem::itemId).isEqualTo((long) capacity);
+        assertThat(ranking.top(null, 1_000)).hasSize(capacity);
+        assertThat(meterRegistry.get("shareit.items.popular.size").gauge().value()).isEqualTo(capacity);
+    }
+
+    @Test
+    void reconcile_shouldAdmitItemAboveCutAndForgetDisplacedOne() {
+        ranking.registerMetrics();
+        int capacity = PopularItemsRanking.MAX_LIMIT + PopularItemsRanking.SLACK;
+        for (long itemId = 1; itemId <= capacity; itemId++) {
+            approve(itemId, "tools", 1);
+        }
+        itemUseCounter.flush();
+        List<Item> page = new ArrayList<>();
+        for (long itemId = 1; itemId <= capacity; itemId++) {
+            page.add(item(itemId, "tools", 1));
+        }
+        page.add(item(500L, "tools", 50));
+        dbReturns(page);
+
+        ranking.reconcile();
+
+        assertThat(ranking.top("tools", 1).get(0)).isEqualTo(new RankedItem(500L, "tools", 50));
+        assertThat(ranking.top("tools", 1_000)).hasSize(capacity)
+                .extracting(RankedItem::itemId).doesNotContain((long) capacity);
+        assertThat(meterRegistry.get("shareit.items.popular.size").gauge().value()).isEqualTo(capacity);
+    }
+
+    @Test
+    void onItemChanged_whenUnavailable_shouldEvict() {
+        approve(1L, "tools", 2);
+        approve(2L, "tools", 1);
+
+        ranking.onItemChanged(new ItemChangedEvent(1L, "Drill", false, 2, 9L, null));
+        ranking.onItemChanged(new ItemChangedEvent(2L, "Saw", true, 1, 9L, null));
+
+        assertThat(ranking.top(null, 10)).extracting(RankedItem::itemId).containsExactly(2L);
+        assertThat(ranking.top("tools", 10)).extracting(RankedItem::itemId).containsExactly(2L);
+    }
+
+    @Test
+    void metrics_shouldReportStalenessAndUnreconciledEvents() {
+        ranking.registerMetrics();
+        approve(1L, "tools", 3);
+
+        assertThat(meterRegistry.get("shareit.items.popular.unreconciled.events").gauge().value()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("shareit.items.popular.staleness").gauge().value()).isNaN();
+
+        dbReturns(List.of());
+        ranking.reconcile();
+
+        assertThat(meterRegistry.get("shareit.items.popular.unreconciled.events").gauge().value()).isZero();
+        assertThat(meterRegistry.get("shareit.items.popular.staleness").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.RequestFeedBroadcaster;
+import ru.practicum.shareit.request.RequestFeedProperties;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestFeedBroadcasterTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    RequestFeedBroadcaster broadcaster;
+    CountDownLatch unblockSends = new CountDownLatch(0);
+
+    @AfterEach
+    void tearDown() {
+        unblockSends.countDown();
+    }
+
+    private RequestFeedBroadcaster broadcaster(int bufferSize, Duration heartbeat) {
+        return new RequestFeedBroadcaster(new ObjectMapper().findAndRegisterModules(),
+                new RequestFeedProperties(bufferSize, heartbeat, Duration.ofMinutes(1)), meterRegistry);
+    }
+
+    private static ItemRequestCreatedEvent created(long requestId, long requestorId) {
+        return new ItemRequestCreatedEvent(requestId, requestorId, "need a drill " + requestId, CREATED);
+    }
+
+    // эмиттер без сервлета: события складываются в очередь, send можно придержать
+    private class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                unblockSends.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+
+    @Test
+    void onRequestCreated_deliversToOthers_butNotToAuthor() throws Exception {
+        broadcaster = broadcaster(8, Duration.ofHours(1));
+        RecordingEmitter reader = new RecordingEmitter();
+        RecordingEmitter author = new RecordingEmitter();
+        broadcaster.subscribe(1L, reader);
+        broadcaster.subscribe(2L, author);
+
+        broadcaster.onRequestCreated(created(100L, 2L));
+
+        String event = reader.events.poll(5, TimeUnit.SECONDS);
+        assertThat(event)
+                .contains("id:100")
+                .contains("event:request")
+                .contains("\"description\":\"need a drill 100\"")
+                .contains("\"items\":[]");
+        assertThat(author.events).isEmpty();
+        assertThat(meterRegistry.get("shareit.requests.feed.events").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void onRequestCreated_whenBufferFull_disconnectsOnlySlowSubscriber() throws Exception {
+        broadcaster = broadcaster(2, Duration.ofHours(1));
+        unblockSends = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter();
+        broadcaster.subscribe(1L, slow);
+
+        // одно событие может висеть в send, ещё два — в очереди; четвёртое уже не помещается
+        for (long id = 1; id <= 4; id++) {
+            broadcaster.onRequestCreated(created(id, 2L));
+        }
+
+        assertThat(broadcaster.subscriberCount()).isZero();
+        assertThat(meterRegistry.get("shareit.requests.feed.overflows").counter().count()).isEqualTo(1.0);
+
+        unblockSends.countDown();
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        RecordingEmitter fresh = new RecordingEmitter();
+        broadcaster.subscribe(1L, fresh);
+        broadcaster.onRequestCreated(created(5L, 2L));
+        assertThat(fresh.events.poll(5, TimeUnit.SECONDS)).contains("id:5");
+    }
+
+    @Test
+    void idleSubscriber_getsHeartbeatComments() throws Exception {
+        broadcaster = broadcaster(8, Duration.ofMillis(10));
+        RecordingEmitter idle = new RecordingEmitter();
+        broadcaster.subscribe(1L, idle);
+
+        assertThat(idle.events.poll(5, TimeUnit.SECONDS)).contains(":ping");
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+    }
+}
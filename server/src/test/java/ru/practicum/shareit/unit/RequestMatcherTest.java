@@ -0,0 +1,94 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.RequestMatcher;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RequestMatcherTest {
+
+    @Mock
+    ItemRequestRepository itemRequestRepository;
+    @Mock
+    ItemRepository itemRepository;
+
+    @InjectMocks
+    RequestMatcher matcher;
+
+    private static User user(long id) {
+        User u = new User();
+        u.setId(id);
+        return u;
+    }
+
+    @Test
+    void load_shouldIndexOpenRequestsAndAvailableItems() {
+        ItemRequest request = new ItemRequest();
+        request.setId(5L);
+        request.setDescription("Нужна дрель");
+        request.setRequestor(user(2L));
+        when(itemRequestRepository.findOpenAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(request));
+        when(itemRequestRepository.findOpenAfter(eq(5L), any(Pageable.class))).thenReturn(List.of());
+        Item item = new Item();
+        item.setId(7L);
+        item.setName("Дрель ударная");
+        item.setOwner(user(1L));
+        when(itemRepository.findTop500ByIsAvailableTrueAndIdGreaterThanOrderByIdAsc(anyLong()))
+                .thenReturn(List.of(item), List.of());
+
+        matcher.load();
+
+        assertThat(matcher.matchRequests("Дрель", null, 1L, 10)).containsExactly(5L);
+        assertThat(matcher.matchItems("Нужна дрель", 2L, 10)).containsExactly(7L);
+        // свои запросы и вещи не предлагаются
+        assertThat(matcher.matchRequests("Дрель", null, 2L, 10)).isEmpty();
+        assertThat(matcher.matchItems("Нужна дрель", 1L, 10)).isEmpty();
+    }
+
+    @Test
+    void events_shouldOpenRequestAndCloseItOnFirstAnsweringItem() {
+        matcher.onRequestCreated(new ItemRequestCreatedEvent(5L, 2L, "Ищу палатку на выходные", LocalDateTime.now()));
+        assertThat(matcher.matchRequests("Палатка", "трёхместная", 1L, 10)).containsExactly(5L);
+
+        matcher.onItemChanged(new ItemChangedEvent(7L, "Палатка", true, 0, 1L, 5L));
+
+        assertThat(matcher.matchRequests("Палатка", null, 1L, 10)).isEmpty();
+        assertThat(matcher.matchItems("Ищу палатку", 2L, 10)).containsExactly(7L);
+
+        matcher.onItemChanged(new ItemChangedEvent(7L, "Палатка", false, 0, 1L, 5L));
+        assertThat(matcher.matchItems("Ищу палатку", 2L, 10)).isEmpty();
+    }
+
+    @Test
+    void onUserChanged_deleted_shouldDropRequestsAndItemsOfThatUser() {
+        matcher.onRequestCreated(new ItemRequestCreatedEvent(5L, 2L, "Ищу палатку на выходные", LocalDateTime.now()));
+        matcher.onRequestCreated(new ItemRequestCreatedEvent(6L, 3L, "Нужна палатка", LocalDateTime.now()));
+        matcher.onItemChanged(new ItemChangedEvent(7L, "Палатка", true, 0, 2L, null));
+
+        matcher.onUserChanged(new UserChangedEvent(2L, true));
+
+        assertThat(matcher.matchRequests("Палатка", null, 1L, 10)).containsExactly(6L);
+        assertThat(matcher.matchItems("Нужна палатка", 3L, 10)).isEmpty();
+    }
+}
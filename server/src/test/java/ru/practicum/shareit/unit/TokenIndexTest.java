@@ -0,0 +1,88 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.util.TokenIndex;
+import ru.practicum.shareit.util.TokenIndex.Match;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenIndexTest {
+
+    @Test
+    void tokens_shouldDropShortWordsAndStripEndings() {
+        assertThat(TokenIndex.tokens("Нужна дрель на день", null))
+                .containsExactlyInAnyOrder("нужн", "дрел", "день");
+        assertThat(TokenIndex.tokens("дрели", "дрелью")).containsExactly("дрел");
+        assertThat(TokenIndex.tokens("Drills & hammers")).containsExactlyInAnyOrder("drill", "hammer");
+    }
+
+    @Test
+    void search_shouldRankRareWordsHigherAndSkipOwnDocuments() {
+        TokenIndex index = new TokenIndex(1000);
+        index.put(1L, 10L, TokenIndex.tokens("нужна дрель"));
+        index.put(2L, 20L, TokenIndex.tokens("нужна лестница"));
+        index.put(3L, 30L, TokenIndex.tokens("нужна палатка"));
+        index.put(4L, 40L, TokenIndex.tokens("ударная дрель"));
+
+        List<Match> matches = index.search(TokenIndex.tokens("Дрель ударная, нужна срочно"), 40L, 10);
+
+        // «нужна» есть почти везде и весит меньше, чем «дрель»; документ 4 — свой
+        assertThat(matches).extracting(Match::id).containsExactly(1L, 3L, 2L);
+        assertThat(matches.get(0).score()).isGreaterThan(matches.get(1).score());
+    }
+
+    @Test
+    void search_shouldLimitCandidatesStartingFromRarestWord() {
+        TokenIndex index = new TokenIndex(2);
+        index.put(1L, 10L, TokenIndex.tokens("нужна палатка"));
+        index.put(2L, 10L, TokenIndex.tokens("нужна лестница"));
+        index.put(3L, 10L, TokenIndex.tokens("нужна дрель"));
+
+        assertThat(index.search(TokenIndex.tokens("нужна дрель"), 0L, 10))
+                .extracting(Match::id)
+                .hasSize(2)
+                .startsWith(3L);
+    }
+
+    @Test
+    void search_ownDocumentsShouldNotTakeCandidateSlots() {
+        TokenIndex index = new TokenIndex(2);
+        index.put(1L, 10L, TokenIndex.tokens("ударная дрель"));
+        index.put(2L, 10L, TokenIndex.tokens("аккумуляторная дрель"));
+        index.put(3L, 20L, TokenIndex.tokens("дрель"));
+
+        // оба документа владельца 10 раньше занимали все места кандидатов
+        assertThat(index.search(TokenIndex.tokens("дрель"), 10L, 10))
+                .extracting(Match::id)
+                .containsExactly(3L);
+    }
+
+    @Test
+    void removeOwner_shouldDropOnlyDocumentsOfThatOwner() {
+        TokenIndex index = new TokenIndex(1000);
+        index.put(1L, 10L, TokenIndex.tokens("дрель"));
+        index.put(2L, 10L, TokenIndex.tokens("пила"));
+        index.put(3L, 20L, TokenIndex.tokens("дрель"));
+
+        index.removeOwner(10L);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search(TokenIndex.tokens("дрель пила"), 0L, 10)).extracting(Match::id).containsExactly(3L);
+    }
+
+    @Test
+    void putAndRemove_shouldReplaceTokensOfDocument() {
+        TokenIndex index = new TokenIndex(1000);
+        index.put(1L, 10L, TokenIndex.tokens("дрель"));
+        index.put(1L, 10L, TokenIndex.tokens("пила"));
+
+        assertThat(index.search(TokenIndex.tokens("дрель"), 0L, 10)).isEmpty();
+        assertThat(index.search(TokenIndex.tokens("пила"), 0L, 10)).extracting(Match::id).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.size()).isZero();
+        assertThat(index.search(TokenIndex.tokens("пила"), 0L, 10)).isEmpty();
+    }
+}
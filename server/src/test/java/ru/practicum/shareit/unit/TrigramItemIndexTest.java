@@ -0,0 +1,101 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.FuzzyItemSearch.FuzzyMatch;
+import ru.practicum.shareit.item.FuzzySearchProperties;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.TrigramItemIndex;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrigramItemIndexTest {
+
+    @Mock
+    ItemRepository itemRepository;
+
+    private TrigramItemIndex index(double threshold, int maxCandidates) {
+        return new TrigramItemIndex(itemRepository, new FuzzySearchProperties("memory", threshold, maxCandidates));
+    }
+
+    @Test
+    void trigrams_shouldPadWordsLikePgTrgm() {
+        assertThat(TrigramItemIndex.trigrams("Cat")).containsExactlyInAnyOrder("  c", " ca", "cat", "at ");
+        assertThat(TrigramItemIndex.trigrams("  ")).isEmpty();
+        assertThat(TrigramItemIndex.similarity(Set.of("a", "b"), Set.of("b", "c"))).isEqualTo(1.0 / 3);
+    }
+
+    @Test
+    void search_whenMisspelled_shouldFindByBestMatchingWord() {
+        TrigramItemIndex index = index(0.2, 1000);
+        index.put(1L, "Cordless drill");
+        index.put(2L, "Дрель ударная");
+        index.put(3L, "Garden rake");
+
+        assertThat(index.search("drel", 10)).extracting(FuzzyMatch::itemId).containsExactly(1L);
+        assertThat(index.search("дрел", 10)).extracting(FuzzyMatch::itemId).containsExactly(2L);
+        assertThat(index.search("rkae", 10)).isEmpty();
+    }
+
+    @Test
+    void search_shouldRankBySimilarityAndApplyThresholdAndLimit() {
+        TrigramItemIndex index = index(0.3, 1000);
+        index.put(1L, "Drill");
+        index.put(2L, "Drills");
+        index.put(3L, "Dress");
+
+        List<FuzzyMatch> matches = index.search("drill", 10);
+
+        assertThat(matches).extracting(FuzzyMatch::itemId).containsExactly(1L, 2L);
+        assertThat(matches.get(0).similarity()).isEqualTo(1.0);
+        assertThat(index.search("drill", 1)).extracting(FuzzyMatch::itemId).containsExactly(1L);
+    }
+
+    @Test
+    void search_shouldScoreNoMoreThanMaxCandidates() {
+        TrigramItemIndex index = index(0.0, 2);
+        for (long id = 1; id <= 10; id++) {
+            index.put(id, "Drill " + id);
+        }
+
+        assertThat(index.search("drill", 10)).hasSize(2);
+    }
+
+    @Test
+    void onItemChanged_shouldReindexRenamedAndDropUnavailable() {
+        TrigramItemIndex index = index(0.3, 1000);
+        index.onItemChanged(new ItemChangedEvent(1L, "Drill", true, 0, 10L, null));
+        index.onItemChanged(new ItemChangedEvent(2L, "Drill", true, 0, 10L, null));
+
+        index.onItemChanged(new ItemChangedEvent(1L, "Saw", true, 0, 10L, null));
+        index.onItemChanged(new ItemChangedEvent(2L, "Drill", false, 0, 10L, null));
+
+        assertThat(index.search("drill", 10)).isEmpty();
+        assertThat(index.search("saw", 10)).extracting(FuzzyMatch::itemId).containsExactly(1L);
+    }
+
+    @Test
+    void load_shouldIndexAvailableItems() {
+        Item item = new Item();
+        item.setId(7L);
+        item.setName("Ladder");
+        when(itemRepository.findTop500ByIsAvailableTrueAndIdGreaterThanOrderByIdAsc(anyLong()))
+                .thenReturn(List.of(item))
+                .thenReturn(List.of());
+
+        TrigramItemIndex index = index(0.3, 1000);
+        index.load();
+
+        assertThat(index.search("ladder", 10)).extracting(FuzzyMatch::itemId).containsExactly(7L);
+    }
+}
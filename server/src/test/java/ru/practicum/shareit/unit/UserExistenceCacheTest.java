@@ -0,0 +1,193 @@
+package ru.practicum.shareit.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.UserChangedEvent;
+import ru.practicum.shareit.user.UserExistenceCache;
+import ru.practicum.shareit.user.UserExistenceProperties;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCacheTest {
+
+    @Mock
+    UserRepository userRepository;
+    @Mock
+    Clock clock;
+
+    UserExistenceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clock.millis()).thenReturn(1_000L);
+        cache = new UserExistenceCache(userRepository,
+                new UserExistenceProperties(100, Duration.ofMinutes(1), 1_000, 0.01, "local"),
+                clock, new SimpleMeterRegistry());
+    }
+
+    private void loadIds(Long... ids) {
+        when(userRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(ids));
+        if (ids.length > 0) {
+            when(userRepository.findIdsAfter(eq(ids[ids.length - 1]), any(Pageable.class))).thenReturn(List.of());
+        }
+        cache.resync();
+    }
+
+    @Test
+    void exists_beforeLoad_shouldAskDatabaseEveryTime() {
+        when(userRepository.existsActiveById(1L)).thenReturn(true);
+
+        assertThat(cache.exists(1L)).isTrue();
+        assertThat(cache.exists(1L)).isTrue();
+
+        verify(userRepository, times(2)).existsActiveById(1L);
+    }
+
+    @Test
+    void exists_unknownIdAfterLoad_shouldBeRejectedByBloomWithoutDatabase() {
+        loadIds(1L, 2L, 3L);
+
+        assertThat(cache.exists(999_999L)).isFalse();
+
+        verify(userRepository, never()).existsActiveById(anyLong());
+    }
+
+    @Test
+    void exists_knownId_shouldHitDatabaseOnceThenCache() {
+        loadIds(1L, 2L);
+        when(userRepository.existsActiveById(2L)).thenReturn(true);
+
+        assertThat(cache.exists(2L)).isTrue();
+        assertThat(cache.exists(2L)).isTrue();
+        assertThat(cache.exists(2L)).isTrue();
+
+        verify(userRepository, times(1)).existsActiveById(2L);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void exists_afterTtl_shouldAskDatabaseAgain() {
+        loadIds(2L);
+        when(userRepository.existsActiveById(2L)).thenReturn(true);
+        cache.exists(2L);
+
+        when(clock.millis()).thenReturn(1_000L + Duration.ofMinutes(1).toMillis());
+        cache.exists(2L);
+
+        verify(userRepository, times(2)).existsActiveById(2L);
+    }
+
+    @Test
+    void createdUser_shouldPassBloomAtOnceAndBeCachedAfterCommit() {
+        loadIds(1L);
+
+        // до коммита: фильтр уже знает id, кэш ещё нет
+        cache.onUserChanged(new UserChangedEvent(50L, false));
+        when(userRepository.existsActiveById(50L)).thenReturn(true);
+        assertThat(cache.exists(50L)).isTrue();
+
+        cache.afterUserChanged(new UserChangedEvent(51L, false));
+        cache.onUserChanged(new UserChangedEvent(51L, false));
+        assertThat(cache.exists(51L)).isTrue();
+
+        verify(userRepository, never()).existsActiveById(51L);
+    }
+
+    @Test
+    void deletedUser_shouldBeEvictedAfterCommit() {
+        loadIds(2L);
+        when(userRepository.existsActiveById(2L)).thenReturn(true, false);
+        cache.exists(2L);
+
+        cache.afterUserChanged(new UserChangedEvent(2L, true));
+
+        assertThat(cache.exists(2L)).isFalse();
+        verify(userRepository, times(2)).existsActiveById(2L);
+    }
+
+    @Test
+    void databaseAnswerReadBeforeDelete_shouldNotBeCached() {
+        loadIds(2L);
+        when(userRepository.existsActiveById(2L)).thenAnswer(inv -> {
+            // удаление закоммитилось, пока шёл запрос
+            cache.afterUserChanged(new UserChangedEvent(2L, true));
+            return true;
+        });
+
+        cache.exists(2L);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void suspend_shouldFallBackToDatabaseUntilResync() {
+        loadIds(1L);
+        cache.suspend();
+        when(userRepository.existsActiveById(999_999L)).thenReturn(false);
+
+        assertThat(cache.exists(999_999L)).isFalse();
+
+        verify(userRepository).existsActiveById(999_999L);
+    }
+
+    @Test
+    void applyRemote_createdOnOtherNode_shouldPassBloom() {
+        loadIds(1L);
+        when(userRepository.existsActiveById(77L)).thenReturn(true);
+
+        cache.applyRemote(77L, false);
+
+        assertThat(cache.exists(77L)).isTrue();
+    }
+
+    @Test
+    void exists_withPgNotify_shouldSkipBloomAndCacheOnlyPositiveAnswers() {
+        cache = new UserExistenceCache(userRepository,
+                new UserExistenceProperties(100, Duration.ofMinutes(1), 1_000, 0.01, "pg-notify"),
+                clock, new SimpleMeterRegistry());
+        cache.resync();
+        // другой узел закоммитил пользователя, уведомления о insert'ах узлы друг другу не шлют
+        when(userRepository.existsActiveById(60L)).thenReturn(true);
+        when(userRepository.existsActiveById(999_999L)).thenReturn(false);
+
+        assertThat(cache.exists(60L)).isTrue();
+        assertThat(cache.exists(60L)).isTrue();
+        assertThat(cache.exists(999_999L)).isFalse();
+        assertThat(cache.exists(999_999L)).isFalse();
+
+        verify(userRepository, never()).findIdsAfter(anyLong(), any(Pageable.class));
+        verify(userRepository, times(1)).existsActiveById(60L);
+        verify(userRepository, times(2)).existsActiveById(999_999L);
+    }
+
+    @Test
+    void exists_insideWriteTransaction_shouldNotTrustBloomNegative() {
+        loadIds(1L);
+        when(userRepository.existsActiveById(42L)).thenReturn(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // пользователь сохранён в этой же транзакции, но insert ещё не сброшен
+            assertThat(cache.exists(42L)).isTrue();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(userRepository).existsActiveById(42L);
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.unit;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserEmailFilter;
+import ru.practicum.shareit.user.UserImportService;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.dto.UserBatchRowDto;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    UserRepository userRepository;
+    @Mock
+    UserEmailFilter userEmailFilter;
+    @Mock
+    TransactionTemplate transactionTemplate;
+    @Mock
+    EntityManager entityManager;
+
+    @InjectMocks
+    UserImportService userImportService;
+
+    private final AtomicLong ids = new AtomicLong(100);
+
+    private static User user(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+
+    private void runCallbacksInline() {
+        doAnswer(inv -> {
+            Consumer<TransactionStatus> callback = inv.getArgument(0);
+            callback.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private void assignIdsOnSave() {
+        when(userRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<User> users = inv.getArgument(0);
+            users.forEach(user -> user.setId(ids.incrementAndGet()));
+            return users;
+        });
+    }
+
+    @Test
+    void importUsers_shouldReportInvalidRowsAndDuplicatesInsideBatch() {
+        runCallbacksInline();
+        assignIdsOnSave();
+
+        List<UserBatchRowDto> result = userImportService.importUsers(List.of(
+                user("Ann", "ann@mail.ru"),
+                user(" ", "blank@mail.ru"),
+                user("Ann again", "ann@mail.ru"),
+                user("Bob", "bob@mail.ru")));
+
+        assertThat(result).extracting(UserBatchRowDto::index, UserBatchRowDto::id, UserBatchRowDto::error)
+                .containsExactly(
+                        tuple(0, 101L, null),
+                        tuple(1, null, "Name cannot be empty"),
+                        tuple(2, null, "Duplicate email in batch, first used in row 0"),
+                        tuple(3, 102L, null));
+        verify(userEmailFilter).put("ann@mail.ru");
+        verify(userEmailFilter).put("bob@mail.ru");
+    }
+
+    @Test
+    void importUsers_shouldCheckOnlyBloomSuspectsWithOneInQuery() {
+        runCallbacksInline();
+        assignIdsOnSave();
+        when(userEmailFilter.mightBeTaken(anyString())).thenAnswer(inv -> !"fresh@mail.ru".equals(inv.getArgument(0)));
+        when(userRepository.findExistingEmails(List.of("taken@mail.ru", "maybe@mail.ru")))
+                .thenReturn(List.of("taken@mail.ru"));
+
+        List<UserBatchRowDto> result = userImportService.importUsers(List.of(
+                user("A", "taken@mail.ru"),
+                user("B", "fresh@mail.ru"),
+                user("C", "maybe@mail.ru")));
+
+        assertThat(result).extracting(UserBatchRowDto::error)
+                .containsExactly("Email is already used", null, null);
+        verify(userRepository, times(1)).findExistingEmails(anyList());
+    }
+
+    @Test
+    void importUsers_whenNoSuspects_shouldSkipEmailQuery() {
+        runCallbacksInline();
+        assignIdsOnSave();
+
+        userImportService.importUsers(List.of(user("A", "a@mail.ru"), user("B", "b@mail.ru")));
+
+        verify(userRepository, never()).findExistingEmails(anyList());
+    }
+
+    @Test
+    void importUsers_shouldWriteInChunks() {
+        runCallbacksInline();
+        assignIdsOnSave();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < UserImportService.CHUNK_SIZE * 2 + 1; i++) {
+            users.add(user("User " + i, "user" + i + "@mail.ru"));
+        }
+
+        List<UserBatchRowDto> result = userImportService.importUsers(users);
+
+        assertThat(result).allMatch(row -> row.error() == null);
+        verify(transactionTemplate, times(3)).executeWithoutResult(any());
+        verify(entityManager, times(3)).flush();
+    }
+
+    @Test
+    void importUsers_whenChunkHitsUniqueIndex_shouldRetryRowByRowAndMarkOnlyOffender() {
+        runCallbacksInline();
+        // email занят параллельно: порция падает целиком, при построчном повторе — только строка 1
+        when(userRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<User> users = inv.getArgument(0);
+            if (users.stream().anyMatch(user -> user.getEmail().equals("race@mail.ru"))) {
+                throw new DataIntegrityViolationException("duplicate",
+                        new SQLException("duplicate key", "23505"));
+            }
+            users.forEach(user -> user.setId(ids.incrementAndGet()));
+            return users;
+        });
+
+        List<UserBatchRowDto> result = userImportService.importUsers(List.of(
+                user("A", "a@mail.ru"),
+                user("Race", "race@mail.ru"),
+                user("C", "c@mail.ru")));
+
+        assertThat(result).extracting(UserBatchRowDto::error)
+                .containsExactly(null, "Email is already used", null);
+        assertThat(result.get(0).id()).isNotNull();
+        assertThat(result.get(2).id()).isNotNull();
+    }
+}
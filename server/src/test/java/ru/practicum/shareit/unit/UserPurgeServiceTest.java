@@ -0,0 +1,99 @@
+package ru.practicum.shareit.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.user.UserPurgeProperties;
+import ru.practicum.shareit.user.UserPurgeService;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPurgeServiceTest {
+
+    @Mock
+    UserRepository userRepository;
+    @Mock
+    JdbcTemplate jdbcTemplate;
+    @Mock
+    TransactionTemplate transactionTemplate;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    UserPurgeService purgeService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        purgeService = new UserPurgeService(userRepository, jdbcTemplate, transactionTemplate, eventPublisher,
+                new UserPurgeProperties(2, 10), meterRegistry);
+    }
+
+    @Test
+    void purge_shouldRepeatEachStepUntilBatchIsNotFull_andDeleteUserLast() {
+        // первый шаг (комментарии автора): полная порция, затем неполная
+        when(jdbcTemplate.update(anyString(), eq(7L), eq(2))).thenReturn(2, 1, 0);
+        when(jdbcTemplate.query(startsWith("select id, name from items"), any(RowMapper.class), eq(7L), eq(2)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.update(startsWith("delete from users"), eq(7L))).thenReturn(1);
+
+        purgeService.purge(7L);
+
+        // 6 шагов: первый — 2 порции, остальные — по одной
+        verify(jdbcTemplate, times(7)).update(anyString(), eq(7L), eq(2));
+        verify(jdbcTemplate).update(startsWith("delete from users"), eq(7L));
+        assertThat(meterRegistry.get("shareit.users.purge.rows").tag("table", "comments").counter().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get("shareit.users.purge.users").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void purge_shouldDeleteOwnItemsAndPublishThemAsUnavailable() {
+        when(jdbcTemplate.update(anyString(), eq(7L), eq(2))).thenReturn(0);
+        when(jdbcTemplate.query(startsWith("select id, name from items"), any(RowMapper.class), eq(7L), eq(2)))
+                .thenReturn(List.of(new ItemChangedEvent(1L, "Drill", false, 0, 7L, null)));
+
+        purgeService.purge(7L);
+
+        verify(jdbcTemplate).batchUpdate(eq("delete from items where id = ?"), anyList());
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(1L, "Drill", false, 0, 7L, null));
+    }
+
+    @Test
+    void purgePending_whenUserFails_shouldCountFailureAndContinueWithNext() {
+        when(userRepository.findDeletedIds(any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(jdbcTemplate.update(anyString(), eq(1L), eq(2)))
+                .thenThrow(new DataIntegrityViolationException("fk"));
+        when(jdbcTemplate.update(anyString(), eq(2L), eq(2))).thenReturn(0);
+        when(jdbcTemplate.update(startsWith("delete from users"), eq(2L))).thenReturn(1);
+
+        purgeService.purgePending();
+
+        assertThat(meterRegistry.get("shareit.users.purge.failures").counter().count()).isEqualTo(1);
+        verify(jdbcTemplate).update(startsWith("delete from users"), eq(2L));
+        verify(jdbcTemplate, never()).update(startsWith("delete from users"), eq(1L));
+    }
+}
@@ -5,14 +5,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserChangedEvent;
+import ru.practicum.shareit.user.UserEmailFilter;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserService;
 
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -26,24 +40,30 @@ class UserServiceTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserEmailFilter userEmailFilter;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ItemRepository itemRepository;
+    @Spy
+    private Clock clock = Clock.fixed(Instant.parse("2030-01-10T10:00:00Z"), ZoneOffset.UTC);
 
     @InjectMocks
     private UserService userService;
 
     @Test
-    void createUser_whenEmailFree_shouldSaveWithNullId() {
+    void createUser_whenBloomSaysFree_shouldInsertWithoutPrecheck() {
         User input = new User();
         input.setId(999L);
         input.setName("Ivan");
         input.setEmail("ivan@mail.ru");
 
-        when(userRepository.existsByEmail("ivan@mail.ru")).thenReturn(false);
-
         User saved = new User();
         saved.setId(1L);
         saved.setName("Ivan");
         saved.setEmail("ivan@mail.ru");
-        when(userRepository.save(any(User.class))).thenReturn(saved);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(saved);
 
         User result = userService.createUser(input);
 
@@ -51,14 +71,14 @@ class UserServiceTest {
         assertThat(result.getEmail()).isEqualTo("ivan@mail.ru");
 
         ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(captor.capture());
+        verify(userRepository).saveAndFlush(captor.capture());
         User toSave = captor.getValue();
 
         assertThat(toSave.getId()).isNull();
         assertThat(toSave.getName()).isEqualTo("Ivan");
         assertThat(toSave.getEmail()).isEqualTo("ivan@mail.ru");
 
-        verify(userRepository).existsByEmail("ivan@mail.ru");
+        verify(userEmailFilter).put("ivan@mail.ru");
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -68,6 +88,7 @@ class UserServiceTest {
         input.setName("Ivan");
         input.setEmail("ivan@mail.ru");
 
+        when(userEmailFilter.mightBeTaken("ivan@mail.ru")).thenReturn(true);
         when(userRepository.existsByEmail("ivan@mail.ru")).thenReturn(true);
 
         assertThatThrownBy(() -> userService.createUser(input))
@@ -75,13 +96,62 @@ class UserServiceTest {
                 .hasMessageContaining("Email is already used");
 
         verify(userRepository).existsByEmail("ivan@mail.ru");
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
         verifyNoMoreInteractions(userRepository);
     }
 
+    @Test
+    void createUser_whenBloomFalsePositive_shouldPrecheckAndInsert() {
+        User input = new User();
+        input.setName("Ivan");
+        input.setEmail("ivan@mail.ru");
+
+        when(userEmailFilter.mightBeTaken("ivan@mail.ru")).thenReturn(true);
+        when(userRepository.existsByEmail("ivan@mail.ru")).thenReturn(false);
+        when(userRepository.saveAndFlush(input)).thenReturn(input);
+
+        assertThat(userService.createUser(input)).isSameAs(input);
+
+        verify(userRepository).existsByEmail("ivan@mail.ru");
+        verify(userRepository).saveAndFlush(input);
+    }
+
+    @Test
+    void createUser_whenUniqueIndexRejectsInsert_shouldThrowConflictAndRememberEmail() {
+        User input = new User();
+        input.setName("Ivan");
+        input.setEmail("ivan@mail.ru");
+
+        // email заняли на другом узле или параллельной транзакцией — фильтр о нём не знает
+        when(userRepository.saveAndFlush(input)).thenThrow(new DataIntegrityViolationException("duplicate",
+                new SQLException("duplicate key", "23505")));
+
+        assertThatThrownBy(() -> userService.createUser(input))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Email is already used");
+
+        verify(userRepository, never()).existsByEmail(any());
+        verify(userEmailFilter).put("ivan@mail.ru");
+    }
+
+    @Test
+    void createUser_whenOtherIntegrityViolation_shouldRethrow() {
+        User input = new User();
+        input.setName("Ivan");
+        input.setEmail("ivan@mail.ru");
+
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException("null",
+                new SQLException("null value", "23502"));
+        when(userRepository.saveAndFlush(input)).thenThrow(notNull);
+
+        assertThatThrownBy(() -> userService.createUser(input)).isSameAs(notNull);
+
+        verify(userEmailFilter, never()).put(any());
+    }
+
     @Test
     void updateUser_whenUserNotFound_shouldThrowNotFound() {
-        when(userRepository.findById(10L)).thenReturn(Optional.empty());
+        when(userRepository.findActiveById(10L)).thenReturn(Optional.empty());
 
         User patch = new User();
         patch.setName("New");
@@ -90,8 +160,8 @@ class UserServiceTest {
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("User not found");
 
-        verify(userRepository).findById(10L);
-        verify(userRepository, never()).save(any());
+        verify(userRepository).findActiveById(10L);
+        verify(userRepository, never()).saveAndFlush(any());
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -102,7 +172,7 @@ class UserServiceTest {
         existing.setName("Old");
         existing.setEmail("old@mail.ru");
 
-        when(userRepository.findById(10L)).thenReturn(Optional.of(existing));
+        when(userRepository.findActiveById(10L)).thenReturn(Optional.of(existing));
 
         User patch = new User();
         patch.setName("   "); // blank
@@ -111,8 +181,8 @@ class UserServiceTest {
                 .isInstanceOf(ValidationException.class)
                 .hasMessageContaining("name cannot be empty");
 
-        verify(userRepository).findById(10L);
-        verify(userRepository, never()).save(any());
+        verify(userRepository).findActiveById(10L);
+        verify(userRepository, never()).saveAndFlush(any());
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -123,7 +193,7 @@ class UserServiceTest {
         existing.setName("Old");
         existing.setEmail("old@mail.ru");
 
-        when(userRepository.findById(10L)).thenReturn(Optional.of(existing));
+        when(userRepository.findActiveById(10L)).thenReturn(Optional.of(existing));
 
         User patch = new User();
         patch.setEmail(" "); // blank
@@ -132,8 +202,8 @@ class UserServiceTest {
                 .isInstanceOf(ValidationException.class)
                 .hasMessageContaining("email cannot be empty");
 
-        verify(userRepository).findById(10L);
-        verify(userRepository, never()).save(any());
+        verify(userRepository).findActiveById(10L);
+        verify(userRepository, never()).saveAndFlush(any());
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -144,7 +214,8 @@ class UserServiceTest {
         existing.setName("Old");
         existing.setEmail("old@mail.ru");
 
-        when(userRepository.findById(10L)).thenReturn(Optional.of(existing));
+        when(userRepository.findActiveById(10L)).thenReturn(Optional.of(existing));
+        when(userEmailFilter.mightBeTaken("new@mail.ru")).thenReturn(true);
         when(userRepository.existsByEmailAndIdNot("new@mail.ru", 10L)).thenReturn(true);
 
         User patch = new User();
@@ -154,9 +225,9 @@ class UserServiceTest {
                 .isInstanceOf(ConflictException.class)
                 .hasMessageContaining("Email is already used");
 
-        verify(userRepository).findById(10L);
+        verify(userRepository).findActiveById(10L);
         verify(userRepository).existsByEmailAndIdNot("new@mail.ru", 10L);
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -167,7 +238,8 @@ class UserServiceTest {
         existing.setName("Old");
         existing.setEmail("old@mail.ru");
 
-        when(userRepository.findById(10L)).thenReturn(Optional.of(existing));
+        when(userRepository.findActiveById(10L)).thenReturn(Optional.of(existing));
+        when(userEmailFilter.mightBeTaken("new@mail.ru")).thenReturn(true);
         when(userRepository.existsByEmailAndIdNot("new@mail.ru", 10L)).thenReturn(false);
 
         User patch = new User();
@@ -178,7 +250,7 @@ class UserServiceTest {
         saved.setId(10L);
         saved.setName("NewName");
         saved.setEmail("new@mail.ru");
-        when(userRepository.save(any(User.class))).thenReturn(saved);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(saved);
 
         User result = userService.updateUser(10L, patch);
 
@@ -187,41 +259,66 @@ class UserServiceTest {
         assertThat(result.getEmail()).isEqualTo("new@mail.ru");
 
         ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(captor.capture());
+        verify(userRepository).saveAndFlush(captor.capture());
         User toSave = captor.getValue();
 
         assertThat(toSave.getId()).isEqualTo(10L);
         assertThat(toSave.getName()).isEqualTo("NewName");
         assertThat(toSave.getEmail()).isEqualTo("new@mail.ru");
 
-        verify(userRepository).findById(10L);
+        verify(userRepository).findActiveById(10L);
         verify(userRepository).existsByEmailAndIdNot("new@mail.ru", 10L);
         verifyNoMoreInteractions(userRepository);
     }
 
     @Test
-    void deleteUser_whenExists_shouldDeleteById() {
+    void deleteUser_whenExists_shouldMarkDeletedAndFreeEmail() {
         User existing = new User();
         existing.setId(10L);
+        existing.setEmail("old@mail.ru");
 
-        when(userRepository.findById(10L)).thenReturn(Optional.of(existing));
+        when(userRepository.findActiveById(10L)).thenReturn(Optional.of(existing));
 
         userService.deleteUser(10L);
 
-        verify(userRepository).findById(10L);
-        verify(userRepository).deleteById(10L);
+        assertThat(existing.getDeletedAt()).isEqualTo(LocalDateTime.of(2030, 1, 10, 10, 0));
+        assertThat(existing.getEmail()).isEqualTo("deleted-10@shareit.invalid");
+        verify(eventPublisher).publishEvent(new UserChangedEvent(10L, true));
+        verify(userRepository).findActiveById(10L);
+        verify(userRepository, never()).deleteById(anyLong());
         verifyNoMoreInteractions(userRepository);
     }
 
+    @Test
+    void deleteUser_shouldMakeOwnedItemsUnavailableAndPublishChanges() {
+        User existing = new User();
+        existing.setId(10L);
+        existing.setEmail("old@mail.ru");
+        Item drill = new Item();
+        drill.setId(5L);
+        drill.setName("Drill");
+        drill.setIsAvailable(true);
+        drill.setUseCount(3L);
+
+        when(userRepository.findActiveById(10L)).thenReturn(Optional.of(existing));
+        when(itemRepository.findAllByOwnerIdAndIsAvailableTrue(10L)).thenReturn(List.of(drill));
+
+        userService.deleteUser(10L);
+
+        assertThat(drill.getIsAvailable()).isFalse();
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(5L, "Drill", false, 3L, 10L, null));
+        verify(eventPublisher).publishEvent(new UserChangedEvent(10L, true));
+    }
+
     @Test
     void deleteUser_whenNotFound_shouldThrowNotFound() {
-        when(userRepository.findById(10L)).thenReturn(Optional.empty());
+        when(userRepository.findActiveById(10L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.deleteUser(10L))
                 .isInstanceOf(NotFoundException.class);
 
-        verify(userRepository).findById(10L);
-        verify(userRepository, never()).deleteById(anyLong());
+        verify(userRepository).findActiveById(10L);
+        verifyNoInteractions(eventPublisher);
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -232,25 +329,38 @@ class UserServiceTest {
         existing.setName("Ivan");
         existing.setEmail("ivan@mail.ru");
 
-        when(userRepository.findById(10L)).thenReturn(Optional.of(existing));
+        when(userRepository.findActiveById(10L)).thenReturn(Optional.of(existing));
 
         User result = userService.findById(10L);
 
         assertThat(result.getId()).isEqualTo(10L);
         assertThat(result.getName()).isEqualTo("Ivan");
 
-        verify(userRepository).findById(10L);
+        verify(userRepository).findActiveById(10L);
         verifyNoMoreInteractions(userRepository);
     }
 
+    @Test
+    void findAllById_shouldKeepRequestOrderAndSkipMissingAndDuplicates() {
+        User first = new User();
+        first.setId(1L);
+        User second = new User();
+        second.setId(2L);
+        when(userRepository.findAllActiveById(List.of(2L, 3L, 1L, 2L))).thenReturn(List.of(first, second));
+
+        List<User> result = userService.findAllById(List.of(2L, 3L, 1L, 2L));
+
+        assertThat(result).extracting(User::getId).containsExactly(2L, 1L);
+    }
+
     @Test
     void findById_whenNotFound_shouldThrowNotFound() {
-        when(userRepository.findById(10L)).thenReturn(Optional.empty());
+        when(userRepository.findActiveById(10L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.findById(10L))
                 .isInstanceOf(NotFoundException.class);
 
-        verify(userRepository).findById(10L);
+        verify(userRepository).findActiveById(10L);
         verifyNoMoreInteractions(userRepository);
     }
 }
@@ -2,6 +2,8 @@ package ru.practicum.shareit;
 
 public final class HeaderNames {
     public static final String USER_ID = "X-Sharer-User-Id";
+    public static final String HAS_MORE = "X-Has-More";
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
 
     private HeaderNames() {
     }
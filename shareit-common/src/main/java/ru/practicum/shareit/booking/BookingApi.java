@@ -1,8 +1,14 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.HeaderNames;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResponseDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.BookingState;
@@ -17,6 +23,12 @@ public interface BookingApi {
             @RequestBody BookingRequestDto bookingRequestDto
     );
 
+    @RequestMapping(method = RequestMethod.PATCH, value = "/bookings/batch")
+    ResponseEntity<BookingBatchResponseDto> approveOrRejectBatch(
+            @RequestHeader(HeaderNames.USER_ID) long ownerId,
+            @RequestBody @Size(min = 1, max = 500) List<@NotNull @Valid BookingDecisionDto> decisions
+    );
+
     @RequestMapping(method = RequestMethod.PATCH, value = "/bookings/{bookingId}")
     ResponseEntity<BookingResponseDto> approveOrReject(
             @PathVariable("bookingId") long bookingId,
@@ -30,6 +42,12 @@ public interface BookingApi {
             @PathVariable("bookingId") long bookingId
     );
 
+    @RequestMapping(method = RequestMethod.GET, value = "/bookings", params = "ids")
+    ResponseEntity<MultiGetResponseDto<BookingResponseDto>> getBookingsByIds(
+            @RequestHeader(HeaderNames.USER_ID) long userId,
+            @RequestParam("ids") @Size(min = 1, max = 100) List<Long> ids
+    );
+
     @RequestMapping(method = RequestMethod.GET, value = "/bookings")
     ResponseEntity<List<BookingResponseDto>> getUserBookings(
             @RequestHeader(HeaderNames.USER_ID) long userId,
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.util.List;
+
+public record BookingBatchResponseDto(
+        int updated,
+        int failed,
+        List<BookingDecisionResultDto> results
+) {
+}
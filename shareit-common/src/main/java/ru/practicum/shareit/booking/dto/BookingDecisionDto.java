@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record BookingDecisionDto(
+        @NotNull
+        @Positive
+        Long bookingId,
+
+        @NotNull
+        Boolean approved
+) {
+}
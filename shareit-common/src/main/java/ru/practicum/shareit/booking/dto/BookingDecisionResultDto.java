@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+// status — итоговый статус брони; при ошибке это текущий статус (null, если брони нет), а error заполнено
+public record BookingDecisionResultDto(
+        Long bookingId,
+        Status status,
+        String error
+) {
+}
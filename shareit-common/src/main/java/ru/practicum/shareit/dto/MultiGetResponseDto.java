@@ -0,0 +1,22 @@
+package ru.practicum.shareit.dto;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// found — в порядке запроса без повторов; missing — id, которых нет или которые недоступны пользователю
+public record MultiGetResponseDto<T>(
+        List<T> found,
+        List<Long> missing
+) {
+
+    public static <T> MultiGetResponseDto<T> of(List<Long> ids, List<T> found, Function<T, Long> idOf) {
+        Set<Long> foundIds = found.stream().map(idOf).collect(Collectors.toSet());
+        List<Long> missing = ids.stream()
+                .distinct()
+                .filter(id -> !foundIds.contains(id))
+                .toList();
+        return new MultiGetResponseDto<>(found, missing);
+    }
+}
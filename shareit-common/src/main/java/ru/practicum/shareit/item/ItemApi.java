@@ -1,12 +1,20 @@
 package ru.practicum.shareit.item;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.HeaderNames;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
+import ru.practicum.shareit.item.dto.ItemBatchResponseDto;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchResponseDto;
 import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
 
@@ -18,6 +26,12 @@ public interface ItemApi {
             @RequestBody ItemDto item
     );
 
+    @RequestMapping(method = RequestMethod.POST, value = "/items/batch")
+    ResponseEntity<ItemBatchResponseDto> createItemsBatch(
+            @RequestHeader(HeaderNames.USER_ID) Long ownerId,
+            @RequestBody @Size(min = 1, max = 5000) List<ItemDto> items
+    );
+
     @RequestMapping(method = RequestMethod.POST, value = "/items/{itemId}/comment")
     ResponseEntity<CommentResponseDto> addComment(
             @PathVariable("itemId") Long itemId,
@@ -41,7 +55,62 @@ public interface ItemApi {
     @RequestMapping(method = RequestMethod.GET, value = "/items/search")
     ResponseEntity<List<ItemDto>> searchItems(
             @RequestHeader(HeaderNames.USER_ID) Long userId,
-            @RequestParam("text") String text
+            @RequestParam("text") String text,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(name = "size", defaultValue = "20") @Positive @Max(100) int size
+    );
+
+    @RequestMapping(method = RequestMethod.GET, value = "/items/search/faceted")
+    ResponseEntity<ItemSearchResponseDto> searchItemsFaceted(
+            @RequestHeader(HeaderNames.USER_ID) Long userId,
+            @RequestParam("text") String text,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(name = "size", defaultValue = "20") @Positive @Max(100) int size
+    );
+
+    @RequestMapping(method = RequestMethod.GET, value = "/items/search/fuzzy")
+    ResponseEntity<List<ItemDto>> searchItemsFuzzy(
+            @RequestHeader(HeaderNames.USER_ID) Long userId,
+            @RequestParam("text") String text,
+            @RequestParam(name = "limit", defaultValue = "20") @Positive @Max(100) int limit
+    );
+
+    @RequestMapping(method = RequestMethod.GET, value = "/items/suggest")
+    ResponseEntity<List<String>> suggest(
+            @RequestHeader(HeaderNames.USER_ID) Long userId,
+            @RequestParam("prefix") String prefix,
+            @RequestParam(name = "limit", defaultValue = "10") @Positive @Max(20) int limit
+    );
+
+    @RequestMapping(method = RequestMethod.GET, value = "/items/{itemId}/matching-requests")
+    ResponseEntity<List<ItemRequestDto>> getMatchingRequests(
+            @RequestHeader(HeaderNames.USER_ID) Long userId,
+            @PathVariable("itemId") Long itemId,
+            @RequestParam(name = "limit", defaultValue = "10") @Positive @Max(50) int limit
+    );
+
+    @RequestMapping(method = RequestMethod.GET, value = "/items/most-booked")
+    ResponseEntity<List<ItemDto>> getMostBooked(
+            @RequestHeader(HeaderNames.USER_ID) Long userId,
+            @RequestParam(name = "limit", defaultValue = "10") @Positive @Max(100) int limit
+    );
+
+    @RequestMapping(method = RequestMethod.GET, value = "/items/popular")
+    ResponseEntity<List<ItemDto>> getPopular(
+            @RequestHeader(HeaderNames.USER_ID) Long userId,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "limit", defaultValue = "10") @Positive @Max(100) int limit
+    );
+
+    // лента комментариев вещи, новые первыми; X-Has-More и X-Next-Cursor — как у /requests/all
+    @RequestMapping(method = RequestMethod.GET, value = "/items/{itemId}/comments")
+    ResponseEntity<List<CommentResponseDto>> getComments(
+            @RequestHeader(HeaderNames.USER_ID) Long userId,
+            @PathVariable("itemId") Long itemId,
+            @RequestParam(name = "size", defaultValue = "20") @Positive @Max(100) int size,
+            @RequestParam(name = "after", required = false) String after
     );
 
     @RequestMapping(method = RequestMethod.GET, value = "/items/{id}")
@@ -50,6 +119,12 @@ public interface ItemApi {
             @PathVariable("id") Long itemId
     );
 
+    @RequestMapping(method = RequestMethod.GET, value = "/items", params = "ids")
+    ResponseEntity<MultiGetResponseDto<ItemWithCommentsDto>> getItemsByIds(
+            @RequestHeader(HeaderNames.USER_ID) Long userId,
+            @RequestParam("ids") @Size(min = 1, max = 100) List<Long> ids
+    );
+
     @RequestMapping(method = RequestMethod.GET, value = "/items")
     ResponseEntity<List<ItemWithCommentsDto>> getAllItemsFromUser(
             @RequestHeader(HeaderNames.USER_ID) Long ownerId
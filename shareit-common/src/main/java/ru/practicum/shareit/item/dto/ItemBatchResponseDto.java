@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.List;
+
+public record ItemBatchResponseDto(
+        int created,
+        int failed,
+        List<ItemBatchRowDto> rows
+) {
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+// index — позиция строки во входном массиве; заполнено либо id, либо error
+public record ItemBatchRowDto(
+        int index,
+        Long id,
+        String error
+) {
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.List;
+
+public record ItemSearchResponseDto(
+        List<ItemDto> items,
+        List<CategoryFacetDto> facets,
+        Boolean hasMore,
+        // счётчики facets — нижняя граница: совпадений больше, чем сервер агрегирует за один запрос
+        Boolean facetsCapped
+) {
+}
@@ -17,6 +17,8 @@ public record ItemWithCommentsDto(
         BookingShortDto lastBooking,
         BookingShortDto nextBooking,
 
-        List<CommentResponseDto> comments
+        // только последние комментарии, остальные — GET /items/{id}/comments
+        List<CommentResponseDto> comments,
+        Long commentsCount
 ) {
 }
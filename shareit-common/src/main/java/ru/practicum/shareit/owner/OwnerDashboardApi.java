@@ -0,0 +1,20 @@
+package ru.practicum.shareit.owner;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.shareit.HeaderNames;
+import ru.practicum.shareit.owner.dto.OwnerDashboardDto;
+
+public interface OwnerDashboardApi {
+
+    @RequestMapping(method = RequestMethod.GET, value = "/owner/dashboard")
+    ResponseEntity<OwnerDashboardDto> getDashboard(
+            @RequestHeader(HeaderNames.USER_ID) Long userId,
+            @RequestParam(name = "requestsSize", defaultValue = "10") @Positive @Max(100) int requestsSize
+    );
+}
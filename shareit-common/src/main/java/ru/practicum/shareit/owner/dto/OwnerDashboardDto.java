@@ -0,0 +1,18 @@
+package ru.practicum.shareit.owner.dto;
+
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+// то же, что /items, /bookings/owner?state=WAITING, /bookings/owner?state=CURRENT и первая страница
+// /requests/all; requestsNextCursor — значение after для следующей страницы ленты, null если её нет
+public record OwnerDashboardDto(
+        List<ItemWithCommentsDto> items,
+        List<BookingResponseDto> waitingBookings,
+        List<BookingResponseDto> currentBookings,
+        List<ItemRequestDto> requests,
+        String requestsNextCursor
+) {
+}
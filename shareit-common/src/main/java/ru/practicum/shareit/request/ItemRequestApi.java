@@ -1,10 +1,12 @@
 package ru.practicum.shareit.request;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.HeaderNames;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -29,11 +31,20 @@ public interface ItemRequestApi {
             @RequestHeader(HeaderNames.USER_ID) Long userId
     );
 
+    @RequestMapping(method = RequestMethod.GET, value = "/requests/{requestId}/matching-items")
+    ResponseEntity<List<ItemShortDto>> getMatchingItems(
+            @RequestHeader(HeaderNames.USER_ID) Long userId,
+            @PathVariable("requestId") Long requestId,
+            @RequestParam(name = "limit", defaultValue = "10") @Positive @Max(50) int limit
+    );
+
+    // after — курсор из заголовка X-Next-Cursor предыдущей страницы; с ним from не используется
     @RequestMapping(method = RequestMethod.GET, value = "/requests/all")
     ResponseEntity<List<ItemRequestDto>> getAllOther(
             @RequestHeader(HeaderNames.USER_ID) Long userId,
             @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(name = "size", defaultValue = "10") @Positive int size
+            @RequestParam(name = "size", defaultValue = "10") @Positive @Max(100) int size,
+            @RequestParam(name = "after", required = false) String after
     );
 
 }
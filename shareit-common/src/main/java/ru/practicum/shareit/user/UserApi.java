@@ -1,17 +1,28 @@
 package ru.practicum.shareit.user;
 
+import jakarta.validation.constraints.Size;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.shareit.dto.MultiGetResponseDto;
+import ru.practicum.shareit.user.dto.UserBatchResponseDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+
 public interface UserApi {
 
     @RequestMapping(method = RequestMethod.POST, value = "/users")
     ResponseEntity<UserDto> createUser(@RequestBody UserDto user);
 
+    @RequestMapping(method = RequestMethod.POST, value = "/users/batch")
+    ResponseEntity<UserBatchResponseDto> createUsersBatch(
+            @RequestBody @Size(min = 1, max = 5000) List<UserDto> users
+    );
+
     @RequestMapping(method = RequestMethod.PATCH, value = "/users/{id}")
     ResponseEntity<UserDto> update(@PathVariable("id") Long id, @RequestBody UserDto user);
 
@@ -20,4 +31,9 @@ public interface UserApi {
 
     @RequestMapping(method = RequestMethod.GET, value = "/users/{id}")
     ResponseEntity<UserDto> getUsers(@PathVariable("id") Long id);
+
+    @RequestMapping(method = RequestMethod.GET, value = "/users", params = "ids")
+    ResponseEntity<MultiGetResponseDto<UserDto>> getUsersByIds(
+            @RequestParam("ids") @Size(min = 1, max = 100) List<Long> ids
+    );
 }
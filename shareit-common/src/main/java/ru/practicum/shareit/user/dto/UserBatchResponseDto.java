@@ -0,0 +1,10 @@
+package ru.practicum.shareit.user.dto;
+
+import java.util.List;
+
+public record UserBatchResponseDto(
+        int created,
+        int failed,
+        List<UserBatchRowDto> rows
+) {
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.user.dto;
+
+// index — позиция строки во входном массиве; заполнено либо id, либо error
+public record UserBatchRowDto(
+        int index,
+        Long id,
+        String error
+) {
+}
@@ -110,7 +110,8 @@ class ItemDtoJsonTest {
                 true,
                 last,
                 next,
-                comments
+                comments,
+                12L
         );
 
         var json = itemWithCommentsJson.write(dto);
@@ -118,6 +119,7 @@ class ItemDtoJsonTest {
         assertThat(json).hasJsonPathValue("$.available");
         assertThat(json).extractingJsonPathBooleanValue("$.available").isTrue();
         assertThat(json).doesNotHaveJsonPath("$.isAvailable");
+        assertThat(json).extractingJsonPathNumberValue("$.commentsCount").isEqualTo(12);
 
         var back = itemWithCommentsJson.parse(json.getJson()).getObject();
         assertThat(back).isEqualTo(dto);